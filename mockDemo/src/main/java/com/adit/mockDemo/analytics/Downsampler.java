@@ -0,0 +1,116 @@
+package com.adit.mockDemo.analytics;
+
+import com.adit.mockDemo.dto.ChaosTimeSeriesResponse.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reduces a time series to at most {@code maxPoints} points.
+ *
+ * avg  — merges runs of {@code factor} adjacent buckets into one wider
+ *        bucket: counts are summed, delay is injected-weighted, and the
+ *        min/max of the source totals are kept so spikes stay visible.
+ *        Every output point spans the same width, so counts stay comparable.
+ *
+ * lttb — Largest-Triangle-Three-Buckets (Steinarsson 2013) on the total
+ *        series: keeps the original buckets whose shape matters most. Points
+ *        are untouched source buckets, so there are gaps between them.
+ */
+public final class Downsampler {
+
+    private Downsampler() {}
+
+    /** Number of source buckets merged per output point by {@link #average}. */
+    public static int factor(int size, int maxPoints) {
+        return size <= maxPoints ? 1 : (size + maxPoints - 1) / maxPoints;
+    }
+
+    public static List<Point> average(List<Point> points, int maxPoints) {
+        int factor = factor(points.size(), maxPoints);
+        if (factor == 1) return points;
+
+        List<Point> out = new ArrayList<>((points.size() + factor - 1) / factor);
+        for (int start = 0; start < points.size(); start += factor) {
+            List<Point> run = points.subList(start, Math.min(start + factor, points.size()));
+
+            long total = 0, injected = 0, skipped = 0, maxDelay = 0;
+            long minTotal = Long.MAX_VALUE, maxTotal = 0;
+            double delaySum = 0;
+            for (Point p : run) {
+                total    += p.getTotal();
+                injected += p.getInjected();
+                skipped  += p.getSkipped();
+                delaySum += p.getAvgDelayMs() * p.getInjected();
+                maxDelay  = Math.max(maxDelay, p.getMaxDelayMs());
+                minTotal  = Math.min(minTotal, p.getTotal());
+                maxTotal  = Math.max(maxTotal, p.getTotal());
+            }
+
+            out.add(Point.builder()
+                    .bucketStart(run.get(0).getBucketStart())
+                    .total(total)
+                    .injected(injected)
+                    .skipped(skipped)
+                    .avgDelayMs(injected > 0 ? delaySum / injected : 0.0)
+                    .maxDelayMs(maxDelay)
+                    .minTotal(minTotal)
+                    .maxTotal(maxTotal)
+                    .build());
+        }
+        return out;
+    }
+
+    public static List<Point> lttb(List<Point> points, int maxPoints) {
+        int n = points.size();
+        if (maxPoints >= n || maxPoints < 3) return points;
+
+        List<Point> out = new ArrayList<>(maxPoints);
+        out.add(points.get(0));
+
+        // Buckets between the fixed first and last points
+        double every = (double) (n - 2) / (maxPoints - 2);
+        int    a     = 0;
+
+        for (int i = 0; i < maxPoints - 2; i++) {
+            // Average of the next bucket — the third triangle vertex
+            int    avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int    avgEnd   = Math.min((int) Math.floor((i + 2) * every) + 1, n);
+            double avgX = 0, avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x(points.get(j));
+                avgY += points.get(j).getTotal();
+            }
+            int avgLen = Math.max(avgEnd - avgStart, 1);
+            avgX /= avgLen;
+            avgY /= avgLen;
+
+            // Pick the point in this bucket with the largest triangle against a and the average
+            int    rangeStart = (int) Math.floor(i * every) + 1;
+            int    rangeEnd   = (int) Math.floor((i + 1) * every) + 1;
+            double ax = x(points.get(a));
+            double ay = points.get(a).getTotal();
+
+            double maxArea = -1;
+            int    next    = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (points.get(j).getTotal() - ay)
+                        - (ax - x(points.get(j))) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next    = j;
+                }
+            }
+
+            out.add(points.get(next));
+            a = next;
+        }
+
+        out.add(points.get(n - 1));
+        return out;
+    }
+
+    private static double x(Point p) {
+        return p.getBucketStart().getEpochSecond();
+    }
+}
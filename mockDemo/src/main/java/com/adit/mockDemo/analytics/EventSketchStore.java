@@ -0,0 +1,210 @@
+package com.adit.mockDemo.analytics;
+
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory, per-org summaries of injected chaos events, so the analytics
+ * endpoint can answer "top targets" and "type breakdown" without a GROUP BY
+ * over the whole window.
+ *
+ * Every injected event updates one bucket at each resolution (5 minutes, 1
+ * hour, 1 day). A query merges the buckets of the finest resolution whose
+ * retention covers the window:
+ *
+ *   1h  window → 5-minute buckets, over-covers by at most 5 minutes
+ *   24h window → hourly buckets,   over-covers by at most 1 hour
+ *   7d  window → hourly buckets,   over-covers by at most 1 hour
+ *   30d window → daily buckets,    over-covers by at most 1 day
+ *
+ * Error bounds: type counts are exact per bucket. Target counts come from
+ * {@link SpaceSavingSketch} with {@link #TARGET_CAPACITY} slots, so every
+ * reported count is at most N / 64 too high (N = injected events in the
+ * window) and each estimate carries its own error. Any target with more
+ * than N / 64 events is guaranteed to be listed.
+ *
+ * Counts only cover traffic this instance served since it started. Queries
+ * reaching back before startup return empty and the caller falls back to
+ * the exact database query. With several replicas, each sees only its own
+ * share of traffic, so the store is controlled by
+ * faultrix.analytics.sketches.enabled.
+ */
+@Component
+@Slf4j
+public class EventSketchStore {
+
+    static final int TARGET_CAPACITY = 64;
+
+    enum Resolution {
+        FIVE_MINUTES(Duration.ofMinutes(5), Duration.ofHours(2)),
+        HOUR        (Duration.ofHours(1),   Duration.ofDays(8)),
+        DAY         (Duration.ofDays(1),    Duration.ofDays(32));
+
+        final long widthMs;
+        final long retentionMs;
+
+        Resolution(Duration width, Duration retention) {
+            this.widthMs     = width.toMillis();
+            this.retentionMs = retention.toMillis();
+        }
+
+        long bucketStart(long epochMs) {
+            return epochMs - Math.floorMod(epochMs, widthMs);
+        }
+    }
+
+    /**
+     * @param coveredFrom bucket-aligned start of what was actually summarised (at or before the requested from)
+     */
+    public record Summary(List<SpaceSavingSketch.Estimate> topTargets,
+                          Map<ChaosType, Long> typeBreakdown,
+                          long injectedEvents,
+                          long maxTargetError,
+                          Instant coveredFrom) {}
+
+    /** One time bucket for one org — all access under its own monitor. */
+    private static final class Bucket {
+        private final SpaceSavingSketch targets = new SpaceSavingSketch(TARGET_CAPACITY);
+        private final long[]            types   = new long[ChaosType.values().length];
+
+        synchronized void add(String target, ChaosType type) {
+            targets.add(target);
+            types[type.ordinal()]++;
+        }
+
+        synchronized void mergeInto(SpaceSavingSketch targetsOut, long[] typesOut) {
+            targetsOut.merge(targets);
+            for (int i = 0; i < types.length; i++) typesOut[i] += types[i];
+        }
+    }
+
+    private static final class OrgSketches {
+        final Map<Resolution, ConcurrentSkipListMap<Long, Bucket>> byResolution = new EnumMap<>(Resolution.class);
+
+        OrgSketches() {
+            for (Resolution r : Resolution.values()) byResolution.put(r, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    private final boolean enabled;
+    private final long    startedAtMs;
+    private final ConcurrentHashMap<Long, OrgSketches> orgs = new ConcurrentHashMap<>();
+
+    public EventSketchStore(@Value("${faultrix.analytics.sketches.enabled:true}") boolean enabled,
+                            MeterRegistry meterRegistry) {
+        this(enabled, System.currentTimeMillis(), meterRegistry);
+    }
+
+    EventSketchStore(boolean enabled, long startedAtMs, MeterRegistry meterRegistry) {
+        this.enabled     = enabled;
+        this.startedAtMs = startedAtMs;
+
+        Gauge.builder("chaoslab.analytics.sketch.orgs", orgs, Map::size)
+                .description("Organizations with in-memory analytics sketches")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ── Ingestion ────────────────────────────────────────────────────────────
+
+    public void recordInjected(Long orgId, String target, ChaosType type) {
+        recordInjected(orgId, target, type, System.currentTimeMillis());
+    }
+
+    void recordInjected(Long orgId, String target, ChaosType type, long nowMs) {
+        if (!enabled) return;
+
+        OrgSketches sketches = orgs.computeIfAbsent(orgId, id -> new OrgSketches());
+        String      key      = target != null ? target : "";
+        ChaosType   t        = type != null ? type : ChaosType.NONE;
+
+        for (Resolution r : Resolution.values()) {
+            sketches.byResolution.get(r)
+                    .computeIfAbsent(r.bucketStart(nowMs), start -> new Bucket())
+                    .add(key, t);
+        }
+    }
+
+    // ── Queries ──────────────────────────────────────────────────────────────
+
+    /**
+     * Summary of injected events in [from, to], or empty when this instance
+     * cannot answer it (disabled, or the window starts before it did).
+     */
+    public Optional<Summary> summarize(Long orgId, Instant from, Instant to, int topN) {
+        return summarize(orgId, from, to, topN, System.currentTimeMillis());
+    }
+
+    Optional<Summary> summarize(Long orgId, Instant from, Instant to, int topN, long nowMs) {
+        if (!enabled) return Optional.empty();
+
+        long fromMs = from.toEpochMilli();
+        if (fromMs < startedAtMs) return Optional.empty();
+
+        Resolution resolution = resolutionFor(nowMs - fromMs);
+        if (resolution == null) return Optional.empty();
+
+        long   coveredFrom = resolution.bucketStart(fromMs);
+        SpaceSavingSketch targets = new SpaceSavingSketch(TARGET_CAPACITY);
+        long[] types       = new long[ChaosType.values().length];
+
+        OrgSketches sketches = orgs.get(orgId);
+        if (sketches != null) {
+            ConcurrentNavigableMap<Long, Bucket> window = sketches.byResolution.get(resolution)
+                    .subMap(coveredFrom, true, to.toEpochMilli(), true);
+            window.values().forEach(b -> b.mergeInto(targets, types));
+        }
+
+        Map<ChaosType, Long> breakdown = new EnumMap<>(ChaosType.class);
+        for (ChaosType t : ChaosType.values()) {
+            if (types[t.ordinal()] > 0) breakdown.put(t, types[t.ordinal()]);
+        }
+
+        return Optional.of(new Summary(targets.top(topN), breakdown, targets.total(),
+                targets.maxError(), Instant.ofEpochMilli(coveredFrom)));
+    }
+
+    static Resolution resolutionFor(long windowMs) {
+        for (Resolution r : Resolution.values()) {
+            if (windowMs <= r.retentionMs - r.widthMs) return r;
+        }
+        return null;
+    }
+
+    // ── Retention ────────────────────────────────────────────────────────────
+
+    @Scheduled(fixedRate = 300_000) // 5 minutes
+    public void evictExpired() {
+        evictExpired(System.currentTimeMillis());
+    }
+
+    void evictExpired(long nowMs) {
+        orgs.forEach((orgId, sketches) -> {
+            for (Resolution r : Resolution.values()) {
+                sketches.byResolution.get(r).headMap(nowMs - r.retentionMs).clear();
+            }
+            if (sketches.byResolution.values().stream().allMatch(Map::isEmpty)) {
+                orgs.remove(orgId, sketches);
+            }
+        });
+    }
+}
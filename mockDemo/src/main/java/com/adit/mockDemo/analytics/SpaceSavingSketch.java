@@ -0,0 +1,136 @@
+package com.adit.mockDemo.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters summary (Metwally, Agrawal, El Abbadi 2005).
+ *
+ * Tracks at most {@code capacity} items. When a new item arrives and the
+ * summary is full, the item with the smallest count is evicted and the new
+ * one inherits that count (recorded as its error).
+ *
+ * Guarantees, with N = total increments and k = capacity:
+ *   true(x) <= estimate(x) <= true(x) + error(x), error(x) <= min count <= N / k
+ *   every item with true count > N / k is in the summary
+ *
+ * Mergeable (Agarwal et al. 2012): merging adds each side's minimum to items
+ * the other side does not hold, so the bound becomes N1/k + N2/k = N/k.
+ *
+ * Not thread-safe — callers synchronise.
+ */
+public final class SpaceSavingSketch {
+
+    public record Estimate(String item, long count, long error) {}
+
+    private static final class Slot {
+        long count;
+        long error;
+
+        Slot(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private final int               capacity;
+    private final Map<String, Slot> slots;
+    private long                    total;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.capacity = capacity;
+        this.slots    = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String item) {
+        add(item, 1);
+    }
+
+    public void add(String item, long count) {
+        total += count;
+
+        Slot slot = slots.get(item);
+        if (slot != null) {
+            slot.count += count;
+            return;
+        }
+        if (slots.size() < capacity) {
+            slots.put(item, new Slot(count, 0));
+            return;
+        }
+
+        // Full — replace the minimum; O(k), fine for the small k used here
+        String minItem = null;
+        long   min     = Long.MAX_VALUE;
+        for (Map.Entry<String, Slot> e : slots.entrySet()) {
+            if (e.getValue().count < min) {
+                min     = e.getValue().count;
+                minItem = e.getKey();
+            }
+        }
+        slots.remove(minItem);
+        slots.put(item, new Slot(min + count, min));
+    }
+
+    /** Adds {@code other} into this summary. */
+    public void merge(SpaceSavingSketch other) {
+        long thisMin  = minCount();
+        long otherMin = other.minCount();
+
+        Map<String, Slot> merged = new HashMap<>(slots.size() + other.slots.size());
+        slots.forEach((item, s) -> {
+            Slot o = other.slots.get(item);
+            merged.put(item, o != null
+                    ? new Slot(s.count + o.count, s.error + o.error)
+                    : new Slot(s.count + otherMin, s.error + otherMin));
+        });
+        other.slots.forEach((item, o) -> {
+            if (!slots.containsKey(item)) {
+                merged.put(item, new Slot(o.count + thisMin, o.error + thisMin));
+            }
+        });
+
+        slots.clear();
+        merged.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Slot> e) -> e.getValue().count).reversed())
+                .limit(capacity)
+                .forEach(e -> slots.put(e.getKey(), e.getValue()));
+        total += other.total;
+    }
+
+    public List<Estimate> top(int n) {
+        List<Estimate> result = new ArrayList<>(slots.size());
+        slots.forEach((item, s) -> result.add(new Estimate(item, s.count, s.error)));
+        result.sort(Comparator.comparingLong(Estimate::count).reversed());
+        return result.size() > n ? result.subList(0, n) : result;
+    }
+
+    /**
+     * Largest possible overcount of a reported item, and the most an unreported
+     * item can have occurred; 0 while nothing has been evicted.
+     */
+    public long maxError() {
+        long max = minCount();
+        for (Slot s : slots.values()) max = Math.max(max, s.error);
+        return max;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private long minCount() {
+        if (slots.size() < capacity) return 0;  // an absent item was never evicted — its count is exactly 0
+        long min = Long.MAX_VALUE;
+        for (Slot s : slots.values()) min = Math.min(min, s.count);
+        return min;
+    }
+}
@@ -1,5 +1,8 @@
 package com.adit.mockDemo.chaos;
 
+import com.adit.mockDemo.chaos.execution.FaultMixSampler;
+import com.adit.mockDemo.chaos.execution.LatencyModel;
+import com.adit.mockDemo.chaos.execution.LatencySampler;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +19,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ChaosRule {
 
+    private Long   id;        // null for the synthetic no-op rule
     private String target;
     private Double failureRate;
     private Long   maxDelayMs;
@@ -23,4 +27,12 @@ public class ChaosRule {
     private String description;
     private Long   seed;
     private Double blastRadius;
+    private Boolean coalesceGets;     // share one upstream call between identical concurrent proxied GETs
+    private String  coalesceHeaders;  // comma-separated header names that are part of the GET's identity
+    private Boolean hedgeRequests;    // race a second attempt when a no-chaos safe call is slow upstream
+    private LatencyModel   latencyModel;    // shape of injected delays, truncated to maxDelayMs
+    private String         latencyParams;   // model parameters, see LatencySampler
+    private LatencySampler latencySampler;  // compiled latencyModel; null = legacy uniform [50, maxDelayMs)
+    private String          faultMix;         // weighted chaos types, e.g. LATENCY=70,ERROR_5XX:503=30
+    private FaultMixSampler faultMixSampler;  // compiled faultMix; null = built-in distribution
 }
\ No newline at end of file
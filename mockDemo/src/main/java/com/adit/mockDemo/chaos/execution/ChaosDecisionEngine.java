@@ -1,38 +1,38 @@
 package com.adit.mockDemo.chaos.execution;
 
 import com.adit.mockDemo.chaos.ChaosRule;
-import com.adit.mockDemo.entity.ChaosSchedule;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Core decision engine for chaos injection.
  * Order of checks: KillSwitch → Rule enabled → Schedule → BlastRadius → Probability
+ *
+ * Stateless: tenant state (kill switches, schedule window) arrives pre-resolved
+ * in a TenantSnapshot, so a decision does no lookups of its own.
+ *
+ * Which fault a failure roll injects, and how long a delay is, come from the
+ * rule's compiled faultMix and latency model when it has them — each a
+ * single table lookup.
  */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class ChaosDecisionEngine {
 
-    private final ChaosKillSwitch   killSwitch;
-    private final ScheduleEvaluator scheduleEvaluator;
-
     /**
      * @param rule      The chaos rule to evaluate
      * @param requestId Unique identifier for determinism
-     * @param schedules Active schedules for this rule (empty = always active)
+     * @param tenant    Per-request tenant state from TenantSnapshotFactory
      */
     public ChaosDecision decide(ChaosRule rule,
                                 String requestId,
-                                List<ChaosSchedule> schedules) {
+                                TenantSnapshot tenant) {
 
-        // 1. Global kill switch
-        if (!killSwitch.isChaosEnabled()) {
-            log.trace("Chaos globally disabled via kill switch");
+        // 1. Kill switch — org, rule or target
+        if (!tenant.isChaosEnabled()) {
+            log.trace("Chaos disabled via kill switch for org={}, target: {}", tenant.getOrgId(), rule.getTarget());
             return ChaosDecision.noChaos();
         }
 
@@ -43,30 +43,43 @@ public class ChaosDecisionEngine {
         }
 
         // 3. Schedule window
-        if (!scheduleEvaluator.isActiveNow(schedules)) {
+        if (!tenant.isScheduleActive()) {
             log.debug("Chaos rule '{}' outside schedule window — skipping", rule.getTarget());
             return ChaosDecision.noChaos();
         }
 
-        // 4. Blast radius
-        if (!shouldAffectRequest(rule.getBlastRadius(), requestId)) {
+        // The id is hashed once; every roll below is a bit range of this hash
+        long hash = RequestHash.forRule(RequestHash.of(requestId), rule.getSeed() != null ? rule.getSeed() : 0L);
+
+        // 4. Blast radius — by request id, so a given id is consistently in or out
+        if (!shouldAffectRequest(rule.getBlastRadius(), hash)) {
             log.trace("Request outside blast radius for target: {}", rule.getTarget());
             return ChaosDecision.noChaos();
         }
 
-        // 5. Probability roll
-        double roll = getRandomDouble(rule.getSeed(), requestId);
+        // 5. Probability roll — unseeded rules are not meant to be reproducible
+        long   rolls = rule.getSeed() != null ? hash : ThreadLocalRandom.current().nextLong();
+        double roll  = RequestHash.failureRoll(rolls);
 
         if (roll < rule.getFailureRate()) {
-            double typeRoll = getRandomDouble(rule.getSeed(), requestId + "_type");
-            double codeRoll = getRandomDouble(rule.getSeed(), requestId + "_code");
-
-            ChaosType type      = determineFailureType(typeRoll);
-            int       errorCode = determineErrorCode(type, codeRoll);
-            int       delayMs   = resolveDelayMs(rule, requestId + "_delay");
-
-            log.debug("CHAOS INJECTED - Target: {}, Type: {}, FailureRate: {}, Roll: {}",
-                    rule.getTarget(), type, rule.getFailureRate(), roll);
+            double typeRoll = RequestHash.typeRoll(rolls);
+            double codeRoll = RequestHash.codeRoll(rolls);
+
+            ChaosType type;
+            int       errorCode;
+            FaultMixSampler mix = rule.getFaultMixSampler();
+            if (mix != null) {
+                int outcome = mix.sample(typeRoll);
+                type      = mix.type(outcome);
+                errorCode = mix.statusCode(outcome) != 0 ? mix.statusCode(outcome) : determineErrorCode(type, codeRoll);
+            } else {
+                type      = determineFailureType(typeRoll);
+                errorCode = determineErrorCode(type, codeRoll);
+            }
+            int delayMs = resolveDelayMs(rule, RequestHash.delayRoll(rolls));
+
+            log.debug("CHAOS INJECTED - Target: {}, Type: {}, FailureRate: {}, Roll: {}, RuleVersion: {}",
+                    rule.getTarget(), type, rule.getFailureRate(), roll, tenant.getRuleIndexVersion());
 
             return ChaosDecision.builder()
                     .shouldInjectChaos(true)
@@ -82,7 +95,7 @@ public class ChaosDecisionEngine {
         if (rule.getMaxDelayMs() != null && rule.getMaxDelayMs() > 0
                 && roll >= rule.getFailureRate() && roll < 0.5) {
 
-            int delay = resolveDelayMs(rule, requestId + "_latency");
+            int delay = resolveDelayMs(rule, RequestHash.delayRoll(rolls));
             log.debug("LATENCY INJECTED - Target: {}, Delay: {}ms", rule.getTarget(), delay);
 
             return ChaosDecision.builder()
@@ -98,35 +111,28 @@ public class ChaosDecisionEngine {
 
     // ── Private helpers ──────────────────────────────────────────────────────
 
-    private int resolveDelayMs(ChaosRule rule, String seed) {
+    /**
+     * Delay from the rule's compiled latency model (a table lookup), or
+     * uniform in [50, maxDelayMs) when the rule has none.
+     */
+    private int resolveDelayMs(ChaosRule rule, double delayRoll) {
         if (rule.getMaxDelayMs() == null || rule.getMaxDelayMs() <= 0) return 0;
+        if (rule.getLatencySampler() != null) {
+            return rule.getLatencySampler().sample(delayRoll);
+        }
         long max = rule.getMaxDelayMs();
         if (max <= 50) return (int) max;
-        long range = max - 50;
-        long raw   = Math.abs(deriveHash(rule.getSeed(), seed) % range);
-        return (int) (50 + raw);
+        return (int) (50 + (long) (delayRoll * (max - 50)));
     }
 
-    private boolean shouldAffectRequest(Double blastRadius, String requestId) {
+    private boolean shouldAffectRequest(Double blastRadius, long hash) {
         if (blastRadius == null || blastRadius >= 1.0) return true;
         if (blastRadius <= 0.0) return false;
-        int    hash     = Math.abs(requestId.hashCode());
-        double position = (hash % 10000) / 10000.0;
-        return position < blastRadius;
-    }
-
-    private double getRandomDouble(Long seed, String identifier) {
-        if (seed == null) return ThreadLocalRandom.current().nextDouble();
-        long hash = deriveHash(seed, identifier);
-        return (Math.abs(hash) % 100_000) / 100_000.0;
-    }
-
-    private long deriveHash(Long seed, String identifier) {
-        long base = seed != null ? seed : 0L;
-        return base * 31L + identifier.hashCode();
+        return RequestHash.blastPosition(hash) < blastRadius;
     }
 
-    private ChaosType determineFailureType(double roll) {
+    /** Built-in distribution, for rules without a faultMix. Package-private for FaultMixSamplerTest. */
+    static ChaosType determineFailureType(double roll) {
         // Original 4 types: 0.0–0.55 (55%)
         // New 8 types:      0.55–1.0 (45%) — distributed evenly at ~5.6% each
         if (roll < 0.20) return ChaosType.ERROR_5XX;
@@ -149,6 +155,7 @@ public class ChaosDecisionEngine {
             case ERROR_5XX      -> { int[] c = {500,502,503,504}; yield c[(int)(roll*c.length)%c.length]; }
             case ERROR_4XX      -> { int[] c = {400,404,429,408}; yield c[(int)(roll*c.length)%c.length]; }
             case TIMEOUT        -> 408;
+            case LATENCY        -> 0;     // Not an error — only a delay (faultMix can pick it)
             case PACKET_LOSS    -> 200;   // Accepts connection, returns empty — caller sees success but body is gone
             case DNS_FAILURE    -> 503;   // Service Unavailable (DNS couldn't resolve)
             case BANDWIDTH_LIMIT-> 200;   // Returns 200 but response is throttled
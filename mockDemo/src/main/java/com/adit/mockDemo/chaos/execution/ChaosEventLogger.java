@@ -1,6 +1,10 @@
 package com.adit.mockDemo.chaos.execution;
 
+import com.adit.mockDemo.analytics.EventSketchStore;
+import com.adit.mockDemo.chaos.runtime.SkippedEventCounter;
+import com.adit.mockDemo.chaos.runtime.TimeStatsCounter;
 import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.live.LiveEventHub;
 import com.adit.mockDemo.service.ChaosEventService;
 import com.adit.mockDemo.service.WebhookService;
 import io.micrometer.core.instrument.Counter;
@@ -9,35 +13,46 @@ import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Logs chaos decisions, persists events, and fires webhooks.
  * All I/O (DB + HTTP) is async — this method returns in microseconds.
  *
- * Skipped events are sampled at 1% to prevent DB flood at high request rates.
- * At 1000 req/s with 70% skip rate, unsampled = 700 writes/sec; sampled = 7 writes/sec.
+ * Skipped decisions are not written as events. They are counted exactly by
+ * SkippedEventCounter and flushed as per-(org, target, minute) aggregate rows —
+ * at 1000 req/s with a 70% skip rate that is a handful of rows per minute
+ * instead of 700 writes/sec, and injection rates are no longer estimated
+ * from a 1% sample.
  */
 @Component
 @Slf4j
 public class ChaosEventLogger {
 
-    private static final double SKIPPED_SAMPLE_RATE = 0.01; // record 1% of skipped events
-
     private final Counter chaosInjectedCounter;
     private final Counter chaosSkippedCounter;
-    private final Counter chaosSkippedSampledCounter;
     private final Timer   chaosLatencyTimer;
-    private final ChaosEventService chaosEventService;
-    private final WebhookService    webhookService;
+    private final ChaosEventService   chaosEventService;
+    private final WebhookService      webhookService;
+    private final SkippedEventCounter skippedEventCounter;
+    private final EventSketchStore    eventSketchStore;
+    private final TimeStatsCounter    timeStatsCounter;
+    private final LiveEventHub        liveEventHub;
 
     public ChaosEventLogger(MeterRegistry meterRegistry,
                             ChaosEventService chaosEventService,
-                            WebhookService webhookService) {
-
-        this.chaosEventService = chaosEventService;
-        this.webhookService    = webhookService;
+                            WebhookService webhookService,
+                            SkippedEventCounter skippedEventCounter,
+                            EventSketchStore eventSketchStore,
+                            TimeStatsCounter timeStatsCounter,
+                            LiveEventHub liveEventHub) {
+
+        this.chaosEventService   = chaosEventService;
+        this.webhookService      = webhookService;
+        this.skippedEventCounter = skippedEventCounter;
+        this.eventSketchStore    = eventSketchStore;
+        this.timeStatsCounter    = timeStatsCounter;
+        this.liveEventHub        = liveEventHub;
 
         this.chaosInjectedCounter = Counter.builder("chaoslab.chaos.injected")
                 .description("Number of times chaos was injected")
@@ -49,11 +64,6 @@ public class ChaosEventLogger {
                 .tag("application", "chaoslab")
                 .register(meterRegistry);
 
-        this.chaosSkippedSampledCounter = Counter.builder("chaoslab.chaos.skipped.sampled")
-                .description("Number of skipped events actually written to DB (sampled at 1%)")
-                .tag("application", "chaoslab")
-                .register(meterRegistry);
-
         this.chaosLatencyTimer = Timer.builder("chaoslab.chaos.latency")
                 .description("Injected latency duration")
                 .tag("application", "chaoslab")
@@ -88,6 +98,9 @@ public class ChaosEventLogger {
         }
 
         // Always persist injected events — these are the primary analytics data
+        eventSketchStore.recordInjected(org.getId(), target, decision.getChaosType());
+        timeStatsCounter.recordInjected(org.getId(), decision.getDelayMs());
+        liveEventHub.recordInjected(org.getId(), target, decision, requestId);
         chaosEventService.recordEvent(org, target, requestId, decision, true);
         webhookService.fireInjectionWebhooks(org, target, requestId, decision);
     }
@@ -99,11 +112,9 @@ public class ChaosEventLogger {
         // Always increment the Prometheus counter (cheap, in-memory)
         chaosSkippedCounter.increment();
 
-        // Only write to DB for 1% of skipped events to prevent write flood.
-        // Skipped events are needed for injection rate calculation but don't need 100% fidelity.
-        if (ThreadLocalRandom.current().nextDouble() < SKIPPED_SAMPLE_RATE) {
-            chaosSkippedSampledCounter.increment();
-            chaosEventService.recordEvent(org, target, requestId, ChaosDecision.noChaos(), false);
-        }
+        // Exact per-(org, target, minute) count, flushed to chaos_skip_counts in the background
+        skippedEventCounter.record(org.getId(), target);
+        timeStatsCounter.recordSkipped(org.getId());
+        liveEventHub.recordSkipped(org.getId());
     }
 }
\ No newline at end of file
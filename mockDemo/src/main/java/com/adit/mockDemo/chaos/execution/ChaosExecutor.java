@@ -1,21 +1,15 @@
 package com.adit.mockDemo.chaos.execution;
 
 import com.adit.mockDemo.chaos.ChaosRule;
-import com.adit.mockDemo.entity.ChaosRuleEntity;
-import com.adit.mockDemo.entity.ChaosSchedule;
 import com.adit.mockDemo.entity.Organization;
 import com.adit.mockDemo.exception.ChaosInjectedException;
-import com.adit.mockDemo.repository.ChaosRuleRepository;
-import com.adit.mockDemo.repository.ChaosScheduleRepository;
+import com.adit.mockDemo.security.ConcurrencyLimitFilter;
 import com.adit.mockDemo.security.TenantContext;
 import com.adit.mockDemo.service.ChaosRuleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.List;
-
 /**
  * Executes chaos injection based on decisions from ChaosDecisionEngine.
  * Now schedule-aware — checks windows before injecting.
@@ -27,8 +21,7 @@ public class ChaosExecutor {
 
     private final ChaosDecisionEngine  decisionEngine;
     private final ChaosRuleService     chaosRuleService;
-    private final ChaosRuleRepository  chaosRuleRepository;
-    private final ChaosScheduleRepository scheduleRepository;
+    private final TenantSnapshotFactory tenantSnapshots;
     private final TenantContext        tenantContext;
     private final ChaosEventLogger     eventLogger;
 
@@ -37,14 +30,15 @@ public class ChaosExecutor {
             Organization org  = tenantContext.getCurrentOrganization();
             ChaosRule    rule = chaosRuleService.getRuleForChaosEngine(org, target);
 
-            // Fetch active schedules for this rule (empty = always active)
-            List<ChaosSchedule> schedules = resolveSchedules(org, rule.getTarget());
+            // Kill switches + schedule window for this org, resolved once
+            TenantSnapshot tenant = tenantSnapshots.forRequest(org, rule, target);
 
-            ChaosDecision decision = decisionEngine.decide(rule, requestId, schedules);
+            ChaosDecision decision = decisionEngine.decide(rule, requestId, tenant);
 
             eventLogger.logDecision(org, target, decision, requestId);
 
             if (decision.isShouldInjectChaos()) {
+                ConcurrencyLimitFilter.skipLatencySample();   // delays here are on purpose, not overload
                 executeDecision(decision);
             }
 
@@ -55,18 +49,6 @@ public class ChaosExecutor {
         }
     }
 
-    private List<ChaosSchedule> resolveSchedules(Organization org, String target) {
-        try {
-            return chaosRuleRepository
-                    .findByOrganizationAndTarget(org, target)
-                    .map(scheduleRepository::findByChaosRuleAndEnabledTrue)
-                    .orElse(Collections.emptyList());
-        } catch (Exception e) {
-            log.warn("Could not resolve schedules for target: {} — defaulting to always active", target);
-            return Collections.emptyList();
-        }
-    }
-
     private void executeDecision(ChaosDecision decision) {
         if (decision.getDelayMs() > 0) {
             injectLatency(decision.getDelayMs());
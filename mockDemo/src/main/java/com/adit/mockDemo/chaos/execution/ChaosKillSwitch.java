@@ -1,57 +1,150 @@
 package com.adit.mockDemo.chaos.execution;
 
+import com.adit.mockDemo.chaos.runtime.ClusterCoherence;
+import com.adit.mockDemo.chaos.runtime.CoherenceEvent;
+import com.adit.mockDemo.entity.KillSwitchEntry;
+import com.adit.mockDemo.repository.KillSwitchRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 /**
  * Per-tenant kill switch for chaos injection.
  *
- * FIX SEC-7: replaced single global AtomicBoolean with a ConcurrentHashMap<orgId, AtomicBoolean>.
+ * FIX SEC-7: replaced single global AtomicBoolean with per-org switches.
  * Previously one org's admin (or a compromised key) could disable chaos for ALL tenants globally.
  * Now each organization has an independent switch; one org cannot affect another.
  *
  * Controllers pass the org ID from TenantContext when calling enable/disable/toggle/isChaosEnabled.
+ *
+ * State is persisted in chaos_kill_switches and loaded at startup — a restart
+ * or deploy no longer silently re-enables chaos. Besides the org-wide switch,
+ * chaos can be stopped for a single target or a single rule.
+ *
+ * Reads go to an immutable KillSwitchSnapshot behind a volatile field: one
+ * volatile load per check, no locking. Writers upsert and lock the switch's
+ * row, commit, then swap in a new snapshot; the commit also broadcasts over
+ * ClusterCoherence so other replicas reload that org from the database.
+ *
+ * The row lock orders writes in the database, and each committed write
+ * carries the row's @Version. A write is applied to the snapshot only if it
+ * is newer than what the snapshot already holds for that switch, so two
+ * concurrent toggles that finish out of order still leave the snapshot
+ * matching the database.
  */
 @Component
 @Slf4j
 public class ChaosKillSwitch {
 
-    // Per-tenant state — absent key means "enabled" (default)
-    private final ConcurrentHashMap<Long, AtomicBoolean> tenantSwitches = new ConcurrentHashMap<>();
+    private final KillSwitchRepository killSwitchRepository;
+    private final ClusterCoherence     clusterCoherence;
+    private final TransactionTemplate  transactionTemplate;
 
-    // ── Per-tenant API (used by controllers) ─────────────────────────────────
+    // Copy-on-write — replaced wholesale under writeLock, read without locking
+    private volatile KillSwitchSnapshot snapshot = KillSwitchSnapshot.EMPTY;
+    private final Object writeLock = new Object();
+
+    // Row version behind each switch in the snapshot — guarded by writeLock
+    private final Map<SwitchKey, Long> appliedVersions = new HashMap<>();
+
+    // Deprecated sentinel "global" switch (orgId = 0L) — no such org row, so in-memory only
+    private final AtomicBoolean legacyGlobalSwitch = new AtomicBoolean(true);
+
+    public ChaosKillSwitch(KillSwitchRepository killSwitchRepository,
+                           ClusterCoherence clusterCoherence,
+                           PlatformTransactionManager transactionManager) {
+        this.killSwitchRepository = killSwitchRepository;
+        this.clusterCoherence     = clusterCoherence;
+        this.transactionTemplate  = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fails startup if the table can't be read — coming up with every switch
+     * silently ON is exactly the hazard this persistence exists to prevent.
+     */
+    @PostConstruct
+    public void load() {
+        List<KillSwitchEntry> rows = killSwitchRepository.findAll();
+        Map<Long, List<KillSwitchSnapshot.Entry>> byOrg = rows.stream()
+                .collect(Collectors.groupingBy(
+                        e -> e.getOrganization().getId(),
+                        Collectors.mapping(ChaosKillSwitch::toEntry, Collectors.toList())));
+
+        synchronized (writeLock) {
+            snapshot = KillSwitchSnapshot.of(byOrg);
+            appliedVersions.clear();
+            rows.forEach(e -> appliedVersions.put(SwitchKey.of(e.getOrganization().getId(), e), versionOf(e)));
+        }
+        log.info("Loaded kill switches for {} org(s)", byOrg.size());
+    }
+
+    // ── Reads (hot path) ─────────────────────────────────────────────────────
+
+    public KillSwitchSnapshot snapshot() {
+        return snapshot;
+    }
 
     public boolean isChaosEnabled(Long orgId) {
-        return getSwitch(orgId).get();
+        return snapshot.isOrgEnabled(orgId);
+    }
+
+    /** Org, rule and target switches in one volatile read. */
+    public boolean isChaosEnabled(Long orgId, Long ruleId, String target) {
+        return snapshot.isEnabled(orgId, ruleId, target);
     }
 
+    // ── Per-tenant API (used by controllers) ─────────────────────────────────
+
     public void enableChaos(Long orgId) {
-        getSwitch(orgId).set(true);
+        setEnabled(orgId, KillSwitchScope.ORG, "", true);
         log.warn("🚀 CHAOS ENABLED for org={}", orgId);
     }
 
     public void disableChaos(Long orgId) {
-        getSwitch(orgId).set(false);
+        setEnabled(orgId, KillSwitchScope.ORG, "", false);
         log.error("🛑 CHAOS DISABLED (kill switch) for org={}", orgId);
     }
 
     /**
-     * Atomic toggle — race-free via compareAndSet loop.
+     * Atomic toggle — the row is locked while it is flipped, so concurrent
+     * toggles on different replicas serialise in the database.
      * @return new state after toggle
      */
     public boolean toggle(Long orgId) {
-        AtomicBoolean sw = getSwitch(orgId);
-        boolean current, next;
-        do {
-            current = sw.get();
-            next    = !current;
-        } while (!sw.compareAndSet(current, next));
+        KillSwitchEntry committed = transactionTemplate.execute(status -> {
+            KillSwitchEntry entry = lockEntry(orgId, KillSwitchScope.ORG, "");
+            return persist(orgId, entry, !entry.getEnabled());
+        });
+        boolean state = applyCommitted(orgId, committed);
+
+        log.warn("Chaos toggled for org={}: {}", orgId, state ? "ENABLED" : "DISABLED");
+        return state;
+    }
 
-        log.warn("Chaos toggled for org={}: {}", orgId, next ? "ENABLED" : "DISABLED");
-        return next;
+    public void setTargetEnabled(Long orgId, String target, boolean enabled) {
+        setEnabled(orgId, KillSwitchScope.TARGET, target, enabled);
+        log.warn("Chaos {} for org={} target={}", enabled ? "ENABLED" : "DISABLED", orgId, target);
+    }
+
+    public void setRuleEnabled(Long orgId, Long ruleId, boolean enabled) {
+        setEnabled(orgId, KillSwitchScope.RULE, ruleId.toString(), enabled);
+        log.warn("Chaos {} for org={} rule={}", enabled ? "ENABLED" : "DISABLED", orgId, ruleId);
+    }
+
+    public void setEnabled(Long orgId, KillSwitchScope scope, String key, boolean enabled) {
+        // pg_notify joins this transaction — other replicas hear about it only once the row is committed
+        KillSwitchEntry committed = transactionTemplate.execute(status ->
+                persist(orgId, lockEntry(orgId, scope, key), enabled));
+        applyCommitted(orgId, committed);
     }
 
     // ── No-arg overloads kept for backward-compat with existing callers ───────
@@ -61,30 +154,102 @@ public class ChaosKillSwitch {
     /** @deprecated Pass orgId — use isChaosEnabled(Long) */
     @Deprecated
     public boolean isChaosEnabled() {
-        return getSwitch(0L).get();
+        return legacyGlobalSwitch.get();
     }
 
     /** @deprecated Pass orgId — use enableChaos(Long) */
     @Deprecated
     public void enableChaos() {
-        enableChaos(0L);
+        legacyGlobalSwitch.set(true);
+        log.warn("🚀 CHAOS ENABLED for org=0");
     }
 
     /** @deprecated Pass orgId — use disableChaos(Long) */
     @Deprecated
     public void disableChaos() {
-        disableChaos(0L);
+        legacyGlobalSwitch.set(false);
+        log.error("🛑 CHAOS DISABLED (kill switch) for org=0");
     }
 
     /** @deprecated Pass orgId — use toggle(Long) */
     @Deprecated
     public boolean toggle() {
-        return toggle(0L);
+        boolean current, next;
+        do {
+            current = legacyGlobalSwitch.get();
+            next    = !current;
+        } while (!legacyGlobalSwitch.compareAndSet(current, next));
+
+        log.warn("Chaos toggled for org=0: {}", next ? "ENABLED" : "DISABLED");
+        return next;
+    }
+
+    // ── Cluster coherence ────────────────────────────────────────────────────
+
+    /** Another instance changed a switch — re-read that org from the database. */
+    @EventListener
+    public void onRemoteChange(CoherenceEvent event) {
+        if (event.getTopic() != CoherenceEvent.Topic.KILL_SWITCH) return;
+
+        if (event.isAllOrgs()) {
+            load();
+            return;
+        }
+
+        // Per switch, so a local write that committed after this read is not rolled back
+        killSwitchRepository.findByOrganizationId(event.getOrgId())
+                .forEach(entry -> applyCommitted(event.getOrgId(), entry));
+        log.warn("Kill switches for org={} reloaded after change on another instance", event.getOrgId());
     }
 
     // ── Internal ─────────────────────────────────────────────────────────────
 
-    private AtomicBoolean getSwitch(Long orgId) {
-        return tenantSwitches.computeIfAbsent(orgId, k -> new AtomicBoolean(true));
+    /** The switch's row, created if it was never set, locked until the transaction ends. */
+    private KillSwitchEntry lockEntry(Long orgId, KillSwitchScope scope, String key) {
+        killSwitchRepository.insertIfAbsent(orgId, scope.name(), key);
+        return killSwitchRepository.findByOrganizationIdAndScopeAndScopeKey(orgId, scope, key)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Kill switch " + scope + " '" + key + "' for org=" + orgId + " missing after upsert"));
+    }
+
+    /** Flushed here so the entry carries its new version once the transaction commits. */
+    private KillSwitchEntry persist(Long orgId, KillSwitchEntry entry, boolean enabled) {
+        entry.setEnabled(enabled);
+        killSwitchRepository.saveAndFlush(entry);
+        clusterCoherence.broadcast(CoherenceEvent.Topic.KILL_SWITCH, orgId, String.valueOf(enabled));
+        return entry;
+    }
+
+    /**
+     * Puts a committed switch into the snapshot unless the snapshot already
+     * holds the same or a newer version of it.
+     *
+     * @return the switch's committed state
+     */
+    boolean applyCommitted(Long orgId, KillSwitchEntry entry) {
+        SwitchKey key     = SwitchKey.of(orgId, entry);
+        long      version = versionOf(entry);
+        synchronized (writeLock) {
+            Long applied = appliedVersions.get(key);
+            if (applied == null || applied < version) {
+                appliedVersions.put(key, version);
+                snapshot = snapshot.with(orgId, entry.getScope(), entry.getScopeKey(), entry.getEnabled());
+            }
+        }
+        return entry.getEnabled();
+    }
+
+    private static long versionOf(KillSwitchEntry entry) {
+        return entry.getVersion() != null ? entry.getVersion() : 0L;
+    }
+
+    private record SwitchKey(Long orgId, KillSwitchScope scope, String key) {
+        static SwitchKey of(Long orgId, KillSwitchEntry entry) {
+            return new SwitchKey(orgId, entry.getScope(), entry.getScopeKey());
+        }
+    }
+
+    private static KillSwitchSnapshot.Entry toEntry(KillSwitchEntry e) {
+        return new KillSwitchSnapshot.Entry(e.getScope(), e.getScopeKey(), e.getEnabled());
     }
-}
\ No newline at end of file
+}
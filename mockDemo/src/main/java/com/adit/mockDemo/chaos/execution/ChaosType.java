@@ -12,8 +12,8 @@ package com.adit.mockDemo.chaos.execution;
  *   BANDWIDTH_LIMIT  — chunk response with artificial byte-level delays
  *   CORRUPT_BODY     — return garbled/invalid JSON body with 200 status
  *   HEADER_INJECT    — inject bad/unexpected headers into the response
- *   CPU_SPIKE        — busy-wait loop on the server thread before responding
- *   MEMORY_PRESSURE  — allocate and hold a byte array during request processing
+ *   CPU_SPIKE        — burn capped CPU (ResourceSimulator) while the request waits
+ *   MEMORY_PRESSURE  — hold a buffer from a bounded memory budget while the request waits
  *   BLACKHOLE        — accept connection, wait full timeout, then drop
  */
 public enum ChaosType {
@@ -31,7 +31,7 @@ public enum ChaosType {
     BANDWIDTH_LIMIT,// Slow response: introduce per-chunk delays to simulate throttled pipe
     CORRUPT_BODY,   // Return 200 with deliberately malformed JSON body
     HEADER_INJECT,  // Inject unexpected/malicious headers into the response
-    CPU_SPIKE,      // Simulate CPU saturation: busy-wait Nms before forwarding
-    MEMORY_PRESSURE,// Simulate memory pressure: allocate heap during request lifecycle
+    CPU_SPIKE,      // Simulate CPU saturation: burn CPU for Nms before forwarding
+    MEMORY_PRESSURE,// Simulate memory pressure: hold memory during request lifecycle
     BLACKHOLE       // Accept connection silently, never respond (hard timeout simulation)
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package com.adit.mockDemo.chaos.execution;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A rule's weighted fault mix compiled into a Walker alias table.
+ *
+ * The mix is comma-separated TYPE=weight pairs, where a type may pin the
+ * status code: "LATENCY=70,ERROR_5XX:503=30" gives only latency and 503s.
+ * Unpinned error types keep the engine's usual code pick. Weights are
+ * relative and need not add up to anything.
+ *
+ * Sampling takes one uniform roll: its integer part (× outcomes) picks a
+ * column, its fraction is the coin that chooses between the column's own
+ * outcome and its alias. O(1) whatever the number of outcomes, and no
+ * allocation — the caller reads the outcome back with type(i) and
+ * statusCode(i).
+ *
+ * Rules with the same mix share one compiled table.
+ */
+public final class FaultMixSampler {
+
+    private static final Cache<String, FaultMixSampler> COMPILED = Caffeine.newBuilder()
+            .weakValues()
+            .build();
+
+    private final ChaosType[] types;
+    private final int[]       statusCodes;   // 0 = not pinned
+    private final double[]    probability;
+    private final int[]       alias;
+
+    private FaultMixSampler(ChaosType[] types, int[] statusCodes, double[] weights) {
+        this.types       = types;
+        this.statusCodes = statusCodes;
+        this.probability = new double[weights.length];
+        this.alias       = new int[weights.length];
+        buildAliasTable(weights);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the mix is empty, names an unknown type,
+     *                                  or has a bad weight or status code
+     */
+    public static FaultMixSampler compile(String mix) {
+        if (mix == null || mix.isBlank()) throw new IllegalArgumentException("Fault mix is empty");
+        return COMPILED.get(mix.trim(), FaultMixSampler::parse);
+    }
+
+    /** @param roll uniform in [0, 1); @return outcome index for type() / statusCode() */
+    public int sample(double roll) {
+        double scaled = roll * types.length;
+        int    column = Math.max(0, Math.min((int) scaled, types.length - 1));
+        return scaled - column < probability[column] ? column : alias[column];
+    }
+
+    public ChaosType type(int outcome) {
+        return types[outcome];
+    }
+
+    /** @return the pinned status code, or 0 to let the engine pick one */
+    public int statusCode(int outcome) {
+        return statusCodes[outcome];
+    }
+
+    public boolean includes(ChaosType type) {
+        for (ChaosType t : types) {
+            if (t == type) return true;
+        }
+        return false;
+    }
+
+    // ── Compilation ──────────────────────────────────────────────────────────
+
+    private static FaultMixSampler parse(String mix) {
+        List<ChaosType> types   = new ArrayList<>();
+        List<Integer>   codes   = new ArrayList<>();
+        List<Double>    weights = new ArrayList<>();
+        Set<String>     seen    = new HashSet<>();
+
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] kv = entry.split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected TYPE=weight, got '" + entry.trim() + "'");
+            }
+            String[] typeAndCode = kv[0].trim().toUpperCase(Locale.ROOT).split(":");
+            ChaosType type = parseType(typeAndCode[0]);
+            int       code = typeAndCode.length > 1 ? parseCode(type, typeAndCode[1]) : 0;
+            double    weight;
+            try {
+                weight = Double.parseDouble(kv[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Weight for " + kv[0].trim() + " is not a number: '" + kv[1].trim() + "'");
+            }
+            if (!Double.isFinite(weight) || weight < 0) {
+                throw new IllegalArgumentException("Weight for " + kv[0].trim() + " must not be negative");
+            }
+            if (!seen.add(type + ":" + code)) {
+                throw new IllegalArgumentException("Duplicate entry for " + kv[0].trim());
+            }
+            if (weight == 0) continue;
+            types.add(type);
+            codes.add(code);
+            weights.add(weight);
+        }
+        if (types.isEmpty()) throw new IllegalArgumentException("Fault mix has no positive weights");
+
+        return new FaultMixSampler(
+                types.toArray(ChaosType[]::new),
+                codes.stream().mapToInt(Integer::intValue).toArray(),
+                weights.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    private static ChaosType parseType(String name) {
+        ChaosType type;
+        try {
+            type = ChaosType.valueOf(name.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown chaos type '" + name.trim() + "'");
+        }
+        if (type == ChaosType.NONE) throw new IllegalArgumentException("NONE cannot be part of a fault mix");
+        return type;
+    }
+
+    private static int parseCode(ChaosType type, String text) {
+        int code;
+        try {
+            code = Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Status code for " + type + " is not a number: '" + text.trim() + "'");
+        }
+        boolean valid = switch (type) {
+            case ERROR_4XX -> code >= 400 && code <= 499;
+            case ERROR_5XX -> code >= 500 && code <= 599;
+            default        -> false;
+        };
+        if (!valid) {
+            throw new IllegalArgumentException(type + " cannot be pinned to status " + code
+                    + " — only ERROR_4XX (4xx) and ERROR_5XX (5xx) take a code");
+        }
+        return code;
+    }
+
+    /** Vose's alias method: split columns into under- and over-full, then top up each small one from a large one. */
+    private void buildAliasTable(double[] weights) {
+        int    n     = weights.length;
+        double total = 0;
+        for (double w : weights) total += w;
+
+        double[]       scaled = new double[n];
+        Deque<Integer> small  = new ArrayDeque<>();
+        Deque<Integer> large  = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less]       = more;
+            scaled[more]      = scaled[more] + scaled[less] - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+        // Whatever is left is full up to rounding error
+        while (!large.isEmpty()) probability[large.pop()] = 1.0;
+        while (!small.isEmpty()) probability[small.pop()] = 1.0;
+    }
+}
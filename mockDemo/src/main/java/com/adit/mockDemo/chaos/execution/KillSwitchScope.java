@@ -0,0 +1,14 @@
+package com.adit.mockDemo.chaos.execution;
+
+/**
+ * What a kill switch applies to.
+ *
+ * ORG    — every rule in the organization
+ * TARGET — requests for one target path, whichever rule matches them
+ * RULE   — one rule, whatever targets it matches
+ */
+public enum KillSwitchScope {
+    ORG,
+    TARGET,
+    RULE
+}
@@ -0,0 +1,117 @@
+package com.adit.mockDemo.chaos.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of every kill switch in the cluster.
+ *
+ * ChaosKillSwitch publishes a new snapshot through a volatile field on every
+ * change (copy-on-write), so the request path does one volatile read and then
+ * only touches final fields — no locks, no CAS, no map resizing under it.
+ *
+ * Only switches that are OFF are indexed: orgs and rules as sorted long[]
+ * (binary search, no boxing); targets per org, and only for orgs that have
+ * at least one target switched off.
+ */
+public final class KillSwitchSnapshot {
+
+    public static final KillSwitchSnapshot EMPTY = new KillSwitchSnapshot(Map.of());
+
+    /** One persisted switch, as loaded from chaos_kill_switches. */
+    public record Entry(KillSwitchScope scope, String key, boolean enabled) {}
+
+    // Source for rebuilds and the status endpoint — not read on the hot path
+    private final Map<Long, List<Entry>> entriesByOrg;
+
+    private final long[]                  disabledOrgs;
+    private final long[]                  disabledRules;
+    private final Map<Long, Set<String>>  disabledTargets;
+
+    private KillSwitchSnapshot(Map<Long, List<Entry>> entriesByOrg) {
+        this.entriesByOrg = entriesByOrg;
+
+        List<Long>              orgs    = new ArrayList<>();
+        List<Long>              rules   = new ArrayList<>();
+        Map<Long, Set<String>>  targets = new HashMap<>();
+
+        entriesByOrg.forEach((orgId, entries) -> {
+            for (Entry entry : entries) {
+                if (entry.enabled()) continue;
+                switch (entry.scope()) {
+                    case ORG    -> orgs.add(orgId);
+                    case RULE   -> rules.add(Long.parseLong(entry.key()));
+                    case TARGET -> targets.computeIfAbsent(orgId, k -> new HashSet<>()).add(entry.key());
+                }
+            }
+        });
+
+        this.disabledOrgs  = toSortedArray(orgs);
+        this.disabledRules = toSortedArray(rules);
+        targets.replaceAll((orgId, set) -> Set.copyOf(set));
+        this.disabledTargets = Map.copyOf(targets);
+    }
+
+    public static KillSwitchSnapshot of(Map<Long, List<Entry>> entriesByOrg) {
+        Map<Long, List<Entry>> copy = new HashMap<>();
+        entriesByOrg.forEach((orgId, entries) -> copy.put(orgId, List.copyOf(entries)));
+        return new KillSwitchSnapshot(Collections.unmodifiableMap(copy));
+    }
+
+    // ── Hot path ─────────────────────────────────────────────────────────────
+
+    public boolean isOrgEnabled(long orgId) {
+        return Arrays.binarySearch(disabledOrgs, orgId) < 0;
+    }
+
+    /**
+     * @param ruleId null for the synthetic no-op rule
+     * @param target request target (path); may be null
+     */
+    public boolean isEnabled(Long orgId, Long ruleId, String target) {
+        if (!isOrgEnabled(orgId)) return false;
+        if (ruleId != null && Arrays.binarySearch(disabledRules, ruleId) >= 0) return false;
+        if (target != null && !disabledTargets.isEmpty()) {
+            Set<String> targets = disabledTargets.get(orgId);
+            return targets == null || !targets.contains(target);
+        }
+        return true;
+    }
+
+    // ── Copy-on-write updates ────────────────────────────────────────────────
+
+    /** New snapshot with this org's switches replaced wholesale. */
+    public KillSwitchSnapshot withOrg(Long orgId, List<Entry> entries) {
+        Map<Long, List<Entry>> next = new HashMap<>(entriesByOrg);
+        if (entries.isEmpty()) {
+            next.remove(orgId);
+        } else {
+            next.put(orgId, List.copyOf(entries));
+        }
+        return new KillSwitchSnapshot(Collections.unmodifiableMap(next));
+    }
+
+    /** New snapshot with a single switch set. */
+    public KillSwitchSnapshot with(Long orgId, KillSwitchScope scope, String key, boolean enabled) {
+        List<Entry> entries = new ArrayList<>(entriesFor(orgId));
+        entries.removeIf(e -> e.scope() == scope && e.key().equals(key));
+        entries.add(new Entry(scope, key, enabled));
+        return withOrg(orgId, entries);
+    }
+
+    public List<Entry> entriesFor(Long orgId) {
+        return entriesByOrg.getOrDefault(orgId, List.of());
+    }
+
+    private static long[] toSortedArray(List<Long> values) {
+        long[] array = values.stream().mapToLong(Long::longValue).distinct().toArray();
+        Arrays.sort(array);
+        return array;
+    }
+}
@@ -0,0 +1,22 @@
+package com.adit.mockDemo.chaos.execution;
+
+/**
+ * Shape of the injected delays for a rule. Every model is truncated to
+ * [0, maxDelayMs]; parameters are in the rule's latencyParams (see
+ * LatencySampler for the syntax).
+ *
+ *   FIXED      — always the same delay            value (default maxDelayMs)
+ *   UNIFORM    — flat between min and max         min (default 50), max (default maxDelayMs)
+ *   NORMAL     — bell curve                       mean, stddev
+ *   LOGNORMAL  — long right tail, typical of RPCs median, sigma
+ *   PARETO     — heavy tail, rare huge outliers   scale (minimum delay), shape (alpha)
+ *   EMPIRICAL  — histogram from production        upperBoundMs:count pairs, e.g. 50:9000,200:900,2000:100
+ */
+public enum LatencyModel {
+    FIXED,
+    UNIFORM,
+    NORMAL,
+    LOGNORMAL,
+    PARETO,
+    EMPIRICAL
+}
@@ -0,0 +1,27 @@
+package com.adit.mockDemo.chaos.execution;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Everything ChaosDecisionEngine needs to know about the tenant for one
+ * request, resolved once up front by TenantSnapshotFactory.
+ *
+ * The engine only reads these final fields — no kill-switch map, cache or
+ * schedule lookups happen inside decide().
+ */
+@Value
+@Builder
+public class TenantSnapshot {
+
+    Long orgId;
+
+    /** Org, rule and target kill switches combined */
+    boolean chaosEnabled;
+
+    /** Generation of the org's rule cache when the rule was resolved — for tracing */
+    long ruleIndexVersion;
+
+    /** Whether any of the rule's schedules is active now (true when it has none) */
+    boolean scheduleActive;
+}
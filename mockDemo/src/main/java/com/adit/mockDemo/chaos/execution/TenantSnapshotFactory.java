@@ -0,0 +1,63 @@
+package com.adit.mockDemo.chaos.execution;
+
+import com.adit.mockDemo.chaos.ChaosRule;
+import com.adit.mockDemo.chaos.runtime.TenantCacheKeys;
+import com.adit.mockDemo.entity.ChaosSchedule;
+import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.service.ChaosScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds the per-request TenantSnapshot handed to ChaosDecisionEngine.
+ *
+ * Kill switches come from a single volatile read of the KillSwitchSnapshot.
+ * Schedules are only looked up when chaos could actually fire — a killed org
+ * or disabled rule skips them — and come from the tenant's generation-keyed
+ * rule cache (ChaosScheduleService.getEnabledSchedules), so a request does no
+ * database I/O here once the cache is warm.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenantSnapshotFactory {
+
+    private final ChaosKillSwitch         killSwitch;
+    private final TenantCacheKeys         tenantCacheKeys;
+    private final ScheduleEvaluator       scheduleEvaluator;
+    private final ChaosScheduleService    scheduleService;
+
+    /**
+     * @param rule   rule resolved for this request
+     * @param target request target — per-target kill switches match on this, not the rule's target
+     */
+    public TenantSnapshot forRequest(Organization org, ChaosRule rule, String target) {
+        Long orgId = org.getId();
+
+        boolean chaosEnabled = killSwitch.snapshot().isEnabled(orgId, rule.getId(), target);
+        boolean scheduleActive = chaosEnabled
+                && Boolean.TRUE.equals(rule.getEnabled())
+                && scheduleEvaluator.isActiveNow(resolveSchedules(org, rule));
+
+        return TenantSnapshot.builder()
+                .orgId(orgId)
+                .chaosEnabled(chaosEnabled)
+                .ruleIndexVersion(tenantCacheKeys.generation(orgId))
+                .scheduleActive(scheduleActive)
+                .build();
+    }
+
+    private List<ChaosSchedule> resolveSchedules(Organization org, ChaosRule rule) {
+        if (rule.getId() == null) return Collections.emptyList(); // synthetic no-op rule
+        try {
+            return scheduleService.getEnabledSchedules(org, rule.getId());
+        } catch (Exception e) {
+            log.warn("Could not resolve schedules for target: {} — defaulting to always active", rule.getTarget());
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Cross-instance coherence channel over Postgres LISTEN/NOTIFY.
+ *
+ * Every instance keeps local state that used to drift between replicas: the
+ * rule cache only converged through its 5-minute TTL, and the kill switch was
+ * per-JVM, so an emergency stop only reached the node that served the request.
+ *
+ * Sending: broadcast() issues pg_notify on the caller's transaction when there
+ * is one, so Postgres delivers the notification only if the write commits and
+ * never before the data is visible. Outside a transaction it runs in its own.
+ *
+ * Receiving: one daemon thread holds a dedicated connection (outside the
+ * Hikari pool — it never returns) and re-publishes each notification from
+ * another instance as a CoherenceEvent. Components with local state subscribe
+ * with @EventListener. After a reconnect it publishes an all-orgs event per
+ * topic, because notifications sent while disconnected are gone.
+ *
+ * Disabled unless faultrix.coherence.enabled=true (prod only — H2 has no NOTIFY).
+ */
+@Component
+@Slf4j
+public class ClusterCoherence implements SmartLifecycle {
+
+    static final String CHANNEL = "faultrix_coherence";
+
+    private static final int  POLL_TIMEOUT_MS     = 500;
+    private static final long RECONNECT_BACKOFF_MS = 2_000;
+
+    private final boolean                   enabled;
+    private final String                    instanceId = UUID.randomUUID().toString();
+    private final JdbcTemplate              jdbcTemplate;
+    private final TransactionTemplate       transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper              objectMapper;
+    private final DataSourceProperties      dataSourceProperties;
+
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter reconnectCounter;
+
+    private volatile boolean running;
+    private volatile Thread  listenerThread;
+
+    public ClusterCoherence(@Value("${faultrix.coherence.enabled:false}") boolean enabled,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            ApplicationEventPublisher eventPublisher,
+                            ObjectMapper objectMapper,
+                            DataSourceProperties dataSourceProperties,
+                            MeterRegistry meterRegistry) {
+        this.enabled              = enabled;
+        this.jdbcTemplate         = jdbcTemplate;
+        this.transactionTemplate  = new TransactionTemplate(transactionManager);
+        this.eventPublisher       = eventPublisher;
+        this.objectMapper         = objectMapper;
+        this.dataSourceProperties = dataSourceProperties;
+
+        this.publishedCounter = Counter.builder("chaoslab.coherence.published")
+                .description("Coherence notifications sent to other instances")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        this.receivedCounter = Counter.builder("chaoslab.coherence.received")
+                .description("Coherence notifications received from other instances")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        this.reconnectCounter = Counter.builder("chaoslab.coherence.reconnects")
+                .description("Times the coherence listener lost and re-established its connection")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+    }
+
+    // ── Sending ──────────────────────────────────────────────────────────────
+
+    public void broadcast(CoherenceEvent.Topic topic, Long orgId) {
+        broadcast(topic, orgId, null);
+    }
+
+    /**
+     * Tell every other instance that {@code topic} changed for {@code orgId}.
+     * Joins the caller's transaction if there is one — the notification is then
+     * delivered on commit and discarded on rollback.
+     */
+    public void broadcast(CoherenceEvent.Topic topic, Long orgId, String value) {
+        if (!enabled) return;
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(CoherenceEvent.builder()
+                    .topic(topic)
+                    .orgId(orgId)
+                    .origin(instanceId)
+                    .value(value)
+                    .build());
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialise coherence event {} for org={}", topic, orgId, e);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, CHANNEL, payload));
+        publishedCounter.increment();
+        log.debug("Coherence broadcast queued: {} org={}", topic, orgId);
+    }
+
+    // ── Receiving ────────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Cluster coherence disabled — local caches converge via TTL only");
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::listenLoop, "coherence-listener");
+        thread.setDaemon(true);
+        thread.start();
+        listenerThread = thread;
+        log.info("Cluster coherence listening on '{}' as instance {}", CHANNEL, instanceId);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        boolean firstConnect = true;
+
+        while (running) {
+            try (Connection connection = openListenerConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (!firstConnect) {
+                    reconnectCounter.increment();
+                    publishResync();
+                }
+                firstConnect = false;
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) continue;
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) break;
+                log.warn("Coherence listener connection lost: {} — reconnecting in {}ms",
+                        e.getMessage(), RECONNECT_BACKOFF_MS);
+                firstConnect = false;
+                sleepQuietly(RECONNECT_BACKOFF_MS);
+            }
+        }
+        log.info("Cluster coherence listener stopped");
+    }
+
+    void dispatch(String payload) {
+        CoherenceEvent event;
+        try {
+            event = objectMapper.readValue(payload, CoherenceEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed coherence payload: {}", payload);
+            return;
+        }
+
+        if (instanceId.equals(event.getOrigin())) return; // already applied locally
+
+        receivedCounter.increment();
+        log.debug("Coherence event from {}: {} org={}", event.getOrigin(), event.getTopic(), event.getOrgId());
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            // One failing subscriber must not kill the listener thread
+            log.error("Coherence subscriber failed for {} org={}", event.getTopic(), event.getOrgId(), e);
+        }
+    }
+
+    private void publishResync() {
+        log.warn("Coherence listener reconnected — invalidating all orgs (notifications may have been missed)");
+        for (CoherenceEvent.Topic topic : CoherenceEvent.Topic.values()) {
+            eventPublisher.publishEvent(CoherenceEvent.builder().topic(topic).build());
+        }
+    }
+
+    private Connection openListenerConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword());
+        connection.setAutoCommit(true); // LISTEN must not sit in an open transaction
+        return connection;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    String instanceId() {
+        return instanceId;
+    }
+}
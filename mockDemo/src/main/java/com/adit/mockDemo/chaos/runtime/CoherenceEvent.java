@@ -0,0 +1,43 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A change made on another instance, delivered over ClusterCoherence.
+ *
+ * Published as a Spring application event on the receiving instance only —
+ * the instance that made the change has already applied it locally, so its
+ * own notifications are filtered out by origin.
+ *
+ * orgId == null means "all orgs": sent after the listener reconnects, since
+ * notifications raised while it was disconnected are lost.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CoherenceEvent {
+
+    public enum Topic {
+        RULES,
+        SCHEDULES,
+        WEBHOOKS,
+        KILL_SWITCH
+    }
+
+    private Topic  topic;
+    private Long   orgId;
+    private String origin;   // instance id of the sender
+    private String value;    // optional topic-specific state, e.g. "false" for KILL_SWITCH
+
+    @JsonIgnore
+    public boolean isAllOrgs() {
+        return orgId == null;
+    }
+}
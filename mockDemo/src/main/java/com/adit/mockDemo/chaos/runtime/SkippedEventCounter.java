@@ -0,0 +1,158 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import com.adit.mockDemo.datasource.DataSourcePool;
+import com.adit.mockDemo.datasource.PoolRoutingDataSource;
+import com.adit.mockDemo.repository.ChaosSkipCountJdbcRepository;
+import com.adit.mockDemo.repository.ChaosSkipCountJdbcRepository.SkipCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact count of skipped chaos decisions, aggregated in memory.
+ *
+ * Replaces the 1% sampled chaos_events rows: every skip bumps a LongAdder keyed
+ * by (org, target, minute) — no I/O, and LongAdder stripes its cells so hot
+ * targets don't contend on one CAS. A scheduled flush writes one additive row
+ * per key to chaos_skip_counts, so write volume scales with active targets
+ * per minute, not with traffic.
+ *
+ * A minute's adder is only removed once the minute is more than one flush
+ * interval old, so a request that picked its key just before the boundary
+ * still lands in the map. Counts from a failed flush are merged back and
+ * retried on the next run.
+ */
+@Component
+@Slf4j
+public class SkippedEventCounter {
+
+    static final long FLUSH_INTERVAL_MS = 15_000;
+    static final int  MAX_TARGET_LENGTH = 255;
+
+    private static final long MINUTE_MS = 60_000;
+
+    record Key(long orgId, String target, long minute) {}
+
+    private final ConcurrentHashMap<Key, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private final ChaosSkipCountJdbcRepository skipCountRepository;
+    private final TransactionTemplate          transactionTemplate;
+    private final Counter                      flushedRowsCounter;
+    private final Counter                      flushFailureCounter;
+
+    public SkippedEventCounter(ChaosSkipCountJdbcRepository skipCountRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.skipCountRepository = skipCountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.flushedRowsCounter = Counter.builder("chaoslab.chaos.skipped.flushed")
+                .description("Aggregate skip-count rows written to the database")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        this.flushFailureCounter = Counter.builder("chaoslab.chaos.skipped.flush.failures")
+                .description("Skip-count flushes that failed and were retried")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        Gauge.builder("chaoslab.chaos.skipped.pending.keys", counters, Map::size)
+                .description("(org, target, minute) skip counters held in memory")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+    }
+
+    // ── Hot path ─────────────────────────────────────────────────────────────
+
+    public void record(Long orgId, String target) {
+        record(orgId, target, System.currentTimeMillis());
+    }
+
+    void record(Long orgId, String target, long nowMillis) {
+        Key key = new Key(orgId, normalise(target), nowMillis / MINUTE_MS);
+        counters.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    // ── Reads ────────────────────────────────────────────────────────────────
+
+    /** Skips counted on this instance but not yet flushed, for minutes inside [from, to]. */
+    public long pending(Long orgId, Instant from, Instant to) {
+        long fromMinute = from.toEpochMilli() / MINUTE_MS;
+        long toMinute   = to.toEpochMilli() / MINUTE_MS;
+        long sum = 0;
+        for (Map.Entry<Key, LongAdder> entry : counters.entrySet()) {
+            Key key = entry.getKey();
+            if (key.orgId() == orgId && key.minute() >= fromMinute && key.minute() <= toMinute) {
+                sum += entry.getValue().sum();
+            }
+        }
+        return sum;
+    }
+
+    // ── Flush ────────────────────────────────────────────────────────────────
+
+    @Scheduled(fixedDelay = FLUSH_INTERVAL_MS)
+    public void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        // Every key is final at shutdown — drain them all
+        flush(Long.MAX_VALUE);
+    }
+
+    void flush(long nowMillis) {
+        long retireBefore = nowMillis == Long.MAX_VALUE
+                ? Long.MAX_VALUE
+                : (nowMillis - FLUSH_INTERVAL_MS) / MINUTE_MS;
+
+        List<SkipCount> rows = new ArrayList<>();
+        for (Map.Entry<Key, LongAdder> entry : counters.entrySet()) {
+            Key       key   = entry.getKey();
+            LongAdder adder = entry.getValue();
+
+            long count = adder.sumThenReset();
+            if (key.minute() < retireBefore && counters.remove(key, adder)) {
+                count += adder.sumThenReset();   // anything that raced in before removal
+            }
+            if (count > 0) {
+                rows.add(new SkipCount(key.orgId(), key.target(),
+                        Instant.ofEpochMilli(key.minute() * MINUTE_MS), count));
+            }
+        }
+        if (rows.isEmpty()) return;
+
+        try {
+            PoolRoutingDataSource.run(DataSourcePool.EVENTS, () ->
+                    transactionTemplate.executeWithoutResult(status -> skipCountRepository.addCounts(rows)));
+            flushedRowsCounter.increment(rows.size());
+            log.debug("Flushed {} skip-count rows", rows.size());
+        } catch (RuntimeException e) {
+            flushFailureCounter.increment();
+            log.error("Skip-count flush failed — {} rows kept for retry", rows.size(), e);
+            for (SkipCount row : rows) {
+                Key key = new Key(row.orgId(), row.target(), row.bucketStart().toEpochMilli() / MINUTE_MS);
+                counters.computeIfAbsent(key, k -> new LongAdder()).add(row.count());
+            }
+        }
+    }
+
+    private static String normalise(String target) {
+        if (target == null) return "";
+        return target.length() > MAX_TARGET_LENGTH ? target.substring(0, MAX_TARGET_LENGTH) : target;
+    }
+}
@@ -0,0 +1,102 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation-stamped cache keys for the "chaosRules" cache — rules and the
+ * schedules resolved for them on the request path.
+ *
+ * Every key embeds the owning org's current generation:
+ *
+ *   {orgId}:{generation}:{suffix}      e.g. 42:7:engine:/v1/charges
+ *
+ * Invalidating an org bumps its generation, so all of that org's existing
+ * entries become unreachable in O(1) and age out via Caffeine's size/TTL
+ * bounds. Other tenants' entries are untouched — previously every write used
+ * allEntries = true and flushed the cache for everyone.
+ *
+ * Invalidations are also broadcast over ClusterCoherence so other instances
+ * bump the same generation instead of serving stale rules until the TTL.
+ *
+ * Used from SpEL: @Cacheable(key = "@tenantCacheKeys.key(#organization.id, 'engine:' + #target)")
+ */
+@Component("tenantCacheKeys")
+@RequiredArgsConstructor
+@Slf4j
+public class TenantCacheKeys {
+
+    /** Slot for keys that are not tenant-scoped (deprecated legacy lookups) */
+    public static final long GLOBAL = 0L;
+
+    private final ConcurrentHashMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final ClusterCoherence clusterCoherence;
+
+    public String key(Long orgId, String suffix) {
+        // Register the org on first use so invalidateAll() can reach its entries
+        long gen = generations.computeIfAbsent(orgId, k -> new AtomicLong()).get();
+        return orgId + ":" + gen + ":" + suffix;
+    }
+
+    public long generation(Long orgId) {
+        AtomicLong gen = generations.get(orgId);
+        return gen != null ? gen.get() : 0L;
+    }
+
+    /**
+     * Invalidate every cached entry for this org.
+     *
+     * Inside a transaction the bump is deferred to afterCommit — bumping earlier
+     * would let a concurrent reader load the pre-commit rows and cache them
+     * under the new generation. Unscoped legacy keys are bumped as well since
+     * they can resolve to any tenant's rule.
+     *
+     * The cluster broadcast is issued on the same transaction, so other
+     * instances hear about it at commit time too.
+     */
+    public void invalidate(Long orgId) {
+        clusterCoherence.broadcast(CoherenceEvent.Topic.RULES, orgId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(orgId);
+                }
+            });
+        } else {
+            bump(orgId);
+        }
+    }
+
+    @EventListener
+    public void onRemoteChange(CoherenceEvent event) {
+        if (event.getTopic() != CoherenceEvent.Topic.RULES) return;
+
+        if (event.isAllOrgs()) {
+            invalidateAll();
+        } else {
+            bump(event.getOrgId());
+        }
+    }
+
+    /** Local only — every org seen so far gets a new generation. */
+    public void invalidateAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        log.debug("Rule cache invalidated for all {} tracked orgs", generations.size());
+    }
+
+    private void bump(Long orgId) {
+        long next = generations.computeIfAbsent(orgId, k -> new AtomicLong()).incrementAndGet();
+        generations.computeIfAbsent(GLOBAL, k -> new AtomicLong()).incrementAndGet();
+        log.debug("Rule cache invalidated for org={} (generation {})", orgId, next);
+    }
+}
@@ -0,0 +1,185 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import com.adit.mockDemo.datasource.DataSourcePool;
+import com.adit.mockDemo.datasource.PoolRoutingDataSource;
+import com.adit.mockDemo.repository.ChaosTimeStatsJdbcRepository;
+import com.adit.mockDemo.repository.ChaosTimeStatsJdbcRepository.TimeStat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-(org, minute) rollup of every chaos decision, flushed to chaos_time_stats.
+ *
+ * Same shape as SkippedEventCounter: striped LongAdders on the hot path, an
+ * additive upsert every flush interval, and a minute's cell is only retired
+ * once it is more than one interval old. Each flush writes a minute row and
+ * the matching hour row, so long windows read hourly rows without
+ * re-aggregating minutes.
+ */
+@Component
+@Slf4j
+public class TimeStatsCounter {
+
+    static final long FLUSH_INTERVAL_MS = 15_000;
+    public static final Duration MINUTE_RETENTION = Duration.ofDays(2);
+
+    private static final long MINUTE_MS = 60_000;
+    private static final long HOUR_MS   = 3_600_000;
+
+    record Key(long orgId, long minute) {}
+
+    /** One minute's counters for one org. */
+    static final class Cell {
+        final LongAdder       injected   = new LongAdder();
+        final LongAdder       skipped    = new LongAdder();
+        final LongAdder       delaySumMs = new LongAdder();
+        final LongAccumulator delayMaxMs = new LongAccumulator(Math::max, 0);
+    }
+
+    private final ConcurrentHashMap<Key, Cell> cells = new ConcurrentHashMap<>();
+
+    private final ChaosTimeStatsJdbcRepository timeStatsRepository;
+    private final TransactionTemplate          transactionTemplate;
+    private final Counter                      flushFailureCounter;
+
+    public TimeStatsCounter(ChaosTimeStatsJdbcRepository timeStatsRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.timeStatsRepository = timeStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.flushFailureCounter = Counter.builder("chaoslab.timeseries.flush.failures")
+                .description("Time-series rollup flushes that failed and were retried")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+    }
+
+    // ── Hot path ─────────────────────────────────────────────────────────────
+
+    public void recordInjected(Long orgId, int delayMs) {
+        recordInjected(orgId, delayMs, System.currentTimeMillis());
+    }
+
+    public void recordSkipped(Long orgId) {
+        recordSkipped(orgId, System.currentTimeMillis());
+    }
+
+    void recordInjected(Long orgId, int delayMs, long nowMillis) {
+        Cell cell = cell(orgId, nowMillis);
+        cell.injected.increment();
+        if (delayMs > 0) {
+            cell.delaySumMs.add(delayMs);
+            cell.delayMaxMs.accumulate(delayMs);
+        }
+    }
+
+    void recordSkipped(Long orgId, long nowMillis) {
+        cell(orgId, nowMillis).skipped.increment();
+    }
+
+    private Cell cell(Long orgId, long nowMillis) {
+        return cells.computeIfAbsent(new Key(orgId, nowMillis / MINUTE_MS), k -> new Cell());
+    }
+
+    // ── Flush ────────────────────────────────────────────────────────────────
+
+    @Scheduled(fixedDelay = FLUSH_INTERVAL_MS)
+    public void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush(Long.MAX_VALUE);
+    }
+
+    void flush(long nowMillis) {
+        long retireBefore = nowMillis == Long.MAX_VALUE
+                ? Long.MAX_VALUE
+                : (nowMillis - FLUSH_INTERVAL_MS) / MINUTE_MS;
+
+        List<TimeStat>     minuteRows = new ArrayList<>();
+        Map<Key, TimeStat> hourRows   = new HashMap<>();
+
+        for (Map.Entry<Key, Cell> entry : cells.entrySet()) {
+            Key  key  = entry.getKey();
+            Cell cell = entry.getValue();
+
+            TimeStat row = drain(key, cell);
+            if (key.minute() < retireBefore && cells.remove(key, cell)) {
+                row = combine(row, drain(key, cell));   // anything that raced in before removal
+            }
+            if (row.injected() == 0 && row.skipped() == 0) continue;
+
+            minuteRows.add(row);
+            long hourStart = key.minute() * MINUTE_MS / HOUR_MS * HOUR_MS;
+            hourRows.merge(new Key(key.orgId(), hourStart / MINUTE_MS),
+                    new TimeStat(key.orgId(), ChaosTimeStatsJdbcRepository.HOUR, Instant.ofEpochMilli(hourStart),
+                            row.injected(), row.skipped(), row.delaySumMs(), row.delayMaxMs()),
+                    TimeStatsCounter::combine);
+        }
+        if (minuteRows.isEmpty()) return;
+
+        try {
+            PoolRoutingDataSource.run(DataSourcePool.EVENTS, () ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        timeStatsRepository.addStats(minuteRows);
+                        timeStatsRepository.addStats(new ArrayList<>(hourRows.values()));
+                    }));
+            log.debug("Flushed {} minute / {} hour time-series rows", minuteRows.size(), hourRows.size());
+        } catch (RuntimeException e) {
+            flushFailureCounter.increment();
+            log.error("Time-series flush failed — {} minute rows kept for retry", minuteRows.size(), e);
+            for (TimeStat row : minuteRows) {
+                Cell cell = cells.computeIfAbsent(
+                        new Key(row.orgId(), row.bucketStart().toEpochMilli() / MINUTE_MS), k -> new Cell());
+                cell.injected.add(row.injected());
+                cell.skipped.add(row.skipped());
+                cell.delaySumMs.add(row.delaySumMs());
+                cell.delayMaxMs.accumulate(row.delayMaxMs());
+            }
+        }
+    }
+
+    /** Minute rows are only needed for short windows — hour rows cover the rest. */
+    @Scheduled(cron = "0 17 * * * *") // hourly
+    public void pruneMinuteRows() {
+        Instant cutoff = Instant.now().minus(MINUTE_RETENTION);
+        Integer deleted = PoolRoutingDataSource.call(DataSourcePool.EVENTS, () -> transactionTemplate.execute(status ->
+                timeStatsRepository.deleteBefore(ChaosTimeStatsJdbcRepository.MINUTE, cutoff)));
+        log.debug("Pruned {} minute time-series rows older than {}", deleted, cutoff);
+    }
+
+    private static TimeStat drain(Key key, Cell cell) {
+        return new TimeStat(key.orgId(), ChaosTimeStatsJdbcRepository.MINUTE,
+                Instant.ofEpochMilli(key.minute() * MINUTE_MS),
+                cell.injected.sumThenReset(),
+                cell.skipped.sumThenReset(),
+                cell.delaySumMs.sumThenReset(),
+                cell.delayMaxMs.getThenReset());
+    }
+
+    private static TimeStat combine(TimeStat a, TimeStat b) {
+        return new TimeStat(a.orgId(), a.resolution(), a.bucketStart(),
+                a.injected() + b.injected(),
+                a.skipped() + b.skipped(),
+                a.delaySumMs() + b.delaySumMs(),
+                Math.max(a.delayMaxMs(), b.delayMaxMs()));
+    }
+}
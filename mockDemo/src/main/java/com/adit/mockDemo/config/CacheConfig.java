@@ -17,8 +17,11 @@ import java.util.concurrent.TimeUnit;
  * This prevents the cache serving stale chaos rules if the DB is edited
  * directly (e.g. via migration, admin tool, or another service instance).
  *
- * CacheEvict annotations in ChaosRuleService still work normally — Caffeine
- * honours Spring's cache abstraction eviction calls in addition to its own TTL.
+ * Writes no longer flush the whole cache. Keys are generation-stamped per
+ * tenant (see TenantCacheKeys), so a write in one org orphans only that org's
+ * entries; the orphans age out through the size bound and TTL below. Reads use
+ * {@code @Cacheable(sync = true)}, so concurrent misses on the same key share a
+ * single load through Caffeine instead of stampeding the database.
  */
 @Configuration
 @EnableCaching
@@ -27,13 +30,16 @@ public class CacheConfig {
     /** TTL for all cache entries: 5 minutes after write. */
     private static final long CACHE_TTL_MINUTES = 5;
 
+    /** Sized for many tenants' live keys plus orphaned older generations awaiting eviction. */
+    private static final long CACHE_MAX_ENTRIES = 10_000;
+
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager manager = new CaffeineCacheManager("chaosRules");
         manager.setCaffeine(
                 Caffeine.newBuilder()
                         .expireAfterWrite(CACHE_TTL_MINUTES, TimeUnit.MINUTES)
-                        .maximumSize(1_000)   // guard against unbounded growth
+                        .maximumSize(CACHE_MAX_ENTRIES)   // guard against unbounded growth
                         .recordStats()        // exposes hit/miss to Micrometer automatically
         );
         return manager;
@@ -0,0 +1,28 @@
+package com.adit.mockDemo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Adaptive in-flight limits for /api/* (see ConcurrencyLimitFilter).
+ * Applied separately to the proxy and to the management APIs.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "faultrix.concurrency")
+public class ConcurrencyLimitProperties {
+    private boolean  enabled          = true;
+    private int      initialLimit     = 20;
+    private int      minLimit         = 5;
+    private int      maxLimit         = 100;    // per limiter — both together stay within Tomcat's 200 threads
+    private Duration window           = Duration.ofSeconds(1);   // latency sampling window
+    private int      minWindowSamples = 10;     // windows with fewer samples are extended
+    private int      longWindows      = 60;     // baseline latency averages over this many windows
+    private double   tolerance        = 1.5;    // latency may grow to this multiple of baseline before shrinking
+    private double   smoothing        = 0.2;    // weight of each upward probe
+}
@@ -0,0 +1,80 @@
+package com.adit.mockDemo.config;
+
+import com.adit.mockDemo.datasource.DataSourcePool;
+import com.adit.mockDemo.datasource.PoolRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * One Hikari pool per workload, behind a routing DataSource.
+ *
+ * With a single pool, a burst of analytics scans or event inserts held every
+ * connection while rule and API-key lookups on the proxy path waited — and
+ * so did the kill switch. Each pool now has its own size and connection
+ * timeout, and Hikari publishes hikaricp.connections.* per pool.
+ *
+ * The routing DataSource is @Primary, so JPA, Flyway and JdbcTemplate use it
+ * unchanged and land on HOT unless a service asks for another pool.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class DataSourceConfig {
+
+    private final DataSourceProperties     dataSourceProperties;
+    private final DataSourcePoolProperties poolProperties;
+    private final Environment              environment;
+
+    @Bean
+    public HikariDataSource hotDataSource() {
+        return pool(DataSourcePool.HOT, poolProperties.getHot());
+    }
+
+    @Bean
+    public HikariDataSource eventsDataSource() {
+        return pool(DataSourcePool.EVENTS, poolProperties.getEvents());
+    }
+
+    @Bean
+    public HikariDataSource analyticsDataSource() {
+        return pool(DataSourcePool.ANALYTICS, poolProperties.getAnalytics());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        return new PoolRoutingDataSource(Map.of(
+                DataSourcePool.HOT,       hotDataSource(),
+                DataSourcePool.EVENTS,    eventsDataSource(),
+                DataSourcePool.ANALYTICS, analyticsDataSource()));
+    }
+
+    private HikariDataSource pool(DataSourcePool pool, DataSourcePoolProperties.Pool settings) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+
+        // Shared settings first, then this pool's own size and timeout
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(pool.name().toLowerCase());
+        dataSource.setMaximumPoolSize(settings.getMaximumPoolSize());
+        dataSource.setMinimumIdle(settings.getMinimumIdle());
+        dataSource.setConnectionTimeout(settings.getConnectionTimeout().toMillis());
+
+        log.info("Datasource pool [{}]: max={}, minIdle={}, connectionTimeout={}ms",
+                dataSource.getPoolName(), dataSource.getMaximumPoolSize(),
+                dataSource.getMinimumIdle(), dataSource.getConnectionTimeout());
+        return dataSource;
+    }
+}
@@ -0,0 +1,35 @@
+package com.adit.mockDemo.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Size and connection timeout of each Hikari pool (see DataSourceConfig).
+ * Everything else — URL, credentials, lifetimes, auto-commit — comes from
+ * spring.datasource and spring.datasource.hikari, shared by all three.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "faultrix.datasource")
+public class DataSourcePoolProperties {
+    private Pool hot       = new Pool(10, 2, Duration.ofSeconds(5));    // fail fast — a caller is waiting
+    private Pool events    = new Pool(4,  1, Duration.ofSeconds(10));   // async writers, can queue
+    private Pool analytics = new Pool(4,  0, Duration.ofSeconds(30));   // dashboards, slow scans
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        private int      maximumPoolSize;
+        private int      minimumIdle;
+        private Duration connectionTimeout;
+    }
+}
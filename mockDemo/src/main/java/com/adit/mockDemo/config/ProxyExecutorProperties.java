@@ -0,0 +1,21 @@
+package com.adit.mockDemo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Dedicated worker pool for proxied calls (see ProxyExecutor).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "faultrix.proxy.executor")
+public class ProxyExecutorProperties {
+    private int      threads       = 64;
+    private int      queueCapacity = 64;                          // beyond this, 503 OVERLOADED
+    private Duration timeout       = Duration.ofSeconds(30);      // covers connect + read + max injected delay
+}
@@ -0,0 +1,22 @@
+package com.adit.mockDemo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Per-org record/replay store for proxied upstream responses
+ * (see ResponseRecorder).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "faultrix.proxy.recording")
+public class ProxyRecordingProperties {
+    private String   dir               = System.getProperty("java.io.tmpdir") + "/faultrix-recordings";
+    private DataSize capacity          = DataSize.ofMegabytes(64);  // mapped file per org, < 2GB
+    private DataSize maxEntrySize      = DataSize.ofMegabytes(1);   // larger responses are not recorded
+    private int      samplesPerRequest = 32;                        // recordings kept per fingerprint
+}
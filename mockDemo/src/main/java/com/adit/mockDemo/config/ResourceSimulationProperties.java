@@ -0,0 +1,27 @@
+package com.adit.mockDemo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Limits for CPU_SPIKE and MEMORY_PRESSURE chaos (see ResourceSimulator).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "faultrix.proxy.simulation")
+public class ResourceSimulationProperties {
+    private int      cpuCores           = 2;                          // burner threads, shared by all CPU_SPIKE calls
+    private double   cpuDutyCycle       = 0.75;                       // fraction of each slice spent burning
+    private Duration cpuSlice           = Duration.ofMillis(20);
+    private Duration cpuDefaultDuration = Duration.ofMillis(500);     // when the decision carries no delay
+    private Duration cpuMaxDuration     = Duration.ofSeconds(3);
+    private DataSize memoryBudget       = DataSize.ofMegabytes(64);   // all MEMORY_PRESSURE calls together
+    private DataSize memoryChunk        = DataSize.ofMegabytes(8);    // held by one call
+    private Duration memoryHold         = Duration.ofMillis(500);
+}
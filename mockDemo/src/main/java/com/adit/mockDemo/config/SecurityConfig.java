@@ -1,6 +1,7 @@
 package com.adit.mockDemo.config;
 
 import com.adit.mockDemo.security.ApiKeyAuthFilter;
+import com.adit.mockDemo.security.ConcurrencyLimitFilter;
 import com.adit.mockDemo.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -12,11 +13,25 @@ import org.springframework.core.Ordered;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final ApiKeyAuthFilter apiKeyAuthFilter;
-    private final RateLimitFilter  rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final ApiKeyAuthFilter       apiKeyAuthFilter;
+    private final RateLimitFilter        rateLimitFilter;
 
     /**
-     * API key authentication runs FIRST.
+     * Concurrency limiting runs FIRST.
+     * Shedding an overloaded request must cost as little as possible — no API key lookup.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration() {
+        FilterRegistrationBean<ConcurrencyLimitFilter> reg = new FilterRegistrationBean<>();
+        reg.setFilter(concurrencyLimitFilter);
+        reg.addUrlPatterns("/api/*");
+        reg.setOrder(Ordered.HIGHEST_PRECEDENCE);       // runs first
+        return reg;
+    }
+
+    /**
+     * API key authentication runs next.
      * It resolves the Organization from the API key and sets it as a request attribute.
      * RateLimitFilter depends on that attribute — so auth must precede rate limiting.
      */
@@ -25,7 +40,7 @@ public class SecurityConfig {
         FilterRegistrationBean<ApiKeyAuthFilter> reg = new FilterRegistrationBean<>();
         reg.setFilter(apiKeyAuthFilter);
         reg.addUrlPatterns("/api/*");
-        reg.setOrder(Ordered.HIGHEST_PRECEDENCE);       // runs first
+        reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);   // runs after the concurrency limit
         return reg;
     }
 
@@ -39,7 +54,7 @@ public class SecurityConfig {
         FilterRegistrationBean<RateLimitFilter> reg = new FilterRegistrationBean<>();
         reg.setFilter(rateLimitFilter);
         reg.addUrlPatterns("/api/*");
-        reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);   // runs after auth
+        reg.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);   // runs after auth
         return reg;
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.adit.mockDemo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Hedged upstream calls for rules with hedgeRequests (see UpstreamHedger).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "faultrix.proxy.hedge")
+public class UpstreamHedgeProperties {
+    private double   percentile  = 0.95;                    // hedge once the first attempt is slower than this
+    private int      minSamples  = 20;                      // no hedging until an upstream has this many latencies
+    private Duration minDelay    = Duration.ofMillis(5);    // never hedge sooner than this
+    private double   budgetRatio = 0.05;                    // hedges may add at most this share of extra calls
+    private int      budgetBurst = 10;                      // hedges allowed back-to-back when the budget is full
+    private int      maxThreads  = 64;                      // attempt threads; beyond this calls run unhedged
+}
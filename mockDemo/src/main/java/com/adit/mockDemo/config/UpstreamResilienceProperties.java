@@ -0,0 +1,25 @@
+package com.adit.mockDemo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-upstream bulkhead and circuit breaker limits for the proxy
+ * (see UpstreamCircuitBreakers).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "faultrix.proxy.upstream")
+public class UpstreamResilienceProperties {
+    private int      maxConcurrent        = 32;    // in-flight calls per upstream host:port
+    private double   failureRateThreshold = 0.5;   // open when this share of the window failed
+    private int      slidingWindowSize    = 20;    // last N calls considered
+    private int      minimumCalls         = 10;    // no verdict until the window holds this many
+    private Duration openDuration         = Duration.ofSeconds(15);
+    private int      halfOpenProbes       = 3;     // trial calls that must all succeed to close
+}
@@ -1,8 +1,11 @@
 package com.adit.mockDemo.controller;
 
 import com.adit.mockDemo.chaos.execution.ChaosKillSwitch;
+import com.adit.mockDemo.chaos.execution.KillSwitchScope;
+import com.adit.mockDemo.chaos.execution.KillSwitchSnapshot;
 import com.adit.mockDemo.entity.Organization;
 import com.adit.mockDemo.security.TenantContext;
+import com.adit.mockDemo.service.ChaosRuleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,6 +14,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,8 +25,9 @@ import java.util.Map;
 @SecurityRequirement(name = "ApiKey")
 public class ChaosControlController {
 
-    private final ChaosKillSwitch killSwitch;
-    private final TenantContext   tenantContext;
+    private final ChaosKillSwitch  killSwitch;
+    private final TenantContext    tenantContext;
+    private final ChaosRuleService chaosRuleService;
 
     @GetMapping("/status")
     @Operation(summary = "Get chaos status for the authenticated organization")
@@ -31,8 +36,11 @@ public class ChaosControlController {
         log.info("GET /api/v1/chaos/control/status - Org: {}", org.getSlug());
 
         boolean active = killSwitch.isChaosEnabled(org.getId());
+        List<KillSwitchSnapshot.Entry> switches = killSwitch.snapshot().entriesFor(org.getId());
         return ResponseEntity.ok(Map.of(
                 "enabled", active,
+                "disabledTargets", disabledKeys(switches, KillSwitchScope.TARGET),
+                "disabledRules", disabledKeys(switches, KillSwitchScope.RULE).stream().map(Long::valueOf).toList(),
                 "message", active
                         ? "Chaos injection is ACTIVE"
                         : "Chaos injection is DISABLED (kill switch activated)"
@@ -80,4 +88,76 @@ public class ChaosControlController {
                 "message", newState ? "Chaos enabled" : "Chaos disabled"
         ));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/targets/disable")
+    @Operation(
+            summary = "Disable chaos injection for one target",
+            description = "Stops chaos for requests to this target, whichever rule matches them. Persists across restarts."
+    )
+    public ResponseEntity<Map<String, Object>> disableTarget(@RequestParam String target) {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.warn("POST /api/v1/chaos/control/targets/disable - Target: {}, Org: {}", target, org.getSlug());
+
+        killSwitch.setTargetEnabled(org.getId(), target, false);
+        return ResponseEntity.ok(Map.of(
+                "target", target,
+                "enabled", false,
+                "message", "Chaos injection disabled for target"
+        ));
+    }
+
+    @PostMapping("/targets/enable")
+    @Operation(summary = "Re-enable chaos injection for one target")
+    public ResponseEntity<Map<String, Object>> enableTarget(@RequestParam String target) {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.warn("POST /api/v1/chaos/control/targets/enable - Target: {}, Org: {}", target, org.getSlug());
+
+        killSwitch.setTargetEnabled(org.getId(), target, true);
+        return ResponseEntity.ok(Map.of(
+                "target", target,
+                "enabled", true,
+                "message", "Chaos injection enabled for target"
+        ));
+    }
+
+    @PostMapping("/rules/{ruleId}/disable")
+    @Operation(
+            summary = "Disable chaos injection for one rule",
+            description = "Stops this rule from injecting chaos without editing it. Persists across restarts."
+    )
+    public ResponseEntity<Map<String, Object>> disableRule(@PathVariable Long ruleId) {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.warn("POST /api/v1/chaos/control/rules/{}/disable - Org: {}", ruleId, org.getSlug());
+
+        chaosRuleService.getRuleById(org, ruleId); // validates ownership — 404 for other tenants' rules
+        killSwitch.setRuleEnabled(org.getId(), ruleId, false);
+        return ResponseEntity.ok(Map.of(
+                "ruleId", ruleId,
+                "enabled", false,
+                "message", "Chaos injection disabled for rule"
+        ));
+    }
+
+    @PostMapping("/rules/{ruleId}/enable")
+    @Operation(summary = "Re-enable chaos injection for one rule")
+    public ResponseEntity<Map<String, Object>> enableRule(@PathVariable Long ruleId) {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.warn("POST /api/v1/chaos/control/rules/{}/enable - Org: {}", ruleId, org.getSlug());
+
+        chaosRuleService.getRuleById(org, ruleId);
+        killSwitch.setRuleEnabled(org.getId(), ruleId, true);
+        return ResponseEntity.ok(Map.of(
+                "ruleId", ruleId,
+                "enabled", true,
+                "message", "Chaos injection enabled for rule"
+        ));
+    }
+
+    private static List<String> disabledKeys(List<KillSwitchSnapshot.Entry> switches, KillSwitchScope scope) {
+        return switches.stream()
+                .filter(e -> e.scope() == scope && !e.enabled())
+                .map(KillSwitchSnapshot.Entry::key)
+                .sorted()
+                .toList();
+    }
+}
@@ -2,8 +2,11 @@ package com.adit.mockDemo.controller;
 
 import com.adit.mockDemo.dto.*;
 import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.exception.ValidationException;
+import com.adit.mockDemo.live.LiveEventHub;
 import com.adit.mockDemo.security.TenantContext;
 import com.adit.mockDemo.service.ChaosEventService;
+import com.adit.mockDemo.service.ChaosTimeSeriesService;
 import com.adit.mockDemo.service.WebhookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,9 +16,14 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.List;
@@ -28,27 +36,67 @@ import java.util.List;
 @SecurityRequirement(name = "ApiKey")
 public class ChaosEventController {
 
-    private final ChaosEventService eventService;
-    private final WebhookService    webhookService;
-    private final TenantContext     tenantContext;
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV    = "text/csv";
+
+    private final ChaosEventService      eventService;
+    private final ChaosTimeSeriesService timeSeriesService;
+    private final WebhookService         webhookService;
+    private final LiveEventHub           liveEventHub;
+    private final TenantContext          tenantContext;
 
     // ── Event History ─────────────────────────────────────────────────────────
 
     @GetMapping
     @Operation(summary = "Get chaos event history",
-            description = "Paginated list of chaos events. Filter by target, time range, and injection status.")
+            description = "Paginated list of chaos events, newest first. Filter by target, time range, and injection status. " +
+                    "Pass pagination.nextCursor back as ?cursor= to fetch the next page.")
     public ResponseEntity<PageResponse<ChaosEventResponse>> getEvents(
             @Parameter(description = "Filter by target endpoint") @RequestParam(required = false) String target,
             @Parameter(description = "From timestamp (ISO-8601)") @RequestParam(required = false) Instant from,
             @Parameter(description = "To timestamp (ISO-8601)")   @RequestParam(required = false) Instant to,
             @Parameter(description = "Filter: true=injected only, false=skipped only") @RequestParam(required = false) Boolean injected,
             @Parameter(description = "Page size (max 100)")       @RequestParam(defaultValue = "50") int limit,
-            @Parameter(description = "Page number (0-based)")     @RequestParam(defaultValue = "0")  int page) {
+            @Parameter(description = "nextCursor from the previous page") @RequestParam(required = false) Long cursor,
+            @Parameter(description = "Page number (0-based) — deprecated, use cursor", deprecated = true)
+            @RequestParam(defaultValue = "0")  int page) {
 
         Organization org = tenantContext.getCurrentOrganization();
         log.info("GET /api/v1/chaos/events - Org: {}, target: {}", org.getSlug(), target);
 
-        return ResponseEntity.ok(eventService.getEvents(org, target, from, to, injected, limit, page));
+        return ResponseEntity.ok(eventService.getEvents(org, target, from, to, injected, limit, cursor, page));
+    }
+
+    @GetMapping(value = "/export", produces = {NDJSON, CSV})
+    @Operation(summary = "Export chaos events as NDJSON or CSV",
+            description = "Streams every matching event, oldest first, straight from a database cursor. " +
+                    "Same filters as the history endpoint. Send Accept-Encoding: gzip for a compressed stream.")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @Parameter(description = "ndjson or csv")             @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Filter by target endpoint") @RequestParam(required = false) String target,
+            @Parameter(description = "From timestamp (ISO-8601)") @RequestParam(required = false) Instant from,
+            @Parameter(description = "To timestamp (ISO-8601)")   @RequestParam(required = false) Instant to,
+            @Parameter(description = "Filter: true=injected only, false=skipped only") @RequestParam(required = false) Boolean injected,
+            NativeWebRequest webRequest) {
+
+        Organization org = tenantContext.getCurrentOrganization();
+        log.info("GET /api/v1/chaos/events/export?format={} - Org: {}", format, org.getSlug());
+
+        ChaosEventService.ExportFormat exportFormat = switch (format.toLowerCase()) {
+            case "ndjson" -> ChaosEventService.ExportFormat.NDJSON;
+            case "csv"    -> ChaosEventService.ExportFormat.CSV;
+            default       -> throw new ValidationException("Unsupported export format: " + format + " (use ndjson or csv)");
+        };
+
+        ExportTimeout.extend(webRequest);
+        StreamingResponseBody body = out ->
+                eventService.exportEvents(org, target, from, to, injected, exportFormat, out);
+        String extension = exportFormat == ChaosEventService.ExportFormat.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat == ChaosEventService.ExportFormat.CSV ? CSV : NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"chaos-events-" + org.getSlug() + "." + extension + "\"")
+                .body(body);
     }
 
     // ── Analytics ─────────────────────────────────────────────────────────────
@@ -58,12 +106,52 @@ public class ChaosEventController {
             description = "Aggregated stats: injection rate, top targets, type breakdown, hourly time-series. Window: 1h, 24h, 7d, 30d")
     public ResponseEntity<ChaosAnalyticsResponse> getAnalytics(
             @Parameter(description = "Time window: 1h, 24h, 7d, 30d")
-            @RequestParam(defaultValue = "24h") String window) {
+            @RequestParam(defaultValue = "24h") String window,
+            @Parameter(description = "Compute top targets and type breakdown exactly in the database instead of from in-memory sketches")
+            @RequestParam(defaultValue = "false") boolean exact) {
 
         Organization org = tenantContext.getCurrentOrganization();
         log.info("GET /api/v1/chaos/events/analytics?window={} - Org: {}", window, org.getSlug());
 
-        return ResponseEntity.ok(eventService.getAnalytics(org, window));
+        return ResponseEntity.ok(eventService.getAnalytics(org, window, exact));
+    }
+
+    @GetMapping("/timeseries")
+    @Operation(summary = "Get chaos time series",
+            description = "Injected/skipped counts and delay per bucket. Bucket width follows the window: " +
+                    "1m up to 2h, 5m up to 2d, 1h up to 14d, 1d beyond. Downsampled to at most 'points' " +
+                    "points with mode=avg (merge adjacent buckets) or mode=lttb (keep shape-defining buckets).")
+    public ResponseEntity<ChaosTimeSeriesResponse> getTimeSeries(
+            @Parameter(description = "Window ending now, e.g. 90m, 24h, 7d (ignored when 'from' is set)")
+            @RequestParam(defaultValue = "24h") String window,
+            @Parameter(description = "From timestamp (ISO-8601)") @RequestParam(required = false) Instant from,
+            @Parameter(description = "To timestamp (ISO-8601), default now") @RequestParam(required = false) Instant to,
+            @Parameter(description = "Maximum points returned (3-2000, default 300)") @RequestParam(required = false) Integer points,
+            @Parameter(description = "Downsampling: avg, lttb or none") @RequestParam(defaultValue = "avg") String mode) {
+
+        Organization org = tenantContext.getCurrentOrganization();
+        log.info("GET /api/v1/chaos/events/timeseries?window={} - Org: {}", window, org.getSlug());
+
+        ChaosTimeSeriesService.Mode downsampling = switch (mode.toLowerCase()) {
+            case "avg"  -> ChaosTimeSeriesService.Mode.AVG;
+            case "lttb" -> ChaosTimeSeriesService.Mode.LTTB;
+            case "none" -> ChaosTimeSeriesService.Mode.NONE;
+            default     -> throw new ValidationException("Unsupported mode: " + mode + " (use avg, lttb or none)");
+        };
+
+        return ResponseEntity.ok(timeSeriesService.getTimeSeries(org, window, from, to, points, downsampling));
+    }
+
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream live chaos activity (SSE)",
+            description = "Server-sent events: one 'frame' event per second with activity, carrying counts, type mix, " +
+                    "delay percentiles and the latest injections seen by this instance. Idle streams get a comment " +
+                    "every 15s. Clients that fall 8 frames behind are disconnected and should reconnect.")
+    public SseEmitter streamLive() {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.info("GET /api/v1/chaos/events/live - Org: {}", org.getSlug());
+
+        return liveEventHub.subscribe(org.getId());
     }
 
     // ── Webhooks ──────────────────────────────────────────────────────────────
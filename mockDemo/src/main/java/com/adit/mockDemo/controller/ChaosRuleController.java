@@ -11,9 +11,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -26,6 +30,8 @@ import java.util.Map;
 @SecurityRequirement(name = "ApiKey")
 public class ChaosRuleController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ChaosRuleService chaosRuleService;
     private final TenantContext tenantContext;
 
@@ -120,6 +126,44 @@ public class ChaosRuleController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/bulk")
+    @Operation(
+            summary = "Bulk import chaos rules",
+            description = "Create or update up to 1000 rules in one transaction, matched by target. " +
+                    "All items are validated first — if any item is invalid nothing is written and " +
+                    "the per-item results explain why. Set dryRun=true to validate without writing."
+    )
+    public ResponseEntity<ChaosRuleBulkResponse> bulkImport(@Valid @RequestBody ChaosRuleBulkRequest request) {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.info("POST /api/v1/chaos/rules/bulk - {} rules, Organization: {}",
+                request.getRules().size(), org.getSlug());
+
+        ChaosRuleBulkResponse result = chaosRuleService.bulkUpsertRules(
+                org, request.getRules(), Boolean.TRUE.equals(request.getDryRun()));
+
+        boolean rejected = !result.getApplied() && result.getFailed() > 0;
+        return ResponseEntity.status(rejected ? HttpStatus.BAD_REQUEST : HttpStatus.OK).body(result);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(
+            summary = "Export all chaos rules as NDJSON",
+            description = "Streams one rule per line in the same shape as the bulk import items, " +
+                    "so an export can be replayed through POST /bulk."
+    )
+    public ResponseEntity<StreamingResponseBody> exportRules(NativeWebRequest webRequest) {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.info("GET /api/v1/chaos/rules/export - Organization: {}", org.getSlug());
+
+        ExportTimeout.extend(webRequest);
+        StreamingResponseBody body = out -> chaosRuleService.exportRules(org, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"chaos-rules-" + org.getSlug() + ".ndjson\"")
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing chaos rule")
     public ResponseEntity<ChaosRuleResponse> updateRule(@PathVariable Long id, @Valid @RequestBody ChaosRuleRequest request) {
@@ -146,12 +190,18 @@ public class ChaosRuleController {
                 .targetingMode(existing.getTargetingMode())
                 .failureRate(existing.getFailureRate())
                 .maxDelayMs(existing.getMaxDelayMs())
+                .latencyModel(existing.getLatencyModel())
+                .latencyParams(existing.getLatencyParams())
+                .faultMix(existing.getFaultMix())
                 .enabled(patch.containsKey("enabled")
                         ? (Boolean) patch.get("enabled")
                         : existing.getEnabled())
                 .description(existing.getDescription())
                 .blastRadius(existing.getBlastRadius())
                 .seed(existing.getSeed())
+                .coalesceGets(existing.getCoalesceGets())
+                .coalesceHeaders(existing.getCoalesceHeaders())
+                .hedgeRequests(existing.getHedgeRequests())
                 .tags(existing.getTags())
                 .build();
 
@@ -0,0 +1,27 @@
+package com.adit.mockDemo.controller;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+/**
+ * Async timeout for streaming exports.
+ *
+ * A StreamingResponseBody is written under the request's async timeout, which
+ * defaults to the container's 30s — far too short for millions of rows. The
+ * export endpoints raise it on their own request before returning the body,
+ * so proxy, SSE and every other async request keep the global default.
+ */
+final class ExportTimeout {
+
+    static final long EXPORT_TIMEOUT_MS = 30 * 60_000L;
+
+    private ExportTimeout() {}
+
+    static void extend(NativeWebRequest request) {
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) {
+            asyncRequest.setTimeout(EXPORT_TIMEOUT_MS);
+        }
+    }
+}
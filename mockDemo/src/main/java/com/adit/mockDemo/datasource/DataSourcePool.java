@@ -0,0 +1,10 @@
+package com.adit.mockDemo.datasource;
+
+/**
+ * Workloads that get their own Hikari pool (see DataSourceConfig).
+ */
+public enum DataSourcePool {
+    HOT,         // request-path lookups (API keys, rules, kill switches) and management CRUD — the default
+    EVENTS,      // chaos event ingestion and counter flushes
+    ANALYTICS    // event history, exports, analytics, time series, insights
+}
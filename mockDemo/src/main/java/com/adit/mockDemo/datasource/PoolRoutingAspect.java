@@ -0,0 +1,30 @@
+package com.adit.mockDemo.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies @UsePool. Highest precedence, so it wraps the transaction
+ * interceptor and the pool is chosen before the transaction takes a
+ * connection. @Async still runs first, so the choice is made on the worker
+ * thread.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PoolRoutingAspect {
+
+    @Around("@annotation(usePool)")
+    public Object route(ProceedingJoinPoint joinPoint, UsePool usePool) throws Throwable {
+        DataSourcePool previous = PoolRoutingDataSource.enter(usePool.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            PoolRoutingDataSource.exit(previous);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.adit.mockDemo.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The application's DataSource: hands out connections from the pool chosen
+ * for the current thread, or the HOT pool when none was chosen.
+ *
+ * JPA, Flyway and JdbcTemplate all see this one DataSource, so repositories
+ * need no changes — services pick the pool with @UsePool, or with
+ * {@link #call}/{@link #run} around programmatic transactions.
+ */
+public class PoolRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<DataSourcePool> CURRENT = new ThreadLocal<>();
+
+    public PoolRoutingDataSource(Map<DataSourcePool, DataSource> pools) {
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(DataSourcePool.HOT));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    public static <T> T call(DataSourcePool pool, Supplier<T> work) {
+        DataSourcePool previous = enter(pool);
+        try {
+            return work.get();
+        } finally {
+            exit(previous);
+        }
+    }
+
+    public static void run(DataSourcePool pool, Runnable work) {
+        call(pool, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** @return the pool to restore on {@link #exit} */
+    static DataSourcePool enter(DataSourcePool pool) {
+        DataSourcePool previous = CURRENT.get();
+        CURRENT.set(pool);
+        return previous;
+    }
+
+    static void exit(DataSourcePool previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.adit.mockDemo.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated bean method on the given connection pool.
+ *
+ * Applied outside @Transactional (see PoolRoutingAspect), so the
+ * transaction's connection comes from that pool. Inside a transaction that
+ * already holds a connection it has no effect.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UsePool {
+    DataSourcePool value();
+}
@@ -35,6 +35,12 @@ public class ChaosAnalyticsResponse {
     // ── Chaos type breakdown ──────────────────────────────────────────────────
     private Map<ChaosType, Long> typeBreakdown;
 
+    // ── Sketch accuracy ───────────────────────────────────────────────────────
+    @Schema(description = "True when topTargets/typeBreakdown came from in-memory sketches; pass exact=true for SQL")
+    private Boolean breakdownApproximate;
+    @Schema(description = "Upper bound on how far any topTargets count may exceed the true count (0 when exact)")
+    private Long topTargetsMaxError;
+
     // ── Hourly time-series ────────────────────────────────────────────────────
     private List<TimeSeriesPoint> timeSeries;
 
@@ -45,6 +51,7 @@ public class ChaosAnalyticsResponse {
     public static class TargetStat {
         private String target;
         private Long injectionCount;
+        private Long maxOvercount;        // sketch error for this target; null when exact
     }
 
     @Data
@@ -0,0 +1,29 @@
+package com.adit.mockDemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch of chaos rules to upsert (matched to existing rules by target)")
+public class ChaosRuleBulkRequest {
+
+    @NotEmpty(message = "At least one rule is required")
+    @Size(max = 1000, message = "A bulk import cannot exceed 1000 rules")
+    @Schema(description = "Rules to create or update. Existing rules with the same target are updated in place.")
+    private List<@Valid ChaosRuleRequest> rules;
+
+    @Builder.Default
+    @Schema(description = "Validate and plan the import without writing anything", example = "false")
+    private Boolean dryRun = false;
+}
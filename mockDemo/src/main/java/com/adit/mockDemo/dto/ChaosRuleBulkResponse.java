@@ -0,0 +1,47 @@
+package com.adit.mockDemo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk chaos rule import")
+public class ChaosRuleBulkResponse {
+
+    @Schema(description = "True if the batch was written. False for dry runs and for batches with any invalid item.")
+    private Boolean applied;
+
+    private Boolean dryRun;
+    private Integer created;
+    private Integer updated;
+    private Integer failed;
+
+    private List<ItemResult> results;
+
+    public enum ItemStatus {
+        CREATED,
+        UPDATED,
+        FAILED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+        private Integer index;       // position in the request's rules array
+        private String target;
+        private ItemStatus status;   // planned action when applied = false
+        private Long id;             // populated once the batch is applied
+        private String error;
+    }
+}
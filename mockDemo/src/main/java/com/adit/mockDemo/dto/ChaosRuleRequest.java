@@ -1,5 +1,6 @@
 package com.adit.mockDemo.dto;
 
+import com.adit.mockDemo.chaos.execution.LatencyModel;
 import com.adit.mockDemo.chaos.execution.TargetingMode;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
@@ -39,6 +40,22 @@ public class ChaosRuleRequest {
     @Schema(description = "Maximum artificial delay in milliseconds", example = "2000")
     private Long maxDelayMs;
 
+    @Schema(description = "Delay distribution: FIXED, UNIFORM, NORMAL, LOGNORMAL, PARETO or EMPIRICAL "
+            + "(truncated to maxDelayMs). Defaults to UNIFORM", example = "LOGNORMAL")
+    private LatencyModel latencyModel;
+
+    @Size(max = 1000, message = "Latency params must not exceed 1000 characters")
+    @Schema(description = "Model parameters as key=value pairs (NORMAL: mean,stddev; LOGNORMAL: median,sigma; "
+            + "PARETO: scale,shape; FIXED: value; UNIFORM: min,max), or for EMPIRICAL a histogram of "
+            + "upperBoundMs:count pairs", example = "median=120,sigma=0.9")
+    private String latencyParams;
+
+    @Size(max = 500, message = "Fault mix must not exceed 500 characters")
+    @Schema(description = "Weighted chaos types injected when the failure roll hits, as TYPE=weight pairs; "
+            + "ERROR_4XX/ERROR_5XX may pin a status (ERROR_5XX:503=30). Empty = built-in distribution",
+            example = "LATENCY=70,ERROR_5XX:503=30")
+    private String faultMix;
+
     @NotNull(message = "Enabled status is required")
     @Schema(description = "Whether this rule is active", example = "true")
     private Boolean enabled;
@@ -56,6 +73,20 @@ public class ChaosRuleRequest {
     @Schema(description = "Random seed for deterministic chaos", example = "42")
     private Long seed;
 
+    @Schema(description = "Proxy only: identical concurrent GETs share one upstream call (chaos is still decided per request)",
+            example = "false")
+    private Boolean coalesceGets;
+
+    @Size(max = 500, message = "Coalesce headers must not exceed 500 characters")
+    @Schema(description = "Comma-separated request headers that are part of a coalesced GET's identity, besides method, URL, "
+            + "Accept-Encoding, Authorization and Cookie, which always are",
+            example = "Accept,X-Tenant-Id")
+    private String coalesceHeaders;
+
+    @Schema(description = "Proxy only: for no-chaos GET/HEAD/OPTIONS calls, send a second attempt when the first is "
+            + "slower than the upstream's recent p95 and take whichever answers first", example = "false")
+    private Boolean hedgeRequests;
+
     @Size(max = 200, message = "Tags must not exceed 200 characters")
     @Schema(description = "Comma-separated tags for categorization", example = "database,critical,production")
     private String tags;
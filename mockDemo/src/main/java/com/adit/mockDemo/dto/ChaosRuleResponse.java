@@ -1,5 +1,6 @@
 package com.adit.mockDemo.dto;
 
+import com.adit.mockDemo.chaos.execution.LatencyModel;
 import com.adit.mockDemo.chaos.execution.TargetingMode;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -37,6 +38,15 @@ public class ChaosRuleResponse {
     @Schema(description = "Maximum artificial delay in milliseconds", example = "2000")
     private Long maxDelayMs;
 
+    @Schema(description = "Delay distribution", example = "LOGNORMAL")
+    private LatencyModel latencyModel;
+
+    @Schema(description = "Delay distribution parameters", example = "median=120,sigma=0.9")
+    private String latencyParams;
+
+    @Schema(description = "Weighted chaos types, or null for the built-in distribution", example = "LATENCY=70,ERROR_5XX:503=30")
+    private String faultMix;
+
     @Schema(description = "Whether this rule is active", example = "true")
     private Boolean enabled;
 
@@ -49,6 +59,15 @@ public class ChaosRuleResponse {
     @Schema(description = "Random seed for deterministic chaos", example = "42")
     private Long seed;
 
+    @Schema(description = "Whether identical concurrent proxied GETs share one upstream call", example = "false")
+    private Boolean coalesceGets;
+
+    @Schema(description = "Extra headers that are part of a coalesced GET's identity", example = "Accept,X-Tenant-Id")
+    private String coalesceHeaders;
+
+    @Schema(description = "Whether slow no-chaos safe proxied calls are hedged with a second attempt", example = "false")
+    private Boolean hedgeRequests;
+
     @Schema(description = "Comma-separated tags", example = "database,critical,production")
     private String tags;
 
@@ -0,0 +1,43 @@
+package com.adit.mockDemo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Chaos decision counts over time at a window-dependent bucket width")
+public class ChaosTimeSeriesResponse {
+
+    private Instant from;
+    private Instant to;
+    private String  bucketWidth;          // "1m", "5m", "1h", "1d" — or a multiple after avg downsampling
+    private String  downsampling;         // "none", "avg" or "lttb"
+    private Integer sourceBuckets;        // buckets before downsampling
+
+    private List<Point> points;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        private Instant bucketStart;
+        private Long    total;
+        private Long    injected;
+        private Long    skipped;
+        private Double  avgDelayMs;       // mean injected delay in this bucket
+        private Long    maxDelayMs;
+
+        // Only set by avg downsampling: spread of total across the merged source buckets
+        private Long    minTotal;
+        private Long    maxTotal;
+    }
+}
@@ -0,0 +1,47 @@
+package com.adit.mockDemo.dto;
+
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One coalesced second of chaos activity for the live dashboard")
+public class LiveDashboardFrame {
+
+    private Instant at;                       // end of the second this frame covers
+    private Long    injected;
+    private Long    skipped;
+    private Double  injectionRate;
+    private Map<ChaosType, Long> byType;
+
+    // Injected delay distribution within this second (sampled above 512 events)
+    private Long    delayP50Ms;
+    private Long    delayP95Ms;
+    private Long    delayP99Ms;
+    private Long    delayMaxMs;
+
+    private List<Injection> recentInjections; // newest last, at most 20
+    private Long    omittedInjections;        // injections this second not listed above
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Injection {
+        private String    target;
+        private ChaosType chaosType;
+        private Integer   httpStatus;
+        private Integer   delayMs;
+        private String    requestId;
+    }
+}
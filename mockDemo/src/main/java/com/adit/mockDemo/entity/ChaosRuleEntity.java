@@ -1,5 +1,6 @@
 package com.adit.mockDemo.entity;
 
+import com.adit.mockDemo.chaos.execution.LatencyModel;
 import com.adit.mockDemo.chaos.execution.TargetingMode;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -62,12 +63,36 @@ public class ChaosRuleEntity {
     @Column
     private Long seed;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Builder.Default
+    private LatencyModel latencyModel = LatencyModel.UNIFORM;
+
+    @Column(length = 1000)
+    private String latencyParams;
+
+    @Column(length = 500)
+    private String faultMix;
+
     @Column(nullable = false)
     @DecimalMin(value = "0.0", message = "Blast radius must be between 0.0 and 1.0")
     @DecimalMax(value = "1.0", message = "Blast radius must be between 0.0 and 1.0")
     @Builder.Default
     private Double blastRadius = 1.0;
 
+    // ── Proxy ────────────────────────────────────────────────────────────────
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean coalesceGets = false;
+
+    @Column(length = 500)
+    private String coalesceHeaders;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean hedgeRequests = false;
+
     // ── Audit ────────────────────────────────────────────────────────────────
 
     @Column(nullable = false, updatable = false)
@@ -93,7 +118,10 @@ public class ChaosRuleEntity {
         if (failureRate  == null) failureRate   = 0.0;
         if (maxDelayMs   == null) maxDelayMs    = 0L;
         if (blastRadius  == null) blastRadius   = 1.0;
+        if (coalesceGets == null) coalesceGets  = false;
+        if (hedgeRequests == null) hedgeRequests = false;
         if (targetingMode == null) targetingMode = TargetingMode.EXACT;
+        if (latencyModel == null) latencyModel  = LatencyModel.UNIFORM;
     }
 
     @PreUpdate
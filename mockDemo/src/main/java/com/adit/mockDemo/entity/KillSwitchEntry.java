@@ -0,0 +1,50 @@
+package com.adit.mockDemo.entity;
+
+import com.adit.mockDemo.chaos.execution.KillSwitchScope;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "chaos_kill_switches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KillSwitchEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "organization_id", nullable = false)
+    private Organization organization;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private KillSwitchScope scope;
+
+    // '' for ORG, target path for TARGET, rule id for RULE
+    @Column(name = "scope_key", nullable = false)
+    @Builder.Default
+    private String scopeKey = "";
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean enabled = true;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Version
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = Instant.now();
+    }
+}
@@ -10,9 +10,11 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -119,6 +121,25 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleExecutorSaturated(
+            RejectedExecutionException ex, HttpServletRequest request) {
+
+        log.warn("Executor saturated, shedding: {}", request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error("OVERLOADED", "Server is at capacity. Retry shortly.", 503, request));
+    }
+
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleAsyncTimeout(
+            AsyncRequestTimeoutException ex, HttpServletRequest request) {
+
+        log.warn("Async request timed out: {}", request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(
+                error("REQUEST_TIMEOUT", "The request did not complete in time.", 504, request));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
             Exception ex, HttpServletRequest request) {
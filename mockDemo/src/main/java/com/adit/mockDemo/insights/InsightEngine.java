@@ -2,6 +2,8 @@ package com.adit.mockDemo.insights;
 
 import com.adit.mockDemo.chaos.ChaosRule;
 import com.adit.mockDemo.chaos.execution.ChaosType;
+import com.adit.mockDemo.datasource.DataSourcePool;
+import com.adit.mockDemo.datasource.UsePool;
 import com.adit.mockDemo.entity.ChaosEvent;
 import com.adit.mockDemo.entity.ChaosRuleEntity;
 import com.adit.mockDemo.entity.Organization;
@@ -82,6 +84,7 @@ public class InsightEngine {
     /**
      * Full AI-powered insight generation with scoring and metadata
      */
+    @UsePool(DataSourcePool.ANALYTICS)
     public List<FailureInsight> generateInsights(String target, Organization org) {
         log.info("Generating AI insights for target: {} (org: {})", target, org.getSlug());
 
@@ -0,0 +1,366 @@
+package com.adit.mockDemo.live;
+
+import com.adit.mockDemo.chaos.execution.ChaosDecision;
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import com.adit.mockDemo.dto.LiveDashboardFrame;
+import com.adit.mockDemo.exception.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process fan-out of chaos activity to live dashboards over SSE.
+ *
+ * Replaces dashboards polling analytics every few seconds: ChaosEventLogger
+ * pushes every decision here, the hub coalesces them per org, and once a
+ * second a single frame (counts, type mix, delay percentiles, last few
+ * injections) is handed to every subscriber of that org. Orgs nobody is
+ * watching cost one map lookup per decision.
+ *
+ * Each subscriber has a bounded queue of {@link #SUBSCRIBER_BUFFER} frames
+ * drained by a shared sender pool. A consumer that falls that far behind is
+ * disconnected rather than buffered — the browser's EventSource reconnects
+ * and starts from the current second. A full sender pool is not the
+ * consumer's fault: its frames stay queued and the next tick retries. Frames are only sent for seconds with
+ * activity; a comment line every {@link #HEARTBEAT_TICKS}s keeps idle
+ * connections open through proxies.
+ *
+ * State is per instance: a dashboard sees the decisions made by the replica
+ * it is connected to.
+ */
+@Component
+@Slf4j
+public class LiveEventHub {
+
+    static final int  MAX_SUBSCRIBERS_PER_ORG = 50;
+    static final int  SUBSCRIBER_BUFFER       = 8;
+    static final int  SENDER_THREADS          = 32;
+    static final int  SENDER_QUEUE            = 4096;
+    static final int  RECENT_INJECTIONS       = 20;
+    static final int  DELAY_RESERVOIR         = 512;
+    static final int  HEARTBEAT_TICKS         = 15;
+    static final long EMITTER_TIMEOUT_MS      = 30 * 60_000L;
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final ConcurrentHashMap<Long, OrgChannel> channels = new ConcurrentHashMap<>();
+    private final Executor                            senders;
+    private final Counter                             droppedCounter;
+    private final Counter                             deferredCounter;
+    private final AtomicInteger                       tickCount = new AtomicInteger();
+
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public LiveEventHub(MeterRegistry meterRegistry) {
+        this(meterRegistry, senderPool());
+    }
+
+    LiveEventHub(MeterRegistry meterRegistry, Executor senders) {
+        this.senders = senders;
+
+        this.droppedCounter = Counter.builder("chaoslab.live.subscribers.dropped")
+                .description("Live dashboard streams disconnected for falling behind or failing to send")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        this.deferredCounter = Counter.builder("chaoslab.live.sends.deferred")
+                .description("Live dashboard sends put off to the next tick because the sender pool was full")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        Gauge.builder("chaoslab.live.subscribers", channels,
+                        c -> c.values().stream().mapToInt(ch -> ch.subscribers.size()).sum())
+                .description("Open live dashboard streams")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+    }
+
+    /**
+     * At most one drain per subscriber is ever queued, so the work queue
+     * holds a full fan-out even with thousands of streams open; it is
+     * bounded only so a stuck pool cannot grow without limit.
+     */
+    private static ThreadPoolExecutor senderPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(SENDER_QUEUE),
+                runnable -> {
+                    Thread t = new Thread(runnable, "live-hub-sender");
+                    t.setDaemon(true);
+                    return t;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, "live-hub-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::tickSafely, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) ticker.shutdownNow();
+        channels.values().forEach(ch -> ch.subscribers.forEach(s -> s.emitter.complete()));
+        channels.clear();
+        if (senders instanceof ThreadPoolExecutor pool) pool.shutdownNow();
+    }
+
+    // ── Subscribing ──────────────────────────────────────────────────────────
+
+    public SseEmitter subscribe(Long orgId) {
+        return subscribe(orgId, new SseEmitter(EMITTER_TIMEOUT_MS));
+    }
+
+    SseEmitter subscribe(Long orgId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(orgId, emitter);
+
+        channels.compute(orgId, (id, channel) -> {
+            OrgChannel ch = channel != null ? channel : new OrgChannel();
+            if (ch.subscribers.size() >= MAX_SUBSCRIBERS_PER_ORG) {
+                throw new ValidationException("Too many live streams open for this organization (max "
+                        + MAX_SUBSCRIBERS_PER_ORG + ")");
+            }
+            ch.subscribers.add(subscriber);
+            return ch;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        log.info("Live stream opened for org={}", orgId);
+        return emitter;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        channels.computeIfPresent(subscriber.orgId, (id, ch) -> {
+            ch.subscribers.remove(subscriber);
+            return ch.subscribers.isEmpty() ? null : ch;
+        });
+    }
+
+    // ── Ingestion (hot path) ─────────────────────────────────────────────────
+
+    public void recordInjected(Long orgId, String target, ChaosDecision decision, String requestId) {
+        OrgChannel ch = channels.get(orgId);
+        if (ch == null) return;
+        ch.injected.increment();
+        ch.addInjection(LiveDashboardFrame.Injection.builder()
+                .target(target)
+                .chaosType(decision.getChaosType())
+                .httpStatus(decision.getErrorCode() > 0 ? decision.getErrorCode() : null)
+                .delayMs(decision.getDelayMs())
+                .requestId(requestId)
+                .build());
+    }
+
+    public void recordSkipped(Long orgId) {
+        OrgChannel ch = channels.get(orgId);
+        if (ch != null) ch.skipped.increment();
+    }
+
+    // ── Fan-out ──────────────────────────────────────────────────────────────
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled task for good
+            log.error("Live hub tick failed", e);
+        }
+    }
+
+    void tick() {
+        boolean heartbeat = tickCount.incrementAndGet() % HEARTBEAT_TICKS == 0;
+        Instant now = Instant.now();
+
+        channels.values().forEach(ch -> {
+            LiveDashboardFrame frame = ch.drainFrame(now);
+            Object message = frame != null ? frame : heartbeat ? HEARTBEAT : null;
+            ch.subscribers.forEach(s -> {
+                if (s.closed) return;
+                if (message != null && !s.queue.offer(message)) {
+                    drop(s, "fell " + SUBSCRIBER_BUFFER + " frames behind");
+                    return;
+                }
+                // Also retries frames left queued when the pool was full last tick
+                if (!s.queue.isEmpty()) scheduleDrain(s);
+            });
+        });
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) return;
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            // Frames stay queued for the next tick; only a full subscriber buffer disconnects
+            subscriber.draining.set(false);
+            deferredCounter.increment();
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object message;
+            while (!subscriber.closed && (message = subscriber.queue.poll()) != null) {
+                if (message == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name("frame")
+                            .data(message, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            drop(subscriber, "send failed: " + e.getMessage());
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // A frame offered while we were finishing up must not wait for the next tick
+        if (!subscriber.closed && !subscriber.queue.isEmpty()) scheduleDrain(subscriber);
+    }
+
+    private void drop(Subscriber subscriber, String reason) {
+        if (subscriber.closed) return;
+        unsubscribe(subscriber);
+        droppedCounter.increment();
+        log.warn("Live stream for org={} dropped: {}", subscriber.orgId, reason);
+        subscriber.emitter.complete();
+    }
+
+    int subscriberCount(Long orgId) {
+        OrgChannel ch = channels.get(orgId);
+        return ch != null ? ch.subscribers.size() : 0;
+    }
+
+    // ── Internal state ───────────────────────────────────────────────────────
+
+    private static final class Subscriber {
+        final Long                  orgId;
+        final SseEmitter            emitter;
+        final BlockingQueue<Object> queue    = new ArrayBlockingQueue<>(SUBSCRIBER_BUFFER);
+        final AtomicBoolean         draining = new AtomicBoolean();
+        volatile boolean            closed;
+
+        Subscriber(Long orgId, SseEmitter emitter) {
+            this.orgId   = orgId;
+            this.emitter = emitter;
+        }
+    }
+
+    /** One org's activity for the current second. */
+    private static final class OrgChannel {
+        final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        final LongAdder       injected    = new LongAdder();
+        final LongAdder       skipped     = new LongAdder();
+
+        // Guarded by this
+        private final long[]                            typeCounts = new long[ChaosType.values().length];
+        private final Deque<LiveDashboardFrame.Injection> recent   = new ArrayDeque<>(RECENT_INJECTIONS);
+        private final long[]                            delays     = new long[DELAY_RESERVOIR];
+        private long                                    injectionsSeen;
+
+        synchronized void addInjection(LiveDashboardFrame.Injection injection) {
+            ChaosType type = injection.getChaosType() != null ? injection.getChaosType() : ChaosType.NONE;
+            typeCounts[type.ordinal()]++;
+
+            if (recent.size() == RECENT_INJECTIONS) recent.removeFirst();
+            recent.addLast(injection);
+
+            // Reservoir sampling keeps percentiles unbiased without unbounded memory
+            long seen = injectionsSeen++;
+            if (seen < DELAY_RESERVOIR) {
+                delays[(int) seen] = injection.getDelayMs();
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(seen + 1);
+                if (slot < DELAY_RESERVOIR) delays[(int) slot] = injection.getDelayMs();
+            }
+        }
+
+        /** Frame for the second just ended, or null if nothing happened. */
+        LiveDashboardFrame drainFrame(Instant now) {
+            long inj  = injected.sumThenReset();
+            long skip = skipped.sumThenReset();
+
+            Map<ChaosType, Long>                 byType = new EnumMap<>(ChaosType.class);
+            List<LiveDashboardFrame.Injection>   listed;
+            long[]                               sample;
+            long                                 seen;
+            synchronized (this) {
+                for (ChaosType t : ChaosType.values()) {
+                    if (typeCounts[t.ordinal()] > 0) byType.put(t, typeCounts[t.ordinal()]);
+                }
+                Arrays.fill(typeCounts, 0);
+                listed = new ArrayList<>(recent);
+                recent.clear();
+                seen   = injectionsSeen;
+                sample = Arrays.copyOf(delays, (int) Math.min(seen, DELAY_RESERVOIR));
+                injectionsSeen = 0;
+            }
+
+            if (inj == 0 && skip == 0 && seen == 0) return null;
+
+            Arrays.sort(sample);
+            return LiveDashboardFrame.builder()
+                    .at(now)
+                    .injected(inj)
+                    .skipped(skip)
+                    .injectionRate(inj + skip > 0 ? (double) inj / (inj + skip) : 0.0)
+                    .byType(byType)
+                    .delayP50Ms(percentile(sample, 0.50))
+                    .delayP95Ms(percentile(sample, 0.95))
+                    .delayP99Ms(percentile(sample, 0.99))
+                    .delayMaxMs(sample.length > 0 ? sample[sample.length - 1] : null)
+                    .recentInjections(listed)
+                    .omittedInjections(Math.max(0, seen - listed.size()))
+                    .build();
+        }
+
+        private static Long percentile(long[] sorted, double q) {
+            if (sorted.length == 0) return null;
+            int index = (int) Math.ceil(q * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.adit.mockDemo.observability;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,8 +11,6 @@ import org.slf4j.MDC;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 import java.util.Enumeration;
@@ -36,32 +36,47 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
 
         long startTime = System.currentTimeMillis();
 
-        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
-
+        // No content-caching wrappers: bodies are never logged, and buffering the
+        // whole response would break streaming (SSE, exports, raw proxy bodies)
         try {
-            filterChain.doFilter(wrappedRequest, wrappedResponse);
+            filterChain.doFilter(request, response);
         } finally {
-            long duration = System.currentTimeMillis() - startTime;
-
-            // Build structured log
-            logRequest(wrappedRequest, wrappedResponse, duration);
-
-            // Copy response body back
-            wrappedResponse.copyBodyToResponse();
+            String organization = MDC.get("organization");
+
+            if (request.isAsyncStarted()) {
+                // Proxied calls and streams finish on another thread — log the real status and duration then
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        logRequest(request, response, System.currentTimeMillis() - startTime, organization);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {}
+
+                    @Override
+                    public void onError(AsyncEvent event) {}
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {}
+                });
+            } else {
+                // Build structured log
+                logRequest(request, response, System.currentTimeMillis() - startTime, organization);
+            }
         }
     }
 
-    private void logRequest(ContentCachingRequestWrapper request,
-                            ContentCachingResponseWrapper response,
-                            long duration) {
+    private void logRequest(HttpServletRequest request,
+                            HttpServletResponse response,
+                            long duration,
+                            String organization) {
 
         String method = request.getMethod();
         String path = request.getRequestURI();
         String query = request.getQueryString();
         int status = response.getStatus();
         String userAgent = request.getHeader("User-Agent");
-        String organization = MDC.get("organization");
 
         // Structured logging (JSON-friendly)
         log.info("HTTP {} {} {} - status={} duration={}ms org={} ua={}",
@@ -73,8 +88,9 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
                 organization != null ? organization : "unknown",
                 userAgent != null ? userAgent.substring(0, Math.min(50, userAgent.length())) : "unknown");
 
-        // Warn on slow requests
-        if (duration > 1000) {
+        // Warn on slow requests — SSE streams are long-lived by design
+        String contentType = response.getContentType();
+        if (duration > 1000 && (contentType == null || !contentType.startsWith("text/event-stream"))) {
             log.warn("SLOW REQUEST: {} {} took {}ms", method, path, duration);
         }
 
@@ -0,0 +1,76 @@
+package com.adit.mockDemo.proxy;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Content-Encoding handling for proxied bodies.
+ *
+ * The proxy passes compressed upstream bytes through untouched. Decoding is
+ * only done when something has to read the content (CORRUPT_BODY, or envelope
+ * mode, which returns the body as a string). Only gzip and deflate are
+ * understood. Callers avoid asking the upstream for anything else in those
+ * cases.
+ */
+final class ContentCodings {
+
+    private ContentCodings() {}
+
+    /** True if the body carries a Content-Encoding other than identity. */
+    static boolean isEncoded(HttpHeaders headers) {
+        String encoding = encoding(headers);
+        return encoding != null && !encoding.equals("identity");
+    }
+
+    /**
+     * Decodes a gzip or deflate body and drops Content-Encoding from
+     * {@code headers}. Returns null, leaving headers untouched, when the
+     * encoding is unknown or the bytes are not valid for it.
+     */
+    static byte[] decode(byte[] body, HttpHeaders headers) {
+        String encoding = encoding(headers);
+        if (encoding == null || encoding.equals("identity")) return body;
+        if (body == null || body.length == 0) {
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            return body;
+        }
+        try {
+            byte[] decoded = switch (encoding) {
+                case "gzip", "x-gzip" -> readAll(new GZIPInputStream(new ByteArrayInputStream(body)));
+                case "deflate"        -> inflate(body);
+                default               -> null;
+            };
+            if (decoded != null) headers.remove(HttpHeaders.CONTENT_ENCODING);
+            return decoded;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String encoding(HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.CONTENT_ENCODING) : null;
+        return value != null && !value.isBlank() ? value.trim().toLowerCase() : null;
+    }
+
+    /** "deflate" is zlib-wrapped per RFC 9110, but some servers send raw deflate. */
+    private static byte[] inflate(byte[] body) throws IOException {
+        try {
+            return readAll(new InflaterInputStream(new ByteArrayInputStream(body)));
+        } catch (ZipException e) {
+            return readAll(new InflaterInputStream(new ByteArrayInputStream(body), new Inflater(true)));
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.adit.mockDemo.proxy;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URL;
+
+/**
+ * Request factory that only opens connections to the addresses SsrfGuard
+ * validated for the current request.
+ *
+ * HttpURLConnection has no resolver hook, so each scheme is pinned differently:
+ *  - http:  the validated address is used as a forward proxy. The request goes
+ *           out in absolute form (GET http://host/path), which origin servers
+ *           must accept (RFC 9112 §3.2.2). The socket reaches the pinned IP and
+ *           the Host header keeps the original name.
+ *  - https: TLS is layered on by {@link PinnedTlsSocketFactory}. If the JDK's
+ *           own connect landed on an address outside the validated set, that
+ *           socket is discarded and the factory dials the pinned IP itself,
+ *           keeping the hostname for SNI and certificate checks.
+ *
+ * The pin is set per call by {@link #pin} and is thread-bound. RestTemplate
+ * opens the connection on the calling thread. A connection opened without a
+ * pin fails rather than falling back to an unchecked lookup.
+ */
+final class PinnedRequestFactory extends SimpleClientHttpRequestFactory {
+
+    /** Scope of a pin — close it in a finally block (try-with-resources). */
+    interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final ThreadLocal<SsrfGuard.ResolvedTarget> pinned = new ThreadLocal<>();
+    private final SSLSocketFactory                      tls    = (SSLSocketFactory) SSLSocketFactory.getDefault();
+    private int                                         connectTimeoutMs;
+
+    @Override
+    public void setConnectTimeout(int connectTimeout) {
+        super.setConnectTimeout(connectTimeout);
+        this.connectTimeoutMs = connectTimeout;
+    }
+
+    Pin pin(SsrfGuard.ResolvedTarget target) {
+        pinned.set(target);
+        return pinned::remove;
+    }
+
+    @Override
+    protected HttpURLConnection openConnection(URL url, Proxy proxy) throws IOException {
+        SsrfGuard.ResolvedTarget target = pinned.get();
+        if (target == null || !target.isResolved() || !url.getHost().equalsIgnoreCase(target.uri().getHost())) {
+            throw new IOException("Upstream connection to " + url.getHost() + " is not pinned to a validated address");
+        }
+
+        if ("https".equalsIgnoreCase(url.getProtocol())) {
+            HttpsURLConnection connection = (HttpsURLConnection) url.openConnection(Proxy.NO_PROXY);
+            connection.setSSLSocketFactory(new PinnedTlsSocketFactory(tls, target, connectTimeoutMs));
+            return connection;
+        }
+
+        InetSocketAddress pinnedAddress = new InetSocketAddress(target.addresses().get(0), target.port());
+        return (HttpURLConnection) url.openConnection(new Proxy(Proxy.Type.HTTP, pinnedAddress));
+    }
+
+    /**
+     * Wraps the default TLS factory. Refuses unconnected sockets, so the JDK
+     * connects a plain socket and hands it to
+     * {@link #createSocket(Socket, String, int, boolean)}, where the peer
+     * address is checked. On a mismatch it throws, and the JDK falls back to
+     * {@link #createSocket(String, int)}, which dials the pinned address.
+     */
+    static final class PinnedTlsSocketFactory extends SSLSocketFactory {
+
+        private final SSLSocketFactory         delegate;
+        private final SsrfGuard.ResolvedTarget target;
+        private final int                      connectTimeoutMs;
+
+        PinnedTlsSocketFactory(SSLSocketFactory delegate, SsrfGuard.ResolvedTarget target, int connectTimeoutMs) {
+            this.delegate         = delegate;
+            this.target           = target;
+            this.connectTimeoutMs = connectTimeoutMs;
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            // Same signal javax.net.SocketFactory uses for "no unconnected sockets"
+            SocketException e = new SocketException("Unconnected sockets not supported");
+            e.initCause(new UnsupportedOperationException());
+            throw e;
+        }
+
+        @Override
+        public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+            if (!target.addresses().contains(socket.getInetAddress())) {
+                socket.close();
+                throw new IOException("Connected to " + socket.getInetAddress()
+                        + ", which was not validated for " + target.host());
+            }
+            return delegate.createSocket(socket, host, port, autoClose);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            Socket socket = new Socket(Proxy.NO_PROXY);
+            try {
+                socket.connect(new InetSocketAddress(target.addresses().get(0), port), connectTimeoutMs);
+                return delegate.createSocket(socket, host, port, true);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+            return createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port) throws IOException {
+            throw new IOException("Direct address connections bypass SSRF pinning");
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+            throw new IOException("Direct address connections bypass SSRF pinning");
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+    }
+}
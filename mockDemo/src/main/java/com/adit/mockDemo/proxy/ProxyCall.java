@@ -0,0 +1,45 @@
+package com.adit.mockDemo.proxy;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One outbound call as the proxy pipeline sees it, independent of how it
+ * arrived: unwrapped from a ProxyRequest envelope, or taken as-is from a raw
+ * pass-through request.
+ *
+ * @param url  absolute upstream URL, including any query string
+ * @param body raw request bytes, null when there is none
+ */
+public record ProxyCall(String method, String url, HttpHeaders headers, byte[] body) {
+
+    /**
+     * Envelope mode: string body as UTF-8, JSON content type unless the caller set one.
+     * Accept-Encoding is dropped — the body is returned as a string, so it has to be decoded anyway.
+     */
+    static ProxyCall fromEnvelope(ProxyRequest req) {
+        HttpHeaders headers = new HttpHeaders();
+        if (req.getHeaders() != null) {
+            req.getHeaders().forEach((key, value) -> {
+                if (key != null) headers.set(key, value);
+            });
+        }
+        if (!headers.containsKey(HttpHeaders.CONTENT_TYPE)) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+        }
+        headers.remove(HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = req.getBody() != null ? req.getBody().getBytes(StandardCharsets.UTF_8) : null;
+        return new ProxyCall(req.getMethod(), req.getUrl(), headers, body);
+    }
+
+    /** Same call asking the upstream for an identity-encoded body — for chaos that rewrites content. */
+    ProxyCall withoutAcceptEncoding() {
+        if (headers == null || !headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) return this;
+        HttpHeaders copy = new HttpHeaders();
+        copy.addAll(headers);
+        copy.remove(HttpHeaders.ACCEPT_ENCODING);
+        return new ProxyCall(method, url, copy, body);
+    }
+}
@@ -4,25 +4,25 @@ import com.adit.mockDemo.chaos.ChaosRule;
 import com.adit.mockDemo.chaos.execution.ChaosDecision;
 import com.adit.mockDemo.chaos.execution.ChaosDecisionEngine;
 import com.adit.mockDemo.chaos.execution.ChaosEventLogger;
-import com.adit.mockDemo.chaos.execution.ChaosKillSwitch;
 import com.adit.mockDemo.chaos.execution.ChaosType;
-import com.adit.mockDemo.entity.ChaosSchedule;
+import com.adit.mockDemo.chaos.execution.TenantSnapshot;
+import com.adit.mockDemo.chaos.execution.TenantSnapshotFactory;
 import com.adit.mockDemo.entity.Organization;
-import com.adit.mockDemo.repository.ChaosRuleRepository;
-import com.adit.mockDemo.repository.ChaosScheduleRepository;
+import com.adit.mockDemo.security.ConcurrencyLimitFilter;
 import com.adit.mockDemo.service.ChaosRuleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Core service powering the Faultrix HTTP chaos proxy.
@@ -31,16 +31,34 @@ import java.util.UUID;
  *   1. SSRF validate upstream URL (SsrfGuard — blocks private IPs, metadata endpoints)
  *   2. Extract target = path component of upstream URL
  *   3. Look up chaos rule for this org + target (exact → prefix → regex → default)
- *   4. Run ChaosDecisionEngine (kill switch → enabled → schedule → blast radius → probability)
+ *   4. Build the tenant snapshot (kill switches + schedule window), then run
+ *      ChaosDecisionEngine (kill switch → enabled → schedule → blast radius → probability)
  *   5. Log the decision (DB + webhooks, async)
  *   5a. If chaos type = ERROR/EXCEPTION → return synthetic error response, skip upstream
- *   5b. If chaos type = LATENCY         → sleep (capped at MAX_LATENCY_MS), then forward
+ *   5b. If chaos type = LATENCY         → wait (capped at MAX_LATENCY_MS), then forward
  *   5c. If no chaos                     → forward immediately
- *   6. Return ProxyResponse with X-Faultrix-* metadata
+ *   Forwarded GETs under a rule with coalesceGets share one upstream call with
+ *   identical concurrent GETs (RequestCoalescer) — the decision stays per request.
+ *   In the org's record/replay mode (ResponseRecorder) upstream answers are
+ *   stored, or served from storage with their recorded latency.
+ *   No-chaos GET/HEAD/OPTIONS under a rule with hedgeRequests are hedged
+ *   (UpstreamHedger) so healthy traffic does not inherit upstream tail latency.
+ *   6. Return the result with X-Faultrix-* metadata — wrapped in a ProxyResponse
+ *      envelope (process) or as the raw upstream status/headers/bytes (processRaw)
  *
  * Security:
- *   - SSRF protection via SsrfGuard — validated before any upstream call
- *   - Latency injection capped at UpstreamForwarder.MAX_LATENCY_MS to prevent thread exhaustion
+ *   - SSRF protection via SsrfGuard — validated once, the forwarder connects only to the checked addresses
+ *   - Latency injection capped at UpstreamForwarder.MAX_LATENCY_MS, under the forwarder's read timeout
+ *
+ * Threading:
+ *   The pipeline is a CompletableFuture chain, started on ProxyExecutor.
+ *   Injected waits (LATENCY, BLACKHOLE, BANDWIDTH_LIMIT) and replayed
+ *   recorded latency are ProxyExecutor timers, not sleeps, and the call gives back its concurrency permit while
+ *   parked — a delayed call holds no thread and no permit until it resumes.
+ *   CPU_SPIKE and MEMORY_PRESSURE wait the same way while ResourceSimulator
+ *   applies the load within its own CPU and memory limits.
+ *   The upstream call itself is blocking and holds a ProxyExecutor worker
+ *   until the upstream answers or the forwarder's read timeout fires.
  *   - SsrfException surfaces as 400 Bad Request (not 500) so the error is clear to the caller
  */
 @Service
@@ -48,62 +66,85 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProxyChaosService {
 
+    /** Simulated throttle for BANDWIDTH_LIMIT */
+    static final int BANDWIDTH_LIMIT_DELAY_MS = 1500;
+
     private final ChaosRuleService        chaosRuleService;
     private final ChaosDecisionEngine     decisionEngine;
     private final ChaosEventLogger        eventLogger;
-    private final ChaosKillSwitch         killSwitch;
-    private final ChaosRuleRepository     chaosRuleRepository;
-    private final ChaosScheduleRepository scheduleRepository;
+    private final TenantSnapshotFactory   tenantSnapshots;
     private final UpstreamForwarder       upstreamForwarder;
     private final SsrfGuard               ssrfGuard;
+    private final RequestCoalescer        requestCoalescer;
+    private final ResponseRecorder        responseRecorder;
+    private final ProxyExecutor           proxyExecutor;
+    private final ResourceSimulator       resourceSimulator;
+
+    /**
+     * Envelope entry point: process one proxied HTTP request described by a ProxyRequest.
+     */
+    public CompletableFuture<ProxyResponse> process(Organization org, ProxyRequest req) {
+        return handle(org, ProxyCall.fromEnvelope(req)).thenApply(ProxyResult::toEnvelope);
+    }
 
     /**
-     * Main entry point: process one proxied HTTP request.
+     * Raw pass-through entry point: same pipeline, body bytes untouched in both directions.
      */
-    public ProxyResponse process(Organization org, ProxyRequest req) {
+    public CompletableFuture<ProxyResult> processRaw(Organization org, ProxyCall call) {
+        return handle(org, call);
+    }
+
+    private CompletableFuture<ProxyResult> handle(Organization org, ProxyCall req) {
         String requestId = UUID.randomUUID().toString();
 
         // ── 0. SSRF validation — before anything else ────────────────────────
         // Return 400 immediately if the URL is blocked — don't log a chaos event
+        SsrfGuard.ResolvedTarget upstream;
         try {
-            ssrfGuard.validate(req.getUrl());
+            upstream = ssrfGuard.validate(req.url());
         } catch (SsrfGuard.SsrfException e) {
             log.warn("PROXY SSRF BLOCKED — Org: {}, URL: {}, Reason: {}, ReqId: {}",
-                    org.getSlug(), req.getUrl(), e.getMessage(), requestId);
-            return buildSsrfBlockedResponse(e.getMessage(), req.getUrl(), requestId);
+                    org.getSlug(), req.url(), e.getMessage(), requestId);
+            return CompletableFuture.completedFuture(buildSsrfBlockedResponse(e.getMessage(), req.url(), requestId));
         }
 
-        String target = extractTarget(req.getUrl());
+        String target = extractTarget(req.url());
 
         log.info("PROXY REQUEST — Org: {}, Method: {}, URL: {}, Target: {}, ReqId: {}",
-                org.getSlug(), req.getMethod(), req.getUrl(), target, requestId);
+                org.getSlug(), req.method(), req.url(), target, requestId);
 
         // ── 1. Resolve chaos rule ─────────────────────────────────────────────
         ChaosRule rule = chaosRuleService.getRuleForChaosEngine(org, target);
 
-        // ── 2. Resolve schedules ──────────────────────────────────────────────
-        List<ChaosSchedule> schedules = resolveSchedules(org, rule.getTarget());
+        // ── 2. Snapshot tenant state (kill switches, schedules) ───────────────
+        TenantSnapshot tenant = tenantSnapshots.forRequest(org, rule, target);
 
         // ── 3. Make chaos decision ────────────────────────────────────────────
-        ChaosDecision decision = decisionEngine.decide(rule, requestId, schedules);
+        ChaosDecision decision = decisionEngine.decide(rule, requestId, tenant);
 
         // ── 4. Log the decision async (DB + webhooks) ─────────────────────────
         eventLogger.logDecision(org, target, decision, requestId);
+        if (decision.isShouldInjectChaos()) {
+            ConcurrencyLimitFilter.skipLatencySample();   // delays here are on purpose, not overload
+        }
 
         // ── 5. Execute based on decision ──────────────────────────────────────
-        return executeDecision(req, decision, target, requestId);
+        return executeDecision(org, req, upstream, rule, decision, target, requestId);
     }
 
     // ── Decision Execution ───────────────────────────────────────────────────
 
-    private ProxyResponse executeDecision(ProxyRequest req,
-                                          ChaosDecision decision,
-                                          String target,
-                                          String requestId) {
+    private CompletableFuture<ProxyResult> executeDecision(Organization org,
+                                                           ProxyCall req,
+                                                           SsrfGuard.ResolvedTarget upstream,
+                                                           ChaosRule rule,
+                                                           ChaosDecision decision,
+                                                           String target,
+                                                           String requestId) {
 
         if (!decision.isShouldInjectChaos()) {
             // No chaos — forward immediately
-            return forwardToUpstream(req, decision, target, requestId, 0);
+            return forwardToUpstream(org, req, upstream, rule, decision, target, requestId, 0);
         }
 
         ChaosType type = decision.getChaosType();
@@ -112,75 +153,112 @@ public class ProxyChaosService {
         if (type == ChaosType.LATENCY) {
             int cappedDelay = Math.min(decision.getDelayMs(), UpstreamForwarder.MAX_LATENCY_MS);
             if (cappedDelay != decision.getDelayMs()) {
-                log.warn("PROXY LATENCY CAPPED — requested {}ms, capped to {}ms to protect thread pool",
+                log.warn("PROXY LATENCY CAPPED — requested {}ms, capped to {}ms to stay under the read timeout",
                         decision.getDelayMs(), cappedDelay);
             }
-            injectLatency(cappedDelay);
-            return forwardToUpstream(req, decision, target, requestId, cappedDelay);
+            return injectLatency(cappedDelay).thenCompose(v ->
+                    forwardToUpstream(org, req, upstream, rule, decision, target, requestId, cappedDelay));
         }
 
         // ── ERROR / EXCEPTION / PACKET_LOSS / DNS_FAILURE: skip upstream ─────
         if (decision.isError() || decision.isException()) {
-            return buildChaosErrorResponse(decision, target, requestId);
+            return completed(buildChaosErrorResponse(decision, target, requestId));
         }
 
-        // ── BLACKHOLE: sleep for the full max latency then return 504 ─────────
+        // ── BLACKHOLE: wait for the full max latency then return 504 ──────────
         if (decision.isBlackhole()) {
-            log.info("PROXY BLACKHOLE — Target: {}, ReqId: {} — sleeping {}ms then dropping",
+            log.info("PROXY BLACKHOLE — Target: {}, ReqId: {} — holding {}ms then dropping",
                     target, requestId, UpstreamForwarder.MAX_LATENCY_MS);
-            injectLatency(UpstreamForwarder.MAX_LATENCY_MS);
-            return buildBlackholeResponse(decision, target, requestId);
+            return injectLatency(UpstreamForwarder.MAX_LATENCY_MS).thenApply(v ->
+                    buildBlackholeResponse(decision, target, requestId));
         }
 
         // ── RESOURCE SIMULATION: CPU/MEMORY — simulate, then forward ─────────
         if (decision.isResourceSimulation()) {
-            if (type == ChaosType.CPU_SPIKE) {
-                injectCpuSpike(Math.min(decision.getDelayMs() > 0 ? decision.getDelayMs() : 500, 3000));
-            } else if (type == ChaosType.MEMORY_PRESSURE) {
-                injectMemoryPressure();
-            }
-            return forwardToUpstream(req, decision, target, requestId, 0);
+            // The load runs on ResourceSimulator's capped pool; this call only waits for it
+            ConcurrencyLimitFilter.releasePermit();
+            CompletableFuture<Void> simulated = type == ChaosType.CPU_SPIKE
+                    ? resourceSimulator.cpuSpike(decision.getDelayMs())
+                    : resourceSimulator.memoryPressure();
+            return simulated.thenCompose(v ->
+                    forwardToUpstream(org, req, upstream, rule, decision, target, requestId, 0));
         }
 
         // ── RESPONSE MUTATION: forward upstream, mutate the response ──────────
         if (decision.isResponseMutation()) {
-            ProxyResponse upstream = forwardToUpstream(req, decision, target, requestId, 0);
-            return mutateResponse(upstream, decision, target, requestId);
+            // Only CORRUPT_BODY reads the content — ask for identity so there is nothing to inflate.
+            // HEADER_INJECT / BANDWIDTH_LIMIT keep compressed bytes flowing through untouched.
+            ProxyCall call = type == ChaosType.CORRUPT_BODY ? req.withoutAcceptEncoding() : req;
+            return forwardToUpstream(org, call, upstream, rule, decision, target, requestId, 0).thenCompose(forwarded -> {
+                ProxyResult mutated = mutateResponse(forwarded, decision, target, requestId);
+                // BANDWIDTH_LIMIT: can't truly throttle bytes in a buffered response,
+                // so the whole body is held back as if it trickled in
+                return type == ChaosType.BANDWIDTH_LIMIT
+                        ? injectLatency(BANDWIDTH_LIMIT_DELAY_MS).thenApply(v -> mutated)
+                        : completed(mutated);
+            });
         }
 
         // Fallback — should not reach here
-        return forwardToUpstream(req, decision, target, requestId, 0);
+        return forwardToUpstream(org, req, upstream, rule, decision, target, requestId, 0);
     }
 
-    private ProxyResponse forwardToUpstream(ProxyRequest req,
-                                            ChaosDecision decision,
-                                            String target,
-                                            String requestId,
-                                            int injectedDelayMs) {
-        UpstreamResult result = upstreamForwarder.forward(
-                req.getMethod(),
-                req.getUrl(),
-                req.getHeaders(),
-                req.getBody()
-        );
+    /**
+     * Completes once the upstream (or replayed) answer is in. A replayed
+     * answer's recorded latency is waited out on the ProxyExecutor timer.
+     */
+    private CompletableFuture<ProxyResult> forwardToUpstream(Organization org,
+                                          ProxyCall req,
+                                          SsrfGuard.ResolvedTarget upstream,
+                                          ChaosRule rule,
+                                          ChaosDecision decision,
+                                          String target,
+                                          String requestId,
+                                          int injectedDelayMs) {
+        // Record/replay swaps only the upstream call — chaos around it is unchanged
+        boolean hedge = shouldHedge(rule, decision, req);
+        Supplier<UpstreamResult> forward = () -> responseRecorder.execute(org.getId(), req,
+                () -> hedge
+                        ? upstreamForwarder.forwardHedged(req.method(), upstream, req.headers(), req.body())
+                        : upstreamForwarder.forward(req.method(), upstream, req.headers(), req.body()));
+        UpstreamResult result = RequestCoalescer.eligible(rule, req)
+                ? requestCoalescer.execute(rule, req, forward)
+                : forward.get();
+
+        if (result.getReplayDelayMs() > 0) {
+            // Recorded latency, not overload — keep it out of the adaptive limit like injected delays
+            ConcurrencyLimitFilter.skipLatencySample();
+            return injectLatency(result.getReplayDelayMs()).thenApply(v ->
+                    toProxyResult(result, decision, target, requestId, injectedDelayMs));
+        }
+        return completed(toProxyResult(result, decision, target, requestId, injectedDelayMs));
+    }
 
-        Map<String, String> responseHeaders = new HashMap<>(
-                result.getHeaders() != null ? result.getHeaders() : Collections.emptyMap());
+    private ProxyResult toProxyResult(UpstreamResult result,
+                                      ChaosDecision decision,
+                                      String target,
+                                      String requestId,
+                                      int injectedDelayMs) {
+        HttpHeaders responseHeaders = new HttpHeaders();
+        if (result.getHeaders() != null) responseHeaders.addAll(result.getHeaders());
 
         // Always add Faultrix tracing headers
-        responseHeaders.put("X-Faultrix-Request-Id", requestId);
-        responseHeaders.put("X-Faultrix-Target", target);
+        responseHeaders.set("X-Faultrix-Request-Id", requestId);
+        responseHeaders.set("X-Faultrix-Target", target);
+        if (result.isCoalesced()) {
+            responseHeaders.set("X-Faultrix-Coalesced", "true");
+        }
         if (decision.isShouldInjectChaos()) {
-            responseHeaders.put("X-Faultrix-Chaos-Injected", "true");
-            responseHeaders.put("X-Faultrix-Chaos-Type", decision.getChaosType().name());
+            responseHeaders.set("X-Faultrix-Chaos-Injected", "true");
+            responseHeaders.set("X-Faultrix-Chaos-Type", decision.getChaosType().name());
             if (injectedDelayMs > 0) {
-                responseHeaders.put("X-Faultrix-Delay-Ms", String.valueOf(injectedDelayMs));
+                responseHeaders.set("X-Faultrix-Delay-Ms", String.valueOf(injectedDelayMs));
             }
         } else {
-            responseHeaders.put("X-Faultrix-Chaos-Injected", "false");
+            responseHeaders.set("X-Faultrix-Chaos-Injected", "false");
         }
 
-        return ProxyResponse.builder()
+        return ProxyResult.builder()
                 .status(result.getStatus())
                 .body(result.getBody())
                 .headers(responseHeaders)
@@ -193,7 +271,20 @@ public class ProxyChaosService {
                 .build();
     }
 
-    private ProxyResponse buildChaosErrorResponse(ChaosDecision decision,
+    /**
+     * Hedging sends the request twice, so it needs an opted-in rule, a safe
+     * method and no chaos. PUT/DELETE are idempotent but not safe: a losing
+     * second DELETE could still turn a 204 into a 404.
+     */
+    private static boolean shouldHedge(ChaosRule rule, ChaosDecision decision, ProxyCall req) {
+        if (rule == null || !Boolean.TRUE.equals(rule.getHedgeRequests()) || decision.isShouldInjectChaos()) {
+            return false;
+        }
+        String method = req.method().toUpperCase();
+        return method.equals("GET") || method.equals("HEAD") || method.equals("OPTIONS");
+    }
+
+    private ProxyResult buildChaosErrorResponse(ChaosDecision decision,
                                                   String target,
                                                   String requestId) {
         log.info("PROXY CHAOS ERROR — Target: {}, Type: {}, Status: {}, ReqId: {}",
@@ -206,16 +297,16 @@ public class ProxyChaosService {
                 requestId
         );
 
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-        headers.put("X-Faultrix-Chaos-Injected", "true");
-        headers.put("X-Faultrix-Chaos-Type", decision.getChaosType().name());
-        headers.put("X-Faultrix-Request-Id", requestId);
-        headers.put("X-Faultrix-Target", target);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Faultrix-Chaos-Injected", "true");
+        headers.set("X-Faultrix-Chaos-Type", decision.getChaosType().name());
+        headers.set("X-Faultrix-Request-Id", requestId);
+        headers.set("X-Faultrix-Target", target);
 
-        return ProxyResponse.builder()
+        return ProxyResult.builder()
                 .status(decision.getErrorCode())
-                .body(body)
+                .body(body.getBytes(StandardCharsets.UTF_8))
                 .headers(headers)
                 .chaosInjected(true)
                 .chaosType(decision.getChaosType())
@@ -226,21 +317,21 @@ public class ProxyChaosService {
                 .build();
     }
 
-    private ProxyResponse buildSsrfBlockedResponse(String reason, String url, String requestId) {
+    private ProxyResult buildSsrfBlockedResponse(String reason, String url, String requestId) {
         String body = String.format(
                 "{\"errorCode\":\"SSRF_BLOCKED\",\"message\":\"Request blocked: %s\",\"requestId\":\"%s\"}",
                 reason.replace("\"", "'"),
                 requestId
         );
 
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-        headers.put("X-Faultrix-Request-Id", requestId);
-        headers.put("X-Faultrix-Blocked", "SSRF");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Faultrix-Request-Id", requestId);
+        headers.set("X-Faultrix-Blocked", "SSRF");
 
-        return ProxyResponse.builder()
+        return ProxyResult.builder()
                 .status(HttpStatus.BAD_REQUEST.value())   // 400 — clear signal to the caller
-                .body(body)
+                .body(body.getBytes(StandardCharsets.UTF_8))
                 .headers(headers)
                 .chaosInjected(false)
                 .chaosType(null)
@@ -272,19 +363,7 @@ public class ProxyChaosService {
         }
     }
 
-    private List<ChaosSchedule> resolveSchedules(Organization org, String target) {
-        try {
-            return chaosRuleRepository
-                    .findByOrganizationAndTarget(org, target)
-                    .map(scheduleRepository::findByChaosRuleAndEnabledTrue)
-                    .orElse(Collections.emptyList());
-        } catch (Exception e) {
-            log.warn("Could not resolve schedules for target: {} — defaulting to always active", target);
-            return Collections.emptyList();
-        }
-    }
-
-    private ProxyResponse buildBlackholeResponse(ChaosDecision decision,
+    private ProxyResult buildBlackholeResponse(ChaosDecision decision,
                                                  String target,
                                                  String requestId) {
         log.info("PROXY BLACKHOLE DROP — Target: {}, ReqId: {}", target, requestId);
@@ -293,16 +372,16 @@ public class ProxyChaosService {
                         "\"message\":\"Request accepted but response dropped (chaos blackhole)\",\"requestId\":\"%s\"}",
                 requestId
         );
-        Map<String, String> headers = new HashMap<>();
-        headers.put("Content-Type", "application/json");
-        headers.put("X-Faultrix-Chaos-Injected", "true");
-        headers.put("X-Faultrix-Chaos-Type", "BLACKHOLE");
-        headers.put("X-Faultrix-Request-Id", requestId);
-        headers.put("X-Faultrix-Target", target);
-
-        return ProxyResponse.builder()
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Faultrix-Chaos-Injected", "true");
+        headers.set("X-Faultrix-Chaos-Type", "BLACKHOLE");
+        headers.set("X-Faultrix-Request-Id", requestId);
+        headers.set("X-Faultrix-Target", target);
+
+        return ProxyResult.builder()
                 .status(504)  // Gateway Timeout — most accurate semantic for a blackhole
-                .body(body)
+                .body(body.getBytes(StandardCharsets.UTF_8))
                 .headers(headers)
                 .chaosInjected(true)
                 .chaosType(decision.getChaosType())
@@ -313,95 +392,68 @@ public class ProxyChaosService {
                 .build();
     }
 
-    /**
-     * CPU spike: busy-wait loop for the specified duration.
-     * This simulates a CPU-saturated upstream that takes longer to respond.
-     * Capped at 3000ms to protect the thread pool.
-     */
-    private void injectCpuSpike(int durationMs) {
-        log.debug("PROXY CPU SPIKE — busy-wait {}ms", durationMs);
-        long end = System.currentTimeMillis() + durationMs;
-        // Busy-wait (intentionally burns CPU — that's the point of this chaos type)
-        long sink = 0;
-        while (System.currentTimeMillis() < end) {
-            sink += System.nanoTime(); // prevents JIT from optimizing the loop away
-        }
-        log.debug("PROXY CPU SPIKE DONE — sink={}", sink); // use sink so it's not dead code
-    }
-
-    /**
-     * Memory pressure: allocate a 10MB byte array and hold it for 500ms.
-     * This simulates GC pressure / heap exhaustion in an upstream service.
-     */
-    private void injectMemoryPressure() {
-        log.debug("PROXY MEMORY PRESSURE — allocating 10MB");
-        try {
-            @SuppressWarnings("unused")
-            byte[] pressure = new byte[10 * 1024 * 1024]; // 10MB
-            java.util.Arrays.fill(pressure, (byte) 42);   // force actual allocation
-            Thread.sleep(500);                             // hold it for 500ms
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        // Let GC collect it after method returns
-        log.debug("PROXY MEMORY PRESSURE DONE");
-    }
-
     /**
      * Response mutation: takes the real upstream response and corrupts it
      * based on the chaos type (CORRUPT_BODY, HEADER_INJECT, BANDWIDTH_LIMIT).
      */
-    private ProxyResponse mutateResponse(ProxyResponse upstream,
+    private ProxyResult mutateResponse(ProxyResult upstream,
                                          ChaosDecision decision,
                                          String target,
                                          String requestId) {
-        Map<String, String> headers = new HashMap<>(
-                upstream.getHeaders() != null ? upstream.getHeaders() : new HashMap<>());
-        headers.put("X-Faultrix-Chaos-Injected", "true");
-        headers.put("X-Faultrix-Chaos-Type", decision.getChaosType().name());
-        headers.put("X-Faultrix-Request-Id", requestId);
-        headers.put("X-Faultrix-Target", target);
+        HttpHeaders headers = new HttpHeaders();
+        if (upstream.getHeaders() != null) headers.addAll(upstream.getHeaders());
+        headers.set("X-Faultrix-Chaos-Injected", "true");
+        headers.set("X-Faultrix-Chaos-Type", decision.getChaosType().name());
+        headers.set("X-Faultrix-Request-Id", requestId);
+        headers.set("X-Faultrix-Target", target);
 
-        String mutatedBody = upstream.getBody();
+        byte[] mutatedBody = upstream.getBody();
 
         switch (decision.getChaosType()) {
             case CORRUPT_BODY -> {
-                // Scramble the JSON body — insert junk in the middle
+                // Scramble the body — insert junk in the middle
                 log.info("PROXY CORRUPT BODY — Target: {}, ReqId: {}", target, requestId);
-                String original = upstream.getBody() != null ? upstream.getBody() : "{}";
+                byte[] content = upstream.getBody();
+                if (ContentCodings.isEncoded(headers)) {
+                    // Upstream compressed despite no Accept-Encoding — inflate so the marker lands in content
+                    byte[] decoded = ContentCodings.decode(content, headers);
+                    if (decoded != null) content = decoded;
+                }
+                byte[] original = content != null && content.length > 0
+                        ? content : "{}".getBytes(StandardCharsets.UTF_8);
+                byte[] marker = ("<<<FAULTRIX_CORRUPTED_" + requestId.substring(0, 8) + ">>>")
+                        .getBytes(StandardCharsets.UTF_8);
                 // Insert corruption marker at position ~1/3 into the body
-                int insertAt = Math.max(1, original.length() / 3);
-                mutatedBody = original.substring(0, insertAt)
-                        + "<<<FAULTRIX_CORRUPTED_" + requestId.substring(0, 8) + ">>>"
-                        + original.substring(insertAt);
+                int insertAt = Math.max(1, original.length / 3);
+                mutatedBody = new byte[original.length + marker.length];
+                System.arraycopy(original, 0, mutatedBody, 0, insertAt);
+                System.arraycopy(marker, 0, mutatedBody, insertAt, marker.length);
+                System.arraycopy(original, insertAt, mutatedBody, insertAt + marker.length, original.length - insertAt);
             }
             case HEADER_INJECT -> {
                 // Inject headers that shouldn't be there — tests header parsing robustness
                 log.info("PROXY HEADER INJECT — Target: {}, ReqId: {}", target, requestId);
-                headers.put("X-Injected-By-Faultrix", "chaos-engineering");
-                headers.put("X-Forwarded-For", "10.0.0.1, 192.168.1.1, 172.16.0.1"); // spoofed chain
-                headers.put("X-Real-IP", "0.0.0.0");
-                headers.put("Content-Security-Policy", "default-src 'none'"); // may break browser clients
-                headers.put("X-Frame-Options", "DENY");
-                headers.put("Cache-Control", "no-store, no-cache, must-revalidate, proxy-revalidate");
-                headers.put("Retry-After", "3600"); // tell client to wait an hour
+                headers.set("X-Injected-By-Faultrix", "chaos-engineering");
+                headers.set("X-Forwarded-For", "10.0.0.1, 192.168.1.1, 172.16.0.1"); // spoofed chain
+                headers.set("X-Real-IP", "0.0.0.0");
+                headers.set("Content-Security-Policy", "default-src 'none'"); // may break browser clients
+                headers.set("X-Frame-Options", "DENY");
+                headers.set("Cache-Control", "no-store, no-cache, must-revalidate, proxy-revalidate");
+                headers.set("Retry-After", "3600"); // tell client to wait an hour
             }
             case BANDWIDTH_LIMIT -> {
-                // Can't truly throttle bytes in a standard Spring MVC response,
-                // but we inject a delay and signal the throttle via headers.
-                // Real byte-level throttling would require a WebFlux reactive stream.
-                log.info("PROXY BANDWIDTH LIMIT — Target: {}, ReqId: {} — injecting 1500ms simulated throttle",
-                        target, requestId);
-                injectLatency(1500);
-                headers.put("X-Faultrix-Throttled", "true");
-                headers.put("X-Faultrix-Simulated-Bandwidth-Kbps", "8"); // 8 kbps — dial-up speed
+                // The delay itself is added by executeDecision; signal the throttle via headers
+                log.info("PROXY BANDWIDTH LIMIT — Target: {}, ReqId: {} — injecting {}ms simulated throttle",
+                        target, requestId, BANDWIDTH_LIMIT_DELAY_MS);
+                headers.set("X-Faultrix-Throttled", "true");
+                headers.set("X-Faultrix-Simulated-Bandwidth-Kbps", "8"); // 8 kbps — dial-up speed
             }
             default -> {
                 // No mutation
             }
         }
 
-        return ProxyResponse.builder()
+        return ProxyResult.builder()
                 .status(upstream.getStatus())
                 .body(mutatedBody)
                 .headers(headers)
@@ -415,16 +467,17 @@ public class ProxyChaosService {
     }
 
     /**
-     * Inject latency by blocking the current thread.
-     * Delay is always capped before this is called — safe for the thread pool.
+     * Inject latency without holding a thread: the call is parked on the
+     * ProxyExecutor timer and resumes on a proxy worker. Its concurrency
+     * permit is returned first, since a parked call costs only its socket.
      */
-    private void injectLatency(int delayMs) {
-        try {
-            log.debug("PROXY LATENCY — injecting {}ms", delayMs);
-            Thread.sleep(delayMs);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Proxy latency injection interrupted");
-        }
+    private CompletableFuture<Void> injectLatency(int delayMs) {
+        log.debug("PROXY LATENCY — injecting {}ms", delayMs);
+        ConcurrencyLimitFilter.releasePermit();
+        return proxyExecutor.delay(delayMs);
+    }
+
+    private static CompletableFuture<ProxyResult> completed(ProxyResult result) {
+        return CompletableFuture.completedFuture(result);
     }
 }
\ No newline at end of file
@@ -10,11 +10,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 /**
  * HTTP Chaos Proxy — Faultrix's zero-SDK integration point.
@@ -30,6 +33,17 @@ import org.springframework.web.bind.annotation.*;
  *
  * Works with ANY language — Node.js, Python, Go, Ruby, etc.
  * No SDK. No agent. No code changes beyond one HTTP call wrapper.
+ *
+ * Raw mode skips the JSON envelope entirely — just swap the base URL:
+ *
+ *   Before:  https://api.stripe.com/v1/charges?limit=3
+ *   After:   /api/v1/proxy/raw/https/api.stripe.com/v1/charges?limit=3
+ *
+ * The upstream status, headers and body bytes come back unchanged; Faultrix
+ * metadata travels only in X-Faultrix-* response headers.
+ *
+ * Both endpoints hand the call to ProxyExecutor, so proxied traffic never
+ * holds the Tomcat threads that serve the management APIs.
  */
 @RestController
 @RequestMapping("/api/v1/proxy")
@@ -39,7 +53,11 @@ import org.springframework.web.bind.annotation.*;
 @SecurityRequirement(name = "ApiKey")
 public class ProxyController {
 
+    private static final String RAW_PREFIX = "/api/v1/proxy/raw/";
+
     private final ProxyChaosService proxyChaosService;
+    private final ProxyExecutor     proxyExecutor;
+    private final ResponseRecorder  responseRecorder;
     private final TenantContext     tenantContext;
 
     @PostMapping("/forward")
@@ -91,17 +109,113 @@ public class ProxyController {
                     )
             )
     )
-    public ResponseEntity<ProxyResponse> forward(@Valid @RequestBody ProxyRequest request) {
+    public DeferredResult<ResponseEntity<ProxyResponse>> forward(@Valid @RequestBody ProxyRequest request) {
         Organization org = tenantContext.getCurrentOrganization();
 
         log.info("PROXY FORWARD — Org: {}, Method: {}, URL: {}",
                 org.getSlug(), request.getMethod(), request.getUrl());
 
-        ProxyResponse response = proxyChaosService.process(org, request);
+        return proxyExecutor.submit(() -> proxyChaosService.process(org, request)
+                .thenApply(response -> ResponseEntity
+                        .status(response.getStatus())
+                        .body(response)));
+    }
+
+    @RequestMapping("/raw/{scheme}/{host}/**")
+    @Operation(
+            summary = "Raw pass-through through the Faultrix chaos proxy",
+            description = """
+                    Forwards the request as-is (any method, headers, binary body) to
+                    {scheme}://{host}/{rest-of-path}?{query} and returns the upstream status,
+                    headers and body bytes directly — no JSON envelope.
+
+                    Same rule matching, chaos decisions and event logging as /forward.
+                    Faultrix metadata is only in X-Faultrix-* response headers
+                    (X-Faultrix-Request-Id, X-Faultrix-Chaos-Injected, X-Faultrix-Chaos-Type, ...).
+
+                    X-API-Key, Host, hop-by-hop and X-Forwarded-* headers are not forwarded upstream.
+                    """
+    )
+    public DeferredResult<ResponseEntity<byte[]>> raw(@PathVariable String scheme,
+                                                      @PathVariable String host,
+                                                      @RequestHeader HttpHeaders headers,
+                                                      @RequestBody(required = false) byte[] body,
+                                                      HttpServletRequest request) {
+        Organization org = tenantContext.getCurrentOrganization();
+        String       url = upstreamUrl(request);
+
+        log.info("PROXY RAW — Org: {}, Method: {}, URL: {}", org.getSlug(), request.getMethod(), url);
+
+        HttpHeaders outbound = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            String lower = name.toLowerCase();
+            // Describe the hop into Faultrix (Railway edge, client IP) — not for the upstream
+            if (!lower.startsWith("x-forwarded-") && !lower.equals("forwarded") && !lower.equals("x-real-ip")) {
+                outbound.put(name, values);
+            }
+        });
+
+        ProxyCall call = new ProxyCall(request.getMethod(), url, outbound, body);
+
+        return proxyExecutor.submit(() -> proxyChaosService.processRaw(org, call)
+                .thenApply(result -> ResponseEntity
+                        .status(result.getStatus())
+                        .headers(result.getHeaders())
+                        .body(result.getBody())));
+    }
+
+    /**
+     * Rebuilds the upstream URL from the still-encoded request URI, so path
+     * escapes (%2F, %20, ...) and the query string reach the upstream untouched.
+     */
+    static String upstreamUrl(HttpServletRequest request) {
+        String uri  = request.getRequestURI().substring(request.getContextPath().length() + RAW_PREFIX.length());
+        int    cut1 = uri.indexOf('/');
+        int    cut2 = cut1 < 0 ? -1 : uri.indexOf('/', cut1 + 1);
+
+        String scheme = cut1 < 0 ? uri : uri.substring(0, cut1);
+        String host   = cut1 < 0 ? "" : cut2 < 0 ? uri.substring(cut1 + 1) : uri.substring(cut1 + 1, cut2);
+        String path   = cut2 < 0 ? "/" : uri.substring(cut2);
+        String query  = request.getQueryString();
+
+        return scheme + "://" + host + path + (query != null ? "?" + query : "");
+    }
+
+    // ── Record / replay ───────────────────────────────────────────────────────
+
+    @GetMapping("/recording")
+    @Operation(summary = "Get the record/replay mode and store usage for this organization")
+    public ResponseEntity<ResponseRecorder.Status> recordingStatus() {
+        Organization org = tenantContext.getCurrentOrganization();
+        return ResponseEntity.ok(responseRecorder.status(org.getId()));
+    }
 
-        return ResponseEntity
-                .status(response.getStatus())
-                .body(response);
+    @PutMapping("/recording")
+    @Operation(
+            summary = "Switch record/replay mode",
+            description = """
+                    off:    proxy calls go to the real upstream (default).
+                    record: calls go upstream and each answer is stored with its latency.
+                    replay: calls never reach the upstream. A recorded answer is served after its
+                            recorded latency, so the original latency distribution is kept. Chaos rules
+                            still apply. Unrecorded requests get 502 with X-Faultrix-Replay: miss.
+
+                    Requests are matched on method, URL, Accept-Encoding and body. Mode and
+                    recordings are kept per instance.
+                    """
+    )
+    public ResponseEntity<ResponseRecorder.Status> setRecordingMode(@RequestParam String mode) {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.info("PUT /api/v1/proxy/recording?mode={} - Org: {}", mode, org.getSlug());
+        return ResponseEntity.ok(responseRecorder.setMode(org.getId(), ResponseRecorder.parseMode(mode)));
+    }
+
+    @DeleteMapping("/recording")
+    @Operation(summary = "Delete all recorded responses for this organization (mode is kept)")
+    public ResponseEntity<ResponseRecorder.Status> clearRecordings() {
+        Organization org = tenantContext.getCurrentOrganization();
+        log.info("DELETE /api/v1/proxy/recording - Org: {}", org.getSlug());
+        return ResponseEntity.ok(responseRecorder.clear(org.getId()));
     }
 
     @GetMapping("/health")
@@ -0,0 +1,268 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.ProxyExecutorProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Data-plane worker pool: proxied calls run here, not on Tomcat threads.
+ *
+ * The proxy endpoints return a DeferredResult, so the Tomcat thread goes
+ * back to the connector as soon as the request is parsed and authenticated.
+ * A spike of slow proxied calls can then fill this pool — and get a fast 503
+ * once its queue is full — but never the Tomcat workers that serve the
+ * dashboard, rule management and the kill switch.
+ *
+ * Injected delays hold no thread at all: {@link #delay} parks the call on a
+ * single timer thread and resumes it on the pool when the delay is over. A
+ * delayed connection costs a socket and a timer entry, so one node can hold
+ * tens of thousands of them (see server.tomcat.max-connections). If the pool
+ * is full when a delay ends, the call waits in a FIFO line that workers
+ * take from as they finish a task. A parked call never resumes past its
+ * DeferredResult's deadline — by then the client already has its 504.
+ *
+ * Only the delays are non-blocking. The upstream round trip still runs on
+ * RestTemplate and holds a pool worker for its whole duration, so the number
+ * of concurrent upstream calls is capped at faultrix.proxy.executor.threads. This is
+ * still the servlet stack; a separate non-blocking (Netty) data plane is not
+ * part of it.
+ *
+ * Each task sees the caller's MDC and request (TenantContext, correlation
+ * id, ConcurrencyLimitFilter.skipLatencySample), including after a delay.
+ * Pool usage is published as executor.*{name=proxy}.
+ */
+@Component
+@Slf4j
+public class ProxyExecutor {
+
+    /** The proxied call whose pipeline is running on this thread. */
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+
+    private final ProxyExecutorProperties  properties;
+    private final ThreadPoolTaskExecutor   pool;
+    private final ScheduledExecutorService timer;
+    private final Counter                  rejected;
+    private final AtomicInteger            parked  = new AtomicInteger();
+    private final Queue<Parked>            waiting = new ConcurrentLinkedQueue<>();
+
+    public ProxyExecutor(ProxyExecutorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        this.rejected = Counter.builder("chaoslab.proxy.executor.rejected")
+                .description("Proxied calls refused because the proxy executor and its queue were full")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        this.pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(properties.getThreads());
+        pool.setMaxPoolSize(properties.getThreads());
+        pool.setQueueCapacity(properties.getQueueCapacity());
+        pool.setAllowCoreThreadTimeOut(true);
+        pool.setThreadNamePrefix("proxy-");
+        pool.setTaskDecorator(task -> {
+            Runnable withContext = propagateContext(task);
+            return () -> {
+                try {
+                    withContext.run();
+                } finally {
+                    resumeWaiting();
+                }
+            };
+        });
+        pool.setRejectedExecutionHandler((task, executor) -> {
+            throw new RejectedExecutionException("Proxy executor saturated");
+        });
+        pool.initialize();
+
+        new ExecutorServiceMetrics(pool.getThreadPoolExecutor(), "proxy", Tags.of("application", "chaoslab"))
+                .bindTo(meterRegistry);
+
+        ScheduledThreadPoolExecutor delays = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread t = new Thread(runnable, "proxy-delay");
+            t.setDaemon(true);
+            return t;
+        });
+        delays.setRemoveOnCancelPolicy(true);
+        this.timer = delays;
+
+        Gauge.builder("chaoslab.proxy.delayed", parked, AtomicInteger::get)
+                .description("Proxied calls waiting out an injected delay, holding no thread")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        log.info("Proxy executor initialized: threads={}, queue={}, timeout={}",
+                properties.getThreads(), properties.getQueueCapacity(), properties.getTimeout());
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+        pool.shutdown();
+    }
+
+    /**
+     * Starts {@code pipeline} on the proxy pool; the response is written when
+     * the future it returns completes, or with 504 after the timeout.
+     *
+     * @throws org.springframework.core.task.TaskRejectedException if the pool and its queue are full
+     */
+    public <T> DeferredResult<T> submit(Supplier<CompletableFuture<T>> pipeline) {
+        DeferredResult<T> result = new DeferredResult<>(properties.getTimeout().toMillis());
+        Call              call   = new Call(result, System.nanoTime() + properties.getTimeout().toNanos());
+        CompletableFuture<CompletableFuture<T>> started;
+        try {
+            started = CompletableFuture.supplyAsync(() -> {
+                CURRENT.set(call);
+                try {
+                    return pipeline.get();
+                } finally {
+                    CURRENT.remove();
+                }
+            }, pool);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        started.thenCompose(Function.identity())
+                .whenComplete((value, error) -> {
+                    if (error == null) {
+                        result.setResult(value);
+                    } else {
+                        result.setErrorResult(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause()
+                                : error);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * Completes after {@code delayMs} on a pool thread, with the caller's
+     * context. Nothing is blocked meanwhile.
+     *
+     * The call was already admitted, so if the pool is full when the delay
+     * ends it waits its turn rather than failing. Once the call's response
+     * has been written or its deadline has passed, it completes with
+     * AsyncRequestTimeoutException instead of resuming.
+     */
+    public CompletableFuture<Void> delay(long delayMs) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Call                    call = CURRENT.get();
+        if (call == null) {
+            // Not inside submit() — no response to outlive, so allow the usual timeout after the delay
+            call = new Call(null, System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(delayMs) + properties.getTimeout().toNanos());
+        }
+        Parked waiter = new Parked(call, done, propagateContext(() -> done.complete(null)));
+
+        parked.incrementAndGet();
+        timer.schedule(() -> resume(waiter), delayMs, TimeUnit.MILLISECONDS);
+        return done;
+    }
+
+    /** On the timer thread, when a delay is over. */
+    private void resume(Parked waiter) {
+        if (waiter.call.isOver()) {
+            expire(waiter);
+            return;
+        }
+        try {
+            pool.execute(() -> run(waiter));
+        } catch (RejectedExecutionException e) {
+            waiting.add(waiter);
+            // Whoever removes it first — a finishing worker or this — owns it
+            timer.schedule(() -> {
+                if (waiting.remove(waiter)) expire(waiter);
+            }, Math.max(0, waiter.call.deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            // Every worker may have gone idle between the rejection and the add
+            try {
+                pool.execute(() -> { });
+            } catch (RejectedExecutionException stillFull) {
+                // A busy worker takes it when it finishes
+            }
+        }
+    }
+
+    /** On a worker that just finished a task: take parked calls in arrival order. */
+    private void resumeWaiting() {
+        Parked waiter;
+        while ((waiter = waiting.poll()) != null) {
+            run(waiter);
+        }
+    }
+
+    private void run(Parked waiter) {
+        if (waiter.call.isOver()) {
+            expire(waiter);
+            return;
+        }
+        parked.decrementAndGet();
+        waiter.resume.run();
+    }
+
+    private void expire(Parked waiter) {
+        parked.decrementAndGet();
+        waiter.done.completeExceptionally(new AsyncRequestTimeoutException());
+    }
+
+    /** @param result null for a delay outside submit() */
+    private record Call(DeferredResult<?> result, long deadline) {
+        boolean isOver() {
+            return (result != null && result.isSetOrExpired()) || System.nanoTime() - deadline >= 0;
+        }
+    }
+
+    private record Parked(Call call, CompletableFuture<Void> done, Runnable resume) { }
+
+    /**
+     * Carries MDC and the current request to the worker. The caller's
+     * RequestAttributes are marked completed when its dispatch ends, so the
+     * worker gets its own view of the same request.
+     */
+    static Runnable propagateContext(Runnable task) {
+        Map<String, String> mdc     = MDC.getCopyOfContextMap();
+        RequestAttributes   caller  = RequestContextHolder.getRequestAttributes();
+        HttpServletRequest  request = caller instanceof ServletRequestAttributes servlet ? servlet.getRequest() : null;
+        Call                call    = CURRENT.get();
+
+        return () -> {
+            if (mdc != null) MDC.setContextMap(mdc);
+            if (request != null) RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            if (call != null) CURRENT.set(call);
+            try {
+                task.run();
+            } finally {
+                CURRENT.remove();
+                RequestContextHolder.resetRequestAttributes();
+                MDC.clear();
+            }
+        };
+    }
+}
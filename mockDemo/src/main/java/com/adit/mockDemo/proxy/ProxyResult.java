@@ -0,0 +1,71 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Outcome of one proxied call, before it is shaped for the caller.
+ *
+ * Raw mode writes status, headers and body bytes straight back. Envelope mode
+ * wraps them in a ProxyResponse via {@link #toEnvelope()}.
+ */
+@Getter
+@Builder
+public class ProxyResult {
+    private final int         status;
+    private final HttpHeaders headers;       // upstream headers plus X-Faultrix-*
+    private final byte[]      body;
+    private final boolean     chaosInjected;
+    private final ChaosType   chaosType;
+    private final int         injectedDelayMs;
+    private final String      target;
+    private final String      requestId;
+    private final Instant     processedAt;
+
+    public ProxyResponse toEnvelope() {
+        byte[]      content = body;
+        HttpHeaders shown   = headers;
+        if (ContentCodings.isEncoded(headers)) {
+            shown = new HttpHeaders();
+            shown.addAll(headers);
+            byte[] decoded = ContentCodings.decode(body, shown);
+            if (decoded != null) content = decoded;
+        }
+
+        Map<String, String> flat = new HashMap<>();
+        if (shown != null) {
+            shown.forEach((key, values) -> {
+                if (!values.isEmpty()) flat.put(key, values.get(0));
+            });
+        }
+        return ProxyResponse.builder()
+                .status(status)
+                .body(content != null ? new String(content, charset()) : null)
+                .headers(flat)
+                .chaosInjected(chaosInjected)
+                .chaosType(chaosType)
+                .injectedDelayMs(injectedDelayMs)
+                .target(target)
+                .requestId(requestId)
+                .processedAt(processedAt)
+                .build();
+    }
+
+    private Charset charset() {
+        try {
+            MediaType type = headers != null ? headers.getContentType() : null;
+            return type != null && type.getCharset() != null ? type.getCharset() : StandardCharsets.UTF_8;
+        } catch (RuntimeException e) {
+            return StandardCharsets.UTF_8;   // unparseable Content-Type from upstream
+        }
+    }
+}
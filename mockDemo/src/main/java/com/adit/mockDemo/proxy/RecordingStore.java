@@ -0,0 +1,251 @@
+package com.adit.mockDemo.proxy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One org's recorded upstream responses: an append-only log in a
+ * memory-mapped file, plus an in-memory index from request fingerprint to
+ * the offsets of its recordings.
+ *
+ * File layout:
+ *
+ *   header (32 bytes)  magic, format, mode, reserved, end offset (long)
+ *   records            [len][keyLen][key][status][latencyMs][headersLen][headers][bodyLen][body]
+ *
+ * Every recording keeps the latency it took upstream, so replaying a random
+ * recording of a fingerprint reproduces the observed latency distribution.
+ * Each fingerprint keeps at most samplesPerKey recordings. When the file is
+ * full, recording stops until the store is cleared.
+ *
+ * The index is rebuilt by scanning the log on open, so recordings survive a
+ * restart. A torn record at the tail is dropped. Appends are serialized;
+ * reads are lock-free absolute reads of records already published in the
+ * index.
+ */
+@Slf4j
+final class RecordingStore implements Closeable {
+
+    enum Outcome { STORED, FULL, SATURATED, TOO_LARGE }
+
+    /** A stored recording, materialized for replay. */
+    record Recording(int status, HttpHeaders headers, byte[] body, int latencyMs) {}
+
+    private record Sample(int offset, int latencyMs) {}
+
+    private static final int MAGIC        = 0x46585252;   // "FXRR"
+    private static final int FORMAT       = 1;
+    private static final int MODE_AT      = 8;
+    private static final int END_AT       = 16;
+    private static final int HEADER_BYTES = 32;
+
+    private final FileChannel                        channel;
+    private final MappedByteBuffer                   buffer;
+    private final int                                capacity;
+    private final int                                maxEntryBytes;
+    private final int                                samplesPerKey;
+    private final ConcurrentMap<String, List<Sample>> index = new ConcurrentHashMap<>();
+    private int                                      end;          // guarded by this
+    private volatile int                             samples;
+
+    private RecordingStore(FileChannel channel, MappedByteBuffer buffer, int capacity,
+                           int maxEntryBytes, int samplesPerKey) {
+        this.channel       = channel;
+        this.buffer        = buffer;
+        this.capacity      = capacity;
+        this.maxEntryBytes = maxEntryBytes;
+        this.samplesPerKey = samplesPerKey;
+    }
+
+    static RecordingStore open(Path file, long capacity, long maxEntryBytes, int samplesPerKey) throws IOException {
+        Files.createDirectories(file.getParent());
+        int size = (int) Math.max(HEADER_BYTES * 2, Math.min(capacity, Integer.MAX_VALUE - 8));
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            RecordingStore store = new RecordingStore(channel, buffer, size,
+                    (int) Math.min(maxEntryBytes, size), Math.max(1, samplesPerKey));
+            store.load(file);
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // ── Mode (persisted in the header) ───────────────────────────────────────
+
+    int mode() {
+        return buffer.getInt(MODE_AT);
+    }
+
+    synchronized void setMode(int mode) {
+        buffer.putInt(MODE_AT, mode);
+    }
+
+    // ── Append / lookup ──────────────────────────────────────────────────────
+
+    Outcome append(String key, int status, HttpHeaders headers, byte[] body, int latencyMs) {
+        List<Sample> existing = index.get(key);
+        if (existing != null && existing.size() >= samplesPerKey) return Outcome.SATURATED;
+
+        byte[] keyBytes    = key.getBytes(StandardCharsets.UTF_8);
+        byte[] headerBytes = encodeHeaders(headers);
+        int    bodyLength  = body != null ? body.length : 0;
+        int    length      = 4 + keyBytes.length + 4 + 4 + 4 + headerBytes.length + 4 + bodyLength;
+        if (length > maxEntryBytes) return Outcome.TOO_LARGE;
+
+        synchronized (this) {
+            List<Sample> current = index.get(key);
+            if (current != null && current.size() >= samplesPerKey) return Outcome.SATURATED;
+            if ((long) end + 4 + length > capacity) return Outcome.FULL;
+
+            int offset = end;
+            int at     = offset;
+            buffer.putInt(at, length);                 at += 4;
+            buffer.putInt(at, keyBytes.length);        at += 4;
+            buffer.put(at, keyBytes);                  at += keyBytes.length;
+            buffer.putInt(at, status);                 at += 4;
+            buffer.putInt(at, latencyMs);              at += 4;
+            buffer.putInt(at, headerBytes.length);     at += 4;
+            buffer.put(at, headerBytes);               at += headerBytes.length;
+            buffer.putInt(at, body != null ? bodyLength : -1);  at += 4;
+            if (bodyLength > 0) buffer.put(at, body);
+
+            end = offset + 4 + length;
+            buffer.putLong(END_AT, end);   // commit point — after the record bytes
+            publish(key, new Sample(offset, latencyMs));
+            return Outcome.STORED;
+        }
+    }
+
+    /** A random recording for the fingerprint, or null if there is none. */
+    Recording pick(String key, int random) {
+        List<Sample> list = index.get(key);
+        if (list == null || list.isEmpty()) return null;
+        Sample sample = list.get(Math.floorMod(random, list.size()));
+
+        int at = sample.offset() + 4;
+        int keyLength = buffer.getInt(at);         at += 4 + keyLength;
+        int status    = buffer.getInt(at);         at += 4;
+        int latencyMs = buffer.getInt(at);         at += 4;
+        byte[] headerBytes = new byte[buffer.getInt(at)];
+        at += 4;
+        buffer.get(at, headerBytes);               at += headerBytes.length;
+        int bodyLength = buffer.getInt(at);        at += 4;
+        byte[] body = null;
+        if (bodyLength >= 0) {
+            body = new byte[bodyLength];
+            buffer.get(at, body);
+        }
+        return new Recording(status, decodeHeaders(headerBytes), body, latencyMs);
+    }
+
+    synchronized void clear() {
+        index.clear();
+        samples = 0;
+        end     = HEADER_BYTES;
+        buffer.putLong(END_AT, end);
+    }
+
+    int requests() {
+        return index.size();
+    }
+
+    int samples() {
+        return samples;
+    }
+
+    synchronized long bytesUsed() {
+        return end;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    // ── Internals ────────────────────────────────────────────────────────────
+
+    private void publish(String key, Sample sample) {
+        // Copy-on-write — readers see a complete list or the previous one
+        List<Sample> current = index.get(key);
+        List<Sample> next    = new ArrayList<>(current != null ? current.size() + 1 : 1);
+        if (current != null) next.addAll(current);
+        next.add(sample);
+        index.put(key, List.copyOf(next));
+        samples++;
+    }
+
+    private synchronized void load(Path file) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT);
+            buffer.putInt(MODE_AT, 0);
+            end = HEADER_BYTES;
+            buffer.putLong(END_AT, end);
+            return;
+        }
+
+        long committed = buffer.getLong(END_AT);
+        int  limit     = (int) Math.min(Math.max(committed, HEADER_BYTES), capacity);
+        int  at        = HEADER_BYTES;
+        while (at + 8 <= limit) {
+            int length    = buffer.getInt(at);
+            int keyLength = buffer.getInt(at + 4);
+            if (length <= 0 || at + 4L + length > limit || keyLength < 0 || keyLength > length - 20) break;
+
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(at + 8, keyBytes);
+            int latencyMs = buffer.getInt(at + 8 + keyLength + 4);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            List<Sample> existing = index.get(key);
+            if (existing == null || existing.size() < samplesPerKey) {
+                publish(key, new Sample(at, latencyMs));
+            }
+            at += 4 + length;
+        }
+        end = at;
+        if (end != committed) {
+            log.warn("Recording store {} truncated to {} bytes (header said {})", file, end, committed);
+            buffer.putLong(END_AT, end);
+        }
+    }
+
+    private static byte[] encodeHeaders(HttpHeaders headers) {
+        if (headers == null) return new byte[0];
+        StringBuilder text = new StringBuilder();
+        headers.forEach((name, values) -> {
+            for (String value : values) text.append(name).append(": ").append(value).append('\n');
+        });
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static HttpHeaders decodeHeaders(byte[] bytes) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String line : new String(bytes, StandardCharsets.UTF_8).split("\n")) {
+            int colon = line.indexOf(": ");
+            if (colon > 0) headers.add(line.substring(0, colon), line.substring(colon + 2));
+        }
+        return headers;
+    }
+}
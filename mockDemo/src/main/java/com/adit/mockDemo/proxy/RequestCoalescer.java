@@ -0,0 +1,170 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.chaos.ChaosRule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for proxied GETs, opted into per rule (coalesceGets).
+ *
+ * While a GET is in flight upstream, identical GETs under the same rule wait
+ * for its response instead of making their own call. Identity is
+ * rule + URL + Accept-Encoding + Authorization + Cookie + the rule's
+ * coalesceHeaders values. Accept-Encoding is always included, so a caller
+ * never receives an encoding it did not ask for; the credential headers are
+ * always included, so a caller never receives a response fetched with
+ * someone else's credentials.
+ *
+ * Only the upstream call is shared. Each request still gets its own chaos
+ * decision, delay and mutation in ProxyChaosService. A GET that is delayed by
+ * LATENCY chaos joins whatever is in flight once its delay has passed.
+ *
+ * The first caller (leader) forwards on its own thread. Followers block until
+ * it finishes — bounded by the forwarder's connect + read timeouts. The entry
+ * is removed as soon as the call completes, so nothing is cached. If the
+ * leader fails unexpectedly, each follower forwards on its own.
+ *
+ * Coalescing is per instance.
+ */
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    /** Always part of the key, whatever the rule lists. */
+    private static final List<String> IDENTITY_HEADERS =
+            List.of(HttpHeaders.ACCEPT_ENCODING, HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE);
+
+    private final ConcurrentMap<String, CompletableFuture<UpstreamResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter followers;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.leaders   = roleCounter("leader", meterRegistry);
+        this.followers = roleCounter("follower", meterRegistry);
+
+        Gauge.builder("chaoslab.proxy.coalesce.inflight", inFlight, ConcurrentMap::size)
+                .description("Distinct coalesced upstream GETs currently in flight")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        Gauge.builder("chaoslab.proxy.coalesce.ratio", this, RequestCoalescer::ratio)
+                .description("Share of coalescing-eligible GETs served by another request's upstream call")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+    }
+
+    private static Counter roleCounter(String role, MeterRegistry registry) {
+        return Counter.builder("chaoslab.proxy.coalesce.requests")
+                .description("Coalescing-eligible proxied GETs, by whether they made the upstream call")
+                .tag("application", "chaoslab")
+                .tag("role", role)
+                .register(registry);
+    }
+
+    /** Coalescing applies to bodiless GETs under a rule that opted in. */
+    static boolean eligible(ChaosRule rule, ProxyCall call) {
+        return rule != null
+                && rule.getId() != null
+                && Boolean.TRUE.equals(rule.getCoalesceGets())
+                && "GET".equalsIgnoreCase(call.method())
+                && (call.body() == null || call.body().length == 0);
+    }
+
+    /**
+     * Run {@code forward} unless an identical call is already in flight, in
+     * which case wait for that one's result.
+     */
+    public UpstreamResult execute(ChaosRule rule, ProxyCall call, Supplier<UpstreamResult> forward) {
+        String key = key(rule, call);
+
+        CompletableFuture<UpstreamResult> mine = new CompletableFuture<>();
+        CompletableFuture<UpstreamResult> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            followers.increment();
+            try {
+                return shared(existing.join());
+            } catch (CompletionException e) {
+                log.debug("Coalesced leader failed for {} — forwarding separately", call.url());
+                return forward.get();
+            }
+        }
+
+        leaders.increment();
+        try {
+            UpstreamResult result = forward.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    static String key(ChaosRule rule, ProxyCall call) {
+        StringBuilder key = new StringBuilder(128)
+                .append(rule.getId()).append(' ')
+                .append(call.url());
+        for (String header : IDENTITY_HEADERS) {
+            appendHeader(key, call.headers(), header);
+        }
+        if (rule.getCoalesceHeaders() != null) {
+            for (String name : rule.getCoalesceHeaders().split(",")) {
+                String header = name.trim();
+                if (!header.isEmpty() && !isIdentityHeader(header)) appendHeader(key, call.headers(), header);
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isIdentityHeader(String name) {
+        for (String header : IDENTITY_HEADERS) {
+            if (header.equalsIgnoreCase(name)) return true;
+        }
+        return false;
+    }
+
+    /** NUL-separated — cannot occur in a URL or a header value, so keys cannot collide by concatenation. */
+    private static void appendHeader(StringBuilder key, HttpHeaders headers, String name) {
+        key.append('\0').append(name.toLowerCase(Locale.ROOT)).append('=');
+        List<String> values = headers != null ? headers.get(name) : null;
+        if (values != null) key.append(String.join("\0", values));
+    }
+
+    /**
+     * Followers get their own header map — callers add per-request X-Faultrix-*
+     * headers to it. The body is shared; nothing downstream writes into it.
+     */
+    private static UpstreamResult shared(UpstreamResult result) {
+        HttpHeaders headers = new HttpHeaders();
+        if (result.getHeaders() != null) headers.addAll(result.getHeaders());
+        return UpstreamResult.builder()
+                .status(result.getStatus())
+                .body(result.getBody())
+                .headers(headers)
+                .success(result.isSuccess())
+                .coalesced(true)
+                .replayDelayMs(result.getReplayDelayMs())
+                .build();
+    }
+
+    private double ratio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0.0 : followers.count() / total;
+    }
+}
@@ -0,0 +1,221 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.ResourceSimulationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs CPU_SPIKE and MEMORY_PRESSURE chaos within fixed limits, so a burst
+ * of those decisions stresses the node the way the rule asks for without
+ * taking Faultrix down with it.
+ *
+ * CPU: a fixed set of burner threads (cpuCores) spins for cpuDutyCycle of
+ * every slice while any CPU_SPIKE is active. A spike only extends the burn
+ * window — 1 or 500 concurrent spikes cost the same cores × duty cycle.
+ *
+ * Memory: each call holds one memoryChunk, a direct buffer taken from a free
+ * list and touched page by page so it is resident. Buffers are reused, and
+ * at most memoryBudget / memoryChunk exist. When all are held the call just
+ * waits out the hold (counted as saturated) instead of allocating more.
+ *
+ * Either way the request itself waits on a ProxyExecutor timer and holds no
+ * thread.
+ */
+@Component
+@Slf4j
+public class ResourceSimulator {
+
+    private static final int PAGE_SIZE = 4096;
+
+    private final ResourceSimulationProperties properties;
+    private final ProxyExecutor                proxyExecutor;
+    private final List<Thread>                 burners  = new ArrayList<>();
+    private final AtomicLong                   burnUntil;
+    private final AtomicInteger                burning  = new AtomicInteger();
+    private final Object                       wakeup   = new Object();
+    private volatile boolean                   running  = true;
+    private volatile long                      sink;
+
+    // Guarded by buffers
+    private final Deque<ByteBuffer> buffers = new ArrayDeque<>();
+    private final int               maxBuffers;
+    private int                     allocated;
+    private int                     held;
+
+    private final Counter saturated;
+
+    public ResourceSimulator(ResourceSimulationProperties properties,
+                             ProxyExecutor proxyExecutor,
+                             MeterRegistry meterRegistry) {
+        this.properties    = properties;
+        this.proxyExecutor = proxyExecutor;
+        this.burnUntil     = new AtomicLong(System.nanoTime());
+        this.maxBuffers    = (int) Math.max(0,
+                properties.getMemoryBudget().toBytes() / Math.max(1, properties.getMemoryChunk().toBytes()));
+
+        for (int i = 0; i < Math.max(1, properties.getCpuCores()); i++) {
+            Thread burner = new Thread(this::burn, "chaos-cpu-" + i);
+            burner.setDaemon(true);
+            burner.setPriority(Thread.MIN_PRIORITY);
+            burner.start();
+            burners.add(burner);
+        }
+
+        Gauge.builder("chaoslab.simulation.cpu.burning", burning, AtomicInteger::get)
+                .description("CPU_SPIKE burner threads currently spinning")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+        Gauge.builder("chaoslab.simulation.memory.held", this, s -> s.heldBytes())
+                .description("Bytes currently held by MEMORY_PRESSURE chaos")
+                .baseUnit("bytes")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+        Gauge.builder("chaoslab.simulation.memory.allocated", this, s -> s.allocatedBytes())
+                .description("Direct buffer bytes allocated for MEMORY_PRESSURE chaos, held or free")
+                .baseUnit("bytes")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+        this.saturated = Counter.builder("chaoslab.simulation.memory.saturated")
+                .description("MEMORY_PRESSURE calls that found the memory budget fully held")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+
+        log.info("Resource simulator initialized: cpuCores={}, duty={}, memoryBudget={}, chunk={}",
+                burners.size(), properties.getCpuDutyCycle(), properties.getMemoryBudget(), properties.getMemoryChunk());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        synchronized (wakeup) {
+            wakeup.notifyAll();
+        }
+    }
+
+    /**
+     * Keeps the burners spinning for {@code requestedMs} (default and cap from
+     * properties) and completes when that time is over.
+     */
+    public CompletableFuture<Void> cpuSpike(long requestedMs) {
+        long durationMs = Math.min(
+                requestedMs > 0 ? requestedMs : properties.getCpuDefaultDuration().toMillis(),
+                properties.getCpuMaxDuration().toMillis());
+        log.debug("PROXY CPU SPIKE — burning {} cores for {}ms", burners.size(), durationMs);
+
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        burnUntil.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+        synchronized (wakeup) {
+            wakeup.notifyAll();
+        }
+        return proxyExecutor.delay(durationMs);
+    }
+
+    /**
+     * Holds one memory chunk for memoryHold, then returns it to the pool.
+     */
+    public CompletableFuture<Void> memoryPressure() {
+        ByteBuffer buffer = acquire();
+        if (buffer == null) {
+            saturated.increment();
+            log.debug("PROXY MEMORY PRESSURE — budget of {} fully held, waiting without allocating",
+                    properties.getMemoryBudget());
+        } else {
+            for (int i = 0; i < buffer.capacity(); i += PAGE_SIZE) {
+                buffer.put(i, (byte) 42);   // keep every page resident
+            }
+        }
+        return proxyExecutor.delay(properties.getMemoryHold().toMillis())
+                .whenComplete((v, error) -> release(buffer));
+    }
+
+    // ── CPU ──────────────────────────────────────────────────────────────────
+
+    private void burn() {
+        double duty       = Math.max(0.0, Math.min(1.0, properties.getCpuDutyCycle()));
+        long   sliceNanos = properties.getCpuSlice().toNanos();
+        long   burnNanos  = (long) (sliceNanos * duty);
+        long   local      = 0;
+
+        while (running) {
+            if (burnUntil.get() - System.nanoTime() <= 0) {
+                awaitSpike();
+                continue;
+            }
+            burning.incrementAndGet();
+            try {
+                long sliceEnd = System.nanoTime() + burnNanos;
+                while (System.nanoTime() - sliceEnd < 0) {
+                    local += System.nanoTime();   // intentionally burns CPU — that's the point
+                }
+                sink = local;                     // so the JIT cannot drop the loop
+            } finally {
+                burning.decrementAndGet();
+            }
+            if (sliceNanos > burnNanos) {
+                LockSupport.parkNanos(sliceNanos - burnNanos);
+            }
+        }
+    }
+
+    private void awaitSpike() {
+        synchronized (wakeup) {
+            try {
+                while (running && burnUntil.get() - System.nanoTime() <= 0) {
+                    wakeup.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    // ── Memory ───────────────────────────────────────────────────────────────
+
+    private ByteBuffer acquire() {
+        synchronized (buffers) {
+            ByteBuffer buffer = buffers.poll();
+            if (buffer == null && allocated < maxBuffers) {
+                buffer = ByteBuffer.allocateDirect((int) properties.getMemoryChunk().toBytes());
+                allocated++;
+            }
+            if (buffer != null) held++;
+            return buffer;
+        }
+    }
+
+    private void release(ByteBuffer buffer) {
+        if (buffer == null) return;
+        synchronized (buffers) {
+            held--;
+            buffers.push(buffer);
+        }
+    }
+
+    private double heldBytes() {
+        synchronized (buffers) {
+            return (double) held * properties.getMemoryChunk().toBytes();
+        }
+    }
+
+    private double allocatedBytes() {
+        synchronized (buffers) {
+            return (double) allocated * properties.getMemoryChunk().toBytes();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.ProxyRecordingProperties;
+import com.adit.mockDemo.exception.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Per-org record/replay of upstream responses, for load experiments that
+ * must not hit the real dependency.
+ *
+ *   OFF    — calls go upstream (default)
+ *   RECORD — calls go upstream, and each answer is stored under the request
+ *            fingerprint with the latency it took
+ *   REPLAY — calls never go upstream. A random recording of the fingerprint
+ *            is served after its recorded latency, so the original latency
+ *            distribution is kept. The wait is not done here: the result
+ *            carries it as replayDelayMs and ProxyChaosService parks it on
+ *            ProxyExecutor like an injected delay. Unrecorded requests get
+ *            a 502 with X-Faultrix-Replay: miss.
+ *
+ * Only the upstream call is swapped. Chaos decisions, delays and mutations
+ * still apply on top in ProxyChaosService.
+ *
+ * Fingerprint: method + URL + Accept-Encoding + SHA-256 of the body. Other
+ * headers (credentials included) are not part of it.
+ *
+ * Recordings live in one memory-mapped file per org (RecordingStore) under
+ * faultrix.proxy.recording.dir, together with the mode, so both survive
+ * restarts. Both are per instance.
+ */
+@Component
+@Slf4j
+public class ResponseRecorder {
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    public record Status(Mode mode, int requests, int samples, long bytesUsed, long capacityBytes) {}
+
+    private final ProxyRecordingProperties                    properties;
+    private final ConcurrentMap<Long, Optional<RecordingStore>> stores = new ConcurrentHashMap<>();
+
+    private final Counter recorded;
+    private final Counter replayHits;
+    private final Counter replayMisses;
+    private final Counter skippedFull;
+    private final Counter skippedSaturated;
+    private final Counter skippedTooLarge;
+
+    public ResponseRecorder(ProxyRecordingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        this.recorded = Counter.builder("chaoslab.proxy.recording.recorded")
+                .description("Upstream responses stored for replay")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+        this.replayHits       = replayCounter("hit", meterRegistry);
+        this.replayMisses     = replayCounter("miss", meterRegistry);
+        this.skippedFull      = skipCounter("full", meterRegistry);
+        this.skippedSaturated = skipCounter("saturated", meterRegistry);
+        this.skippedTooLarge  = skipCounter("too_large", meterRegistry);
+    }
+
+    private static Counter replayCounter(String result, MeterRegistry registry) {
+        return Counter.builder("chaoslab.proxy.recording.replayed")
+                .description("Proxy calls answered from recordings instead of the upstream")
+                .tag("application", "chaoslab")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter skipCounter(String reason, MeterRegistry registry) {
+        return Counter.builder("chaoslab.proxy.recording.skipped")
+                .description("Upstream responses not recorded")
+                .tag("application", "chaoslab")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    // ── Hot path ─────────────────────────────────────────────────────────────
+
+    /**
+     * Run the upstream call according to the org's mode.
+     *
+     * @param forward the real upstream call — not invoked in REPLAY mode
+     */
+    public UpstreamResult execute(Long orgId, ProxyCall call, Supplier<UpstreamResult> forward) {
+        RecordingStore store = existingStore(orgId);
+        Mode mode = store != null ? modeOf(store) : Mode.OFF;
+
+        return switch (mode) {
+            case OFF    -> forward.get();
+            case REPLAY -> replay(store, call);
+            case RECORD -> {
+                UpstreamResult result = forward.get();
+                record(store, call, result);
+                yield result;
+            }
+        };
+    }
+
+    private UpstreamResult replay(RecordingStore store, ProxyCall call) {
+        RecordingStore.Recording recording = store.pick(fingerprint(call), ThreadLocalRandom.current().nextInt());
+        if (recording == null) {
+            replayMisses.increment();
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("X-Faultrix-Replay", "miss");
+            return UpstreamResult.builder()
+                    .status(502)
+                    .body(("{\"error\":\"No recording\",\"message\":\"Replay mode is on and this request was never "
+                            + "recorded — switch to record mode and send it once\"}").getBytes(StandardCharsets.UTF_8))
+                    .headers(headers)
+                    .success(false)
+                    .build();
+        }
+
+        replayHits.increment();
+        HttpHeaders headers = recording.headers();
+        headers.set("X-Faultrix-Replay", "hit");
+        return UpstreamResult.builder()
+                .status(recording.status())
+                .body(recording.body())
+                .headers(headers)
+                .success(recording.status() < 400)
+                .replayDelayMs(Math.max(0, Math.min(recording.latencyMs(), UpstreamForwarder.MAX_LATENCY_MS)))
+                .build();
+    }
+
+    private void record(RecordingStore store, ProxyCall call, UpstreamResult result) {
+        // Only real upstream answers — not DNS/transport failures or bulkhead/circuit rejections
+        if (result.getUpstreamLatencyMs() == null) return;
+
+        RecordingStore.Outcome outcome = store.append(fingerprint(call), result.getStatus(),
+                result.getHeaders(), result.getBody(), (int) Math.min(result.getUpstreamLatencyMs(), Integer.MAX_VALUE));
+        switch (outcome) {
+            case STORED    -> recorded.increment();
+            case FULL      -> skippedFull.increment();
+            case SATURATED -> skippedSaturated.increment();
+            case TOO_LARGE -> skippedTooLarge.increment();
+        }
+    }
+
+    static String fingerprint(ProxyCall call) {
+        List<String> encodings = call.headers() != null ? call.headers().get(HttpHeaders.ACCEPT_ENCODING) : null;
+        String body = call.body() != null && call.body().length > 0 ? sha256(call.body()) : "";
+        return call.method().toUpperCase(Locale.ROOT) + ' ' + call.url()
+                + '\0' + (encodings != null ? String.join(",", encodings) : "")
+                + '\0' + body;
+    }
+
+    // ── Control ──────────────────────────────────────────────────────────────
+
+    public Status setMode(Long orgId, Mode mode) {
+        RecordingStore store = mode == Mode.OFF ? existingStore(orgId) : openStore(orgId);
+        if (store != null) store.setMode(mode.ordinal());
+        log.info("Proxy recording mode for org {} → {}", orgId, mode);
+        return status(orgId);
+    }
+
+    public Status status(Long orgId) {
+        RecordingStore store = existingStore(orgId);
+        if (store == null) {
+            return new Status(Mode.OFF, 0, 0, 0, properties.getCapacity().toBytes());
+        }
+        return new Status(modeOf(store), store.requests(), store.samples(), store.bytesUsed(), store.capacity());
+    }
+
+    public Status clear(Long orgId) {
+        RecordingStore store = existingStore(orgId);
+        if (store != null) store.clear();
+        log.info("Proxy recordings cleared for org {}", orgId);
+        return status(orgId);
+    }
+
+    public static Mode parseMode(String mode) {
+        try {
+            return Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unsupported recording mode: " + mode + " (use off, record or replay)");
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        stores.values().forEach(store -> store.ifPresent(s -> {
+            try {
+                s.close();
+            } catch (IOException e) {
+                log.warn("Could not close recording store: {}", e.getMessage());
+            }
+        }));
+        stores.clear();
+    }
+
+    // ── Stores ───────────────────────────────────────────────────────────────
+
+    /** Open only if a file already exists — orgs that never recorded cost one map lookup. */
+    private RecordingStore existingStore(Long orgId) {
+        return stores.computeIfAbsent(orgId, id -> {
+            if (!Files.exists(file(id))) return Optional.empty();
+            try {
+                return Optional.of(open(id));
+            } catch (UncheckedIOException e) {
+                // Never fail the proxy path over the recorder — behave as OFF
+                log.warn("Recording store for org {} unusable, treating as off: {}", id, e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private RecordingStore openStore(Long orgId) {
+        return stores.compute(orgId, (id, current) ->
+                current != null && current.isPresent() ? current : Optional.of(open(id))
+        ).orElseThrow();
+    }
+
+    private RecordingStore open(Long orgId) {
+        try {
+            return RecordingStore.open(file(orgId), properties.getCapacity().toBytes(),
+                    properties.getMaxEntrySize().toBytes(), properties.getSamplesPerRequest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open recording store for org " + orgId, e);
+        }
+    }
+
+    private Path file(Long orgId) {
+        return Path.of(properties.getDir(), String.valueOf(orgId), "responses.rec");
+    }
+
+    private static Mode modeOf(RecordingStore store) {
+        int ordinal = store.mode();
+        return ordinal >= 0 && ordinal < Mode.values().length ? Mode.values()[ordinal] : Mode.OFF;
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.adit.mockDemo.proxy;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * SSRF (Server-Side Request Forgery) protection guard.
@@ -21,11 +29,60 @@ import java.util.regex.Pattern;
  *  - Explicitly blocked hostnames
  *
  * This must run BEFORE the upstream HTTP call is made.
+ *
+ * Resolution runs once per request. validate() returns the address set it
+ * checked, and UpstreamForwarder connects only to those addresses, so a DNS
+ * answer that changes between check and use (rebinding) is never dialled.
+ *
+ * Lookups are cached per host: successful answers for
+ * faultrix.proxy.dns.ttl, failed ones for faultrix.proxy.dns.negative-ttl.
+ * The JDK resolver does not expose per-record TTLs. The defaults therefore
+ * match the JVM's own networkaddress.cache.ttl and
+ * networkaddress.cache.negative.ttl, and should be lowered for upstreams
+ * that rely on short-TTL DNS failover.
  */
 @Component
 @Slf4j
 public class SsrfGuard {
 
+    static final int MAX_CACHED_HOSTS = 10_000;
+
+    /** A URL that passed validation, with the exact addresses it was checked against. */
+    public record ResolvedTarget(URI uri, String host, int port, List<InetAddress> addresses) {
+
+        /** False when DNS lookup failed — let through, the forwarder reports it as unreachable. */
+        public boolean isResolved() {
+            return !addresses.isEmpty();
+        }
+    }
+
+    @FunctionalInterface
+    interface Resolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+
+    private final Resolver                          resolver;
+    private final Cache<String, List<InetAddress>>  dnsCache;
+
+    @Autowired
+    public SsrfGuard(@Value("${faultrix.proxy.dns.ttl:30s}") Duration ttl,
+                     @Value("${faultrix.proxy.dns.negative-ttl:10s}") Duration negativeTtl,
+                     MeterRegistry meterRegistry) {
+        this(InetAddress::getAllByName, ttl, negativeTtl, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, dnsCache, "proxy-dns");
+    }
+
+    SsrfGuard(Resolver resolver, Duration ttl, Duration negativeTtl, Ticker ticker) {
+        this.resolver = resolver;
+        this.dnsCache = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_HOSTS)
+                .expireAfter(Expiry.creating((String host, List<InetAddress> addresses) ->
+                        addresses.isEmpty() ? negativeTtl : ttl))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
     // ── Blocked schemes ────────────────────────────────────────────────────────
     private static final List<String> ALLOWED_SCHEMES = List.of("http", "https");
 
@@ -57,8 +114,10 @@ public class SsrfGuard {
     /**
      * Validate that the given URL is safe to proxy.
      * Throws SsrfException if the URL is blocked.
+     *
+     * @return the URL with the addresses that were checked — connect only to these
      */
-    public void validate(String rawUrl) {
+    public ResolvedTarget validate(String rawUrl) {
         if (rawUrl == null || rawUrl.isBlank()) {
             throw new SsrfException("URL must not be blank");
         }
@@ -103,19 +162,32 @@ public class SsrfGuard {
         }
 
         // 6. Resolve IP and check private ranges
-        //    (Blocks DNS rebinding attacks too — we check the resolved IP, not just the hostname)
-        try {
-            InetAddress[] addresses = InetAddress.getAllByName(host);
-            for (InetAddress addr : addresses) {
-                checkIpAddress(addr, rawUrl);
-            }
-        } catch (UnknownHostException e) {
+        //    (Blocks DNS rebinding attacks too — we check the resolved IP, not just the hostname,
+        //     and the forwarder connects to exactly these addresses)
+        List<InetAddress> addresses = resolve(host);
+        for (InetAddress addr : addresses) {
+            checkIpAddress(addr, rawUrl);
+        }
+        if (addresses.isEmpty()) {
             // DNS resolution failure — let it through, upstream call will fail naturally
             // Blocking unknown hosts would break valid URLs under temporary DNS issues
             log.warn("SSRF check: Could not resolve host '{}' — allowing through (will fail upstream)", host);
         }
 
         log.debug("SSRF check passed for URL: {}", rawUrl);
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(scheme) ? 443 : 80;
+        return new ResolvedTarget(uri, host, port, addresses);
+    }
+
+    /** Cached lookup; concurrent misses for one host share a single resolution. Empty = unresolvable. */
+    private List<InetAddress> resolve(String host) {
+        return dnsCache.get(host, h -> {
+            try {
+                return List.of(resolver.resolve(h));
+            } catch (UnknownHostException e) {
+                return List.of();
+            }
+        });
     }
 
     // ── Private helpers ──────────────────────────────────────────────────────
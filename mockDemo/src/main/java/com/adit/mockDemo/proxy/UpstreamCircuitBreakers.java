@@ -0,0 +1,258 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.UpstreamResilienceProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-upstream (host:port) bulkhead and circuit breaker for the proxy.
+ *
+ * Bulkhead: at most maxConcurrent calls in flight per upstream. Once it is
+ * full, further calls are rejected immediately instead of queueing on a Tomcat
+ * thread.
+ *
+ * Circuit breaker over the last slidingWindowSize calls:
+ *
+ *   CLOSED    — calls pass; opens when ≥ minimumCalls are recorded and the
+ *               failure share reaches failureRateThreshold
+ *   OPEN      — calls rejected for openDuration
+ *   HALF_OPEN — up to halfOpenProbes trial calls; all succeed → CLOSED,
+ *               any fails → OPEN again
+ *
+ * A failure is a transport error (connect/read timeout, refused, reset) or
+ * an upstream 502/503/504. Other 4xx/5xx are answers from a live upstream
+ * and count as successes.
+ *
+ * Rejections surface as 503 with X-Faultrix-Upstream-Rejected set to
+ * circuit-open or bulkhead-full, distinct from the 502 of a real transport
+ * failure. State is per instance.
+ */
+@Component
+@Slf4j
+public class UpstreamCircuitBreakers {
+
+    static final int MAX_TRACKED_UPSTREAMS = 1_000;
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    /** Thrown by {@link #acquire} when the call must not go out. */
+    public static final class RejectedException extends Exception {
+        private final String reason;
+        private final long   retryAfterMs;
+
+        RejectedException(String reason, long retryAfterMs) {
+            super(reason, null, false, false);   // control flow — no stack trace
+            this.reason       = reason;
+            this.retryAfterMs = retryAfterMs;
+        }
+
+        /** circuit-open or bulkhead-full */
+        public String getReason() {
+            return reason;
+        }
+
+        public long getRetryAfterMs() {
+            return retryAfterMs;
+        }
+    }
+
+    /** One admitted call. Report the outcome exactly once. */
+    public interface Permit {
+        void release(boolean failed);
+    }
+
+    private final UpstreamResilienceProperties properties;
+    private final MeterRegistry                meterRegistry;
+    private final Cache<String, Circuit>       circuits;
+    private final Counter                      circuitOpenRejections;
+    private final Counter                      bulkheadRejections;
+    private final Counter                      openedCounter;
+    private final LongSupplier                 clock;
+
+    @Autowired
+    public UpstreamCircuitBreakers(UpstreamResilienceProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::currentTimeMillis);
+    }
+
+    UpstreamCircuitBreakers(UpstreamResilienceProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties    = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock         = clock;
+        this.circuits      = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_UPSTREAMS)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .removalListener((String key, Circuit circuit, RemovalCause cause) -> {
+                    if (circuit != null) meterRegistry.remove(circuit.stateGauge);
+                })
+                .build();
+
+        this.circuitOpenRejections = rejectionCounter("circuit_open", meterRegistry);
+        this.bulkheadRejections    = rejectionCounter("bulkhead_full", meterRegistry);
+
+        this.openedCounter = Counter.builder("chaoslab.proxy.upstream.circuit.opened")
+                .description("Times an upstream circuit breaker opened")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+    }
+
+    private static Counter rejectionCounter(String reason, MeterRegistry registry) {
+        return Counter.builder("chaoslab.proxy.upstream.rejected")
+                .description("Proxy calls rejected before reaching the upstream")
+                .tag("application", "chaoslab")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    // ── Admission ────────────────────────────────────────────────────────────
+
+    public Permit acquire(SsrfGuard.ResolvedTarget target) throws RejectedException {
+        return acquire(key(target));
+    }
+
+    Permit acquire(String upstream) throws RejectedException {
+        Circuit circuit = circuits.get(upstream, Circuit::new);
+
+        boolean probe = circuit.admit(clock.getAsLong());
+        if (!circuit.bulkhead.tryAcquire()) {
+            if (probe) circuit.abandonProbe();
+            bulkheadRejections.increment();
+            throw new RejectedException("bulkhead-full", 0);
+        }
+        return failed -> {
+            circuit.bulkhead.release();
+            circuit.record(failed, probe, clock.getAsLong());
+        };
+    }
+
+    State state(String upstream) {
+        Circuit circuit = circuits.getIfPresent(upstream);
+        return circuit != null ? circuit.state : State.CLOSED;
+    }
+
+    int availablePermits(String upstream) {
+        Circuit circuit = circuits.getIfPresent(upstream);
+        return circuit != null ? circuit.bulkhead.availablePermits() : properties.getMaxConcurrent();
+    }
+
+    static String key(SsrfGuard.ResolvedTarget target) {
+        return target.host() + ":" + target.port();
+    }
+
+    // ── Per-upstream state ───────────────────────────────────────────────────
+
+    private final class Circuit {
+        final String    upstream;
+        final Semaphore bulkhead;
+        final Gauge     stateGauge;
+
+        // Guarded by this; state is volatile only for the gauge
+        private volatile State state = State.CLOSED;
+        private final boolean[] window;
+        private int             windowNext;
+        private int             windowCount;
+        private int             windowFailures;
+        private long            openedAtMs;
+        private int             probesInFlight;
+        private int             probeSuccesses;
+
+        Circuit(String upstream) {
+            this.upstream = upstream;
+            this.bulkhead = new Semaphore(properties.getMaxConcurrent());
+            this.window   = new boolean[Math.max(1, properties.getSlidingWindowSize())];
+
+            this.stateGauge = Gauge.builder("chaoslab.proxy.upstream.circuit.state", this, c -> c.state.ordinal())
+                    .description("Upstream circuit state: 0=closed, 1=half-open, 2=open")
+                    .tag("application", "chaoslab")
+                    .tag("upstream", upstream)
+                    .register(meterRegistry);
+        }
+
+        /** @return true if admitted as a half-open probe */
+        synchronized boolean admit(long nowMs) throws RejectedException {
+            long openMs = properties.getOpenDuration().toMillis();
+            if (state == State.OPEN) {
+                long remaining = openedAtMs + openMs - nowMs;
+                if (remaining > 0) {
+                    circuitOpenRejections.increment();
+                    throw new RejectedException("circuit-open", remaining);
+                }
+                transition(State.HALF_OPEN);
+                probesInFlight = 0;
+                probeSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight + probeSuccesses >= properties.getHalfOpenProbes()) {
+                    circuitOpenRejections.increment();
+                    throw new RejectedException("circuit-open", 1_000);
+                }
+                probesInFlight++;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void abandonProbe() {
+            probesInFlight--;
+        }
+
+        synchronized void record(boolean failed, boolean probe, long nowMs) {
+            if (probe) {
+                probesInFlight--;
+                if (state != State.HALF_OPEN) return;
+                if (failed) {
+                    open(nowMs);
+                } else if (++probeSuccesses >= properties.getHalfOpenProbes()) {
+                    resetWindow();
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            if (state != State.CLOSED) return;   // finished after the circuit already opened
+
+            if (windowCount == window.length) {
+                if (window[windowNext]) windowFailures--;
+            } else {
+                windowCount++;
+            }
+            window[windowNext] = failed;
+            if (failed) windowFailures++;
+            windowNext = (windowNext + 1) % window.length;
+
+            if (windowCount >= properties.getMinimumCalls()
+                    && windowFailures >= properties.getFailureRateThreshold() * windowCount) {
+                open(nowMs);
+            }
+        }
+
+        private void open(long nowMs) {
+            log.warn("Upstream circuit OPEN for {} — {}/{} recent calls failed, rejecting for {}",
+                    upstream, windowFailures, windowCount, properties.getOpenDuration());
+            openedAtMs = nowMs;
+            resetWindow();
+            openedCounter.increment();
+            transition(State.OPEN);
+        }
+
+        private void resetWindow() {
+            windowNext     = 0;
+            windowCount    = 0;
+            windowFailures = 0;
+        }
+
+        private void transition(State next) {
+            if (state != next) log.info("Upstream circuit {} → {} for {}", state, next, upstream);
+            state = next;
+        }
+    }
+}
@@ -2,29 +2,36 @@ package com.adit.mockDemo.proxy;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
 import java.util.Set;
 
 /**
  * Forwards HTTP requests to the real upstream service and returns the raw response.
  *
  * Security guarantees:
- *  - SSRF validation runs before every request via SsrfGuard
+ *  - Only connects to the addresses SsrfGuard validated for the request (see PinnedRequestFactory)
  *  - Uses a dedicated RestTemplate with proxy-specific timeouts (not shared with the app)
  *  - Connect timeout:  5s  (upstream must accept connection within 5 seconds)
  *  - Read timeout:    10s  (upstream must respond within 10 seconds)
  *  - Strips hop-by-hop headers (Connection, Transfer-Encoding, etc.) from forwarded response
+ *  - Accept-Encoding is forwarded and compressed bodies come back as-is, with their
+ *    Content-Encoding (Tomcat does not re-compress a response that already has one)
  *  - Blocks forwarding of dangerous request headers (X-API-Key, Authorization forwarding is
  *    the caller's explicit choice — we don't strip it, but we log it)
  *
+ * Isolation: every call passes UpstreamCircuitBreakers first — a per-upstream
+ * bulkhead and circuit breaker — so a dead upstream is rejected with a 503 in
+ * microseconds instead of pinning proxy workers for connect + read timeouts.
+ *
+ * Hedging: forwardHedged races a second attempt against a slow first one
+ * (UpstreamHedger). Callers use it only for safe methods on no-chaos traffic.
+ *
  * Max latency chaos cap (enforced here, not in ProxyChaosService):
  *  Latency injections > read timeout would cause the request to time out anyway,
  *  so we cap them at 8000ms (2s under the 10s read timeout).
@@ -33,7 +40,7 @@ import java.util.Set;
 @Slf4j
 public class UpstreamForwarder {
 
-    /** Max latency injection — capped 2s under read timeout to avoid thread exhaustion */
+    /** Max latency injection — capped 2s under read timeout */
     public static final int MAX_LATENCY_MS = 8_000;
 
     /**
@@ -43,6 +50,8 @@ public class UpstreamForwarder {
     private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
             "connection", "keep-alive", "proxy-authenticate", "proxy-authorization",
             "te", "trailers", "transfer-encoding", "upgrade",
+            // Describe the inbound hop to Faultrix, not the upstream call — recomputed by the client
+            "host", "content-length",
             // Faultrix-internal headers — never forward these upstream
             "x-api-key", "x-correlation-id"
     );
@@ -52,52 +61,77 @@ public class UpstreamForwarder {
      * Prevents leaking internal upstream infrastructure details.
      */
     private static final Set<String> BLOCKED_RESPONSE_HEADERS = Set.of(
-            "connection", "keep-alive", "transfer-encoding", "trailer"
+            "connection", "keep-alive", "transfer-encoding", "trailer",
+            "content-length"    // recomputed for the (possibly mutated) body
     );
 
-    private final RestTemplate proxyRestTemplate;
-    private final SsrfGuard    ssrfGuard;
+    private final RestTemplate            proxyRestTemplate;
+    private final PinnedRequestFactory    requestFactory;
+    private final UpstreamCircuitBreakers circuitBreakers;
+    private final UpstreamHedger          hedger;
 
-    public UpstreamForwarder(SsrfGuard ssrfGuard) {
-        this.ssrfGuard = ssrfGuard;
+    public UpstreamForwarder(UpstreamCircuitBreakers circuitBreakers, UpstreamHedger hedger) {
+        this.circuitBreakers = circuitBreakers;
+        this.hedger          = hedger;
 
         // Dedicated RestTemplate for proxy — tighter timeouts than the app's default one
         // This is intentionally separate so proxy timeouts don't affect other RestTemplate uses
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5_000);   // 5s to establish connection
-        factory.setReadTimeout(10_000);     // 10s to receive first byte of response
-        this.proxyRestTemplate = new RestTemplate(factory);
+        this.requestFactory = new PinnedRequestFactory();
+        requestFactory.setConnectTimeout(5_000);   // 5s to establish connection
+        requestFactory.setReadTimeout(10_000);     // 10s to receive first byte of response
+        this.proxyRestTemplate = new RestTemplate(requestFactory);
     }
 
     /**
      * Forward a request to the upstream URL and return the raw response.
      *
      * @param method   HTTP method (GET, POST, PUT, PATCH, DELETE)
-     * @param url      Full upstream URL — SSRF-validated before call
+     * @param target   Upstream URL as returned by SsrfGuard.validate — connects only to its addresses
      * @param headers  Headers to include (hop-by-hop headers are stripped)
      * @param body     Request body (nullable for GET/DELETE)
      * @return UpstreamResult containing status, body, and response headers
-     * @throws SsrfGuard.SsrfException if the URL resolves to a blocked address
      */
     public UpstreamResult forward(String method,
-                                  String url,
-                                  Map<String, String> headers,
-                                  String body) {
-        // ── SSRF validation — must run before every call ─────────────────────
-        ssrfGuard.validate(url);
+                                  SsrfGuard.ResolvedTarget target,
+                                  HttpHeaders headers,
+                                  byte[] body) {
+        URI url = target.uri();
 
-        log.info("Forwarding {} {} upstream", method, url);
+        if (!target.isResolved()) {
+            log.error("Upstream unreachable: {} {} — DNS lookup failed", method, url);
+
+            return UpstreamResult.builder()
+                    .status(502)
+                    .body(jsonError("{\"error\":\"Upstream unreachable\",\"message\":\"Could not resolve host "
+                            + sanitize(target.host()) + "\"}"))
+                    .headers(jsonHeaders())
+                    .success(false)
+                    .build();
+        }
 
-        HttpHeaders httpHeaders = buildHeaders(headers);
-        HttpEntity<String> entity = new HttpEntity<>(body, httpHeaders);
-        HttpMethod httpMethod = resolveMethod(method);
+        // Resolved before the permit is taken: an unsupported method must not leak a bulkhead slot
+        HttpMethod         httpMethod = resolveMethod(method);
+        HttpEntity<byte[]> entity     = new HttpEntity<>(body, buildHeaders(headers));
 
+        // ── Bulkhead + circuit breaker — fail fast instead of holding a thread ──
+        UpstreamCircuitBreakers.Permit permit;
         try {
-            ResponseEntity<String> response = proxyRestTemplate.exchange(
-                    URI.create(url),
+            permit = circuitBreakers.acquire(target);
+        } catch (UpstreamCircuitBreakers.RejectedException e) {
+            return buildRejectedResult(method, target, e);
+        }
+
+        log.info("Forwarding {} {} upstream", method, url);
+
+        boolean failed     = false;
+        long    startNanos = System.nanoTime();
+
+        try (PinnedRequestFactory.Pin pin = requestFactory.pin(target)) {
+            ResponseEntity<byte[]> response = proxyRestTemplate.exchange(
+                    url,
                     httpMethod,
                     entity,
-                    String.class
+                    byte[].class
             );
 
             log.info("Upstream {} {} → {}", method, url, response.getStatusCode().value());
@@ -107,27 +141,32 @@ public class UpstreamForwarder {
                     .body(response.getBody())
                     .headers(filterResponseHeaders(response.getHeaders()))
                     .success(true)
+                    .upstreamLatencyMs(elapsedMs(startNanos))
                     .build();
 
         } catch (HttpStatusCodeException e) {
             // Upstream returned 4xx/5xx — still a valid response, pass it through
             log.warn("Upstream returned error {} for {} {}", e.getStatusCode().value(), method, url);
+            int status = e.getStatusCode().value();
+            failed = status == 502 || status == 503 || status == 504;   // upstream itself unavailable
 
             return UpstreamResult.builder()
                     .status(e.getStatusCode().value())
-                    .body(e.getResponseBodyAsString())
+                    .body(e.getResponseBodyAsByteArray())
                     .headers(filterResponseHeaders(e.getResponseHeaders()))
                     .success(false)
+                    .upstreamLatencyMs(elapsedMs(startNanos))
                     .build();
 
         } catch (ResourceAccessException e) {
             // Network error — upstream unreachable (timeout, DNS failure, etc.)
             log.error("Upstream unreachable: {} {} — {}", method, url, e.getMessage());
+            failed = true;
 
             return UpstreamResult.builder()
                     .status(502)
-                    .body("{\"error\":\"Upstream unreachable\",\"message\":\"" + sanitize(e.getMessage()) + "\"}")
-                    .headers(new HashMap<>())
+                    .body(jsonError("{\"error\":\"Upstream unreachable\",\"message\":\"" + sanitize(e.getMessage()) + "\"}"))
+                    .headers(jsonHeaders())
                     .success(false)
                     .build();
 
@@ -136,42 +175,93 @@ public class UpstreamForwarder {
 
             return UpstreamResult.builder()
                     .status(500)
-                    .body("{\"error\":\"Proxy internal error\",\"message\":\"" + sanitize(e.getMessage()) + "\"}")
-                    .headers(new HashMap<>())
+                    .body(jsonError("{\"error\":\"Proxy internal error\",\"message\":\"" + sanitize(e.getMessage()) + "\"}"))
+                    .headers(jsonHeaders())
                     .success(false)
                     .build();
+        } finally {
+            permit.release(failed);
         }
     }
 
+    /**
+     * Same as {@link #forward}, but a second attempt is sent if the first is
+     * slower than the upstream's recent latency percentile; the first answer wins.
+     * Only for requests that are safe to send twice.
+     */
+    public UpstreamResult forwardHedged(String method,
+                                        SsrfGuard.ResolvedTarget target,
+                                        HttpHeaders headers,
+                                        byte[] body) {
+        if (!target.isResolved()) return forward(method, target, headers, body);
+        return hedger.execute(UpstreamCircuitBreakers.key(target), () -> forward(method, target, headers, body));
+    }
+
     // ── Private helpers ──────────────────────────────────────────────────────
 
-    private HttpHeaders buildHeaders(Map<String, String> headers) {
+    /** 503, tagged so callers can tell a Faultrix rejection from the upstream's own 503. */
+    private UpstreamResult buildRejectedResult(String method,
+                                               SsrfGuard.ResolvedTarget target,
+                                               UpstreamCircuitBreakers.RejectedException e) {
+        log.warn("Upstream call rejected ({}): {} {}", e.getReason(), method, target.uri());
+
+        HttpHeaders headers = jsonHeaders();
+        headers.set("X-Faultrix-Upstream-Rejected", e.getReason());
+        if (e.getRetryAfterMs() > 0) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf((e.getRetryAfterMs() + 999) / 1000));
+        }
+
+        String message = e.getReason().equals("circuit-open")
+                ? "Upstream " + UpstreamCircuitBreakers.key(target) + " is failing — circuit open"
+                : "Too many concurrent calls to upstream " + UpstreamCircuitBreakers.key(target);
+
+        return UpstreamResult.builder()
+                .status(503)
+                .body(jsonError("{\"error\":\"Upstream rejected\",\"reason\":\"" + e.getReason()
+                        + "\",\"message\":\"" + sanitize(message) + "\"}"))
+                .headers(headers)
+                .success(false)
+                .build();
+    }
+
+    private HttpHeaders buildHeaders(HttpHeaders headers) {
         HttpHeaders httpHeaders = new HttpHeaders();
         if (headers != null) {
-            headers.forEach((key, value) -> {
+            headers.forEach((key, values) -> {
                 // Strip hop-by-hop and Faultrix-internal headers from outgoing upstream request
                 if (key != null && !HOP_BY_HOP_HEADERS.contains(key.toLowerCase())) {
-                    httpHeaders.set(key, value);
+                    httpHeaders.put(key, values);
                 }
             });
         }
-        // Ensure JSON content type if not already set
-        if (!httpHeaders.containsKey(HttpHeaders.CONTENT_TYPE)) {
-            httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-        }
         return httpHeaders;
     }
 
-    private Map<String, String> filterResponseHeaders(org.springframework.http.HttpHeaders headers) {
-        Map<String, String> flat = new HashMap<>();
-        if (headers == null) return flat;
+    /** Keeps every value of multi-valued headers (Set-Cookie, Vary, ...). */
+    private HttpHeaders filterResponseHeaders(HttpHeaders headers) {
+        HttpHeaders filtered = new HttpHeaders();
+        if (headers == null) return filtered;
         headers.forEach((key, values) -> {
             if (key != null && !values.isEmpty()
                     && !BLOCKED_RESPONSE_HEADERS.contains(key.toLowerCase())) {
-                flat.put(key, values.get(0));
+                filtered.put(key, values);
             }
         });
-        return flat;
+        return filtered;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private static byte[] jsonError(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
     }
 
     private HttpMethod resolveMethod(String method) {
@@ -0,0 +1,270 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.UpstreamHedgeProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged upstream calls: if the first attempt has not answered once it is
+ * slower than the upstream's recent latency percentile, a second attempt is
+ * sent and whichever answers first wins. The loser runs to completion in the
+ * background — HttpURLConnection cannot be aborted mid-read — and its
+ * latency still feeds the percentile.
+ *
+ * Threshold: the configured percentile (p95 by default) of the last 128
+ * latencies for that host:port, recomputed every 16 samples and never below
+ * minDelay. Until an upstream has minSamples latencies, calls run on the
+ * caller's thread unhedged.
+ *
+ * Budget: a global token bucket. Every hedgeable call deposits budgetRatio
+ * tokens, up to budgetBurst, and each hedge costs one. Hedges therefore add
+ * at most ~budgetRatio extra upstream load, so a slow upstream does not get
+ * twice the traffic exactly when it is struggling.
+ *
+ * An attempt that never reached the upstream (DNS, transport error,
+ * circuit/bulkhead rejection) only wins if the other attempt did no better.
+ */
+@Component
+@Slf4j
+public class UpstreamHedger {
+
+    static final int WINDOW          = 128;
+    static final int RECOMPUTE_EVERY = 16;
+
+    private final UpstreamHedgeProperties     properties;
+    private final ExecutorService             attempts;
+    private final Cache<String, LatencyWindow> windows;
+    private final AtomicLong                  budgetMillis;   // tokens × 1000
+
+    private final Counter calls;
+    private final Counter hedges;
+    private final Counter wins;
+    private final Counter skippedBudget;
+    private final Counter skippedThreads;
+
+    @Autowired
+    public UpstreamHedger(UpstreamHedgeProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, new ThreadPoolExecutor(0, properties.getMaxThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                runnable -> {
+                    Thread t = new Thread(runnable, "upstream-hedge");
+                    t.setDaemon(true);
+                    return t;
+                }));
+    }
+
+    UpstreamHedger(UpstreamHedgeProperties properties, MeterRegistry meterRegistry, ExecutorService attempts) {
+        this.properties   = properties;
+        this.attempts     = attempts;
+        this.windows      = Caffeine.newBuilder()
+                .maximumSize(UpstreamCircuitBreakers.MAX_TRACKED_UPSTREAMS)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.budgetMillis = new AtomicLong(properties.getBudgetBurst() * 1_000L);
+
+        this.calls = Counter.builder("chaoslab.proxy.hedge.calls")
+                .description("Proxied calls eligible for hedging")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+        this.hedges = Counter.builder("chaoslab.proxy.hedge.sent")
+                .description("Second attempts sent because the first was slower than the threshold")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+        this.wins = Counter.builder("chaoslab.proxy.hedge.wins")
+                .description("Hedged calls answered by the second attempt")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+        this.skippedBudget  = skipCounter("budget", meterRegistry);
+        this.skippedThreads = skipCounter("threads", meterRegistry);
+
+        Gauge.builder("chaoslab.proxy.hedge.rate", this, UpstreamHedger::hedgeRate)
+                .description("Share of eligible calls that sent a hedge")
+                .tag("application", "chaoslab")
+                .register(meterRegistry);
+    }
+
+    private static Counter skipCounter(String reason, MeterRegistry registry) {
+        return Counter.builder("chaoslab.proxy.hedge.skipped")
+                .description("Hedges not sent although the first attempt was slow")
+                .tag("application", "chaoslab")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        attempts.shutdownNow();
+    }
+
+    // ── Hedged call ──────────────────────────────────────────────────────────
+
+    /**
+     * @param upstream host:port — latencies are tracked per upstream
+     * @param attempt  one complete upstream call; may run twice, on pool threads
+     */
+    public UpstreamResult execute(String upstream, Supplier<UpstreamResult> attempt) {
+        calls.increment();
+        deposit();
+
+        LatencyWindow window = windows.get(upstream, key -> new LatencyWindow());
+        Supplier<UpstreamResult> timed = () -> window.record(attempt.get());
+
+        long thresholdMs = window.thresholdMs;
+        if (thresholdMs < 0) {
+            return timed.get();   // still learning this upstream
+        }
+
+        CompletableFuture<UpstreamResult> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(timed, attempts);
+        } catch (RejectedExecutionException e) {
+            skippedThreads.increment();
+            return timed.get();
+        }
+
+        try {
+            return primary.get(thresholdMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // slow — fall through to hedge
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return join(primary);
+        }
+
+        if (!withdraw()) {
+            skippedBudget.increment();
+            return join(primary);
+        }
+        CompletableFuture<UpstreamResult> hedge;
+        try {
+            hedge = CompletableFuture.supplyAsync(timed, attempts);
+        } catch (RejectedExecutionException e) {
+            refund();
+            skippedThreads.increment();
+            return join(primary);
+        }
+        hedges.increment();
+        log.debug("Hedging call to {} — first attempt slower than {}ms", upstream, thresholdMs);
+
+        return race(primary, hedge);
+    }
+
+    private UpstreamResult race(CompletableFuture<UpstreamResult> primary, CompletableFuture<UpstreamResult> hedge) {
+        CompletableFuture.anyOf(primary, hedge).exceptionally(t -> null).join();
+        if (answered(primary)) return primary.join();
+        if (answered(hedge)) {
+            wins.increment();
+            return hedge.join();
+        }
+
+        // The one that finished never reached the upstream — give the other its chance
+        CompletableFuture.allOf(primary, hedge).exceptionally(t -> null).join();
+        if (answered(primary)) return primary.join();
+        if (answered(hedge)) {
+            wins.increment();
+            return hedge.join();
+        }
+        return join(primary);
+    }
+
+    private static boolean answered(CompletableFuture<UpstreamResult> attempt) {
+        return attempt.isDone() && !attempt.isCompletedExceptionally()
+                && attempt.join().getUpstreamLatencyMs() != null;
+    }
+
+    private static UpstreamResult join(CompletableFuture<UpstreamResult> attempt) {
+        try {
+            return attempt.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) return runtime;
+        if (cause instanceof Error error) throw error;
+        return new IllegalStateException(cause);
+    }
+
+    long thresholdMs(String upstream) {
+        LatencyWindow window = windows.getIfPresent(upstream);
+        return window != null ? window.thresholdMs : -1;
+    }
+
+    // ── Budget ───────────────────────────────────────────────────────────────
+
+    private void deposit() {
+        long cap   = properties.getBudgetBurst() * 1_000L;
+        long grant = (long) (properties.getBudgetRatio() * 1_000);
+        budgetMillis.getAndUpdate(tokens -> Math.min(cap, tokens + grant));
+    }
+
+    private boolean withdraw() {
+        long before = budgetMillis.getAndUpdate(tokens -> tokens >= 1_000 ? tokens - 1_000 : tokens);
+        return before >= 1_000;
+    }
+
+    private void refund() {
+        budgetMillis.addAndGet(1_000);
+    }
+
+    private double hedgeRate() {
+        double eligible = calls.count();
+        return eligible == 0 ? 0.0 : hedges.count() / eligible;
+    }
+
+    // ── Per-upstream latency percentile ──────────────────────────────────────
+
+    private final class LatencyWindow {
+        private final long[] samples = new long[WINDOW];
+        private int          next;
+        private int          count;
+        private int          sinceRecompute;
+        volatile long        thresholdMs = -1;
+
+        UpstreamResult record(UpstreamResult result) {
+            if (result.getUpstreamLatencyMs() != null) add(result.getUpstreamLatencyMs());
+            return result;
+        }
+
+        private synchronized void add(long latencyMs) {
+            samples[next] = latencyMs;
+            next = (next + 1) % WINDOW;
+            if (count < WINDOW) count++;
+            sinceRecompute++;
+
+            boolean firstVerdict = thresholdMs < 0 && count >= properties.getMinSamples();
+            if (firstVerdict || (thresholdMs >= 0 && sinceRecompute >= RECOMPUTE_EVERY)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(properties.getPercentile() * count) - 1;
+                long percentile = sorted[Math.max(0, Math.min(count - 1, rank))];
+                thresholdMs    = Math.max(properties.getMinDelay().toMillis(), percentile);
+                sinceRecompute = 0;
+            }
+        }
+    }
+}
@@ -2,8 +2,7 @@ package com.adit.mockDemo.proxy;
 
 import lombok.Builder;
 import lombok.Getter;
-
-import java.util.Map;
+import org.springframework.http.HttpHeaders;
 
 /**
  * Internal result from UpstreamForwarder.
@@ -12,8 +11,11 @@ import java.util.Map;
 @Getter
 @Builder
 public class UpstreamResult {
-    private final int status;
-    private final String body;
-    private final Map<String, String> headers;
-    private final boolean success;
+    private final int         status;
+    private final byte[]      body;      // raw bytes — charset decoding is the caller's business
+    private final HttpHeaders headers;
+    private final boolean     success;
+    private final boolean     coalesced; // served from another request's identical in-flight call
+    private final Long        upstreamLatencyMs; // time the upstream took to answer; null if it never did
+    private final int         replayDelayMs;     // recorded latency the caller still has to wait out (replay only)
 }
\ No newline at end of file
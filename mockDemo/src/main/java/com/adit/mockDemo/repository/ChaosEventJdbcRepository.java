@@ -0,0 +1,166 @@
+package com.adit.mockDemo.repository;
+
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import com.adit.mockDemo.dto.ChaosEventResponse;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Keyset-paginated reads of chaos event history.
+ *
+ * The old native findEvents query used "(:x IS NULL OR col = :x)" for every
+ * filter. Postgres plans that once for all parameter combinations, so it could
+ * not reliably choose idx_chaos_events_org_target or the analytics index, and
+ * OFFSET paging made deep pages linearly slower.
+ *
+ * This builder emits only the predicates that were actually supplied, and
+ * pages with a row-value comparison on (occurred_at, id) that matches the
+ * V13 indexes, so every page is an index range scan of {@code limit} rows.
+ *
+ * Exports use the same filters but stream through a server-side cursor: the
+ * export template has a fetch size, so inside a transaction the Postgres
+ * driver pulls rows in batches instead of buffering the whole result.
+ */
+@Repository
+public class ChaosEventJdbcRepository {
+
+    /** Rows per round trip while streaming an export */
+    static final int EXPORT_FETCH_SIZE = 1_000;
+
+    private static final String SELECT_COLUMNS = """
+            SELECT e.id, e.organization_id, e.chaos_rule_id, e.target, e.request_id, e.chaos_type,
+                   e.injected, e.http_status, e.delay_ms, e.failure_rate, e.blast_radius, e.occurred_at
+            FROM chaos_events e
+            """;
+
+    static final RowMapper<ChaosEventResponse> ROW_MAPPER = (rs, rowNum) -> ChaosEventResponse.builder()
+            .id(rs.getLong("id"))
+            .organizationId(rs.getLong("organization_id"))
+            .chaosRuleId(rs.getObject("chaos_rule_id", Long.class))
+            .target(rs.getString("target"))
+            .requestId(rs.getString("request_id"))
+            .chaosType(ChaosType.valueOf(rs.getString("chaos_type")))
+            .injected(rs.getBoolean("injected"))
+            .httpStatus(rs.getObject("http_status", Integer.class))
+            .delayMs(rs.getInt("delay_ms"))
+            .failureRate(rs.getDouble("failure_rate"))
+            .blastRadius(rs.getDouble("blast_radius"))
+            .occurredAt(rs.getTimestamp("occurred_at").toInstant())
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate exportTemplate;
+
+    public ChaosEventJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        // Same DataSource, so it joins the caller's transaction — the cursor only streams with autocommit off
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(EXPORT_FETCH_SIZE);
+        this.exportTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    /**
+     * Filters and keyset position for one page. Null fields are left out of
+     * the SQL entirely rather than bound as NULL.
+     */
+    @Value
+    @Builder
+    public static class EventQuery {
+        Long      orgId;
+        String    target;
+        Instant   from;
+        Instant   to;
+        Boolean   injected;
+        Timestamp afterOccurredAt;   // keyset position — both set, or neither
+        Long      afterId;
+        int       offset;            // legacy page-number support only; 0 with keyset
+        int       limit;
+    }
+
+    public List<ChaosEventResponse> findPage(EventQuery query) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        return jdbcTemplate.query(buildPageSql(query, params), params, ROW_MAPPER);
+    }
+
+    /** occurred_at of an event in this org — resolves a nextCursor id back to its keyset position. */
+    public Optional<Timestamp> findOccurredAt(Long orgId, Long eventId) {
+        List<Timestamp> rows = jdbcTemplate.queryForList(
+                "SELECT occurred_at FROM chaos_events WHERE id = :id AND organization_id = :orgId",
+                new MapSqlParameterSource().addValue("id", eventId).addValue("orgId", orgId),
+                Timestamp.class);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Every event matching {@code query}'s filters, oldest first, handed to
+     * {@code sink} one row at a time. Keyset, offset and limit are ignored.
+     * Must run inside a transaction or Postgres materialises the full result.
+     */
+    public void streamEvents(EventQuery query, Consumer<ChaosEventResponse> sink) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        exportTemplate.query(buildExportSql(query, params), params,
+                (RowCallbackHandler) rs -> sink.accept(ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    static String buildExportSql(EventQuery query, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS);
+        appendFilters(sql, query, params);
+        sql.append(" ORDER BY e.occurred_at ASC, e.id ASC");
+        return sql.toString();
+    }
+
+    static String buildPageSql(EventQuery query, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS);
+        appendFilters(sql, query, params);
+
+        if (query.getAfterOccurredAt() != null && query.getAfterId() != null) {
+            sql.append(" AND (e.occurred_at, e.id) < (:afterOccurredAt, :afterId)");
+            params.addValue("afterOccurredAt", query.getAfterOccurredAt());
+            params.addValue("afterId", query.getAfterId());
+        }
+
+        sql.append(" ORDER BY e.occurred_at DESC, e.id DESC LIMIT :limit");
+        params.addValue("limit", query.getLimit());
+
+        if (query.getOffset() > 0) {
+            sql.append(" OFFSET :offset");
+            params.addValue("offset", query.getOffset());
+        }
+        return sql.toString();
+    }
+
+    static void appendFilters(StringBuilder sql, EventQuery query, MapSqlParameterSource params) {
+        sql.append("WHERE e.organization_id = :orgId");
+        params.addValue("orgId", query.getOrgId());
+
+        if (query.getTarget() != null) {
+            sql.append(" AND e.target = :target");
+            params.addValue("target", query.getTarget());
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND e.occurred_at >= :from");
+            params.addValue("from", Timestamp.from(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND e.occurred_at <= :to");
+            params.addValue("to", Timestamp.from(query.getTo()));
+        }
+        if (query.getInjected() != null) {
+            sql.append(" AND e.injected = :injected");
+            params.addValue("injected", query.getInjected());
+        }
+    }
+}
@@ -14,25 +14,7 @@ import java.util.List;
 @Repository
 public interface ChaosEventRepository extends JpaRepository<ChaosEvent, Long> {
 
-    // Native query — avoids PostgreSQL's inability to type-infer null Boolean parameters in JPQL.
-    // CAST(:injected AS boolean) tells Postgres the type even when the value is NULL.
-    @Query(value = """
-            SELECT * FROM chaos_events e
-            WHERE e.organization_id = :orgId
-            AND (:target   IS NULL OR e.target       = :target)
-            AND (:from     IS NULL OR e.occurred_at  >= CAST(:from AS timestamptz))
-            AND (:to       IS NULL OR e.occurred_at  <= CAST(:to   AS timestamptz))
-            AND (CAST(:injected AS boolean) IS NULL OR e.injected = CAST(:injected AS boolean))
-            ORDER BY e.occurred_at DESC
-            """, nativeQuery = true)
-    List<ChaosEvent> findEvents(
-            @Param("orgId")    Long orgId,
-            @Param("target")   String target,
-            @Param("from")     Instant from,
-            @Param("to")       Instant to,
-            @Param("injected") Boolean injected,
-            Pageable pageable
-    );
+    // Event history pages are served by ChaosEventJdbcRepository (keyset pagination)
 
     long countByOrganizationAndOccurredAtBetween(
             Organization org, Instant from, Instant to);
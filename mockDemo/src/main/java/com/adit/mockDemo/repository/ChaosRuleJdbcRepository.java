@@ -0,0 +1,129 @@
+package com.adit.mockDemo.repository;
+
+import com.adit.mockDemo.entity.ChaosRuleEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Plain-JDBC batch writes for chaos rules.
+ *
+ * ChaosRuleEntity uses IDENTITY ids, which makes Hibernate give up on insert
+ * batching entirely — saveAll() of 500 new rules is 500 round trips. These
+ * statements go through JdbcTemplate.batchUpdate instead, on the same
+ * connection and transaction as the surrounding JPA work.
+ *
+ * Callers must not rely on managed ChaosRuleEntity instances after a batch:
+ * the persistence context does not see these writes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChaosRuleJdbcRepository {
+
+    /** Rows per JDBC batch — matches spring.jpa.properties.hibernate.jdbc.batch_size in prod */
+    public static final int BATCH_SIZE = 50;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO chaos_rules (organization_id, target, target_pattern, targeting_mode,
+                                     failure_rate, max_delay_ms, enabled, description, tags, seed,
+                                     blast_radius, coalesce_gets, coalesce_headers, hedge_requests,
+                                     latency_model, latency_params, fault_mix,
+                                     created_at, updated_at, created_by, updated_by, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE chaos_rules
+            SET target_pattern = ?, targeting_mode = ?, failure_rate = ?, max_delay_ms = ?,
+                enabled = ?, description = ?, tags = ?, seed = ?, blast_radius = ?,
+                coalesce_gets = ?, coalesce_headers = ?, hedge_requests = ?,
+                latency_model = ?, latency_params = ?, fault_mix = ?,
+                updated_at = ?, updated_by = ?, version = version + 1
+            WHERE id = ? AND organization_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void batchInsert(Long organizationId, List<ChaosRuleEntity> rules) {
+        if (rules.isEmpty()) return;
+        Timestamp now = Timestamp.from(Instant.now());
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rules, BATCH_SIZE, (ps, rule) -> {
+            ps.setLong(1, organizationId);
+            ps.setString(2, rule.getTarget());
+            ps.setString(3, rule.getTargetPattern());
+            ps.setString(4, rule.getTargetingMode().name());
+            ps.setDouble(5, rule.getFailureRate());
+            ps.setLong(6, rule.getMaxDelayMs());
+            ps.setBoolean(7, rule.getEnabled());
+            ps.setString(8, rule.getDescription());
+            ps.setString(9, rule.getTags());
+            setNullableLong(ps, 10, rule.getSeed());
+            ps.setDouble(11, rule.getBlastRadius());
+            ps.setBoolean(12, Boolean.TRUE.equals(rule.getCoalesceGets()));
+            ps.setString(13, rule.getCoalesceHeaders());
+            ps.setBoolean(14, Boolean.TRUE.equals(rule.getHedgeRequests()));
+            ps.setString(15, rule.getLatencyModel().name());
+            ps.setString(16, rule.getLatencyParams());
+            ps.setString(17, rule.getFaultMix());
+            ps.setTimestamp(18, now);
+            ps.setTimestamp(19, now);
+            ps.setString(20, rule.getCreatedBy());
+            ps.setString(21, rule.getUpdatedBy());
+        });
+    }
+
+    /**
+     * @return number of rules that no longer existed (deleted concurrently) — 0 on success
+     */
+    public int batchUpdate(Long organizationId, List<ChaosRuleEntity> rules) {
+        if (rules.isEmpty()) return 0;
+        Timestamp now = Timestamp.from(Instant.now());
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, rules, BATCH_SIZE, (ps, rule) -> {
+            ps.setString(1, rule.getTargetPattern());
+            ps.setString(2, rule.getTargetingMode().name());
+            ps.setDouble(3, rule.getFailureRate());
+            ps.setLong(4, rule.getMaxDelayMs());
+            ps.setBoolean(5, rule.getEnabled());
+            ps.setString(6, rule.getDescription());
+            ps.setString(7, rule.getTags());
+            setNullableLong(ps, 8, rule.getSeed());
+            ps.setDouble(9, rule.getBlastRadius());
+            ps.setBoolean(10, Boolean.TRUE.equals(rule.getCoalesceGets()));
+            ps.setString(11, rule.getCoalesceHeaders());
+            ps.setBoolean(12, Boolean.TRUE.equals(rule.getHedgeRequests()));
+            ps.setString(13, rule.getLatencyModel().name());
+            ps.setString(14, rule.getLatencyParams());
+            ps.setString(15, rule.getFaultMix());
+            ps.setTimestamp(16, now);
+            ps.setString(17, rule.getUpdatedBy());
+            ps.setLong(18, rule.getId());
+            ps.setLong(19, organizationId);
+        });
+
+        int missing = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2) is a legal driver answer — only an explicit 0 means "row gone"
+                if (count == 0) missing++;
+            }
+        }
+        return missing;
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
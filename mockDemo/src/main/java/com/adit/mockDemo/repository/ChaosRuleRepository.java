@@ -3,14 +3,18 @@ package com.adit.mockDemo.repository;
 import com.adit.mockDemo.chaos.execution.TargetingMode;
 import com.adit.mockDemo.entity.ChaosRuleEntity;
 import com.adit.mockDemo.entity.Organization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ChaosRuleRepository extends JpaRepository<ChaosRuleEntity, Long> {
@@ -73,6 +77,22 @@ public interface ChaosRuleRepository extends JpaRepository<ChaosRuleEntity, Long
             @Param("search")  String search
     );
 
+    // ── Bulk import / export ─────────────────────────────────────────────────
+
+    // Scalar projection on purpose — returns fresh ids after JDBC batch inserts
+    // instead of stale managed entities from the persistence context
+    @Query("""
+            SELECT c.target, c.id FROM ChaosRuleEntity c
+            WHERE c.organization = :org AND c.target IN :targets
+            """)
+    List<Object[]> findIdsByOrganizationAndTargetIn(
+            @Param("org")     Organization organization,
+            @Param("targets") List<String> targets
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<ChaosRuleEntity> streamByOrganizationOrderByIdAsc(Organization organization);
+
     // ── Legacy ───────────────────────────────────────────────────────────────
 
     @Query("SELECT c FROM ChaosRuleEntity c WHERE c.target = :target")
@@ -13,6 +13,8 @@ public interface ChaosScheduleRepository extends JpaRepository<ChaosSchedule, Lo
 
     List<ChaosSchedule> findByChaosRuleAndEnabledTrue(ChaosRuleEntity rule);
 
+    List<ChaosSchedule> findByChaosRuleIdAndEnabledTrue(Long chaosRuleId);
+
     List<ChaosSchedule> findByOrganization(Organization org);
 
     List<ChaosSchedule> findByChaosRule(ChaosRuleEntity rule);
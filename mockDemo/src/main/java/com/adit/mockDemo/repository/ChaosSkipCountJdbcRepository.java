@@ -0,0 +1,66 @@
+package com.adit.mockDemo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-minute skipped-decision counts (chaos_skip_counts).
+ *
+ * Written only by SkippedEventCounter's periodic flush, as additive upserts —
+ * two instances flushing the same (org, target, minute) both land.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChaosSkipCountJdbcRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO chaos_skip_counts (organization_id, target, bucket_start, skipped_count)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (organization_id, target, bucket_start)
+            DO UPDATE SET skipped_count = chaos_skip_counts.skipped_count + EXCLUDED.skipped_count
+            """;
+
+    public record SkipCount(long orgId, String target, Instant bucketStart, long count) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addCounts(List<SkipCount> counts) {
+        if (counts.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, counts, ChaosRuleJdbcRepository.BATCH_SIZE, (ps, c) -> {
+            ps.setLong(1, c.orgId());
+            ps.setString(2, c.target());
+            ps.setTimestamp(3, Timestamp.from(c.bucketStart()));
+            ps.setLong(4, c.count());
+        });
+    }
+
+    public long sumSkipped(Long orgId, Instant from, Instant to) {
+        Long sum = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(skipped_count), 0) FROM chaos_skip_counts
+                WHERE organization_id = ? AND bucket_start >= ? AND bucket_start <= ?
+                """, Long.class, orgId, Timestamp.from(from), Timestamp.from(to));
+        return sum != null ? sum : 0L;
+    }
+
+    /** Skipped count per hour-of-day since {@code from} — same bucketing as findHourlyTimeSeries. */
+    public Map<Integer, Long> findHourlySkipped(Long orgId, Instant from) {
+        Map<Integer, Long> byHour = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT EXTRACT(HOUR FROM bucket_start) AS hr, SUM(skipped_count) AS skipped
+                FROM chaos_skip_counts
+                WHERE organization_id = ? AND bucket_start >= ?
+                GROUP BY EXTRACT(HOUR FROM bucket_start)
+                """,
+                rs -> { byHour.put(rs.getInt("hr"), rs.getLong("skipped")); },
+                orgId, Timestamp.from(from));
+        return byHour;
+    }
+}
@@ -0,0 +1,75 @@
+package com.adit.mockDemo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Per-org minute and hour rollups of chaos decisions (chaos_time_stats).
+ *
+ * Written by TimeStatsCounter's periodic flush as additive upserts, read by
+ * the time-series endpoint. Never touches raw chaos_events.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChaosTimeStatsJdbcRepository {
+
+    public static final char MINUTE = 'M';
+    public static final char HOUR   = 'H';
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO chaos_time_stats (organization_id, resolution, bucket_start,
+                                          injected_count, skipped_count, delay_sum_ms, delay_max_ms)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (organization_id, resolution, bucket_start)
+            DO UPDATE SET injected_count = chaos_time_stats.injected_count + EXCLUDED.injected_count,
+                          skipped_count  = chaos_time_stats.skipped_count  + EXCLUDED.skipped_count,
+                          delay_sum_ms   = chaos_time_stats.delay_sum_ms   + EXCLUDED.delay_sum_ms,
+                          delay_max_ms   = GREATEST(chaos_time_stats.delay_max_ms, EXCLUDED.delay_max_ms)
+            """;
+
+    public record TimeStat(long orgId, char resolution, Instant bucketStart,
+                           long injected, long skipped, long delaySumMs, long delayMaxMs) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addStats(List<TimeStat> stats) {
+        if (stats.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, stats, ChaosRuleJdbcRepository.BATCH_SIZE, (ps, s) -> {
+            ps.setLong(1, s.orgId());
+            ps.setString(2, String.valueOf(s.resolution()));
+            ps.setTimestamp(3, Timestamp.from(s.bucketStart()));
+            ps.setLong(4, s.injected());
+            ps.setLong(5, s.skipped());
+            ps.setLong(6, s.delaySumMs());
+            ps.setLong(7, s.delayMaxMs());
+        });
+    }
+
+    /** Rows of one resolution with bucket_start in [from, to), oldest first. */
+    public List<TimeStat> findRange(Long orgId, char resolution, Instant from, Instant to) {
+        return jdbcTemplate.query("""
+                SELECT bucket_start, injected_count, skipped_count, delay_sum_ms, delay_max_ms
+                FROM chaos_time_stats
+                WHERE organization_id = ? AND resolution = ? AND bucket_start >= ? AND bucket_start < ?
+                ORDER BY bucket_start
+                """,
+                (rs, rowNum) -> new TimeStat(orgId, resolution,
+                        rs.getTimestamp("bucket_start").toInstant(),
+                        rs.getLong("injected_count"),
+                        rs.getLong("skipped_count"),
+                        rs.getLong("delay_sum_ms"),
+                        rs.getLong("delay_max_ms")),
+                orgId, String.valueOf(resolution), Timestamp.from(from), Timestamp.from(to));
+    }
+
+    public int deleteBefore(char resolution, Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM chaos_time_stats WHERE resolution = ? AND bucket_start < ?",
+                String.valueOf(resolution), Timestamp.from(cutoff));
+    }
+}
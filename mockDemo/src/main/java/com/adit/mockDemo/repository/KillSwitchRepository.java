@@ -0,0 +1,42 @@
+package com.adit.mockDemo.repository;
+
+import com.adit.mockDemo.chaos.execution.KillSwitchScope;
+import com.adit.mockDemo.entity.KillSwitchEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface KillSwitchRepository extends JpaRepository<KillSwitchEntry, Long> {
+
+    List<KillSwitchEntry> findByOrganizationId(Long organizationId);
+
+    /**
+     * Creates the switch row (enabled, as if it had never been set) unless it
+     * exists. Run before the locking read, which has nothing to lock for a
+     * switch that was never set — two concurrent first writes would otherwise
+     * both insert and one would hit uq_kill_switches_scope.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO chaos_kill_switches (organization_id, scope, scope_key, enabled, updated_at, version)
+            VALUES (:orgId, :scope, :scopeKey, TRUE, CURRENT_TIMESTAMP, 0)
+            ON CONFLICT (organization_id, scope, scope_key) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("orgId") Long organizationId,
+                       @Param("scope") String scope,
+                       @Param("scopeKey") String scopeKey);
+
+    // Row lock so concurrent toggles on different instances serialise
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<KillSwitchEntry> findByOrganizationIdAndScopeAndScopeKey(Long organizationId,
+                                                                      KillSwitchScope scope,
+                                                                      String scopeKey);
+}
@@ -0,0 +1,144 @@
+package com.adit.mockDemo.security;
+
+import com.adit.mockDemo.config.ConcurrencyLimitProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Gradient concurrency limiter: the in-flight limit follows observed latency.
+ *
+ * Each window (1s, at least minWindowSamples requests) yields a short-term
+ * average latency. A slow exponential average of those is the baseline —
+ * what latency looks like when nothing is queueing. Then, per window:
+ *
+ *   gradient = clamp(tolerance × baseline / shortTerm, 0.5, 1.0)
+ *
+ * A gradient below 1 means latency is above tolerance × baseline, so
+ * requests are queueing (threads, Hikari connections, a slow upstream). The
+ * limit is multiplied by the gradient at once — at most halved per window —
+ * so overload is shed within seconds. At gradient 1 the limit probes upward
+ * by √limit, smoothed so that growth is gradual. Windows where fewer than
+ * half the permits were used leave the limit alone, since they say nothing
+ * about capacity.
+ *
+ * If latency drops far below the baseline, the baseline decays toward it,
+ * so a slow period does not leave a permanently inflated reference.
+ *
+ * Adapted from the Gradient2 algorithm in Netflix concurrency-limits, which
+ * adds the √limit headroom on every window and smooths decreases too. That
+ * reacts too slowly at the small limits this service runs with.
+ */
+@Slf4j
+public final class AdaptiveConcurrencyLimiter {
+
+    private final String                     name;
+    private final ConcurrencyLimitProperties properties;
+    private final LongSupplier               nanoClock;
+    private final AtomicInteger              inFlight       = new AtomicInteger();
+    private final AtomicInteger              windowMaxInUse = new AtomicInteger();
+    private volatile int                     limit;
+
+    // Guarded by this
+    private double estimate;
+    private double baselineNanos;
+    private long   windowStartNanos;
+    private long   windowSumNanos;
+    private int    windowSamples;
+
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties properties) {
+        this(name, properties, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties properties, LongSupplier nanoClock) {
+        this.name             = name;
+        this.properties       = properties;
+        this.nanoClock        = nanoClock;
+        this.estimate         = clamp(properties.getInitialLimit());
+        this.limit            = (int) estimate;
+        this.windowStartNanos = nanoClock.getAsLong();
+    }
+
+    /** @return false if the limit is reached — the caller must shed the request */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) return false;
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowMaxInUse.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release a permit.
+     *
+     * @param latencyNanos time the request held the permit
+     * @param sample       false for requests whose latency says nothing about load
+     *                     (deliberately delayed by chaos, or handed off to async processing)
+     */
+    public void release(long latencyNanos, boolean sample) {
+        inFlight.decrementAndGet();
+        if (sample) onSample(latencyNanos);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private synchronized void onSample(long latencyNanos) {
+        windowSumNanos += latencyNanos;
+        windowSamples++;
+
+        long now = nanoClock.getAsLong();
+        if (now - windowStartNanos < properties.getWindow().toNanos()
+                || windowSamples < properties.getMinWindowSamples()) {
+            return;
+        }
+
+        double shortTerm = (double) windowSumNanos / windowSamples;
+        int    maxInUse  = windowMaxInUse.getAndSet(inFlight.get());
+        windowStartNanos = now;
+        windowSumNanos   = 0;
+        windowSamples    = 0;
+
+        if (baselineNanos == 0) {
+            baselineNanos = shortTerm;
+        } else {
+            double weight = 1.0 / Math.max(1, properties.getLongWindows());
+            baselineNanos = baselineNanos * (1 - weight) + shortTerm * weight;
+            if (baselineNanos / shortTerm > 2) {
+                baselineNanos *= 0.95;   // load went away — let the baseline follow it down
+            }
+        }
+
+        if (maxInUse < estimate / 2) return;   // app-limited: the window did not test the limit
+
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getTolerance() * baselineNanos / shortTerm));
+        double next     = gradient < 1.0
+                ? estimate * gradient
+                : estimate * (1 - properties.getSmoothing()) + (estimate + Math.sqrt(estimate)) * properties.getSmoothing();
+
+        int previous = limit;
+        estimate = clamp(next);
+        limit    = (int) estimate;
+        if (limit != previous) {
+            log.debug("Concurrency limit [{}] {} → {} (latency {}ms vs baseline {}ms)", name, previous, limit,
+                    Math.round(shortTerm / 1e6), Math.round(baselineNanos / 1e6));
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+    }
+}
@@ -0,0 +1,188 @@
+package com.adit.mockDemo.security;
+
+import com.adit.mockDemo.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load with a fast 503 once /api/* has as many requests in flight as
+ * the adaptive limit allows (see AdaptiveConcurrencyLimiter). Without it,
+ * latency chaos, slow upstreams and webhook calls pile up until Tomcat
+ * threads and the Hikari pool run out, and every caller times out instead.
+ *
+ * The proxy and the management APIs have separate limiters, so a flood of
+ * proxied traffic cannot lock tenants out of their own kill switches.
+ *
+ * Runs before authentication, so a shed request costs no API-key lookup.
+ * Proxied calls finish on ProxyExecutor, so their permit is held until the
+ * async response completes and that full time is the latency sample.
+ * Requests that chaos delayed on purpose are not used as samples, nor are
+ * other async (SSE, streaming export) requests, whose permit is returned
+ * once the Tomcat thread is released. A proxied call parked on an injected
+ * delay holds no thread, so it returns its permit early (releasePermit) —
+ * otherwise a few hundred delayed calls would shed all other proxy traffic.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String SKIP_SAMPLE_ATTRIBUTE = ConcurrencyLimitFilter.class.getName() + ".skipSample";
+    static final String PERMIT_ATTRIBUTE      = ConcurrencyLimitFilter.class.getName() + ".permit";
+
+    private final ConcurrencyLimitProperties properties;
+    private final AdaptiveConcurrencyLimiter proxyLimiter;
+    private final AdaptiveConcurrencyLimiter managementLimiter;
+    private final Counter                    proxyRejections;
+    private final Counter                    managementRejections;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties           = properties;
+        this.proxyLimiter         = new AdaptiveConcurrencyLimiter("proxy", properties);
+        this.managementLimiter    = new AdaptiveConcurrencyLimiter("management", properties);
+        this.proxyRejections      = register(proxyLimiter, meterRegistry);
+        this.managementRejections = register(managementLimiter, meterRegistry);
+    }
+
+    private static Counter register(AdaptiveConcurrencyLimiter limiter, MeterRegistry registry) {
+        Gauge.builder("chaoslab.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive in-flight request limit")
+                .tag("application", "chaoslab")
+                .tag("limiter", limiter.getName())
+                .register(registry);
+        Gauge.builder("chaoslab.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency permit")
+                .tag("application", "chaoslab")
+                .tag("limiter", limiter.getName())
+                .register(registry);
+        return Counter.builder("chaoslab.concurrency.rejected")
+                .description("Requests shed with 503 because the concurrency limit was reached")
+                .tag("application", "chaoslab")
+                .tag("limiter", limiter.getName())
+                .register(registry);
+    }
+
+    /**
+     * Marks the current request as deliberately slow (injected chaos), so its
+     * latency does not shrink the limit. No-op outside a request thread.
+     */
+    public static void skipLatencySample() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(SKIP_SAMPLE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Returns the current request's permit before the response is complete,
+     * without a latency sample. For proxied calls about to wait out an
+     * injected delay. No-op outside a request thread or if already returned.
+     */
+    public static void releasePermit() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(PERMIT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Permit permit) {
+            permit.release(false);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health and system info must answer even when the node is saturated
+        return !properties.isEnabled() || request.getRequestURI().startsWith("/api/v1/system");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        boolean proxy = request.getRequestURI().startsWith("/api/v1/proxy");
+        AdaptiveConcurrencyLimiter limiter = proxy ? proxyLimiter : managementLimiter;
+
+        if (!limiter.tryAcquire()) {
+            (proxy ? proxyRejections : managementRejections).increment();
+            log.warn("Concurrency limit reached [{}] — {} in flight, shedding {} {}",
+                    limiter.getName(), limiter.getInFlight(), request.getMethod(), request.getRequestURI());
+            sendOverloaded(response, limiter);
+            return;
+        }
+
+        Permit permit = new Permit(limiter);
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (proxy && request.isAsyncStarted()) {
+                releaseOnCompletion(request, permit);
+            } else {
+                permit.release(!request.isAsyncStarted() && request.getAttribute(SKIP_SAMPLE_ATTRIBUTE) == null);
+            }
+        }
+    }
+
+    private static void releaseOnCompletion(HttpServletRequest request, Permit permit) {
+        // onComplete also follows a timeout or error
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                permit.release(request.getAttribute(SKIP_SAMPLE_ATTRIBUTE) == null);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {}
+
+            @Override
+            public void onError(AsyncEvent event) {}
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {}
+        });
+    }
+
+    /** One acquired permit — returned exactly once, whichever path gets there first. */
+    private static final class Permit {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long                       startNanos = System.nanoTime();
+        private final AtomicBoolean              released   = new AtomicBoolean();
+
+        Permit(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        void release(boolean sample) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - startNanos, sample);
+            }
+        }
+    }
+
+    private void sendOverloaded(HttpServletResponse response, AdaptiveConcurrencyLimiter limiter) throws IOException {
+        response.setStatus(503);
+        response.setContentType("application/json");
+        response.setHeader("Retry-After", "1");
+        response.setHeader("X-Concurrency-Limit", String.valueOf(limiter.getLimit()));
+
+        response.getWriter().write(String.format(
+                "{\"errorCode\":\"OVERLOADED\"," +
+                        "\"message\":\"Server is at its %s concurrency limit (%d in flight). Retry shortly.\"," +
+                        "\"status\":503," +
+                        "\"retryAfter\":1}",
+                limiter.getName(), limiter.getLimit()
+        ));
+    }
+}
@@ -1,14 +1,22 @@
 package com.adit.mockDemo.service;
 
+import com.adit.mockDemo.analytics.EventSketchStore;
 import com.adit.mockDemo.chaos.execution.ChaosDecision;
 import com.adit.mockDemo.chaos.execution.ChaosType;
+import com.adit.mockDemo.chaos.runtime.SkippedEventCounter;
+import com.adit.mockDemo.datasource.DataSourcePool;
+import com.adit.mockDemo.datasource.UsePool;
 import com.adit.mockDemo.dto.ChaosAnalyticsResponse;
 import com.adit.mockDemo.dto.ChaosEventResponse;
 import com.adit.mockDemo.dto.PageResponse;
 import com.adit.mockDemo.entity.ChaosEvent;
 import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.exception.ValidationException;
+import com.adit.mockDemo.repository.ChaosEventJdbcRepository;
 import com.adit.mockDemo.repository.ChaosEventRepository;
 import com.adit.mockDemo.repository.ChaosRuleRepository;
+import com.adit.mockDemo.repository.ChaosSkipCountJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -16,10 +24,20 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,12 +46,23 @@ import java.util.stream.Collectors;
 @Transactional
 public class ChaosEventService {
 
-    private final ChaosEventRepository eventRepository;
-    private final ChaosRuleRepository  ruleRepository;
+    /** Upper bound on ?limit for event history pages */
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final int TOP_TARGETS = 10;
+
+    private final ChaosEventRepository         eventRepository;
+    private final ChaosEventJdbcRepository     eventJdbcRepository;
+    private final ChaosRuleRepository          ruleRepository;
+    private final ObjectMapper                 objectMapper;
+    private final ChaosSkipCountJdbcRepository skipCountRepository;
+    private final SkippedEventCounter          skippedEventCounter;
+    private final EventSketchStore             eventSketchStore;
 
     // ── Persistence ──────────────────────────────────────────────────────────
 
     @Async("chaosAsyncExecutor")
+    @UsePool(DataSourcePool.EVENTS)
     public void recordEvent(Organization org,
                             String target,
                             String requestId,
@@ -71,39 +100,64 @@ public class ChaosEventService {
 
     // ── Event History ─────────────────────────────────────────────────────────
 
+    /**
+     * One page of event history, newest first.
+     *
+     * Keyset pagination: {@code cursor} is the nextCursor (event id) from the
+     * previous page. Its occurred_at is looked up once by primary key, and the
+     * page continues strictly after (occurred_at, id) — stable while new events
+     * arrive, and as cheap on page 1000 as on page 1.
+     *
+     * {@code page} is kept for older clients and falls back to OFFSET paging
+     * when no cursor is given.
+     */
     @Transactional(readOnly = true)
+    @UsePool(DataSourcePool.ANALYTICS)
     public PageResponse<ChaosEventResponse> getEvents(Organization org,
                                                       String target,
                                                       Instant from,
                                                       Instant to,
                                                       Boolean injected,
                                                       int limit,
+                                                      Long cursor,
                                                       int page) {
 
-        log.info("GET chaos events - Org: {}, target: {}, from: {}, to: {}",
-                org.getSlug(), target, from, to);
+        log.info("GET chaos events - Org: {}, target: {}, from: {}, to: {}, cursor: {}",
+                org.getSlug(), target, from, to, cursor);
 
-        PageRequest pageable = PageRequest.of(page, limit);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
 
-        List<ChaosEvent> events = eventRepository
-                .findEvents(org.getId(), target, from, to, injected, pageable);
+        ChaosEventJdbcRepository.EventQuery.EventQueryBuilder query = ChaosEventJdbcRepository.EventQuery.builder()
+                .orgId(org.getId())
+                .target(target)
+                .from(from)
+                .to(to)
+                .injected(injected)
+                .limit(pageSize + 1);   // one extra row tells us whether another page exists
+
+        if (cursor != null) {
+            Timestamp cursorAt = eventJdbcRepository.findOccurredAt(org.getId(), cursor)
+                    .orElseThrow(() -> new ValidationException("Unknown event cursor: " + cursor));
+            query.afterOccurredAt(cursorAt).afterId(cursor);
+        } else if (page > 0) {
+            query.offset(page * pageSize);
+        }
 
-        List<ChaosEventResponse> responses = events.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<ChaosEventResponse> responses = eventJdbcRepository.findPage(query.build());
+
+        boolean hasMore = responses.size() > pageSize;
+        if (hasMore) {
+            responses = responses.subList(0, pageSize);
+        }
 
         // FIX BUG-1: populate nextCursor so frontend "load more" works
         // nextCursor = ID of the last item returned; frontend passes it as ?cursor=N on next call
-        Long nextCursor = null;
-        boolean hasMore = responses.size() == limit;
-        if (hasMore && !responses.isEmpty()) {
-            nextCursor = responses.get(responses.size() - 1).getId();
-        }
+        Long nextCursor = hasMore ? responses.get(responses.size() - 1).getId() : null;
 
         PageResponse.PaginationMetadata meta = PageResponse.PaginationMetadata.builder()
                 .nextCursor(nextCursor)
                 .count(responses.size())
-                .limit(limit)
+                .limit(pageSize)
                 .hasMore(hasMore)
                 .build();
 
@@ -113,48 +167,166 @@ public class ChaosEventService {
                 .build();
     }
 
+    // ── Export ────────────────────────────────────────────────────────────────
+
+    public enum ExportFormat { NDJSON, CSV }
+
+    static final String CSV_HEADER = "id,organization_id,chaos_rule_id,target,request_id,chaos_type,injected,"
+            + "http_status,delay_ms,failure_rate,blast_radius,occurred_at";
+
+    private static final int EXPORT_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Stream every matching event to {@code out}, oldest first, without
+     * building entities or holding the result in memory: rows come off a
+     * server-side cursor and are written as they arrive. Gzip is left to the
+     * servlet container (server.compression), which streams as well.
+     */
+    @Transactional(readOnly = true)
+    @UsePool(DataSourcePool.ANALYTICS)
+    public void exportEvents(Organization org,
+                             String target,
+                             Instant from,
+                             Instant to,
+                             Boolean injected,
+                             ExportFormat format,
+                             OutputStream out) throws IOException {
+
+        log.info("Export chaos events - Org: {}, target: {}, from: {}, to: {}, format: {}",
+                org.getSlug(), target, from, to, format);
+
+        ChaosEventJdbcRepository.EventQuery query = ChaosEventJdbcRepository.EventQuery.builder()
+                .orgId(org.getId())
+                .target(target)
+                .from(from)
+                .to(to)
+                .injected(injected)
+                .build();
+
+        long started = System.nanoTime();
+        long[] rows = {0};
+        BufferedOutputStream buffered = new BufferedOutputStream(out, EXPORT_BUFFER_BYTES);
+
+        if (format == ExportFormat.CSV) {
+            buffered.write((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        try {
+            eventJdbcRepository.streamEvents(query, event -> {
+                try {
+                    if (format == ExportFormat.CSV) {
+                        buffered.write(toCsvLine(event).getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        // writeValueAsBytes — ObjectMapper.writeValue(OutputStream) would close the response stream
+                        buffered.write(objectMapper.writeValueAsBytes(event));
+                        buffered.write('\n');
+                    }
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away — rethrow the IOException so the cursor's transaction rolls back cleanly
+            throw e.getCause();
+        }
+        buffered.flush();
+
+        log.info("Exported {} chaos events for org: {} in {}ms",
+                rows[0], org.getSlug(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    static String toCsvLine(ChaosEventResponse e) {
+        return String.join(",",
+                String.valueOf(e.getId()),
+                String.valueOf(e.getOrganizationId()),
+                e.getChaosRuleId() != null ? e.getChaosRuleId().toString() : "",
+                csvField(e.getTarget()),
+                csvField(e.getRequestId()),
+                e.getChaosType() != null ? e.getChaosType().name() : "",
+                String.valueOf(e.getInjected()),
+                e.getHttpStatus() != null ? e.getHttpStatus().toString() : "",
+                e.getDelayMs() != null ? e.getDelayMs().toString() : "",
+                e.getFailureRate() != null ? e.getFailureRate().toString() : "",
+                e.getBlastRadius() != null ? e.getBlastRadius().toString() : "",
+                e.getOccurredAt() != null ? e.getOccurredAt().toString() : "") + "\n";
+    }
+
+    /** RFC 4180 quoting — only when the value needs it */
+    private static String csvField(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
     // ── Analytics ─────────────────────────────────────────────────────────────
 
     @Transactional(readOnly = true)
+    @UsePool(DataSourcePool.ANALYTICS)
     public ChaosAnalyticsResponse getAnalytics(Organization org, String window) {
-        log.info("GET chaos analytics - Org: {}, window: {}", org.getSlug(), window);
+        return getAnalytics(org, window, false);
+    }
+
+    /**
+     * @param exact force the GROUP BY queries for top targets and type breakdown
+     *              instead of the in-memory sketches
+     */
+    @Transactional(readOnly = true)
+    @UsePool(DataSourcePool.ANALYTICS)
+    public ChaosAnalyticsResponse getAnalytics(Organization org, String window, boolean exact) {
+        log.info("GET chaos analytics - Org: {}, window: {}, exact: {}", org.getSlug(), window, exact);
 
         Instant to   = Instant.now();
         Instant from = resolveWindow(window, to);
 
-        long total    = eventRepository.countByOrganizationAndOccurredAtBetween(org, from, to);
+        // Skips are exact aggregate counts (flushed + not yet flushed on this instance), not sampled events
         long injected = eventRepository.countInjectedBetween(org, from, to);
-        long skipped  = total - injected;
+        long skipped  = skipCountRepository.sumSkipped(org.getId(), from, to)
+                + skippedEventCounter.pending(org.getId(), from, to);
+        long total    = injected + skipped;
 
         Double avgLatency = eventRepository.findAvgInjectedLatency(org, from, to);
 
-        List<ChaosAnalyticsResponse.TargetStat> topTargets = eventRepository
-                .findTopTargets(org, from, to, PageRequest.of(0, 10))
-                .stream()
-                .map(row -> ChaosAnalyticsResponse.TargetStat.builder()
-                        .target((String) row[0])
-                        .injectionCount(toLong(row[1]))
-                        .build())
-                .collect(Collectors.toList());
-
-        Map<ChaosType, Long> typeBreakdown = eventRepository
-                .findTypeBreakdown(org, from, to)
-                .stream()
-                .collect(Collectors.toMap(
-                        row -> (ChaosType) row[0],
-                        row -> toLong(row[1])
-                ));
-
-        List<ChaosAnalyticsResponse.TimeSeriesPoint> timeSeries = eventRepository
-                .findHourlyTimeSeries(org.getId(), from)
-                .stream()
-                .map(row -> ChaosAnalyticsResponse.TimeSeriesPoint.builder()
-                        .hour(String.valueOf(((Number) row[0]).intValue()))
-                        .total(toLong(row[1]))
-                        .injected(toLong(row[2]))
-                        .avgDelayMs(toDouble(row[3]))
-                        .build())
-                .collect(Collectors.toList());
+        // Sketches answer from memory when this instance has seen the whole window; otherwise exact SQL
+        Optional<EventSketchStore.Summary> sketch = exact
+                ? Optional.empty()
+                : eventSketchStore.summarize(org.getId(), from, to, TOP_TARGETS);
+
+        List<ChaosAnalyticsResponse.TargetStat> topTargets;
+        Map<ChaosType, Long> typeBreakdown;
+
+        if (sketch.isPresent()) {
+            topTargets = sketch.get().topTargets().stream()
+                    .map(e -> ChaosAnalyticsResponse.TargetStat.builder()
+                            .target(e.item())
+                            .injectionCount(e.count())
+                            .maxOvercount(e.error())
+                            .build())
+                    .collect(Collectors.toList());
+            typeBreakdown = sketch.get().typeBreakdown();
+        } else {
+            topTargets = eventRepository
+                    .findTopTargets(org, from, to, PageRequest.of(0, TOP_TARGETS))
+                    .stream()
+                    .map(row -> ChaosAnalyticsResponse.TargetStat.builder()
+                            .target((String) row[0])
+                            .injectionCount(toLong(row[1]))
+                            .build())
+                    .collect(Collectors.toList());
+
+            typeBreakdown = eventRepository
+                    .findTypeBreakdown(org, from, to)
+                    .stream()
+                    .collect(Collectors.toMap(
+                            row -> (ChaosType) row[0],
+                            row -> toLong(row[1])
+                    ));
+        }
+
+        List<ChaosAnalyticsResponse.TimeSeriesPoint> timeSeries = buildTimeSeries(org, from);
 
         return ChaosAnalyticsResponse.builder()
                 .from(from)
@@ -167,12 +339,41 @@ public class ChaosEventService {
                 .avgInjectedLatencyMs(avgLatency != null ? avgLatency : 0.0)
                 .topTargets(topTargets)
                 .typeBreakdown(typeBreakdown)
+                .breakdownApproximate(sketch.isPresent())
+                .topTargetsMaxError(sketch.map(EventSketchStore.Summary::maxTargetError).orElse(0L))
                 .timeSeries(timeSeries)
                 .build();
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────────
 
+    /** Hourly injected counts from chaos_events, plus that hour's exact skip count. */
+    private List<ChaosAnalyticsResponse.TimeSeriesPoint> buildTimeSeries(Organization org, Instant from) {
+        Map<Integer, Long> skippedByHour = new HashMap<>(skipCountRepository.findHourlySkipped(org.getId(), from));
+        Map<Integer, ChaosAnalyticsResponse.TimeSeriesPoint> byHour = new TreeMap<>();
+
+        for (Object[] row : eventRepository.findHourlyTimeSeries(org.getId(), from)) {
+            int  hour     = ((Number) row[0]).intValue();
+            long injected = toLong(row[2]);
+            long skipped  = skippedByHour.getOrDefault(hour, 0L);
+            skippedByHour.remove(hour);
+            byHour.put(hour, ChaosAnalyticsResponse.TimeSeriesPoint.builder()
+                    .hour(String.valueOf(hour))
+                    .total(injected + skipped)
+                    .injected(injected)
+                    .avgDelayMs(toDouble(row[3]))
+                    .build());
+        }
+        skippedByHour.forEach((hour, skipped) -> byHour.put(hour, ChaosAnalyticsResponse.TimeSeriesPoint.builder()
+                .hour(String.valueOf(hour))
+                .total(skipped)
+                .injected(0L)
+                .avgDelayMs(0.0)
+                .build()));
+
+        return new ArrayList<>(byHour.values());
+    }
+
     private Instant resolveWindow(String window, Instant now) {
         return switch (window.toLowerCase()) {
             case "1h"  -> now.minus(1,  ChronoUnit.HOURS);
@@ -193,23 +394,6 @@ public class ChaosEventService {
         };
     }
 
-    private ChaosEventResponse mapToResponse(ChaosEvent e) {
-        return ChaosEventResponse.builder()
-                .id(e.getId())
-                .organizationId(e.getOrganization().getId())
-                .chaosRuleId(e.getChaosRule() != null ? e.getChaosRule().getId() : null)
-                .target(e.getTarget())
-                .requestId(e.getRequestId())
-                .chaosType(e.getChaosType())
-                .injected(e.getInjected())
-                .httpStatus(e.getHttpStatus())
-                .delayMs(e.getDelayMs())
-                .failureRate(e.getFailureRate())
-                .blastRadius(e.getBlastRadius())
-                .occurredAt(e.getOccurredAt())
-                .build();
-    }
-
     private Long toLong(Object val) {
         if (val == null) return 0L;
         return ((Number) val).longValue();
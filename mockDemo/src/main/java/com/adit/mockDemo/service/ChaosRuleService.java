@@ -1,8 +1,14 @@
 package com.adit.mockDemo.service;
 
 import com.adit.mockDemo.chaos.ChaosRule;
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import com.adit.mockDemo.chaos.execution.FaultMixSampler;
+import com.adit.mockDemo.chaos.execution.LatencyModel;
+import com.adit.mockDemo.chaos.execution.LatencySampler;
 import com.adit.mockDemo.chaos.execution.TargetMatcher;
 import com.adit.mockDemo.chaos.execution.TargetingMode;
+import com.adit.mockDemo.chaos.runtime.TenantCacheKeys;
+import com.adit.mockDemo.dto.ChaosRuleBulkResponse;
 import com.adit.mockDemo.dto.ChaosRuleRequest;
 import com.adit.mockDemo.dto.ChaosRuleResponse;
 import com.adit.mockDemo.dto.ChaosRuleStats;
@@ -12,18 +18,31 @@ import com.adit.mockDemo.entity.ChaosRuleEntity;
 import com.adit.mockDemo.entity.Organization;
 import com.adit.mockDemo.exception.ResourceNotFoundException;
 import com.adit.mockDemo.exception.ValidationException;
+import com.adit.mockDemo.repository.ChaosRuleJdbcRepository;
 import com.adit.mockDemo.repository.ChaosRuleRepository;
 import com.adit.mockDemo.security.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -31,13 +50,19 @@ import java.util.stream.Collectors;
 @Transactional
 public class ChaosRuleService {
 
-    private final ChaosRuleRepository chaosRuleRepository;
-    private final TenantContext        tenantContext;
-    private final TargetMatcher        targetMatcher;
+    /** RFC 9110 token — what a header field name may contain */
+    private static final Pattern HEADER_NAME = Pattern.compile("[!#$%&'*+.^_`|~0-9A-Za-z-]+");
+
+    private final ChaosRuleRepository     chaosRuleRepository;
+    private final TenantContext           tenantContext;
+    private final TargetMatcher           targetMatcher;
+    private final ChaosRuleJdbcRepository chaosRuleJdbcRepository;
+    private final ObjectMapper            objectMapper;
+    private final TenantCacheKeys         tenantCacheKeys;
 
     // ================ READ ================
 
-    @Cacheable(value = "chaosRules", key = "#organization.id + ':all'")
+    @Cacheable(value = "chaosRules", key = "@tenantCacheKeys.key(#organization.id, 'all')", sync = true)
     @Transactional(readOnly = true)
     public List<ChaosRuleResponse> getAllRules(Organization organization) {
         log.info("GET /api/v1/chaos/rules - Fetching all rules for org: {}", organization.getSlug());
@@ -47,7 +72,7 @@ public class ChaosRuleService {
                 .collect(Collectors.toList());
     }
 
-    @Cacheable(value = "chaosRules", key = "#organization.id + ':id:' + #id")
+    @Cacheable(value = "chaosRules", key = "@tenantCacheKeys.key(#organization.id, 'id:' + #id)", sync = true)
     @Transactional(readOnly = true)
     public ChaosRuleResponse getRuleById(Organization organization, Long id) {
         log.info("GET /api/v1/chaos/rules/{} - Fetching for org: {}", id, organization.getSlug());
@@ -57,7 +82,7 @@ public class ChaosRuleService {
         );
     }
 
-    @Cacheable(value = "chaosRules", key = "#organization.id + ':target:' + #target")
+    @Cacheable(value = "chaosRules", key = "@tenantCacheKeys.key(#organization.id, 'target:' + #target)", sync = true)
     @Transactional(readOnly = true)
     public ChaosRuleResponse getRuleByTarget(Organization organization, String target) {
         log.info("GET /api/v1/chaos/rules/target/{} - Fetching for org: {}", target, organization.getSlug());
@@ -150,7 +175,6 @@ public class ChaosRuleService {
 
     // ================ WRITE ================
 
-    @CacheEvict(value = "chaosRules", allEntries = true)
     public ChaosRuleResponse createRule(Organization organization, ChaosRuleRequest request) {
         log.info("POST /api/v1/chaos/rules - Target: {}, Org: {}",
                 request.getTarget(), organization.getSlug());
@@ -170,11 +194,11 @@ public class ChaosRuleService {
         validateChaosRule(request);
 
         ChaosRuleEntity saved = chaosRuleRepository.save(mapToEntity(organization, request));
+        tenantCacheKeys.invalidate(organization.getId());
         log.info("Created chaos rule ID: {} for org: {}", saved.getId(), organization.getSlug());
         return mapToResponse(saved);
     }
 
-    @CacheEvict(value = "chaosRules", allEntries = true)
     public ChaosRuleResponse updateRule(Organization organization, Long id, ChaosRuleRequest request) {
         log.info("PUT /api/v1/chaos/rules/{} - Org: {}", id, organization.getSlug());
 
@@ -201,11 +225,11 @@ public class ChaosRuleService {
 
         updateEntityFromRequest(existing, request);
         ChaosRuleEntity saved = chaosRuleRepository.save(existing);
+        tenantCacheKeys.invalidate(organization.getId());
         log.info("Updated chaos rule ID: {} for org: {}", saved.getId(), organization.getSlug());
         return mapToResponse(saved);
     }
 
-    @CacheEvict(value = "chaosRules", allEntries = true)
     public void deleteRule(Organization organization, Long id) {
         log.info("DELETE /api/v1/chaos/rules/{} - Org: {}", id, organization.getSlug());
 
@@ -218,10 +242,10 @@ public class ChaosRuleService {
 
         targetMatcher.evictPattern(entity.getTargetPattern());
         chaosRuleRepository.deleteById(id);
+        tenantCacheKeys.invalidate(organization.getId());
         log.info("Deleted chaos rule ID: {} for org: {}", id, organization.getSlug());
     }
 
-    @CacheEvict(value = "chaosRules", allEntries = true)
     public void deleteRuleByTarget(Organization organization, String target) {
         log.info("DELETE /api/v1/chaos/rules/target/{} - Org: {}", target, organization.getSlug());
 
@@ -234,9 +258,177 @@ public class ChaosRuleService {
 
         targetMatcher.evictPattern(entity.getTargetPattern());
         chaosRuleRepository.delete(entity);
+        tenantCacheKeys.invalidate(organization.getId());
         log.info("Deleted chaos rule for target: {} in org: {}", target, organization.getSlug());
     }
 
+    // ================ BULK IMPORT / EXPORT ================
+
+    /**
+     * Upsert a batch of rules, matched to existing rules by target.
+     *
+     * Every item is validated before anything is written. If any item fails,
+     * nothing is written and the per-item results say why (all-or-nothing, so a
+     * GitOps sync never leaves an org half-applied). Valid batches are written
+     * with JDBC batch inserts/updates in this single transaction, and the rule
+     * cache is invalidated once for the whole batch.
+     */
+    public ChaosRuleBulkResponse bulkUpsertRules(Organization organization,
+                                                 List<ChaosRuleRequest> requests,
+                                                 boolean dryRun) {
+        log.info("POST /api/v1/chaos/rules/bulk - {} rules, dryRun: {}, Org: {}",
+                requests.size(), dryRun, organization.getSlug());
+
+        // One query for the whole batch instead of count + lookup per rule
+        Map<String, ChaosRuleEntity> existingByTarget = chaosRuleRepository.findByOrganization(organization)
+                .stream()
+                .collect(Collectors.toMap(ChaosRuleEntity::getTarget, Function.identity()));
+
+        List<ChaosRuleBulkResponse.ItemResult> results = new ArrayList<>(requests.size());
+        Set<String> seenTargets = new HashSet<>();
+        int plannedCreates = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            ChaosRuleRequest request = requests.get(i);
+            String error = null;
+
+            if (!seenTargets.add(request.getTarget())) {
+                error = String.format("Duplicate target '%s' in batch", request.getTarget());
+            } else {
+                try {
+                    validateChaosRule(request);
+                } catch (ValidationException e) {
+                    error = e.getMessage();
+                }
+            }
+
+            ChaosRuleBulkResponse.ItemStatus status;
+            if (error != null) {
+                status = ChaosRuleBulkResponse.ItemStatus.FAILED;
+            } else if (existingByTarget.containsKey(request.getTarget())) {
+                status = ChaosRuleBulkResponse.ItemStatus.UPDATED;
+            } else {
+                status = ChaosRuleBulkResponse.ItemStatus.CREATED;
+                plannedCreates++;
+            }
+
+            results.add(ChaosRuleBulkResponse.ItemResult.builder()
+                    .index(i)
+                    .target(request.getTarget())
+                    .status(status)
+                    .id(status == ChaosRuleBulkResponse.ItemStatus.UPDATED
+                            ? existingByTarget.get(request.getTarget()).getId()
+                            : null)
+                    .error(error)
+                    .build());
+        }
+
+        // Plan limit applies to the batch as a whole
+        if (existingByTarget.size() + plannedCreates > organization.getMaxRules()) {
+            String limitError = String.format(
+                    "Rule limit reached. Your %s plan allows %d rules; this import would bring the total to %d.",
+                    organization.getPlan(), organization.getMaxRules(),
+                    existingByTarget.size() + plannedCreates);
+            results.stream()
+                    .filter(r -> r.getStatus() == ChaosRuleBulkResponse.ItemStatus.CREATED)
+                    .forEach(r -> {
+                        r.setStatus(ChaosRuleBulkResponse.ItemStatus.FAILED);
+                        r.setError(limitError);
+                    });
+        }
+
+        long failed = results.stream()
+                .filter(r -> r.getStatus() == ChaosRuleBulkResponse.ItemStatus.FAILED)
+                .count();
+
+        if (failed > 0 || dryRun) {
+            log.info("Bulk import not applied for org: {} — dryRun: {}, failed items: {}",
+                    organization.getSlug(), dryRun, failed);
+            return buildBulkResponse(false, dryRun, results);
+        }
+
+        List<ChaosRuleEntity> inserts = new ArrayList<>();
+        List<ChaosRuleEntity> updates = new ArrayList<>();
+
+        for (ChaosRuleRequest request : requests) {
+            ChaosRuleEntity existing = existingByTarget.get(request.getTarget());
+            if (existing == null) {
+                inserts.add(mapToEntity(organization, request));
+            } else {
+                if (existing.getTargetPattern() != null) {
+                    targetMatcher.evictPattern(existing.getTargetPattern());
+                }
+                // A detached copy — dirtying the managed entity would make Hibernate flush it
+                // with the pre-batch version and fail the optimistic-lock check
+                ChaosRuleEntity update = mapToEntity(organization, request);
+                update.setId(existing.getId());
+                updates.add(update);
+            }
+        }
+
+        int missing = chaosRuleJdbcRepository.batchUpdate(organization.getId(), updates);
+        if (missing > 0) {
+            // Rolls back the whole batch — a rule was deleted between our read and the write
+            throw new ValidationException(String.format(
+                    "%d rule(s) were deleted while the import was running. Retry the import.", missing));
+        }
+        chaosRuleJdbcRepository.batchInsert(organization.getId(), inserts);
+        tenantCacheKeys.invalidate(organization.getId());
+
+        if (!inserts.isEmpty()) {
+            Map<String, Long> idsByTarget = chaosRuleRepository
+                    .findIdsByOrganizationAndTargetIn(organization,
+                            inserts.stream().map(ChaosRuleEntity::getTarget).toList())
+                    .stream()
+                    .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
+            results.stream()
+                    .filter(r -> r.getStatus() == ChaosRuleBulkResponse.ItemStatus.CREATED)
+                    .forEach(r -> r.setId(idsByTarget.get(r.getTarget())));
+        }
+
+        log.info("Bulk import applied for org: {} — created: {}, updated: {}",
+                organization.getSlug(), inserts.size(), updates.size());
+        return buildBulkResponse(true, false, results);
+    }
+
+    /**
+     * Stream every rule for the org to {@code out} as NDJSON, one
+     * ChaosRuleRequest-shaped object per line, so the output can be fed
+     * straight back into bulkUpsertRules.
+     */
+    @Transactional(readOnly = true)
+    public void exportRules(Organization organization, OutputStream out) throws IOException {
+        log.info("GET /api/v1/chaos/rules/export - Org: {}", organization.getSlug());
+
+        try (Stream<ChaosRuleEntity> rules = chaosRuleRepository.streamByOrganizationOrderByIdAsc(organization)) {
+            Iterator<ChaosRuleEntity> it = rules.iterator();
+            while (it.hasNext()) {
+                // writeValueAsBytes — ObjectMapper.writeValue(OutputStream) would close the response stream
+                out.write(objectMapper.writeValueAsBytes(mapToRequest(it.next())));
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    private ChaosRuleBulkResponse buildBulkResponse(boolean applied,
+                                                    boolean dryRun,
+                                                    List<ChaosRuleBulkResponse.ItemResult> results) {
+        return ChaosRuleBulkResponse.builder()
+                .applied(applied)
+                .dryRun(dryRun)
+                .created(countStatus(results, ChaosRuleBulkResponse.ItemStatus.CREATED))
+                .updated(countStatus(results, ChaosRuleBulkResponse.ItemStatus.UPDATED))
+                .failed(countStatus(results, ChaosRuleBulkResponse.ItemStatus.FAILED))
+                .results(results)
+                .build();
+    }
+
+    private int countStatus(List<ChaosRuleBulkResponse.ItemResult> results,
+                            ChaosRuleBulkResponse.ItemStatus status) {
+        return (int) results.stream().filter(r -> r.getStatus() == status).count();
+    }
+
     // ================ CHAOS ENGINE SUPPORT ================
 
     /**
@@ -248,7 +440,7 @@ public class ChaosRuleService {
      *   3. "default" fallback rule
      *   4. Safe no-op defaults (never throws)
      */
-    @Cacheable(value = "chaosRules", key = "#organization.id + ':engine:' + #target")
+    @Cacheable(value = "chaosRules", key = "@tenantCacheKeys.key(#organization.id, 'engine:' + #target)", sync = true)
     @Transactional(readOnly = true)
     public ChaosRule getRuleForChaosEngine(Organization organization, String target) {
         log.debug("Chaos engine fetching rule for target: {} in org: {}", target, organization.getSlug());
@@ -300,7 +492,7 @@ public class ChaosRuleService {
     // ================ DEPRECATED LEGACY ================
 
     @Deprecated(since = "Phase 2", forRemoval = true)
-    @Cacheable(value = "chaosRules", key = "'legacy:' + #target")
+    @Cacheable(value = "chaosRules", key = "@tenantCacheKeys.key(T(com.adit.mockDemo.chaos.runtime.TenantCacheKeys).GLOBAL, 'legacy:' + #target)", sync = true)
     @Transactional(readOnly = true)
     public ChaosRule getRule(String target) {
         log.warn("DEPRECATED getRule(target) — use getRuleForChaosEngine(org, target)");
@@ -335,6 +527,39 @@ public class ChaosRuleService {
             throw new ValidationException("Blast radius must be between 0.0 and 1.0");
         }
 
+        if (request.getLatencyParams() != null || request.getLatencyModel() != null) {
+            try {
+                LatencySampler.compile(request.getLatencyModel(), blankToNull(request.getLatencyParams()),
+                        request.getMaxDelayMs() != null ? request.getMaxDelayMs() : 0);
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid latencyParams for "
+                        + (request.getLatencyModel() != null ? request.getLatencyModel() : LatencyModel.UNIFORM)
+                        + ": " + e.getMessage());
+            }
+        }
+
+        if (blankToNull(request.getFaultMix()) != null) {
+            FaultMixSampler mix;
+            try {
+                mix = FaultMixSampler.compile(request.getFaultMix());
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Invalid faultMix: " + e.getMessage());
+            }
+            if (mix.includes(ChaosType.LATENCY)
+                    && (request.getMaxDelayMs() == null || request.getMaxDelayMs() <= 0)) {
+                throw new ValidationException("faultMix includes LATENCY, so maxDelayMs must be above 0");
+            }
+        }
+
+        if (request.getCoalesceHeaders() != null) {
+            for (String header : request.getCoalesceHeaders().split(",")) {
+                String name = header.trim();
+                if (!name.isEmpty() && !HEADER_NAME.matcher(name).matches()) {
+                    throw new ValidationException("Invalid header name in coalesceHeaders: '" + name + "'");
+                }
+            }
+        }
+
         if (request.getTargetingMode() != null &&
                 request.getTargetingMode() == TargetingMode.REGEX &&
                 request.getTargetPattern() != null &&
@@ -355,10 +580,16 @@ public class ChaosRuleService {
                 .targetingMode(entity.getTargetingMode())       // was missing — always returned null
                 .failureRate(entity.getFailureRate())
                 .maxDelayMs(entity.getMaxDelayMs())
+                .latencyModel(entity.getLatencyModel())
+                .latencyParams(entity.getLatencyParams())
+                .faultMix(entity.getFaultMix())
                 .enabled(entity.getEnabled())
                 .description(entity.getDescription())
                 .blastRadius(entity.getBlastRadius())
                 .seed(entity.getSeed())
+                .coalesceGets(entity.getCoalesceGets())
+                .coalesceHeaders(entity.getCoalesceHeaders())
+                .hedgeRequests(entity.getHedgeRequests())
                 .tags(entity.getTags())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
@@ -378,10 +609,18 @@ public class ChaosRuleService {
                         : TargetingMode.EXACT)
                 .failureRate(request.getFailureRate())
                 .maxDelayMs(request.getMaxDelayMs())
+                .latencyModel(request.getLatencyModel() != null
+                        ? request.getLatencyModel()
+                        : LatencyModel.UNIFORM)
+                .latencyParams(blankToNull(request.getLatencyParams()))
+                .faultMix(blankToNull(request.getFaultMix()))
                 .enabled(request.getEnabled())
                 .description(request.getDescription())
                 .blastRadius(request.getBlastRadius() != null ? request.getBlastRadius() : 1.0)
                 .seed(request.getSeed())
+                .coalesceGets(Boolean.TRUE.equals(request.getCoalesceGets()))
+                .coalesceHeaders(normalizeHeaderList(request.getCoalesceHeaders()))
+                .hedgeRequests(Boolean.TRUE.equals(request.getHedgeRequests()))
                 .tags(request.getTags())
                 .createdBy("system")
                 .updatedBy("system")
@@ -396,26 +635,111 @@ public class ChaosRuleService {
                 : TargetingMode.EXACT);
         entity.setFailureRate(request.getFailureRate());
         entity.setMaxDelayMs(request.getMaxDelayMs());
+        entity.setLatencyModel(request.getLatencyModel() != null
+                ? request.getLatencyModel()
+                : LatencyModel.UNIFORM);
+        entity.setLatencyParams(blankToNull(request.getLatencyParams()));
+        entity.setFaultMix(blankToNull(request.getFaultMix()));
         entity.setEnabled(request.getEnabled());
         entity.setDescription(request.getDescription());
         entity.setBlastRadius(request.getBlastRadius() != null ? request.getBlastRadius() : 1.0);
         entity.setSeed(request.getSeed());
+        entity.setCoalesceGets(Boolean.TRUE.equals(request.getCoalesceGets()));
+        entity.setCoalesceHeaders(normalizeHeaderList(request.getCoalesceHeaders()));
+        entity.setHedgeRequests(Boolean.TRUE.equals(request.getHedgeRequests()));
         entity.setTags(request.getTags());
         entity.setUpdatedBy("system");
     }
 
+    private ChaosRuleRequest mapToRequest(ChaosRuleEntity entity) {
+        return ChaosRuleRequest.builder()
+                .target(entity.getTarget())
+                .targetPattern(entity.getTargetPattern())
+                .targetingMode(entity.getTargetingMode())
+                .failureRate(entity.getFailureRate())
+                .maxDelayMs(entity.getMaxDelayMs())
+                .latencyModel(entity.getLatencyModel())
+                .latencyParams(entity.getLatencyParams())
+                .faultMix(entity.getFaultMix())
+                .enabled(entity.getEnabled())
+                .description(entity.getDescription())
+                .blastRadius(entity.getBlastRadius())
+                .seed(entity.getSeed())
+                .coalesceGets(entity.getCoalesceGets())
+                .coalesceHeaders(entity.getCoalesceHeaders())
+                .hedgeRequests(entity.getHedgeRequests())
+                .tags(entity.getTags())
+                .build();
+    }
+
     private ChaosRule mapToModel(ChaosRuleEntity entity) {
         return ChaosRule.builder()
+                .id(entity.getId())
                 .target(entity.getTarget())
                 .failureRate(entity.getFailureRate())
                 .maxDelayMs(entity.getMaxDelayMs())
+                .latencyModel(entity.getLatencyModel())
+                .latencyParams(entity.getLatencyParams())
+                .faultMix(entity.getFaultMix())
                 .enabled(entity.getEnabled())
                 .description(entity.getDescription())
                 .seed(entity.getSeed())
                 .blastRadius(entity.getBlastRadius())
+                .coalesceGets(entity.getCoalesceGets())
+                .coalesceHeaders(entity.getCoalesceHeaders())
+                .hedgeRequests(entity.getHedgeRequests())
+                .latencySampler(compileLatency(entity))
+                .faultMixSampler(compileFaultMix(entity))
                 .build();
     }
 
+    /**
+     * Compiles the rule's delay distribution. The default — UNIFORM without
+     * parameters — needs no table: the engine spreads delays over
+     * [50, maxDelayMs) directly.
+     */
+    private static LatencySampler compileLatency(ChaosRuleEntity entity) {
+        LatencyModel model = entity.getLatencyModel();
+        if (entity.getMaxDelayMs() == null || entity.getMaxDelayMs() <= 0
+                || ((model == null || model == LatencyModel.UNIFORM) && entity.getLatencyParams() == null)) {
+            return null;
+        }
+        try {
+            return LatencySampler.compile(model, entity.getLatencyParams(), entity.getMaxDelayMs());
+        } catch (IllegalArgumentException e) {
+            // Validated on save, so only rows written around the API get here — fall back, don't fail requests
+            log.warn("Rule '{}' has an invalid {} latency model ({}) — using uniform delays",
+                    entity.getTarget(), model, e.getMessage());
+            return null;
+        }
+    }
+
+    private static FaultMixSampler compileFaultMix(ChaosRuleEntity entity) {
+        if (entity.getFaultMix() == null) return null;
+        try {
+            return FaultMixSampler.compile(entity.getFaultMix());
+        } catch (IllegalArgumentException e) {
+            log.warn("Rule '{}' has an invalid fault mix ({}) — using the built-in distribution",
+                    entity.getTarget(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /** "Authorization, accept ,," → "authorization,accept" — header names are case-insensitive. */
+    private static String normalizeHeaderList(String headers) {
+        if (headers == null) return null;
+        String normalized = Arrays.stream(headers.split(","))
+                .map(h -> h.trim().toLowerCase(Locale.ROOT))
+                .filter(h -> !h.isEmpty())
+                .distinct()
+                .collect(Collectors.joining(","));
+        return normalized.isEmpty() ? null : normalized;
+    }
+
     private String validateSortField(String sortBy) {
         return switch (sortBy.toLowerCase()) {
             case "target"      -> "target";
@@ -1,5 +1,6 @@
 package com.adit.mockDemo.service;
 
+import com.adit.mockDemo.chaos.runtime.TenantCacheKeys;
 import com.adit.mockDemo.dto.ChaosScheduleRequest;
 import com.adit.mockDemo.dto.ChaosScheduleResponse;
 import com.adit.mockDemo.entity.ChaosRuleEntity;
@@ -11,6 +12,7 @@ import com.adit.mockDemo.repository.ChaosRuleRepository;
 import com.adit.mockDemo.repository.ChaosScheduleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +29,7 @@ public class ChaosScheduleService {
 
     private final ChaosScheduleRepository scheduleRepository;
     private final ChaosRuleRepository     ruleRepository;
+    private final TenantCacheKeys         tenantCacheKeys;
 
     private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
@@ -50,7 +53,21 @@ public class ChaosScheduleService {
                 .activeUntil(request.getActiveUntil())
                 .build();
 
-        return mapToResponse(scheduleRepository.save(schedule));
+        ChaosSchedule saved = scheduleRepository.save(schedule);
+        tenantCacheKeys.invalidate(org.getId());
+        return mapToResponse(saved);
+    }
+
+    /**
+     * Enabled schedules of a rule, for the request path (TenantSnapshotFactory).
+     * Cached under the tenant's rule generation, so schedule writes and rule
+     * writes invalidate it the same way — here and, via ClusterCoherence, on
+     * every other instance.
+     */
+    @Cacheable(value = "chaosRules", key = "@tenantCacheKeys.key(#org.id, 'schedules:' + #ruleId)", sync = true)
+    @Transactional(readOnly = true)
+    public List<ChaosSchedule> getEnabledSchedules(Organization org, Long ruleId) {
+        return scheduleRepository.findByChaosRuleIdAndEnabledTrue(ruleId);
     }
 
     @Transactional(readOnly = true)
@@ -81,7 +98,9 @@ public class ChaosScheduleService {
         schedule.setActiveFrom(request.getActiveFrom());
         schedule.setActiveUntil(request.getActiveUntil());
 
-        return mapToResponse(scheduleRepository.save(schedule));
+        ChaosSchedule saved = scheduleRepository.save(schedule);
+        tenantCacheKeys.invalidate(org.getId());
+        return mapToResponse(saved);
     }
 
     public void deleteSchedule(Organization org, Long ruleId, Long scheduleId) {
@@ -93,6 +112,7 @@ public class ChaosScheduleService {
                 .orElseThrow(() -> new ResourceNotFoundException("ChaosSchedule", scheduleId.toString()));
 
         scheduleRepository.delete(schedule);
+        tenantCacheKeys.invalidate(org.getId());
     }
 
     // ── Helpers ───────────────────────────────────────────────────────────────
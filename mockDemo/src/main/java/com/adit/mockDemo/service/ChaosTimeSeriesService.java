@@ -0,0 +1,185 @@
+package com.adit.mockDemo.service;
+
+import com.adit.mockDemo.analytics.Downsampler;
+import com.adit.mockDemo.chaos.runtime.TimeStatsCounter;
+import com.adit.mockDemo.datasource.DataSourcePool;
+import com.adit.mockDemo.datasource.UsePool;
+import com.adit.mockDemo.dto.ChaosTimeSeriesResponse;
+import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.exception.ValidationException;
+import com.adit.mockDemo.repository.ChaosTimeStatsJdbcRepository;
+import com.adit.mockDemo.repository.ChaosTimeStatsJdbcRepository.TimeStat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Time series of chaos decisions with a bucket width chosen from the window.
+ *
+ *   window ≤ 2h  → 1m buckets, minute rollups
+ *   window ≤ 2d  → 5m buckets, minute rollups folded
+ *   window ≤ 14d → 1h buckets, hour rollups
+ *   longer       → 1d buckets, hour rollups folded
+ *
+ * Reads only chaos_time_stats (written by TimeStatsCounter), never raw
+ * events, so cost depends on the number of buckets, not the event volume.
+ * The newest few seconds are missing until the next flush.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ChaosTimeSeriesService {
+
+    static final int DEFAULT_POINTS = 300;
+    static final int MAX_POINTS     = 2_000;
+
+    private static final Duration MAX_WINDOW     = Duration.ofDays(400);
+    private static final Pattern  WINDOW_PATTERN = Pattern.compile("(\\d{1,6})([mhd])");
+
+    enum Width {
+        MINUTE       ("1m", Duration.ofMinutes(1), ChaosTimeStatsJdbcRepository.MINUTE),
+        FIVE_MINUTES ("5m", Duration.ofMinutes(5), ChaosTimeStatsJdbcRepository.MINUTE),
+        HOUR         ("1h", Duration.ofHours(1),   ChaosTimeStatsJdbcRepository.HOUR),
+        DAY          ("1d", Duration.ofDays(1),    ChaosTimeStatsJdbcRepository.HOUR);
+
+        final String label;
+        final long   millis;
+        final char   source;
+
+        Width(String label, Duration width, char source) {
+            this.label  = label;
+            this.millis = width.toMillis();
+            this.source = source;
+        }
+
+        long align(long epochMs) {
+            return epochMs - Math.floorMod(epochMs, millis);
+        }
+    }
+
+    public enum Mode { NONE, AVG, LTTB }
+
+    private final ChaosTimeStatsJdbcRepository timeStatsRepository;
+
+    @UsePool(DataSourcePool.ANALYTICS)
+    public ChaosTimeSeriesResponse getTimeSeries(Organization org,
+                                                 String window,
+                                                 Instant from,
+                                                 Instant to,
+                                                 Integer points,
+                                                 Mode mode) {
+        Instant end   = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(parseWindow(window));
+
+        if (!start.isBefore(end)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+        if (Duration.between(start, end).compareTo(MAX_WINDOW) > 0) {
+            throw new ValidationException("Time-series window may not exceed " + MAX_WINDOW.toDays() + " days");
+        }
+        int maxPoints = Math.max(3, Math.min(points != null ? points : DEFAULT_POINTS, MAX_POINTS));
+
+        Width width = chooseWidth(start, end, Instant.now());
+        log.info("GET chaos time series - Org: {}, from: {}, to: {}, width: {}, mode: {}",
+                org.getSlug(), start, end, width.label, mode);
+
+        long gridStart = width.align(start.toEpochMilli());
+        long gridEnd   = width.align(end.toEpochMilli()) + width.millis;
+
+        List<TimeStat> rows = timeStatsRepository.findRange(org.getId(), width.source,
+                Instant.ofEpochMilli(gridStart), Instant.ofEpochMilli(gridEnd));
+        List<ChaosTimeSeriesResponse.Point> series = fold(rows, width, gridStart, gridEnd);
+
+        List<ChaosTimeSeriesResponse.Point> result = switch (mode) {
+            case NONE -> series;
+            case AVG  -> Downsampler.average(series, maxPoints);
+            case LTTB -> Downsampler.lttb(series, maxPoints);
+        };
+
+        String bucketWidth = mode == Mode.AVG && result.size() < series.size()
+                ? formatWidth(width.millis * Downsampler.factor(series.size(), maxPoints))
+                : width.label;
+
+        return ChaosTimeSeriesResponse.builder()
+                .from(Instant.ofEpochMilli(gridStart))
+                .to(Instant.ofEpochMilli(gridEnd))
+                .bucketWidth(bucketWidth)
+                .downsampling(result.size() < series.size() ? mode.name().toLowerCase() : "none")
+                .sourceBuckets(series.size())
+                .points(result)
+                .build();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    static Width chooseWidth(Instant from, Instant to, Instant now) {
+        Duration span = Duration.between(from, to);
+        // Minute rows are pruned after TimeStatsCounter.MINUTE_RETENTION — older windows must use hours
+        boolean minutesAvailable = !from.isBefore(now.minus(TimeStatsCounter.MINUTE_RETENTION));
+
+        if (minutesAvailable && span.compareTo(Duration.ofHours(2)) <= 0) return Width.MINUTE;
+        if (minutesAvailable && span.compareTo(Duration.ofDays(2))  <= 0) return Width.FIVE_MINUTES;
+        if (span.compareTo(Duration.ofDays(14)) <= 0) return Width.HOUR;
+        return Width.DAY;
+    }
+
+    /** Folds rollup rows into {@code width} buckets and fills every empty bucket with zeros. */
+    static List<ChaosTimeSeriesResponse.Point> fold(List<TimeStat> rows, Width width, long gridStart, long gridEnd) {
+        Map<Long, long[]> buckets = new TreeMap<>();   // injected, skipped, delaySum, delayMax
+        for (long t = gridStart; t < gridEnd; t += width.millis) {
+            buckets.put(t, new long[4]);
+        }
+        for (TimeStat row : rows) {
+            long[] b = buckets.get(width.align(row.bucketStart().toEpochMilli()));
+            if (b == null) continue;
+            b[0] += row.injected();
+            b[1] += row.skipped();
+            b[2] += row.delaySumMs();
+            b[3]  = Math.max(b[3], row.delayMaxMs());
+        }
+
+        List<ChaosTimeSeriesResponse.Point> points = new ArrayList<>(buckets.size());
+        buckets.forEach((start, b) -> points.add(ChaosTimeSeriesResponse.Point.builder()
+                .bucketStart(Instant.ofEpochMilli(start))
+                .total(b[0] + b[1])
+                .injected(b[0])
+                .skipped(b[1])
+                .avgDelayMs(b[0] > 0 ? (double) b[2] / b[0] : 0.0)
+                .maxDelayMs(b[3])
+                .build()));
+        return points;
+    }
+
+    static Duration parseWindow(String window) {
+        Matcher m = WINDOW_PATTERN.matcher(window == null ? "" : window.toLowerCase());
+        if (!m.matches()) {
+            throw new ValidationException("Invalid window '" + window + "' — use e.g. 90m, 24h, 7d");
+        }
+        long amount = Long.parseLong(m.group(1));
+        if (amount <= 0) {
+            throw new ValidationException("Window must be positive");
+        }
+        return switch (m.group(2)) {
+            case "m" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            default  -> Duration.ofDays(amount);
+        };
+    }
+
+    private static String formatWidth(long millis) {
+        if (millis % Duration.ofDays(1).toMillis() == 0)  return millis / Duration.ofDays(1).toMillis() + "d";
+        if (millis % Duration.ofHours(1).toMillis() == 0) return millis / Duration.ofHours(1).toMillis() + "h";
+        return millis / Duration.ofMinutes(1).toMillis() + "m";
+    }
+}
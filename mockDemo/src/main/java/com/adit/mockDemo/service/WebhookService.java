@@ -1,6 +1,8 @@
 package com.adit.mockDemo.service;
 
 import com.adit.mockDemo.chaos.execution.ChaosDecision;
+import com.adit.mockDemo.chaos.runtime.ClusterCoherence;
+import com.adit.mockDemo.chaos.runtime.CoherenceEvent;
 import com.adit.mockDemo.dto.WebhookRequest;
 import com.adit.mockDemo.dto.WebhookResponse;
 import com.adit.mockDemo.entity.Organization;
@@ -39,6 +41,7 @@ public class WebhookService {
     private final WebhookDeliveryRepository deliveryRepository;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final ClusterCoherence clusterCoherence;
 
     // ── CRUD ─────────────────────────────────────────────────────────────────
 
@@ -56,7 +59,9 @@ public class WebhookService {
                 .chaosTypes(request.getChaosTypes())
                 .build();
 
-        return mapToResponse(webhookRepository.save(config));
+        WebhookConfig saved = webhookRepository.save(config);
+        clusterCoherence.broadcast(CoherenceEvent.Topic.WEBHOOKS, org.getId());
+        return mapToResponse(saved);
     }
 
     @Transactional(readOnly = true)
@@ -83,7 +88,9 @@ public class WebhookService {
         config.setOnSkipped(request.getOnSkipped());
         config.setChaosTypes(request.getChaosTypes());
 
-        return mapToResponse(webhookRepository.save(config));
+        WebhookConfig saved = webhookRepository.save(config);
+        clusterCoherence.broadcast(CoherenceEvent.Topic.WEBHOOKS, org.getId());
+        return mapToResponse(saved);
     }
 
     public void deleteWebhook(Organization org, Long id) {
@@ -94,6 +101,7 @@ public class WebhookService {
                 .orElseThrow(() -> new ResourceNotFoundException("WebhookConfig", id.toString()));
 
         webhookRepository.delete(config);
+        clusterCoherence.broadcast(CoherenceEvent.Topic.WEBHOOKS, org.getId());
     }
 
     // ── Delivery with retry tracking ─────────────────────────────────────────
@@ -0,0 +1,22 @@
+-- V12: Persistent kill switches
+-- Previously kill-switch state lived only in JVM memory, so every restart or
+-- deploy silently re-enabled chaos for every org. One row per switch that has
+-- ever been set; absence of a row means "enabled".
+--
+-- scope     = ORG | TARGET | RULE
+-- scope_key = ''         for ORG
+--             the target for TARGET (e.g. /v1/charges)
+--             the rule id for RULE
+
+CREATE TABLE chaos_kill_switches (
+                                     id              BIGSERIAL PRIMARY KEY,
+                                     organization_id BIGINT       NOT NULL,
+                                     scope           VARCHAR(10)  NOT NULL,
+                                     scope_key       VARCHAR(255) NOT NULL DEFAULT '',
+                                     enabled         BOOLEAN      NOT NULL DEFAULT TRUE,
+                                     updated_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                     version         BIGINT       NOT NULL DEFAULT 0,
+
+                                     CONSTRAINT fk_kill_switches_org FOREIGN KEY (organization_id) REFERENCES organizations(id),
+                                     CONSTRAINT uq_kill_switches_scope UNIQUE (organization_id, scope, scope_key)
+);
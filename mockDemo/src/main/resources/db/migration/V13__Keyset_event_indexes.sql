@@ -0,0 +1,19 @@
+-- V13: Indexes for keyset pagination of chaos event history
+-- Event pages are now ordered by (occurred_at DESC, id DESC) and continue from
+-- the last row with "(occurred_at, id) < (?, ?)". Adding id as the trailing
+-- key lets each page be a single index range scan, with no sort and no OFFSET.
+--
+-- The query builder only emits filters that were supplied, so each common
+-- filter combination gets an index whose prefix matches it exactly.
+
+DROP INDEX IF EXISTS idx_chaos_events_org_occurred;
+DROP INDEX IF EXISTS idx_chaos_events_org_target;
+
+CREATE INDEX idx_chaos_events_org_occurred
+    ON chaos_events (organization_id, occurred_at DESC, id DESC);
+
+CREATE INDEX idx_chaos_events_org_target
+    ON chaos_events (organization_id, target, occurred_at DESC, id DESC);
+
+CREATE INDEX idx_chaos_events_org_injected
+    ON chaos_events (organization_id, injected, occurred_at DESC, id DESC);
@@ -0,0 +1,19 @@
+-- V14: Exact skipped-decision counts
+-- Skipped decisions used to be written to chaos_events for a random 1% of
+-- requests, so analytics divided injected events by a sampled, noisy total.
+-- They are now counted exactly in memory and flushed here as one row per
+-- (org, target, minute), incremented in place if several instances or
+-- flushes touch the same minute.
+
+CREATE TABLE chaos_skip_counts (
+                                   organization_id BIGINT       NOT NULL,
+                                   target          VARCHAR(255) NOT NULL,
+                                   bucket_start    TIMESTAMP    NOT NULL,
+                                   skipped_count   BIGINT       NOT NULL DEFAULT 0,
+
+                                   CONSTRAINT pk_chaos_skip_counts PRIMARY KEY (organization_id, target, bucket_start),
+                                   CONSTRAINT fk_skip_counts_org FOREIGN KEY (organization_id) REFERENCES organizations(id)
+);
+
+-- Window sums and hourly series scan by org and time, across targets
+CREATE INDEX idx_chaos_skip_counts_org_bucket ON chaos_skip_counts(organization_id, bucket_start);
@@ -0,0 +1,35 @@
+-- V15: Pre-bucketed per-org event counts for the time-series endpoint
+-- The analytics time series grouped raw chaos_events by EXTRACT(HOUR ...),
+-- which folds a 7d or 30d window into 24 hour-of-day buckets and scans the
+-- whole window. Counts are now rolled up at ingestion into minute ('M') and
+-- hour ('H') rows; 5-minute and 1-day buckets are folded from these.
+--
+-- Minute rows are pruned after 2 days; hour rows are kept.
+
+CREATE TABLE chaos_time_stats (
+                                  organization_id BIGINT    NOT NULL,
+                                  resolution      CHAR(1)   NOT NULL,
+                                  bucket_start    TIMESTAMP NOT NULL,
+                                  injected_count  BIGINT    NOT NULL DEFAULT 0,
+                                  skipped_count   BIGINT    NOT NULL DEFAULT 0,
+                                  delay_sum_ms    BIGINT    NOT NULL DEFAULT 0,
+                                  delay_max_ms    BIGINT    NOT NULL DEFAULT 0,
+
+                                  CONSTRAINT pk_chaos_time_stats PRIMARY KEY (organization_id, resolution, bucket_start),
+                                  CONSTRAINT fk_time_stats_org FOREIGN KEY (organization_id) REFERENCES organizations(id)
+);
+
+-- Backfill injected history from raw events so existing charts are not empty.
+-- Skipped decisions were only sampled before V14 and are left at 0 here.
+INSERT INTO chaos_time_stats (organization_id, resolution, bucket_start, injected_count, delay_sum_ms, delay_max_ms)
+SELECT organization_id, 'H', DATE_TRUNC('hour', occurred_at), COUNT(*), COALESCE(SUM(delay_ms), 0), COALESCE(MAX(delay_ms), 0)
+FROM chaos_events
+WHERE injected = TRUE
+GROUP BY organization_id, DATE_TRUNC('hour', occurred_at);
+
+INSERT INTO chaos_time_stats (organization_id, resolution, bucket_start, injected_count, delay_sum_ms, delay_max_ms)
+SELECT organization_id, 'M', DATE_TRUNC('minute', occurred_at), COUNT(*), COALESCE(SUM(delay_ms), 0), COALESCE(MAX(delay_ms), 0)
+FROM chaos_events
+WHERE injected = TRUE
+  AND occurred_at >= CURRENT_TIMESTAMP - INTERVAL '2' DAY
+GROUP BY organization_id, DATE_TRUNC('minute', occurred_at);
@@ -0,0 +1,7 @@
+-- V16: Opt-in request coalescing per rule
+-- When coalesce_gets is set, identical concurrent GETs proxied under the rule
+-- share one upstream call. Identity is method + URL + the header names listed
+-- (comma-separated, case-insensitive) in coalesce_headers.
+
+ALTER TABLE chaos_rules ADD COLUMN coalesce_gets    BOOLEAN      NOT NULL DEFAULT FALSE;
+ALTER TABLE chaos_rules ADD COLUMN coalesce_headers VARCHAR(500);
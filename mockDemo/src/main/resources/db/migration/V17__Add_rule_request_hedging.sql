@@ -0,0 +1,6 @@
+-- V17: Opt-in request hedging per rule
+-- When hedge_requests is set, proxied GET/HEAD/OPTIONS calls that get no chaos
+-- send a second attempt once the first is slower than the upstream's recent
+-- latency percentile; the first answer wins.
+
+ALTER TABLE chaos_rules ADD COLUMN hedge_requests BOOLEAN NOT NULL DEFAULT FALSE;
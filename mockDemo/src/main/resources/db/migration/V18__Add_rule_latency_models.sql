@@ -0,0 +1,8 @@
+-- V18: Per-rule latency distribution
+-- latency_model shapes injected delays (FIXED, UNIFORM, NORMAL, LOGNORMAL,
+-- PARETO, EMPIRICAL); latency_params holds its parameters or, for EMPIRICAL,
+-- the upperBoundMs:count histogram. UNIFORM without params keeps the
+-- original [50, max_delay_ms) behaviour.
+
+ALTER TABLE chaos_rules ADD COLUMN latency_model VARCHAR(10) NOT NULL DEFAULT 'UNIFORM';
+ALTER TABLE chaos_rules ADD COLUMN latency_params VARCHAR(1000);
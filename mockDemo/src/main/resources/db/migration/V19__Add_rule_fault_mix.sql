@@ -0,0 +1,5 @@
+-- V19: Per-rule weighted fault mix
+-- fault_mix lists the chaos types a failure roll can inject, with weights
+-- (LATENCY=70,ERROR_5XX:503=30). NULL keeps the built-in distribution.
+
+ALTER TABLE chaos_rules ADD COLUMN fault_mix VARCHAR(500);
@@ -0,0 +1,78 @@
+package com.adit.mockDemo.analytics;
+
+import com.adit.mockDemo.dto.ChaosTimeSeriesResponse.Point;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownsamplerTest {
+
+    @Test
+    void average_mergesRunsAndKeepsSpread() {
+        List<Point> series = series(1, 9, 2, 4, 3, 3, 5);
+
+        List<Point> out = Downsampler.average(series, 3);
+
+        assertThat(Downsampler.factor(7, 3)).isEqualTo(3);
+        assertThat(out).hasSize(3);
+        assertThat(out.get(0).getTotal()).isEqualTo(12);
+        assertThat(out.get(0).getMinTotal()).isEqualTo(1);
+        assertThat(out.get(0).getMaxTotal()).isEqualTo(9);
+        assertThat(out.get(2).getTotal()).isEqualTo(5);
+        assertThat(out.stream().mapToLong(Point::getTotal).sum()).isEqualTo(27);
+    }
+
+    @Test
+    void average_weightsDelayByInjected() {
+        List<Point> series = List.of(
+                point(0, 10, 10, 100.0),
+                point(1, 30, 30, 200.0));
+
+        Point merged = Downsampler.average(series, 1).get(0);
+
+        assertThat(merged.getAvgDelayMs()).isEqualTo(175.0);
+    }
+
+    @Test
+    void lttb_keepsEndpointsAndSpike() {
+        long[] totals = new long[100];
+        totals[47] = 1_000;   // single spike in flat data
+        List<Point> series = series(totals);
+
+        List<Point> out = Downsampler.lttb(series, 10);
+
+        assertThat(out).hasSize(10);
+        assertThat(out.get(0)).isSameAs(series.get(0));
+        assertThat(out.get(9)).isSameAs(series.get(99));
+        assertThat(out).extracting(Point::getTotal).contains(1_000L);
+    }
+
+    @Test
+    void smallSeries_returnedUnchanged() {
+        List<Point> series = series(1, 2, 3);
+
+        assertThat(Downsampler.average(series, 10)).isSameAs(series);
+        assertThat(Downsampler.lttb(series, 10)).isSameAs(series);
+    }
+
+    private static List<Point> series(long... totals) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < totals.length; i++) points.add(point(i, totals[i], 0, 0.0));
+        return points;
+    }
+
+    private static Point point(int minute, long total, long injected, double avgDelay) {
+        return Point.builder()
+                .bucketStart(Instant.ofEpochSecond(minute * 60L))
+                .total(total)
+                .injected(injected)
+                .skipped(total - injected)
+                .avgDelayMs(avgDelay)
+                .maxDelayMs((long) avgDelay)
+                .build();
+    }
+}
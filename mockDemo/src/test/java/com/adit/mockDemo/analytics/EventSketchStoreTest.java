@@ -0,0 +1,76 @@
+package com.adit.mockDemo.analytics;
+
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventSketchStoreTest {
+
+    private static final long START = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+    private static final long HOUR  = Duration.ofHours(1).toMillis();
+
+    @Test
+    void summarize_mergesBucketsInWindow() {
+        EventSketchStore store = new EventSketchStore(true, START, new SimpleMeterRegistry());
+        long now = START + 30 * HOUR;
+
+        store.recordInjected(1L, "/old",   ChaosType.ERROR_5XX, START + HOUR);        // outside 24h
+        store.recordInjected(1L, "/users", ChaosType.ERROR_5XX, now - 3 * HOUR);
+        store.recordInjected(1L, "/users", ChaosType.LATENCY,   now - HOUR);
+        store.recordInjected(1L, "/items", ChaosType.LATENCY,   now - 60_000);
+        store.recordInjected(2L, "/users", ChaosType.TIMEOUT,   now - 60_000);        // other org
+
+        EventSketchStore.Summary summary = store.summarize(1L,
+                Instant.ofEpochMilli(now - 24 * HOUR), Instant.ofEpochMilli(now), 10, now).orElseThrow();
+
+        assertThat(summary.injectedEvents()).isEqualTo(3);
+        assertThat(summary.topTargets().get(0).item()).isEqualTo("/users");
+        assertThat(summary.topTargets().get(0).count()).isEqualTo(2);
+        assertThat(summary.typeBreakdown()).containsEntry(ChaosType.LATENCY, 2L).containsEntry(ChaosType.ERROR_5XX, 1L)
+                .doesNotContainKey(ChaosType.TIMEOUT);
+        assertThat(summary.maxTargetError()).isZero();
+    }
+
+    @Test
+    void summarize_windowBeforeStartup_fallsBack() {
+        EventSketchStore store = new EventSketchStore(true, START, new SimpleMeterRegistry());
+
+        assertThat(store.summarize(1L, Instant.ofEpochMilli(START - 1), Instant.ofEpochMilli(START + HOUR), 10,
+                START + HOUR)).isEmpty();
+    }
+
+    @Test
+    void disabled_recordsNothingAndFallsBack() {
+        EventSketchStore store = new EventSketchStore(false, START, new SimpleMeterRegistry());
+        store.recordInjected(1L, "/users", ChaosType.ERROR_5XX, START + HOUR);
+
+        assertThat(store.summarize(1L, Instant.ofEpochMilli(START), Instant.ofEpochMilli(START + 2 * HOUR), 10,
+                START + 2 * HOUR)).isEmpty();
+    }
+
+    @Test
+    void resolutionFor_picksFinestCoveringResolution() {
+        assertThat(EventSketchStore.resolutionFor(HOUR)).isEqualTo(EventSketchStore.Resolution.FIVE_MINUTES);
+        assertThat(EventSketchStore.resolutionFor(24 * HOUR)).isEqualTo(EventSketchStore.Resolution.HOUR);
+        assertThat(EventSketchStore.resolutionFor(7 * 24 * HOUR)).isEqualTo(EventSketchStore.Resolution.HOUR);
+        assertThat(EventSketchStore.resolutionFor(30 * 24 * HOUR)).isEqualTo(EventSketchStore.Resolution.DAY);
+    }
+
+    @Test
+    void evictExpired_dropsBucketsPastRetention() {
+        EventSketchStore store = new EventSketchStore(true, START, new SimpleMeterRegistry());
+        store.recordInjected(1L, "/users", ChaosType.ERROR_5XX, START + HOUR);
+
+        store.evictExpired(START + 40 * 24 * HOUR);
+
+        long now = START + 40 * 24 * HOUR;
+        assertThat(store.summarize(1L, Instant.ofEpochMilli(START), Instant.ofEpochMilli(now), 10, now)).isEmpty();
+        assertThat(store.summarize(1L, Instant.ofEpochMilli(now - 24 * HOUR), Instant.ofEpochMilli(now), 10, now)
+                .orElseThrow().injectedEvents()).isZero();
+    }
+}
@@ -0,0 +1,65 @@
+package com.adit.mockDemo.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void underCapacity_countsAreExact() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(8);
+        for (int i = 0; i < 5; i++) sketch.add("/a");
+        sketch.add("/b");
+
+        assertThat(sketch.top(10)).containsExactly(
+                new SpaceSavingSketch.Estimate("/a", 5, 0),
+                new SpaceSavingSketch.Estimate("/b", 1, 0));
+        assertThat(sketch.maxError()).isZero();
+    }
+
+    @Test
+    void skewedStream_findsHeavyHittersWithinErrorBound() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16);
+        Map<String, Long> truth = new HashMap<>();
+        Random random = new Random(7);
+
+        // 3 heavy targets plus a long tail of 5000 distinct paths
+        for (int i = 0; i < 50_000; i++) {
+            int roll = random.nextInt(100);
+            String target = roll < 30 ? "/hot-1" : roll < 50 ? "/hot-2" : roll < 60 ? "/hot-3"
+                    : "/tail/" + random.nextInt(5_000);
+            sketch.add(target);
+            truth.merge(target, 1L, Long::sum);
+        }
+
+        long bound = sketch.total() / sketch.capacity();
+        List<SpaceSavingSketch.Estimate> top = sketch.top(3);
+
+        assertThat(top).extracting(SpaceSavingSketch.Estimate::item).containsExactly("/hot-1", "/hot-2", "/hot-3");
+        for (SpaceSavingSketch.Estimate e : sketch.top(16)) {
+            long actual = truth.get(e.item());
+            assertThat(e.count()).isBetween(actual, actual + e.error());
+            assertThat(e.error()).isLessThanOrEqualTo(bound);
+        }
+    }
+
+    @Test
+    void merge_addsCountsAndKeepsBound() {
+        SpaceSavingSketch a = new SpaceSavingSketch(4);
+        SpaceSavingSketch b = new SpaceSavingSketch(4);
+        for (int i = 0; i < 10; i++) a.add("/x");
+        for (int i = 0; i < 7; i++)  b.add("/x");
+        for (int i = 0; i < 3; i++)  b.add("/y");
+
+        a.merge(b);
+
+        assertThat(a.total()).isEqualTo(20);
+        assertThat(a.top(1)).containsExactly(new SpaceSavingSketch.Estimate("/x", 17, 0));
+    }
+}
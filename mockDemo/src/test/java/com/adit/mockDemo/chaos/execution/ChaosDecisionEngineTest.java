@@ -1,31 +1,18 @@
 package com.adit.mockDemo.chaos.execution;
 
 import com.adit.mockDemo.chaos.ChaosRule;
-import com.adit.mockDemo.entity.ChaosSchedule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class ChaosDecisionEngineTest {
 
-    @Mock
-    private ChaosKillSwitch killSwitch;
+    private final ChaosDecisionEngine engine = new ChaosDecisionEngine();
 
-    @Mock
-    private ScheduleEvaluator scheduleEvaluator;
-
-    @InjectMocks
-    private ChaosDecisionEngine engine;
+    private static final TenantSnapshot ACTIVE = tenant(true, true);
 
     private ChaosRule testRule;
 
@@ -43,17 +30,13 @@ class ChaosDecisionEngineTest {
 
     @Test
     void decide_whenKillSwitchDisabled_thenNoChaos() {
-        when(killSwitch.isChaosEnabled()).thenReturn(false);
-
-        ChaosDecision decision = engine.decide(testRule, "req-123", Collections.emptyList());
+        ChaosDecision decision = engine.decide(testRule, "req-123", tenant(false, true));
 
         assertThat(decision.isShouldInjectChaos()).isFalse();
     }
 
     @Test
     void decide_whenRuleDisabled_thenNoChaos() {
-        when(killSwitch.isChaosEnabled()).thenReturn(true);
-
         ChaosRule disabledRule = ChaosRule.builder()
                 .target("/api/v1/users")
                 .enabled(false)
@@ -62,26 +45,20 @@ class ChaosDecisionEngineTest {
                 .blastRadius(1.0)
                 .build();
 
-        ChaosDecision decision = engine.decide(disabledRule, "req-123", Collections.emptyList());
+        ChaosDecision decision = engine.decide(disabledRule, "req-123", ACTIVE);
 
         assertThat(decision.isShouldInjectChaos()).isFalse();
     }
 
     @Test
     void decide_whenScheduleInactive_thenNoChaos() {
-        when(killSwitch.isChaosEnabled()).thenReturn(true);
-        when(scheduleEvaluator.isActiveNow(anyList())).thenReturn(false);
-
-        ChaosDecision decision = engine.decide(testRule, "req-123", Collections.emptyList());
+        ChaosDecision decision = engine.decide(testRule, "req-123", tenant(true, false));
 
         assertThat(decision.isShouldInjectChaos()).isFalse();
     }
 
     @Test
     void decide_whenFailureRate100_thenAlwaysInjectChaos() {
-        when(killSwitch.isChaosEnabled()).thenReturn(true);
-        when(scheduleEvaluator.isActiveNow(anyList())).thenReturn(true);
-
         ChaosRule alwaysFailRule = ChaosRule.builder()
                 .target("/api/v1/users")
                 .enabled(true)
@@ -91,7 +68,7 @@ class ChaosDecisionEngineTest {
                 .seed(42L)
                 .build();
 
-        ChaosDecision decision = engine.decide(alwaysFailRule, "req-123", Collections.emptyList());
+        ChaosDecision decision = engine.decide(alwaysFailRule, "req-123", ACTIVE);
 
         assertThat(decision.isShouldInjectChaos()).isTrue();
         assertThat(decision.getChaosType()).isNotNull();
@@ -99,27 +76,22 @@ class ChaosDecisionEngineTest {
 
     @Test
     void decide_whenFailureRate0_thenNeverInjectChaos() {
-        when(killSwitch.isChaosEnabled()).thenReturn(true);
-        when(scheduleEvaluator.isActiveNow(anyList())).thenReturn(true);
-
+        // No delay budget, so the latency-only path (roll < 0.5) cannot fire either
         ChaosRule neverFailRule = ChaosRule.builder()
                 .target("/api/v1/users")
                 .enabled(true)
                 .failureRate(0.0)
-                .maxDelayMs(100L)
+                .maxDelayMs(0L)
                 .blastRadius(1.0)
                 .build();
 
-        ChaosDecision decision = engine.decide(neverFailRule, "req-123", Collections.emptyList());
+        ChaosDecision decision = engine.decide(neverFailRule, "req-123", ACTIVE);
 
         assertThat(decision.isShouldInjectChaos()).isFalse();
     }
 
     @Test
     void decide_whenBlastRadius0_thenNoChaos() {
-        when(killSwitch.isChaosEnabled()).thenReturn(true);
-        when(scheduleEvaluator.isActiveNow(anyList())).thenReturn(true);
-
         ChaosRule noBlastRule = ChaosRule.builder()
                 .target("/api/v1/users")
                 .enabled(true)
@@ -128,16 +100,13 @@ class ChaosDecisionEngineTest {
                 .blastRadius(0.0)
                 .build();
 
-        ChaosDecision decision = engine.decide(noBlastRule, "req-123", Collections.emptyList());
+        ChaosDecision decision = engine.decide(noBlastRule, "req-123", ACTIVE);
 
         assertThat(decision.isShouldInjectChaos()).isFalse();
     }
 
     @Test
     void decide_whenMaxDelayMs100_thenDelayWithinRange() {
-        when(killSwitch.isChaosEnabled()).thenReturn(true);
-        when(scheduleEvaluator.isActiveNow(anyList())).thenReturn(true);
-
         ChaosRule delayRule = ChaosRule.builder()
                 .target("/api/v1/users")
                 .enabled(true)
@@ -147,7 +116,7 @@ class ChaosDecisionEngineTest {
                 .seed(42L)
                 .build();
 
-        ChaosDecision decision = engine.decide(delayRule, "req-123", Collections.emptyList());
+        ChaosDecision decision = engine.decide(delayRule, "req-123", ACTIVE);
 
         if (decision.isShouldInjectChaos()) {
             assertThat(decision.getDelayMs()).isBetween(0, 100);
@@ -155,16 +124,68 @@ class ChaosDecisionEngineTest {
     }
 
     @Test
-    void decide_deterministicForSameRequestId() {
-        when(killSwitch.isChaosEnabled()).thenReturn(true);
-        when(scheduleEvaluator.isActiveNow(anyList())).thenReturn(true);
+    void decide_withLatencyModel_thenDelaysFollowTheModel() {
+        ChaosRule lognormalRule = ChaosRule.builder()
+                .target("/api/v1/users")
+                .enabled(true)
+                .failureRate(1.0)
+                .maxDelayMs(10_000L)
+                .blastRadius(1.0)
+                .seed(42L)
+                .latencySampler(LatencySampler.compile(LatencyModel.LOGNORMAL, "median=200,sigma=1", 10_000))
+                .build();
 
-        ChaosDecision decision1 = engine.decide(testRule, "same-req-id", Collections.emptyList());
-        ChaosDecision decision2 = engine.decide(testRule, "same-req-id", Collections.emptyList());
+        int[] delays = IntStream.range(0, 2000)
+                .map(i -> engine.decide(lognormalRule, "req-" + i, ACTIVE).getDelayMs())
+                .sorted()
+                .toArray();
+
+        // Long right tail: median near 200ms, p99 near 200·e^2.33 ≈ 2000ms — never the legacy flat spread
+        assertThat(delays[1000]).isBetween(170, 235);
+        assertThat(delays[1980]).isBetween(1400, 2800);
+    }
+
+    @Test
+    void decide_withFaultMix_thenOnlyThoseFaultsAreInjected() {
+        ChaosRule mixRule = ChaosRule.builder()
+                .target("/api/v1/users")
+                .enabled(true)
+                .failureRate(1.0)
+                .maxDelayMs(500L)
+                .blastRadius(1.0)
+                .seed(7L)
+                .faultMixSampler(FaultMixSampler.compile("LATENCY=1,ERROR_5XX:503=1"))
+                .build();
+
+        for (int i = 0; i < 500; i++) {
+            ChaosDecision decision = engine.decide(mixRule, "req-" + i, ACTIVE);
+
+            assertThat(decision.getChaosType()).isIn(ChaosType.LATENCY, ChaosType.ERROR_5XX);
+            if (decision.getChaosType() == ChaosType.ERROR_5XX) {
+                assertThat(decision.getErrorCode()).isEqualTo(503);
+            } else {
+                assertThat(decision.isError()).isFalse();
+                assertThat(decision.getDelayMs()).isBetween(50, 500);
+            }
+        }
+    }
+
+    @Test
+    void decide_deterministicForSameRequestId() {
+        ChaosDecision decision1 = engine.decide(testRule, "same-req-id", ACTIVE);
+        ChaosDecision decision2 = engine.decide(testRule, "same-req-id", ACTIVE);
 
         assertThat(decision1.isShouldInjectChaos()).isEqualTo(decision2.isShouldInjectChaos());
         if (decision1.isShouldInjectChaos()) {
             assertThat(decision1.getDelayMs()).isEqualTo(decision2.getDelayMs());
         }
     }
-}
\ No newline at end of file
+
+    private static TenantSnapshot tenant(boolean chaosEnabled, boolean scheduleActive) {
+        return TenantSnapshot.builder()
+                .orgId(1L)
+                .chaosEnabled(chaosEnabled)
+                .scheduleActive(scheduleActive)
+                .build();
+    }
+}
@@ -1,21 +1,63 @@
 package com.adit.mockDemo.chaos.execution;
 
+import com.adit.mockDemo.chaos.runtime.ClusterCoherence;
+import com.adit.mockDemo.chaos.runtime.CoherenceEvent;
+import com.adit.mockDemo.entity.KillSwitchEntry;
+import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.repository.KillSwitchRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class ChaosKillSwitchTest {
 
+    private final KillSwitchRepository         repository = mock(KillSwitchRepository.class);
+    private final Map<String, KillSwitchEntry> rows       = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // Stands in for the table: the upserted row is found by the locking read, flush bumps @Version
+        when(repository.findByOrganizationIdAndScopeAndScopeKey(any(), any(), any())).thenAnswer(inv -> {
+            Long orgId = inv.getArgument(0);
+            KillSwitchScope scope = inv.getArgument(1);
+            String key = inv.getArgument(2);
+            return Optional.of(rows.computeIfAbsent(orgId + "/" + scope + "/" + key, k -> {
+                KillSwitchEntry e = entry(orgId, scope, key, true);
+                e.setVersion(0L);
+                return e;
+            }));
+        });
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> {
+            KillSwitchEntry e = inv.getArgument(0);
+            e.setVersion(e.getVersion() + 1);
+            return e;
+        });
+    }
+
     @Test
     void isChaosEnabled_defaultTrue() {
-        ChaosKillSwitch killSwitch = new ChaosKillSwitch();
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
 
         assertThat(killSwitch.isChaosEnabled()).isTrue();
     }
 
     @Test
     void disableChaos_setsEnabledFalse() {
-        ChaosKillSwitch killSwitch = new ChaosKillSwitch();
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
 
         killSwitch.disableChaos();
 
@@ -24,7 +66,7 @@ class ChaosKillSwitchTest {
 
     @Test
     void enableChaos_setsEnabledTrue() {
-        ChaosKillSwitch killSwitch = new ChaosKillSwitch();
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
         killSwitch.disableChaos();
 
         killSwitch.enableChaos();
@@ -34,7 +76,7 @@ class ChaosKillSwitchTest {
 
     @Test
     void toggle_flipsState() {
-        ChaosKillSwitch killSwitch = new ChaosKillSwitch();
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
         boolean initialState = killSwitch.isChaosEnabled();
 
         boolean newState = killSwitch.toggle();
@@ -45,7 +87,7 @@ class ChaosKillSwitchTest {
 
     @Test
     void toggle_multipleTimes_flipsCorrectly() {
-        ChaosKillSwitch killSwitch = new ChaosKillSwitch();
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
 
         killSwitch.toggle();
         assertThat(killSwitch.isChaosEnabled()).isFalse();
@@ -56,4 +98,112 @@ class ChaosKillSwitchTest {
         killSwitch.toggle();
         assertThat(killSwitch.isChaosEnabled()).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void disableChaos_broadcastsNewState() {
+        ClusterCoherence coherence = mock(ClusterCoherence.class);
+        ChaosKillSwitch killSwitch = newKillSwitch(coherence);
+
+        killSwitch.disableChaos(7L);
+
+        verify(coherence).broadcast(CoherenceEvent.Topic.KILL_SWITCH, 7L, "false");
+        assertThat(killSwitch.isChaosEnabled(7L)).isFalse();
+    }
+
+    @Test
+    void disableChaos_persistsSwitch() {
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
+
+        killSwitch.disableChaos(7L);
+
+        verify(repository).saveAndFlush(argThat(e ->
+                e.getScope() == KillSwitchScope.ORG && !e.getEnabled()));
+    }
+
+    @Test
+    void firstWrite_upsertsRowBeforeLockingIt() {
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
+
+        killSwitch.setRuleEnabled(7L, 42L, false);
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).insertIfAbsent(7L, "RULE", "42");
+        order.verify(repository).findByOrganizationIdAndScopeAndScopeKey(7L, KillSwitchScope.RULE, "42");
+        order.verify(repository).saveAndFlush(any());
+    }
+
+    @Test
+    void toggle_perOrg_flipsPersistedState() {
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
+
+        assertThat(killSwitch.toggle(7L)).isFalse();
+        assertThat(killSwitch.isChaosEnabled(7L)).isFalse();
+        assertThat(killSwitch.toggle(7L)).isTrue();
+        assertThat(killSwitch.isChaosEnabled(7L)).isTrue();
+    }
+
+    @Test
+    void olderCommit_appliedLate_doesNotOverwriteNewerState() {
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
+        KillSwitchEntry newer = entry(7L, KillSwitchScope.ORG, "", false);
+        newer.setVersion(2L);
+        KillSwitchEntry older = entry(7L, KillSwitchScope.ORG, "", true);
+        older.setVersion(1L);
+
+        killSwitch.applyCommitted(7L, newer);
+        killSwitch.applyCommitted(7L, older);
+
+        assertThat(killSwitch.isChaosEnabled(7L)).isFalse();
+    }
+
+    @Test
+    void load_restoresPersistedState() {
+        when(repository.findAll()).thenReturn(List.of(
+                entry(7L, KillSwitchScope.ORG, "", false),
+                entry(8L, KillSwitchScope.RULE, "42", false)));
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
+
+        killSwitch.load();
+
+        assertThat(killSwitch.isChaosEnabled(7L)).isFalse();
+        assertThat(killSwitch.isChaosEnabled(8L)).isTrue();
+        assertThat(killSwitch.isChaosEnabled(8L, 42L, "/v1/charges")).isFalse();
+        assertThat(killSwitch.isChaosEnabled(8L, 43L, "/v1/charges")).isTrue();
+    }
+
+    @Test
+    void setTargetEnabled_onlyAffectsThatTarget() {
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
+
+        killSwitch.setTargetEnabled(7L, "/v1/charges", false);
+
+        assertThat(killSwitch.isChaosEnabled(7L)).isTrue();
+        assertThat(killSwitch.isChaosEnabled(7L, 1L, "/v1/charges")).isFalse();
+        assertThat(killSwitch.isChaosEnabled(7L, 1L, "/v1/refunds")).isTrue();
+        assertThat(killSwitch.isChaosEnabled(8L, 1L, "/v1/charges")).isTrue();
+    }
+
+    @Test
+    void onRemoteChange_appliesStateFromOtherInstance() {
+        when(repository.findByOrganizationId(7L))
+                .thenReturn(List.of(entry(7L, KillSwitchScope.ORG, "", false)));
+        ChaosKillSwitch killSwitch = newKillSwitch(mock(ClusterCoherence.class));
+
+        killSwitch.onRemoteChange(CoherenceEvent.builder()
+                .topic(CoherenceEvent.Topic.KILL_SWITCH).orgId(7L).value("false").build());
+
+        assertThat(killSwitch.isChaosEnabled(7L)).isFalse();
+        assertThat(killSwitch.isChaosEnabled(8L)).isTrue();
+    }
+
+    private ChaosKillSwitch newKillSwitch(ClusterCoherence coherence) {
+        return new ChaosKillSwitch(repository, coherence, mock(PlatformTransactionManager.class));
+    }
+
+    private static KillSwitchEntry entry(Long orgId, KillSwitchScope scope, String key, boolean enabled) {
+        return KillSwitchEntry.builder()
+                .organization(Organization.builder().id(orgId).build())
+                .scope(scope).scopeKey(key).enabled(enabled)
+                .build();
+    }
+}
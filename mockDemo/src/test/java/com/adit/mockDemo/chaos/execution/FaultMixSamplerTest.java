@@ -0,0 +1,101 @@
+package com.adit.mockDemo.chaos.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FaultMixSamplerTest {
+
+    private static final int ROLLS = 100_000;
+
+    @Test
+    void sampledShares_matchTheWeights() {
+        FaultMixSampler mix = FaultMixSampler.compile("ERROR_5XX=5, TIMEOUT=3, BLACKHOLE=1, LATENCY=1");
+
+        Map<ChaosType, Integer> counts = new EnumMap<>(ChaosType.class);
+        for (int i = 0; i < ROLLS; i++) {
+            counts.merge(mix.type(mix.sample((i + 0.5) / ROLLS)), 1, Integer::sum);
+        }
+
+        assertThat(counts.get(ChaosType.ERROR_5XX) / (double) ROLLS).isCloseTo(0.5, within(0.001));
+        assertThat(counts.get(ChaosType.TIMEOUT) / (double) ROLLS).isCloseTo(0.3, within(0.001));
+        assertThat(counts.get(ChaosType.BLACKHOLE) / (double) ROLLS).isCloseTo(0.1, within(0.001));
+        assertThat(counts.get(ChaosType.LATENCY) / (double) ROLLS).isCloseTo(0.1, within(0.001));
+    }
+
+    @Test
+    void builtInMix_reproducesTheEngineDefaultShares() {
+        FaultMixSampler builtIn = FaultMixSampler.compile("ERROR_5XX=20,ERROR_4XX=20,TIMEOUT=10,EXCEPTION=5,"
+                + "PACKET_LOSS=6,DNS_FAILURE=6,BANDWIDTH_LIMIT=6,CORRUPT_BODY=6,HEADER_INJECT=6,CPU_SPIKE=6,"
+                + "MEMORY_PRESSURE=5,BLACKHOLE=4");
+
+        Map<ChaosType, Integer> alias   = new EnumMap<>(ChaosType.class);
+        Map<ChaosType, Integer> ifChain = new EnumMap<>(ChaosType.class);
+        for (int i = 0; i < ROLLS; i++) {
+            double roll = (i + 0.5) / ROLLS;
+            alias.merge(builtIn.type(builtIn.sample(roll)), 1, Integer::sum);
+            ifChain.merge(ChaosDecisionEngine.determineFailureType(roll), 1, Integer::sum);
+        }
+
+        assertThat(alias.keySet()).isEqualTo(ifChain.keySet());
+        ifChain.forEach((type, count) ->
+                assertThat(alias.get(type) / (double) ROLLS).as(type.name())
+                        .isCloseTo(count / (double) ROLLS, within(0.001)));
+    }
+
+    @Test
+    void pinnedStatus_isReturnedWithTheOutcome() {
+        FaultMixSampler mix = FaultMixSampler.compile("latency=70,error_5xx:503=30");
+
+        int pinned = 0;
+        for (int i = 0; i < 1000; i++) {
+            int outcome = mix.sample(i / 1000.0);
+            if (mix.type(outcome) == ChaosType.ERROR_5XX) {
+                assertThat(mix.statusCode(outcome)).isEqualTo(503);
+                pinned++;
+            } else {
+                assertThat(mix.type(outcome)).isEqualTo(ChaosType.LATENCY);
+                assertThat(mix.statusCode(outcome)).isZero();
+            }
+        }
+        assertThat(pinned).isCloseTo(300, within(1));
+        assertThat(mix.includes(ChaosType.LATENCY)).isTrue();
+    }
+
+    @Test
+    void singleOutcome_alwaysWins() {
+        FaultMixSampler mix = FaultMixSampler.compile("DNS_FAILURE=1,ERROR_4XX=0");
+
+        assertThat(mix.type(mix.sample(0.0))).isEqualTo(ChaosType.DNS_FAILURE);
+        assertThat(mix.type(mix.sample(0.999999))).isEqualTo(ChaosType.DNS_FAILURE);
+    }
+
+    @Test
+    void identicalMixes_shareOneTable() {
+        assertThat(FaultMixSampler.compile("ERROR_5XX=1,TIMEOUT=1"))
+                .isSameAs(FaultMixSampler.compile("ERROR_5XX=1,TIMEOUT=1"));
+    }
+
+    @Test
+    void invalidMixes_areRejected() {
+        assertThatThrownBy(() -> FaultMixSampler.compile("SLOWNESS=1"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Unknown chaos type");
+        assertThatThrownBy(() -> FaultMixSampler.compile("NONE=1"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("NONE");
+        assertThatThrownBy(() -> FaultMixSampler.compile("TIMEOUT:503=1"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("cannot be pinned");
+        assertThatThrownBy(() -> FaultMixSampler.compile("ERROR_5XX:404=1"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("cannot be pinned");
+        assertThatThrownBy(() -> FaultMixSampler.compile("ERROR_5XX=1,ERROR_5XX=2"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Duplicate");
+        assertThatThrownBy(() -> FaultMixSampler.compile("ERROR_5XX=0"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("no positive weights");
+        assertThatThrownBy(() -> FaultMixSampler.compile("ERROR_5XX=-1"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("negative");
+    }
+}
@@ -0,0 +1,50 @@
+package com.adit.mockDemo.chaos.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KillSwitchSnapshotTest {
+
+    @Test
+    void empty_everythingEnabled() {
+        assertThat(KillSwitchSnapshot.EMPTY.isEnabled(1L, 10L, "/a")).isTrue();
+    }
+
+    @Test
+    void of_indexesOnlyDisabledSwitches() {
+        KillSwitchSnapshot snapshot = KillSwitchSnapshot.of(Map.of(
+                1L, List.of(new KillSwitchSnapshot.Entry(KillSwitchScope.ORG, "", true),
+                            new KillSwitchSnapshot.Entry(KillSwitchScope.RULE, "10", false)),
+                2L, List.of(new KillSwitchSnapshot.Entry(KillSwitchScope.ORG, "", false))));
+
+        assertThat(snapshot.isOrgEnabled(1L)).isTrue();
+        assertThat(snapshot.isEnabled(1L, 10L, "/a")).isFalse();
+        assertThat(snapshot.isEnabled(1L, 11L, "/a")).isTrue();
+        assertThat(snapshot.isOrgEnabled(2L)).isFalse();
+    }
+
+    @Test
+    void with_isCopyOnWrite() {
+        KillSwitchSnapshot before = KillSwitchSnapshot.EMPTY;
+
+        KillSwitchSnapshot after = before.with(1L, KillSwitchScope.TARGET, "/a", false);
+
+        assertThat(before.isEnabled(1L, null, "/a")).isTrue();
+        assertThat(after.isEnabled(1L, null, "/a")).isFalse();
+        assertThat(after.isEnabled(1L, null, "/b")).isTrue();
+    }
+
+    @Test
+    void with_replacesExistingSwitch() {
+        KillSwitchSnapshot snapshot = KillSwitchSnapshot.EMPTY
+                .with(1L, KillSwitchScope.ORG, "", false)
+                .with(1L, KillSwitchScope.ORG, "", true);
+
+        assertThat(snapshot.isOrgEnabled(1L)).isTrue();
+        assertThat(snapshot.entriesFor(1L)).hasSize(1);
+    }
+}
@@ -0,0 +1,95 @@
+package com.adit.mockDemo.chaos.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencySamplerTest {
+
+    @Test
+    void lognormal_matchesMedianAndTail() {
+        LatencySampler sampler = LatencySampler.compile(LatencyModel.LOGNORMAL, "median=100,sigma=0.5", 30_000);
+
+        assertThat(sampler.sample(0.5)).isCloseTo(100, within(1));
+        // p99 = median · e^(2.326 σ) ≈ 320
+        assertThat(sampler.sample(0.99)).isCloseTo(320, within(3));
+    }
+
+    @Test
+    void normal_isSymmetricAndNeverNegative() {
+        LatencySampler sampler = LatencySampler.compile(LatencyModel.NORMAL, "mean=200, stddev=100", 30_000);
+
+        assertThat(sampler.sample(0.5)).isCloseTo(200, within(1));
+        assertThat(sampler.sample(0.8413)).isCloseTo(300, within(2));
+        assertThat(sampler.sample(0.0)).isZero();   // -∞ side is truncated at 0
+    }
+
+    @Test
+    void pareto_hasHeavyTail_truncatedAtMaxDelay() {
+        LatencySampler sampler = LatencySampler.compile(LatencyModel.PARETO, "scale=50,shape=1.2", 10_000);
+
+        assertThat(sampler.sample(0.0)).isCloseTo(50, within(1));
+        assertThat(sampler.sample(0.99)).isGreaterThan(20 * sampler.sample(0.5));
+        assertThat(sampler.sample(0.99999)).isEqualTo(10_000);
+    }
+
+    @Test
+    void empirical_followsTheUploadedHistogram() {
+        LatencySampler sampler = LatencySampler.compile(LatencyModel.EMPIRICAL, "50:900, 200:90, 2000:10", 30_000);
+
+        assertThat(sampler.sample(0.45)).isCloseTo(25, within(1));    // middle of the first bucket
+        assertThat(sampler.sample(0.899)).isLessThanOrEqualTo(50);
+        assertThat(sampler.sample(0.95)).isBetween(50, 200);
+        assertThat(sampler.sample(0.995)).isBetween(200, 2000);
+    }
+
+    @Test
+    void fixedAndUniform_defaultToMaxDelay() {
+        assertThat(LatencySampler.compile(LatencyModel.FIXED, null, 800).sample(0.3)).isEqualTo(800);
+
+        LatencySampler uniform = LatencySampler.compile(LatencyModel.UNIFORM, "min=100", 1100);
+        assertThat(uniform.sample(0.0)).isCloseTo(100, within(1));
+        assertThat(uniform.sample(0.5)).isCloseTo(600, within(1));
+    }
+
+    @Test
+    void sampling_allocatesNothing() {
+        LatencySampler sampler = LatencySampler.compile(LatencyModel.EMPIRICAL,
+                "10:1200,25:5200,50:2400,100:800,250:250,1000:90,5000:9,20000:1", 30_000);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+
+        long acc    = 0;
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 1_000_000; i++) {
+            acc += sampler.sample((i + 0.5) / 1_000_000);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertThat(acc).isPositive();
+        // Headroom for the MXBean call itself, far below one object per sample
+        assertThat(allocated).isLessThan(1_024);
+    }
+
+    @Test
+    void identicalSpecs_shareOneTable() {
+        assertThat(LatencySampler.compile(LatencyModel.LOGNORMAL, "median=80,sigma=1", 5000))
+                .isSameAs(LatencySampler.compile(LatencyModel.LOGNORMAL, "median=80,sigma=1", 5000));
+    }
+
+    @Test
+    void invalidParams_areRejected() {
+        assertThatThrownBy(() -> LatencySampler.compile(LatencyModel.NORMAL, "mean=100", 1000))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("stddev");
+        assertThatThrownBy(() -> LatencySampler.compile(LatencyModel.PARETO, "scale=50,shape=-1", 1000))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("shape");
+        assertThatThrownBy(() -> LatencySampler.compile(LatencyModel.EMPIRICAL, "200:5,100:5", 1000))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("ascending");
+        assertThatThrownBy(() -> LatencySampler.compile(LatencyModel.LOGNORMAL, "median=abc,sigma=1", 1000))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("not a number");
+    }
+}
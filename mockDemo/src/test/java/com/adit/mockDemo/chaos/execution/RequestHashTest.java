@@ -0,0 +1,56 @@
+package com.adit.mockDemo.chaos.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RequestHashTest {
+
+    private static final int IDS = 100_000;
+
+    @Test
+    void blastRadius_coversItsShareOfRequestIds() {
+        int inside = 0;
+        for (int i = 0; i < IDS; i++) {
+            long hash = RequestHash.forRule(RequestHash.of(UUID.randomUUID().toString()), 0L);
+            if (RequestHash.blastPosition(hash) < 0.1) inside++;
+        }
+
+        assertThat(inside / (double) IDS).isCloseTo(0.1, within(0.005));
+    }
+
+    @Test
+    void blastPositionAndFailureRoll_areIndependent() {
+        int both = 0;
+        for (int i = 0; i < IDS; i++) {
+            long hash = RequestHash.forRule(RequestHash.of("req-" + i), 42L);
+            if (RequestHash.blastPosition(hash) < 0.1 && RequestHash.failureRoll(hash) < 0.1) both++;
+        }
+
+        assertThat(both / (double) IDS).isCloseTo(0.01, within(0.002));
+    }
+
+    @Test
+    void hash_isDeterministicPerSeed() {
+        long id = RequestHash.of("order-7f3a");
+
+        assertThat(RequestHash.of("order-7f3a")).isEqualTo(id);
+        assertThat(RequestHash.forRule(id, 42L)).isEqualTo(RequestHash.forRule(id, 42L));
+        assertThat(RequestHash.forRule(id, 42L)).isNotEqualTo(RequestHash.forRule(id, 43L));
+        assertThat(RequestHash.of("order-7f3b")).isNotEqualTo(id);
+    }
+
+    @Test
+    void rolls_stayWithinUnitInterval() {
+        for (long hash : new long[] {0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            assertThat(RequestHash.blastPosition(hash)).isBetween(0.0, 0.99999);
+            assertThat(RequestHash.failureRoll(hash)).isBetween(0.0, 0.99999);
+            assertThat(RequestHash.typeRoll(hash)).isBetween(0.0, 0.99999);
+            assertThat(RequestHash.codeRoll(hash)).isBetween(0.0, 0.99999);
+            assertThat(RequestHash.delayRoll(hash)).isBetween(0.0, 0.99999);
+        }
+    }
+}
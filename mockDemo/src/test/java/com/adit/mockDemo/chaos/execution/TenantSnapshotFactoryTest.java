@@ -0,0 +1,74 @@
+package com.adit.mockDemo.chaos.execution;
+
+import com.adit.mockDemo.chaos.ChaosRule;
+import com.adit.mockDemo.chaos.runtime.TenantCacheKeys;
+import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.service.ChaosScheduleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TenantSnapshotFactoryTest {
+
+    @Mock private ChaosKillSwitch         killSwitch;
+    @Mock private TenantCacheKeys         tenantCacheKeys;
+    @Mock private ScheduleEvaluator       scheduleEvaluator;
+    @Mock private ChaosScheduleService    scheduleService;
+
+    @InjectMocks
+    private TenantSnapshotFactory factory;
+
+    private Organization org;
+    private ChaosRule    rule;
+
+    @BeforeEach
+    void setUp() {
+        org  = Organization.builder().id(7L).slug("acme").build();
+        rule = ChaosRule.builder().id(42L).target("/v1/charges").enabled(true).build();
+    }
+
+    @Test
+    void forRequest_orgKilled_disablesChaosWithoutLoadingSchedules() {
+        when(killSwitch.snapshot()).thenReturn(
+                KillSwitchSnapshot.EMPTY.with(7L, KillSwitchScope.ORG, "", false));
+
+        TenantSnapshot tenant = factory.forRequest(org, rule, "/v1/charges");
+
+        assertThat(tenant.isChaosEnabled()).isFalse();
+        verifyNoInteractions(scheduleService, scheduleEvaluator);
+    }
+
+    @Test
+    void forRequest_targetKilled_onlyThatTarget() {
+        when(killSwitch.snapshot()).thenReturn(
+                KillSwitchSnapshot.EMPTY.with(7L, KillSwitchScope.TARGET, "/v1/charges", false));
+        when(scheduleEvaluator.isActiveNow(any())).thenReturn(true);
+
+        assertThat(factory.forRequest(org, rule, "/v1/charges").isChaosEnabled()).isFalse();
+        assertThat(factory.forRequest(org, rule, "/v1/refunds").isChaosEnabled()).isTrue();
+    }
+
+    @Test
+    void forRequest_enabled_resolvesCachedSchedulesByRuleIdAndVersion() {
+        when(killSwitch.snapshot()).thenReturn(KillSwitchSnapshot.EMPTY);
+        when(scheduleService.getEnabledSchedules(org, 42L)).thenReturn(List.of());
+        when(scheduleEvaluator.isActiveNow(List.of())).thenReturn(true);
+        when(tenantCacheKeys.generation(7L)).thenReturn(3L);
+
+        TenantSnapshot tenant = factory.forRequest(org, rule, "/v1/charges");
+
+        assertThat(tenant.isChaosEnabled()).isTrue();
+        assertThat(tenant.isScheduleActive()).isTrue();
+        assertThat(tenant.getRuleIndexVersion()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,63 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ClusterCoherenceTest {
+
+    private final ObjectMapper              objectMapper   = new ObjectMapper();
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final JdbcTemplate              jdbcTemplate   = mock(JdbcTemplate.class);
+
+    private ClusterCoherence coherence;
+
+    @BeforeEach
+    void setUp() {
+        coherence = new ClusterCoherence(false, jdbcTemplate, mock(PlatformTransactionManager.class),
+                eventPublisher, objectMapper, new DataSourceProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void dispatch_fromOtherInstance_publishesEvent() throws Exception {
+        String payload = objectMapper.writeValueAsString(CoherenceEvent.builder()
+                .topic(CoherenceEvent.Topic.RULES).orgId(3L).origin("other-instance").build());
+
+        coherence.dispatch(payload);
+
+        verify(eventPublisher).publishEvent(CoherenceEvent.builder()
+                .topic(CoherenceEvent.Topic.RULES).orgId(3L).origin("other-instance").build());
+    }
+
+    @Test
+    void dispatch_ownNotification_isIgnored() throws Exception {
+        String payload = objectMapper.writeValueAsString(CoherenceEvent.builder()
+                .topic(CoherenceEvent.Topic.RULES).orgId(3L).origin(coherence.instanceId()).build());
+
+        coherence.dispatch(payload);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void dispatch_malformedPayload_isIgnored() {
+        coherence.dispatch("not json");
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void broadcast_whenDisabled_doesNotTouchDatabase() {
+        coherence.broadcast(CoherenceEvent.Topic.KILL_SWITCH, 3L, "false");
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,102 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import com.adit.mockDemo.repository.ChaosSkipCountJdbcRepository;
+import com.adit.mockDemo.repository.ChaosSkipCountJdbcRepository.SkipCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SkippedEventCounterTest {
+
+    private static final long T0 = Instant.parse("2026-01-01T10:00:00Z").toEpochMilli();
+
+    private ChaosSkipCountJdbcRepository repository;
+    private SkippedEventCounter          counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ChaosSkipCountJdbcRepository.class);
+        counter = new SkippedEventCounter(repository, mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void flush_writesOneExactRowPerOrgTargetMinute() {
+        for (int i = 0; i < 1_000; i++) counter.record(1L, "/api/users", T0 + 5_000);
+        counter.record(1L, "/api/orders", T0 + 5_000);
+        counter.record(2L, "/api/users",  T0 + 5_000);
+        counter.record(1L, "/api/users",  T0 + 65_000);   // next minute
+
+        counter.flush(T0 + 70_000);
+
+        List<SkipCount> rows = capturedRows();
+        assertThat(rows).hasSize(4);
+        assertThat(rows).contains(new SkipCount(1L, "/api/users", Instant.ofEpochMilli(T0), 1_000));
+        assertThat(rows).contains(new SkipCount(1L, "/api/users", Instant.ofEpochMilli(T0 + 60_000), 1));
+    }
+
+    @Test
+    void flush_doesNotRewriteAlreadyFlushedCounts() {
+        counter.record(1L, "/api/users", T0);
+        counter.flush(T0 + 1_000);
+        counter.record(1L, "/api/users", T0 + 2_000);
+        counter.flush(T0 + 3_000);
+
+        ArgumentCaptor<List<SkipCount>> captor = rowsCaptor();
+        verify(repository, times(2)).addCounts(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(rows -> assertThat(rows.get(0).count()).isEqualTo(1));
+    }
+
+    @Test
+    void flush_failure_keepsCountsForRetry() {
+        counter.record(1L, "/api/users", T0);
+        counter.record(1L, "/api/users", T0);
+        doThrow(new RuntimeException("DB down")).doNothing().when(repository).addCounts(anyList());
+
+        counter.flush(T0 + 120_000);
+        counter.flush(T0 + 135_000);
+
+        ArgumentCaptor<List<SkipCount>> captor = rowsCaptor();
+        verify(repository, times(2)).addCounts(captor.capture());
+        assertThat(captor.getValue()).containsExactly(new SkipCount(1L, "/api/users", Instant.ofEpochMilli(T0), 2));
+    }
+
+    @Test
+    void pending_countsOnlyUnflushedSkipsInWindowForOrg() {
+        counter.record(1L, "/a", T0);
+        counter.record(1L, "/b", T0 + 60_000);
+        counter.record(2L, "/a", T0);
+
+        assertThat(counter.pending(1L, Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + 59_000))).isEqualTo(1);
+        assertThat(counter.pending(1L, Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + 60_000))).isEqualTo(2);
+
+        counter.flush(T0 + 1_000);
+        assertThat(counter.pending(1L, Instant.ofEpochMilli(T0), Instant.ofEpochMilli(T0 + 60_000))).isZero();
+    }
+
+    @Test
+    void flush_nothingRecorded_skipsDatabase() {
+        counter.flush(T0);
+
+        verifyNoInteractions(repository);
+    }
+
+    private List<SkipCount> capturedRows() {
+        ArgumentCaptor<List<SkipCount>> captor = rowsCaptor();
+        verify(repository).addCounts(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<List<SkipCount>> rowsCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+    }
+}
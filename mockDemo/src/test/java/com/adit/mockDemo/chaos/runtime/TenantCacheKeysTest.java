@@ -0,0 +1,69 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class TenantCacheKeysTest {
+
+    @Test
+    void key_embedsOrgAndGeneration() {
+        TenantCacheKeys keys = new TenantCacheKeys(mock(ClusterCoherence.class));
+
+        assertThat(keys.key(42L, "engine:/v1/charges")).isEqualTo("42:0:engine:/v1/charges");
+    }
+
+    @Test
+    void invalidate_outsideTransaction_bumpsImmediately() {
+        TenantCacheKeys keys = new TenantCacheKeys(mock(ClusterCoherence.class));
+        String before = keys.key(1L, "all");
+
+        keys.invalidate(1L);
+
+        assertThat(keys.generation(1L)).isEqualTo(1L);
+        assertThat(keys.key(1L, "all")).isNotEqualTo(before);
+    }
+
+    @Test
+    void invalidate_leavesOtherTenantsUntouched() {
+        TenantCacheKeys keys = new TenantCacheKeys(mock(ClusterCoherence.class));
+        String otherBefore = keys.key(2L, "all");
+
+        keys.invalidate(1L);
+
+        assertThat(keys.key(2L, "all")).isEqualTo(otherBefore);
+    }
+
+    @Test
+    void invalidate_alsoBumpsGlobalSlot() {
+        TenantCacheKeys keys = new TenantCacheKeys(mock(ClusterCoherence.class));
+
+        keys.invalidate(1L);
+
+        assertThat(keys.generation(TenantCacheKeys.GLOBAL)).isEqualTo(1L);
+    }
+
+    @Test
+    void invalidate_broadcastsToOtherInstances() {
+        ClusterCoherence coherence = mock(ClusterCoherence.class);
+        TenantCacheKeys keys = new TenantCacheKeys(coherence);
+
+        keys.invalidate(1L);
+
+        verify(coherence).broadcast(CoherenceEvent.Topic.RULES, 1L);
+    }
+
+    @Test
+    void onRemoteChange_allOrgs_bumpsEveryTrackedOrg() {
+        TenantCacheKeys keys = new TenantCacheKeys(mock(ClusterCoherence.class));
+        String orgOne = keys.key(1L, "all");
+        String orgTwo = keys.key(2L, "all");
+
+        keys.onRemoteChange(CoherenceEvent.builder().topic(CoherenceEvent.Topic.RULES).build());
+
+        assertThat(keys.key(1L, "all")).isNotEqualTo(orgOne);
+        assertThat(keys.key(2L, "all")).isNotEqualTo(orgTwo);
+    }
+}
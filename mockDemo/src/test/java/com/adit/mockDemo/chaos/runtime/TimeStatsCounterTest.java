@@ -0,0 +1,42 @@
+package com.adit.mockDemo.chaos.runtime;
+
+import com.adit.mockDemo.repository.ChaosTimeStatsJdbcRepository;
+import com.adit.mockDemo.repository.ChaosTimeStatsJdbcRepository.TimeStat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TimeStatsCounterTest {
+
+    private static final long T0 = Instant.parse("2026-01-01T10:00:00Z").toEpochMilli();
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void flush_writesMinuteRowsAndRolledUpHourRow() {
+        ChaosTimeStatsJdbcRepository repository = mock(ChaosTimeStatsJdbcRepository.class);
+        TimeStatsCounter counter = new TimeStatsCounter(repository, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+
+        counter.recordInjected(1L, 100, T0);
+        counter.recordInjected(1L, 300, T0 + 61_000);
+        counter.recordSkipped(1L, T0 + 61_000);
+
+        counter.flush(T0 + 120_000);
+
+        ArgumentCaptor<List<TimeStat>> captor = (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).addStats(captor.capture());
+        List<TimeStat> minutes = captor.getAllValues().get(0);
+        List<TimeStat> hours   = captor.getAllValues().get(1);
+
+        assertThat(minutes).hasSize(2).allMatch(r -> r.resolution() == ChaosTimeStatsJdbcRepository.MINUTE);
+        assertThat(hours).containsExactly(new TimeStat(1L, ChaosTimeStatsJdbcRepository.HOUR,
+                Instant.ofEpochMilli(T0), 2, 1, 400, 300));
+    }
+}
@@ -0,0 +1,32 @@
+package com.adit.mockDemo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportTimeoutTest {
+
+    @Test
+    void extend_raisesTimeoutOnThisRequestOnly() {
+        MockHttpServletRequest  request  = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAsyncSupported(true);
+        StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(request, response);
+        WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncRequest);
+
+        ExportTimeout.extend(new ServletWebRequest(request, response));
+        asyncRequest.startAsync();
+
+        assertThat(request.getAsyncContext().getTimeout()).isEqualTo(ExportTimeout.EXPORT_TIMEOUT_MS);
+        // A request that never went through extend keeps the container default
+        MockHttpServletRequest other = new MockHttpServletRequest();
+        other.setAsyncSupported(true);
+        new StandardServletAsyncWebRequest(other, new MockHttpServletResponse()).startAsync();
+        assertThat(other.getAsyncContext().getTimeout()).isNotEqualTo(ExportTimeout.EXPORT_TIMEOUT_MS);
+    }
+}
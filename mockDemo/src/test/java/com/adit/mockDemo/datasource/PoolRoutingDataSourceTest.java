@@ -0,0 +1,88 @@
+package com.adit.mockDemo.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PoolRoutingDataSourceTest {
+
+    private final Connection hotConnection       = mock(Connection.class);
+    private final Connection eventsConnection    = mock(Connection.class);
+    private final Connection analyticsConnection = mock(Connection.class);
+
+    private PoolRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        routing = new PoolRoutingDataSource(Map.of(
+                DataSourcePool.HOT,       pool(hotConnection),
+                DataSourcePool.EVENTS,    pool(eventsConnection),
+                DataSourcePool.ANALYTICS, pool(analyticsConnection)));
+        routing.afterPropertiesSet();
+    }
+
+    @Test
+    void noChoice_usesHotPool() throws Exception {
+        assertThat(routing.getConnection()).isSameAs(hotConnection);
+    }
+
+    @Test
+    void chosenPool_appliesOnlyInsideTheCall() throws Exception {
+        Connection inside = PoolRoutingDataSource.call(DataSourcePool.ANALYTICS, this::connect);
+
+        assertThat(inside).isSameAs(analyticsConnection);
+        assertThat(routing.getConnection()).isSameAs(hotConnection);
+    }
+
+    @Test
+    void nestedChoice_restoresOuterPool() throws Exception {
+        Connection[] seen = new Connection[2];
+
+        PoolRoutingDataSource.run(DataSourcePool.EVENTS, () -> {
+            seen[0] = PoolRoutingDataSource.call(DataSourcePool.ANALYTICS, this::connect);
+            seen[1] = connect();
+        });
+
+        assertThat(seen).containsExactly(analyticsConnection, eventsConnection);
+    }
+
+    @Test
+    void choice_isPerThread() throws Exception {
+        Connection[] other = new Connection[1];
+
+        PoolRoutingDataSource.run(DataSourcePool.EVENTS, () -> {
+            Thread thread = new Thread(() -> other[0] = connect());
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(other[0]).isSameAs(hotConnection);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private Connection connect() {
+        try {
+            return routing.getConnection();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DataSource pool(Connection connection) throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,238 @@
+package com.adit.mockDemo.live;
+
+import com.adit.mockDemo.chaos.execution.ChaosDecision;
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import com.adit.mockDemo.dto.LiveDashboardFrame;
+import com.adit.mockDemo.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LiveEventHubTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void recordWithoutSubscribers_isIgnored() {
+        LiveEventHub hub = new LiveEventHub(registry, Runnable::run);
+
+        hub.recordInjected(1L, "/api/a", decision(ChaosType.LATENCY, 100, 0), "r1");
+        hub.recordSkipped(1L);
+
+        assertThat(hub.subscriberCount(1L)).isZero();
+    }
+
+    @Test
+    void tick_coalescesActivityIntoOneFramePerSecond() {
+        LiveEventHub hub = new LiveEventHub(registry, Runnable::run);
+        CapturingEmitter emitter = new CapturingEmitter();
+        hub.subscribe(1L, emitter);
+
+        hub.recordInjected(1L, "/api/a", decision(ChaosType.LATENCY, 100, 0), "r1");
+        hub.recordInjected(1L, "/api/b", decision(ChaosType.ERROR_5XX, 0, 503), "r2");
+        hub.recordSkipped(1L);
+        hub.recordSkipped(1L);
+        hub.recordInjected(2L, "/api/other-org", decision(ChaosType.LATENCY, 10, 0), "r3");
+        hub.tick();
+
+        assertThat(emitter.frames).hasSize(1);
+        LiveDashboardFrame frame = emitter.frames.get(0);
+        assertThat(frame.getInjected()).isEqualTo(2);
+        assertThat(frame.getSkipped()).isEqualTo(2);
+        assertThat(frame.getInjectionRate()).isEqualTo(0.5);
+        assertThat(frame.getByType()).containsEntry(ChaosType.LATENCY, 1L).containsEntry(ChaosType.ERROR_5XX, 1L);
+        assertThat(frame.getDelayMaxMs()).isEqualTo(100);
+        assertThat(frame.getRecentInjections()).extracting(LiveDashboardFrame.Injection::getRequestId)
+                .containsExactly("r1", "r2");
+        assertThat(frame.getRecentInjections().get(1).getHttpStatus()).isEqualTo(503);
+
+        // Counters reset each second — a quiet second sends nothing
+        hub.tick();
+        assertThat(emitter.frames).hasSize(1);
+    }
+
+    @Test
+    void recentInjections_cappedWithOmittedCount() {
+        LiveEventHub hub = new LiveEventHub(registry, Runnable::run);
+        CapturingEmitter emitter = new CapturingEmitter();
+        hub.subscribe(1L, emitter);
+
+        for (int i = 0; i < 100; i++) {
+            hub.recordInjected(1L, "/api/a", decision(ChaosType.LATENCY, i + 1, 0), "r" + i);
+        }
+        hub.tick();
+
+        LiveDashboardFrame frame = emitter.frames.get(0);
+        assertThat(frame.getRecentInjections()).hasSize(LiveEventHub.RECENT_INJECTIONS);
+        assertThat(frame.getRecentInjections().get(LiveEventHub.RECENT_INJECTIONS - 1).getRequestId()).isEqualTo("r99");
+        assertThat(frame.getOmittedInjections()).isEqualTo(100 - LiveEventHub.RECENT_INJECTIONS);
+        assertThat(frame.getDelayP50Ms()).isEqualTo(50);
+        assertThat(frame.getDelayP99Ms()).isEqualTo(99);
+        assertThat(frame.getDelayMaxMs()).isEqualTo(100);
+    }
+
+    @Test
+    void slowConsumer_isDroppedOnceBufferFills() {
+        // Sender pool that never runs — nothing is drained
+        LiveEventHub hub = new LiveEventHub(registry, task -> {});
+        hub.subscribe(1L, new CapturingEmitter());
+
+        for (int i = 0; i <= LiveEventHub.SUBSCRIBER_BUFFER; i++) {
+            hub.recordSkipped(1L);
+            hub.tick();
+        }
+
+        assertThat(hub.subscriberCount(1L)).isZero();
+        assertThat(registry.get("chaoslab.live.subscribers.dropped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedSend_dropsOnlyThatSubscriber() {
+        LiveEventHub hub = new LiveEventHub(registry, Runnable::run);
+        CapturingEmitter healthy = new CapturingEmitter();
+        CapturingEmitter broken  = new CapturingEmitter();
+        broken.fail = true;
+        hub.subscribe(1L, healthy);
+        hub.subscribe(1L, broken);
+
+        hub.recordSkipped(1L);
+        hub.tick();
+
+        assertThat(hub.subscriberCount(1L)).isEqualTo(1);
+        assertThat(healthy.frames).hasSize(1);
+        assertThat(registry.get("chaoslab.live.subscribers").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void manySubscribers_onRealSenderPool_allReceiveEveryFrame() throws InterruptedException {
+        LiveEventHub hub = new LiveEventHub(registry);
+        List<CapturingEmitter> emitters = new ArrayList<>();
+        for (long org = 1; org <= 4; org++) {
+            for (int i = 0; i < LiveEventHub.MAX_SUBSCRIBERS_PER_ORG; i++) {
+                CapturingEmitter emitter = new CapturingEmitter();
+                emitter.sendMillis = 2;
+                hub.subscribe(org, emitter);
+                emitters.add(emitter);
+            }
+        }
+
+        try {
+            for (int second = 0; second < 3; second++) {
+                for (long org = 1; org <= 4; org++) hub.recordSkipped(org);
+                hub.tick();
+            }
+            awaitFrames(emitters, 3, hub);
+
+            assertThat(emitters).allSatisfy(e -> assertThat(e.frames).hasSize(3));
+            assertThat(registry.get("chaoslab.live.subscribers.dropped").counter().count()).isZero();
+        } finally {
+            hub.stop();
+        }
+    }
+
+    @Test
+    void saturatedSenderPool_defersToNextTickInsteadOfDropping() throws InterruptedException {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        LiveEventHub hub = new LiveEventHub(registry, pool);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CapturingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            CapturingEmitter emitter = new CapturingEmitter();
+            emitter.release = release;
+            hub.subscribe(1L, emitter);
+            emitters.add(emitter);
+        }
+
+        try {
+            hub.recordSkipped(1L);
+            hub.tick();
+
+            assertThat(hub.subscriberCount(1L)).isEqualTo(40);
+            assertThat(registry.get("chaoslab.live.sends.deferred").counter().count()).isPositive();
+
+            release.countDown();
+            awaitFrames(emitters, 1, hub);
+
+            assertThat(emitters).allSatisfy(e -> assertThat(e.frames).hasSize(1));
+            assertThat(registry.get("chaoslab.live.subscribers.dropped").counter().count()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void subscribe_rejectsBeyondPerOrgCap() {
+        LiveEventHub hub = new LiveEventHub(registry, Runnable::run);
+        for (int i = 0; i < LiveEventHub.MAX_SUBSCRIBERS_PER_ORG; i++) {
+            hub.subscribe(1L, new CapturingEmitter());
+        }
+
+        assertThatThrownBy(() -> hub.subscribe(1L, new CapturingEmitter()))
+                .isInstanceOf(ValidationException.class);
+        hub.subscribe(2L, new CapturingEmitter());
+        assertThat(hub.subscriberCount(2L)).isEqualTo(1);
+    }
+
+    /** Ticks until every emitter has {@code frames} frames — quiet ticks retry deferred sends. */
+    private static void awaitFrames(List<CapturingEmitter> emitters, int frames, LiveEventHub hub)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline
+                && !emitters.stream().allMatch(e -> e.frames.size() >= frames)) {
+            Thread.sleep(20);
+            hub.tick();
+        }
+    }
+
+    private static ChaosDecision decision(ChaosType type, int delayMs, int errorCode) {
+        return ChaosDecision.builder()
+                .shouldInjectChaos(true)
+                .chaosType(type)
+                .delayMs(delayMs)
+                .errorCode(errorCode)
+                .build();
+    }
+
+    /** Records frames instead of writing to a response. */
+    private static class CapturingEmitter extends SseEmitter {
+        final List<LiveDashboardFrame> frames = new CopyOnWriteArrayList<>();
+        boolean        fail;
+        long           sendMillis;
+        CountDownLatch release;
+
+        @Override
+        public void send(SseEventBuilder builder) throws java.io.IOException {
+            if (fail) throw new java.io.IOException("client gone");
+            try {
+                if (release != null) release.await();
+                if (sendMillis > 0) Thread.sleep(sendMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new java.io.IOException("interrupted");
+            }
+            Set<ResponseBodyEmitter.DataWithMediaType> parts = builder.build();
+            for (ResponseBodyEmitter.DataWithMediaType part : parts) {
+                if (part.getData() instanceof LiveDashboardFrame frame) frames.add(frame);
+            }
+        }
+    }
+}
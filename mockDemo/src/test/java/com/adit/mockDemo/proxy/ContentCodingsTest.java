@@ -0,0 +1,69 @@
+package com.adit.mockDemo.proxy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContentCodingsTest {
+
+    private static final byte[] JSON = "{\"items\":[1,2,3]}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void decode_gzipRemovesContentEncoding() throws IOException {
+        HttpHeaders headers = encoded("gzip");
+
+        assertThat(ContentCodings.decode(gzip(JSON), headers)).isEqualTo(JSON);
+        assertThat(headers.containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    void decode_acceptsZlibAndRawDeflate() throws IOException {
+        assertThat(ContentCodings.decode(deflate(JSON, false), encoded("deflate"))).isEqualTo(JSON);
+        assertThat(ContentCodings.decode(deflate(JSON, true), encoded("deflate"))).isEqualTo(JSON);
+    }
+
+    @Test
+    void decode_unknownEncodingLeavesHeadersAlone() {
+        HttpHeaders headers = encoded("br");
+
+        assertThat(ContentCodings.decode(JSON, headers)).isNull();
+        assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("br");
+    }
+
+    @Test
+    void isEncoded_ignoresIdentity() {
+        assertThat(ContentCodings.isEncoded(encoded("identity"))).isFalse();
+        assertThat(ContentCodings.isEncoded(new HttpHeaders())).isFalse();
+        assertThat(ContentCodings.isEncoded(encoded("GZIP"))).isTrue();
+    }
+
+    private static HttpHeaders encoded(String encoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+        return headers;
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream d = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            d.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,71 @@
+package com.adit.mockDemo.proxy;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PinnedRequestFactoryTest {
+
+    private HttpServer                    server;
+    private final AtomicReference<String> seenHost = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            seenHost.set(exchange.getRequestHeaders().getFirst("Host"));
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void http_connectsToPinnedAddressAndKeepsHostName() throws IOException {
+        int port = server.getAddress().getPort();
+        // Name that does not resolve — the request can only succeed via the pinned address
+        URI uri = URI.create("http://upstream.invalid:" + port + "/hello");
+        SsrfGuard.ResolvedTarget target = new SsrfGuard.ResolvedTarget(
+                uri, "upstream.invalid", port, List.of(InetAddress.getLoopbackAddress()));
+
+        PinnedRequestFactory factory = new PinnedRequestFactory();
+        try (PinnedRequestFactory.Pin pin = factory.pin(target)) {
+            ClientHttpRequest request = factory.createRequest(uri, HttpMethod.GET);
+            try (ClientHttpResponse response = request.execute()) {
+                assertThat(response.getStatusCode().value()).isEqualTo(200);
+            }
+        }
+        assertThat(seenHost.get()).isEqualTo("upstream.invalid:" + port);
+    }
+
+    @Test
+    void unpinnedRequest_isRefused() {
+        PinnedRequestFactory factory = new PinnedRequestFactory();
+
+        assertThatThrownBy(() -> factory.createRequest(URI.create("http://example.com/"), HttpMethod.GET))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("not pinned");
+    }
+}
@@ -0,0 +1,219 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.chaos.execution.ChaosDecision;
+import com.adit.mockDemo.chaos.execution.ChaosDecisionEngine;
+import com.adit.mockDemo.chaos.execution.ChaosEventLogger;
+import com.adit.mockDemo.chaos.execution.ChaosType;
+import com.adit.mockDemo.chaos.execution.TenantSnapshotFactory;
+import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.security.ConcurrencyLimitFilter;
+import com.adit.mockDemo.service.ChaosRuleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProxyChaosServiceTest {
+
+    private static final String URL = "https://api.example.com/v1/files/7?download=true";
+
+    @Mock private ChaosRuleService      chaosRuleService;
+    @Mock private ChaosDecisionEngine   decisionEngine;
+    @Mock private ChaosEventLogger      eventLogger;
+    @Mock private TenantSnapshotFactory tenantSnapshots;
+    @Mock private UpstreamForwarder     upstreamForwarder;
+    @Mock private SsrfGuard             ssrfGuard;
+    @Mock private ResponseRecorder      responseRecorder;
+    @Mock private ProxyExecutor         proxyExecutor;
+    @Mock private ResourceSimulator     resourceSimulator;
+
+    @InjectMocks private ProxyChaosService service;
+
+    private Organization             org;
+    private SsrfGuard.ResolvedTarget resolved;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        org      = Organization.builder().id(1L).slug("acme").build();
+        resolved = new SsrfGuard.ResolvedTarget(URI.create(URL), "api.example.com", 443,
+                List.of(InetAddress.getByName("93.184.216.34")));
+        when(ssrfGuard.validate(URL)).thenReturn(resolved);
+        // Recording off — straight through to the forwarder
+        lenient().when(responseRecorder.execute(any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<UpstreamResult>>getArgument(2).get());
+    }
+
+    @Test
+    void processRaw_returnsUpstreamBytesAndHeadersUntouched() {
+        decide(ChaosDecision.noChaos());
+        byte[] binary = {(byte) 0x89, 'P', 'N', 'G', 0, (byte) 0xFF};
+        HttpHeaders upstreamHeaders = new HttpHeaders();
+        upstreamHeaders.setContentType(MediaType.IMAGE_PNG);
+        upstreamHeaders.add(HttpHeaders.SET_COOKIE, "a=1");
+        upstreamHeaders.add(HttpHeaders.SET_COOKIE, "b=2");
+        when(upstreamForwarder.forward(eq("GET"), eq(resolved), any(), any()))
+                .thenReturn(UpstreamResult.builder().status(200).body(binary).headers(upstreamHeaders).success(true).build());
+
+        ProxyResult result = service.processRaw(org, new ProxyCall("GET", URL, new HttpHeaders(), null)).join();
+
+        assertThat(result.getStatus()).isEqualTo(200);
+        assertThat(result.getBody()).isEqualTo(binary);
+        assertThat(result.getHeaders().get(HttpHeaders.SET_COOKIE)).containsExactly("a=1", "b=2");
+        assertThat(result.getHeaders().getFirst("X-Faultrix-Chaos-Injected")).isEqualTo("false");
+        assertThat(result.getHeaders().getFirst("X-Faultrix-Target")).isEqualTo("/v1/files/7");
+        verify(eventLogger).logDecision(eq(org), eq("/v1/files/7"), any(), anyString());
+    }
+
+    @Test
+    void processRaw_chaosErrorSkipsUpstream() {
+        decide(ChaosDecision.builder().shouldInjectChaos(true).chaosType(ChaosType.ERROR_5XX).errorCode(503).build());
+
+        ProxyResult result = service.processRaw(org, new ProxyCall("POST", URL, new HttpHeaders(), new byte[]{1, 2})).join();
+
+        assertThat(result.getStatus()).isEqualTo(503);
+        assertThat(result.getHeaders().getFirst("X-Faultrix-Chaos-Type")).isEqualTo("ERROR_5XX");
+        assertThat(new String(result.getBody(), StandardCharsets.UTF_8)).contains("CHAOS_INJECTED");
+        verify(upstreamForwarder, never()).forward(any(), any(), any(), any());
+    }
+
+    @Test
+    void process_envelopeStillWrapsBodyAsString() {
+        decide(ChaosDecision.builder().shouldInjectChaos(true).chaosType(ChaosType.CORRUPT_BODY).build());
+        HttpHeaders upstreamHeaders = new HttpHeaders();
+        upstreamHeaders.setContentType(MediaType.APPLICATION_JSON);
+        when(upstreamForwarder.forward(eq("GET"), eq(resolved), any(), any()))
+                .thenReturn(UpstreamResult.builder().status(200)
+                        .body("{\"ok\":true}".getBytes(StandardCharsets.UTF_8))
+                        .headers(upstreamHeaders).success(true).build());
+
+        ProxyRequest request = new ProxyRequest();
+        request.setMethod("GET");
+        request.setUrl(URL);
+        request.setHeaders(Map.of("Authorization", "Bearer x"));
+        ProxyResponse response = service.process(org, request).join();
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getBody()).startsWith("{\"o").contains("<<<FAULTRIX_CORRUPTED_").endsWith("true}");
+        assertThat(response.getHeaders()).containsEntry("X-Faultrix-Chaos-Type", "CORRUPT_BODY");
+        assertThat(response.isChaosInjected()).isTrue();
+    }
+
+    @Test
+    void processRaw_passesCompressedBodyThroughWithoutDecoding() throws Exception {
+        decide(ChaosDecision.noChaos());
+        byte[] gzipped = ContentCodingsTest.gzip("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+        HttpHeaders upstreamHeaders = new HttpHeaders();
+        upstreamHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        when(upstreamForwarder.forward(eq("GET"), eq(resolved), any(), any()))
+                .thenReturn(UpstreamResult.builder().status(200).body(gzipped).headers(upstreamHeaders).success(true).build());
+
+        HttpHeaders inbound = new HttpHeaders();
+        inbound.set(HttpHeaders.ACCEPT_ENCODING, "gzip, br");
+        ProxyResult result = service.processRaw(org, new ProxyCall("GET", URL, inbound, null)).join();
+
+        assertThat(result.getBody()).isEqualTo(gzipped);
+        assertThat(result.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        verify(upstreamForwarder).forward(eq("GET"), eq(resolved),
+                argThat(h -> "gzip, br".equals(h.getFirst(HttpHeaders.ACCEPT_ENCODING))), any());
+        // Envelope view of the same result is readable JSON
+        assertThat(result.toEnvelope().getBody()).isEqualTo("{\"ok\":true}");
+    }
+
+    @Test
+    void processRaw_corruptBodyAsksForIdentityAndInflatesStrayGzip() throws Exception {
+        decide(ChaosDecision.builder().shouldInjectChaos(true).chaosType(ChaosType.CORRUPT_BODY).build());
+        HttpHeaders upstreamHeaders = new HttpHeaders();
+        upstreamHeaders.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        when(upstreamForwarder.forward(eq("GET"), eq(resolved), any(), any()))
+                .thenReturn(UpstreamResult.builder().status(200)
+                        .body(ContentCodingsTest.gzip("{\"ok\":true}".getBytes(StandardCharsets.UTF_8)))
+                        .headers(upstreamHeaders).success(true).build());
+
+        HttpHeaders inbound = new HttpHeaders();
+        inbound.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ProxyResult result = service.processRaw(org, new ProxyCall("GET", URL, inbound, null)).join();
+
+        verify(upstreamForwarder).forward(eq("GET"), eq(resolved),
+                argThat(h -> !h.containsKey(HttpHeaders.ACCEPT_ENCODING)), any());
+        assertThat(result.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(new String(result.getBody(), StandardCharsets.UTF_8))
+                .startsWith("{\"o").contains("<<<FAULTRIX_CORRUPTED_").endsWith("true}");
+    }
+
+    @Test
+    void processRaw_latencyWaitsOnTimerBeforeForwarding() {
+        decide(ChaosDecision.builder().shouldInjectChaos(true).chaosType(ChaosType.LATENCY).delayMs(700).build());
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        when(proxyExecutor.delay(700)).thenReturn(timer);
+        when(upstreamForwarder.forward(eq("GET"), eq(resolved), any(), any()))
+                .thenReturn(UpstreamResult.builder().status(200).body(new byte[0]).headers(new HttpHeaders()).success(true).build());
+
+        CompletableFuture<ProxyResult> pending = service.processRaw(org, new ProxyCall("GET", URL, new HttpHeaders(), null));
+
+        // Nothing sleeps and nothing is forwarded until the timer fires
+        assertThat(pending).isNotDone();
+        verify(upstreamForwarder, never()).forward(any(), any(), any(), any());
+
+        timer.complete(null);
+        ProxyResult result = pending.join();
+        assertThat(result.getStatus()).isEqualTo(200);
+        assertThat(result.getHeaders().getFirst("X-Faultrix-Delay-Ms")).isEqualTo("700");
+    }
+
+    @Test
+    void processRaw_replayedLatencyIsParkedAsDeliberateDelay() {
+        decide(ChaosDecision.noChaos());
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        when(proxyExecutor.delay(450)).thenReturn(timer);
+        doReturn(UpstreamResult.builder().status(200).body(new byte[0]).headers(new HttpHeaders())
+                .success(true).replayDelayMs(450).build())
+                .when(responseRecorder).execute(any(), any(), any());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        try {
+            CompletableFuture<ProxyResult> pending =
+                    service.processRaw(org, new ProxyCall("GET", URL, new HttpHeaders(), null));
+
+            // No worker sleeps through the recorded latency, and the limiter does not sample it
+            assertThat(pending).isNotDone();
+            assertThat(request.getAttribute(ConcurrencyLimitFilter.class.getName() + ".skipSample")).isEqualTo(true);
+
+            timer.complete(null);
+            assertThat(pending.join().getStatus()).isEqualTo(200);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void decide(ChaosDecision decision) {
+        when(decisionEngine.decide(any(), anyString(), any())).thenReturn(decision);
+    }
+}
@@ -0,0 +1,26 @@
+package com.adit.mockDemo.proxy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProxyControllerTest {
+
+    @Test
+    void upstreamUrl_keepsEncodedPathAndQuery() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET",
+                "/api/v1/proxy/raw/https/api.example.com:8443/v1/a%2Fb/c%20d");
+        request.setQueryString("q=x%26y&limit=3");
+
+        assertThat(ProxyController.upstreamUrl(request))
+                .isEqualTo("https://api.example.com:8443/v1/a%2Fb/c%20d?q=x%26y&limit=3");
+    }
+
+    @Test
+    void upstreamUrl_defaultsToRootPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/proxy/raw/http/example.com");
+
+        assertThat(ProxyController.upstreamUrl(request)).isEqualTo("http://example.com/");
+    }
+}
@@ -0,0 +1,172 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.ProxyExecutorProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProxyExecutorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch      release  = new CountDownLatch(1);
+
+    private ProxyExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) executor.stop();
+        MDC.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void pipeline_seesCallersMdcAndRequest_beforeAndAfterDelay() throws Exception {
+        executor = executor(2, 0);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/proxy/forward");
+        request.setAttribute("currentOrganization", "acme");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        MDC.put("correlationId", "abc-123");
+
+        DeferredResult<String> result = executor.submit(() -> {
+            String before = context();
+            return executor.delay(20).thenApply(v -> {
+                // The original dispatch is long over, but the worker can still mark the request
+                RequestContextHolder.currentRequestAttributes()
+                        .setAttribute("marked", true, RequestAttributes.SCOPE_REQUEST);
+                return before + " | " + context();
+            });
+        });
+        ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).requestCompleted();
+
+        assertThat(await(result)).isEqualTo("abc-123/acme | abc-123/acme");
+        assertThat(request.getAttribute("marked")).isEqualTo(true);
+    }
+
+    @Test
+    void delay_holdsNoThread() throws Exception {
+        executor = executor(1, 0);
+
+        // One worker, many parked calls — all resume
+        CompletableFuture<?>[] delays = new CompletableFuture<?>[50];
+        for (int i = 0; i < delays.length; i++) {
+            delays[i] = executor.delay(30);
+        }
+        assertThat(registry.get("chaoslab.proxy.delayed").gauge().value()).isEqualTo(50);
+
+        CompletableFuture.allOf(delays).get(5, TimeUnit.SECONDS);
+        assertThat(registry.get("chaoslab.proxy.delayed").gauge().value()).isZero();
+    }
+
+    @Test
+    void parkedCalls_resumeInArrivalOrder_onceAWorkerFrees() throws Exception {
+        executor = executor(1, 0);
+        executor.submit(() -> CompletableFuture.completedFuture(await(release)));
+
+        List<Integer>          order  = new CopyOnWriteArrayList<>();
+        CompletableFuture<?>[] delays = new CompletableFuture<?>[10];
+        for (int i = 0; i < delays.length; i++) {
+            int id = i;
+            delays[i] = executor.delay(10).thenRun(() -> order.add(id));
+        }
+        Thread.sleep(100);
+        assertThat(order).isEmpty();
+
+        release.countDown();
+        CompletableFuture.allOf(delays).get(5, TimeUnit.SECONDS);
+        assertThat(order).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(registry.get("chaoslab.proxy.delayed").gauge().value()).isZero();
+    }
+
+    @Test
+    void parkedCall_neverResumesPastItsResponseDeadline() throws Exception {
+        executor = executor(1, 0, Duration.ofMillis(100));
+        AtomicBoolean forwarded = new AtomicBoolean();
+
+        DeferredResult<String> result = executor.submit(() ->
+                executor.delay(300).thenApply(v -> {
+                    forwarded.set(true);
+                    return "forwarded";
+                }));
+
+        assertThat(await(result)).isInstanceOf(AsyncRequestTimeoutException.class);
+        Thread.sleep(300);
+        assertThat(forwarded).isFalse();
+        assertThat(registry.get("chaoslab.proxy.delayed").gauge().value()).isZero();
+    }
+
+    @Test
+    void saturatedPool_rejectsAndCounts() {
+        executor = executor(1, 0);
+
+        executor.submit(() -> CompletableFuture.completedFuture(await(release)));
+
+        assertThatThrownBy(() -> executor.submit(() -> CompletableFuture.completedFuture("second")))
+                .isInstanceOf(TaskRejectedException.class);
+        assertThat(registry.get("chaoslab.proxy.executor.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedPipeline_surfacesTheCause() throws Exception {
+        executor = executor(1, 0);
+
+        DeferredResult<String> result = executor.submit(() ->
+                CompletableFuture.supplyAsync(() -> { throw new IllegalStateException("upstream gone"); }));
+
+        assertThat(await(result)).isInstanceOf(IllegalStateException.class);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static String context() {
+        return MDC.get("correlationId") + "/" + ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
+                .getRequest().getAttribute("currentOrganization");
+    }
+
+    private static Object await(DeferredResult<?> result) throws InterruptedException {
+        for (int i = 0; i < 500 && !result.hasResult(); i++) {
+            Thread.sleep(10);
+        }
+        return result.getResult();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private ProxyExecutor executor(int threads, int queue) {
+        return executor(threads, queue, Duration.ofSeconds(30));
+    }
+
+    private ProxyExecutor executor(int threads, int queue, Duration timeout) {
+        ProxyExecutorProperties properties = new ProxyExecutorProperties();
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queue);
+        properties.setTimeout(timeout);
+        return new ProxyExecutor(properties, registry);
+    }
+}
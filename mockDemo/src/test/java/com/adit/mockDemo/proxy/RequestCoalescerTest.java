@@ -0,0 +1,193 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.chaos.ChaosRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescerTest {
+
+    private static final String URL = "https://api.example.com/v1/items?page=2";
+
+    private final SimpleMeterRegistry registry  = new SimpleMeterRegistry();
+    private final RequestCoalescer    coalescer = new RequestCoalescer(registry);
+    private final ExecutorService     pool      = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalGets_shareOneUpstreamCall() throws Exception {
+        ChaosRule rule = rule("authorization");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger  calls   = new AtomicInteger();
+
+        List<Future<UpstreamResult>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(pool.submit(() -> coalescer.execute(rule, get("Bearer a"), () -> {
+                calls.incrementAndGet();
+                await(release);
+                return ok("shared");
+            })));
+        }
+        // Let all four reach the coalescer before the leader's call completes
+        awaitCount("follower", 3);
+        release.countDown();
+
+        int coalesced = 0;
+        for (Future<UpstreamResult> f : results) {
+            UpstreamResult result = f.get(5, TimeUnit.SECONDS);
+            assertThat(new String(result.getBody(), StandardCharsets.UTF_8)).isEqualTo("shared");
+            if (result.isCoalesced()) coalesced++;
+        }
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(coalesced).isEqualTo(3);
+        assertThat(registry.get("chaoslab.proxy.coalesce.ratio").gauge().value()).isEqualTo(0.75);
+        assertThat(registry.get("chaoslab.proxy.coalesce.inflight").gauge().value()).isZero();
+    }
+
+    @Test
+    void followers_getTheirOwnHeaderMap() throws Exception {
+        ChaosRule rule = rule(null);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<UpstreamResult> leader = pool.submit(() ->
+                coalescer.execute(rule, get(null), () -> { await(release); return ok("x"); }));
+        awaitCount("leader", 1);
+        Future<UpstreamResult> follower = pool.submit(() ->
+                coalescer.execute(rule, get(null), () -> ok("unused")));
+        awaitCount("follower", 1);
+        release.countDown();
+
+        HttpHeaders followerHeaders = follower.get(5, TimeUnit.SECONDS).getHeaders();
+        followerHeaders.set("X-Faultrix-Request-Id", "follower");
+        assertThat(leader.get(5, TimeUnit.SECONDS).getHeaders().containsKey("X-Faultrix-Request-Id")).isFalse();
+    }
+
+    @Test
+    void key_includesConfiguredHeadersAndAcceptEncoding_butNotOthers() {
+        ChaosRule rule = rule("authorization");
+
+        assertThat(RequestCoalescer.key(rule, get("Bearer a")))
+                .isNotEqualTo(RequestCoalescer.key(rule, get("Bearer b")));
+
+        ProxyCall gzip = get("Bearer a");
+        gzip.headers().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        assertThat(RequestCoalescer.key(rule, gzip)).isNotEqualTo(RequestCoalescer.key(rule, get("Bearer a")));
+
+        ProxyCall traced = get("Bearer a");
+        traced.headers().set("X-Trace-Id", "123");
+        assertThat(RequestCoalescer.key(rule, traced)).isEqualTo(RequestCoalescer.key(rule, get("Bearer a")));
+    }
+
+    @Test
+    void key_alwaysSeparatesCredentials_evenWhenTheRuleListsNoHeaders() {
+        ChaosRule rule = rule(null);
+
+        assertThat(RequestCoalescer.key(rule, get("Bearer a")))
+                .isNotEqualTo(RequestCoalescer.key(rule, get("Bearer b")));
+
+        ProxyCall alice = get(null);
+        alice.headers().set(HttpHeaders.COOKIE, "session=alice");
+        ProxyCall bob = get(null);
+        bob.headers().set(HttpHeaders.COOKIE, "session=bob");
+        assertThat(RequestCoalescer.key(rule, alice)).isNotEqualTo(RequestCoalescer.key(rule, bob));
+
+        // Listing a credential header again changes nothing
+        assertThat(RequestCoalescer.key(rule("Authorization"), get("Bearer a")))
+                .isEqualTo(RequestCoalescer.key(rule, get("Bearer a")));
+    }
+
+    @Test
+    void differentCredentials_neverShareAnUpstreamCall() throws Exception {
+        ChaosRule rule = rule(null);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger  calls   = new AtomicInteger();
+
+        Future<UpstreamResult> alice = pool.submit(() -> coalescer.execute(rule, get("Bearer alice"), () -> {
+            calls.incrementAndGet();
+            await(release);
+            return ok("alice");
+        }));
+        awaitCount("leader", 1);
+        Future<UpstreamResult> bob = pool.submit(() -> coalescer.execute(rule, get("Bearer bob"), () -> {
+            calls.incrementAndGet();
+            return ok("bob");
+        }));
+
+        assertThat(new String(bob.get(5, TimeUnit.SECONDS).getBody(), StandardCharsets.UTF_8)).isEqualTo("bob");
+        release.countDown();
+        assertThat(new String(alice.get(5, TimeUnit.SECONDS).getBody(), StandardCharsets.UTF_8)).isEqualTo("alice");
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(registry.get("chaoslab.proxy.coalesce.requests").tag("role", "follower").counter().count()).isZero();
+    }
+
+    @Test
+    void eligible_onlyForOptedInBodilessGets() {
+        ChaosRule rule = rule(null);
+
+        assertThat(RequestCoalescer.eligible(rule, get(null))).isTrue();
+        assertThat(RequestCoalescer.eligible(rule, new ProxyCall("POST", URL, new HttpHeaders(), null))).isFalse();
+        assertThat(RequestCoalescer.eligible(rule, new ProxyCall("GET", URL, new HttpHeaders(), new byte[]{1}))).isFalse();
+
+        rule.setCoalesceGets(false);
+        assertThat(RequestCoalescer.eligible(rule, get(null))).isFalse();
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static ChaosRule rule(String coalesceHeaders) {
+        return ChaosRule.builder()
+                .id(7L)
+                .target("/v1/items")
+                .coalesceGets(true)
+                .coalesceHeaders(coalesceHeaders)
+                .build();
+    }
+
+    private static ProxyCall get(String authorization) {
+        HttpHeaders headers = new HttpHeaders();
+        if (authorization != null) headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        return new ProxyCall("GET", URL, headers, null);
+    }
+
+    private static UpstreamResult ok(String body) {
+        return UpstreamResult.builder()
+                .status(200)
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .headers(new HttpHeaders())
+                .success(true)
+                .build();
+    }
+
+    private void awaitCount(String role, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("chaoslab.proxy.coalesce.requests").tag("role", role).counter().count() < expected) {
+            if (System.nanoTime() > deadline) throw new AssertionError("timed out waiting for " + role);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.ResourceSimulationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResourceSimulatorTest {
+
+    private final SimpleMeterRegistry           registry = new SimpleMeterRegistry();
+    private final ProxyExecutor                 executor = mock(ProxyExecutor.class);
+    private final List<CompletableFuture<Void>> timers   = new ArrayList<>();
+
+    private ResourceSimulationProperties properties;
+    private ResourceSimulator            simulator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResourceSimulationProperties();
+        properties.setCpuCores(2);
+        properties.setCpuDutyCycle(1.0);
+        properties.setMemoryBudget(DataSize.ofMegabytes(2));
+        properties.setMemoryChunk(DataSize.ofMegabytes(1));
+        when(executor.delay(anyLong())).thenAnswer(inv -> {
+            CompletableFuture<Void> timer = new CompletableFuture<>();
+            timers.add(timer);
+            return timer;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (simulator != null) simulator.stop();
+    }
+
+    @Test
+    void concurrentSpikes_burnOnlyTheConfiguredCores() throws Exception {
+        simulator = new ResourceSimulator(properties, executor, registry);
+
+        for (int i = 0; i < 100; i++) {
+            simulator.cpuSpike(200);
+        }
+
+        awaitUntil(() -> gauge("chaoslab.simulation.cpu.burning") == 2);
+        for (int i = 0; i < 10; i++) {
+            assertThat(gauge("chaoslab.simulation.cpu.burning")).isLessThanOrEqualTo(2);
+            Thread.sleep(5);
+        }
+
+        // Burn window ends on its own; the requests waited on timers the whole time
+        awaitUntil(() -> gauge("chaoslab.simulation.cpu.burning") == 0);
+        assertThat(timers).hasSize(100).noneMatch(CompletableFuture::isDone);
+    }
+
+    @Test
+    void cpuSpike_usesDefaultAndCap() {
+        simulator = new ResourceSimulator(properties, executor, registry);
+
+        simulator.cpuSpike(0);
+        simulator.cpuSpike(60_000);
+
+        verify(executor).delay(500);
+        verify(executor).delay(3000);
+    }
+
+    @Test
+    void memoryPressure_staysWithinBudget_andReusesBuffers() {
+        simulator = new ResourceSimulator(properties, executor, registry);
+        long chunk = DataSize.ofMegabytes(1).toBytes();
+
+        List<CompletableFuture<Void>> calls = List.of(
+                simulator.memoryPressure(), simulator.memoryPressure(), simulator.memoryPressure());
+
+        assertThat(gauge("chaoslab.simulation.memory.held")).isEqualTo(2.0 * chunk);
+        assertThat(registry.get("chaoslab.simulation.memory.saturated").counter().count()).isEqualTo(1);
+        assertThat(calls).noneMatch(CompletableFuture::isDone);
+
+        timers.forEach(timer -> timer.complete(null));
+        assertThat(gauge("chaoslab.simulation.memory.held")).isZero();
+
+        simulator.memoryPressure();
+        simulator.memoryPressure();
+        assertThat(gauge("chaoslab.simulation.memory.held")).isEqualTo(2.0 * chunk);
+        assertThat(gauge("chaoslab.simulation.memory.allocated")).isEqualTo(2.0 * chunk);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
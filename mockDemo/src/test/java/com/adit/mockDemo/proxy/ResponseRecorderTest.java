@@ -0,0 +1,155 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.ProxyRecordingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseRecorderTest {
+
+    private static final long   ORG = 1L;
+    private static final String URL = "https://api.example.com/v1/charges?limit=3";
+
+    @TempDir Path dir;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ProxyRecordingProperties properties;
+    private ResponseRecorder         recorder;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProxyRecordingProperties();
+        properties.setDir(dir.toString());
+        properties.setCapacity(DataSize.ofKilobytes(64));
+        properties.setSamplesPerRequest(4);
+        recorder = new ResponseRecorder(properties, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.close();
+    }
+
+    @Test
+    void off_byDefault_alwaysForwards() {
+        AtomicInteger calls = new AtomicInteger();
+
+        recorder.execute(ORG, get(), () -> { calls.incrementAndGet(); return upstream("a", 10); });
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(recorder.status(ORG).mode()).isEqualTo(ResponseRecorder.Mode.OFF);
+    }
+
+    @Test
+    void replay_servesRecordedResponsesWithRecordedLatency_withoutForwarding() {
+        recorder.setMode(ORG, ResponseRecorder.Mode.RECORD);
+        recorder.execute(ORG, get(), () -> upstream("first", 120));
+        recorder.execute(ORG, get(), () -> upstream("second", 340));
+
+        recorder.setMode(ORG, ResponseRecorder.Mode.REPLAY);
+        Set<String>  bodies = new HashSet<>();
+        Set<Integer> delays = new HashSet<>();
+        for (int i = 0; i < 50; i++) {
+            UpstreamResult result = recorder.execute(ORG, get(), () -> {
+                throw new AssertionError("replay must not reach the upstream");
+            });
+            assertThat(result.getStatus()).isEqualTo(200);
+            assertThat(result.getHeaders().getFirst("X-Faultrix-Replay")).isEqualTo("hit");
+            assertThat(result.getHeaders().get(HttpHeaders.SET_COOKIE)).containsExactly("a=1", "b=2");
+            bodies.add(new String(result.getBody(), StandardCharsets.UTF_8));
+            delays.add(result.getReplayDelayMs());
+        }
+
+        // The latency is handed back for the caller to park, not slept here
+        assertThat(bodies).containsExactlyInAnyOrder("first", "second");
+        assertThat(delays).containsExactlyInAnyOrder(120, 340);
+    }
+
+    @Test
+    void replay_missReturns502() {
+        recorder.setMode(ORG, ResponseRecorder.Mode.REPLAY);
+
+        UpstreamResult result = recorder.execute(ORG, get(), () -> upstream("unused", 0));
+
+        assertThat(result.getStatus()).isEqualTo(502);
+        assertThat(result.getHeaders().getFirst("X-Faultrix-Replay")).isEqualTo("miss");
+    }
+
+    @Test
+    void recordings_andMode_surviveReopen() {
+        recorder.setMode(ORG, ResponseRecorder.Mode.RECORD);
+        recorder.execute(ORG, get(), () -> upstream("kept", 55));
+        recorder.setMode(ORG, ResponseRecorder.Mode.REPLAY);
+        recorder.close();
+
+        ResponseRecorder reopened = new ResponseRecorder(properties, new SimpleMeterRegistry());
+        try {
+            assertThat(reopened.status(ORG).mode()).isEqualTo(ResponseRecorder.Mode.REPLAY);
+            UpstreamResult result = reopened.execute(ORG, get(), () -> upstream("unused", 0));
+            assertThat(new String(result.getBody(), StandardCharsets.UTF_8)).isEqualTo("kept");
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void record_isBoundedPerFingerprint_andSkipsFailuresThatNeverReachedUpstream() {
+        recorder.setMode(ORG, ResponseRecorder.Mode.RECORD);
+        for (int i = 0; i < 6; i++) {
+            recorder.execute(ORG, get(), () -> upstream("x", 1));
+        }
+        recorder.execute(ORG, new ProxyCall("GET", URL + "&page=2", new HttpHeaders(), null),
+                () -> UpstreamResult.builder().status(502).body(new byte[0]).headers(new HttpHeaders()).build());
+
+        assertThat(recorder.status(ORG).samples()).isEqualTo(4);
+        assertThat(recorder.status(ORG).requests()).isEqualTo(1);
+        assertThat(registry.get("chaoslab.proxy.recording.skipped").tag("reason", "saturated").counter().count())
+                .isEqualTo(2);
+
+        recorder.clear(ORG);
+        assertThat(recorder.status(ORG).samples()).isZero();
+    }
+
+    @Test
+    void fingerprint_includesBodyAndAcceptEncoding() {
+        ProxyCall post1 = new ProxyCall("POST", URL, new HttpHeaders(), "{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        ProxyCall post2 = new ProxyCall("POST", URL, new HttpHeaders(), "{\"a\":2}".getBytes(StandardCharsets.UTF_8));
+        ProxyCall gzip  = get();
+        gzip.headers().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        assertThat(ResponseRecorder.fingerprint(post1)).isNotEqualTo(ResponseRecorder.fingerprint(post2));
+        assertThat(ResponseRecorder.fingerprint(gzip)).isNotEqualTo(ResponseRecorder.fingerprint(get()));
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private static ProxyCall get() {
+        return new ProxyCall("GET", URL, new HttpHeaders(), null);
+    }
+
+    private static UpstreamResult upstream(String body, long latencyMs) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.SET_COOKIE, "a=1");
+        headers.add(HttpHeaders.SET_COOKIE, "b=2");
+        return UpstreamResult.builder()
+                .status(200)
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .headers(headers)
+                .success(true)
+                .upstreamLatencyMs(latencyMs)
+                .build();
+    }
+}
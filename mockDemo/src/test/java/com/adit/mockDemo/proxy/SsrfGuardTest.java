@@ -0,0 +1,96 @@
+package com.adit.mockDemo.proxy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SsrfGuardTest {
+
+    private final AtomicLong          nanos   = new AtomicLong();
+    private final AtomicInteger       lookups = new AtomicInteger();
+    private final Map<String, String> dns     = new HashMap<>();
+
+    private SsrfGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new SsrfGuard(host -> {
+            lookups.incrementAndGet();
+            String ip = dns.get(host);
+            if (ip == null) throw new UnknownHostException(host);
+            return new InetAddress[]{ InetAddress.getByName(ip) };
+        }, Duration.ofSeconds(30), Duration.ofSeconds(5), nanos::get);
+    }
+
+    @Test
+    void validate_returnsCheckedAddressesAndDefaultPort() throws Exception {
+        dns.put("api.example.com", "93.184.216.34");
+
+        SsrfGuard.ResolvedTarget target = guard.validate("https://api.example.com/users?id=1");
+
+        assertThat(target.host()).isEqualTo("api.example.com");
+        assertThat(target.port()).isEqualTo(443);
+        assertThat(target.addresses()).containsExactly(InetAddress.getByName("93.184.216.34"));
+        assertThat(target.isResolved()).isTrue();
+    }
+
+    @Test
+    void validate_cachesResolutionUntilTtl() {
+        dns.put("api.example.com", "93.184.216.34");
+
+        guard.validate("http://api.example.com/a");
+        guard.validate("http://API.example.com:8080/b");
+        assertThat(lookups).hasValue(1);
+
+        advance(Duration.ofSeconds(31));
+        guard.validate("http://api.example.com/a");
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void validate_cachesFailedLookupsForNegativeTtl() {
+        SsrfGuard.ResolvedTarget target = guard.validate("http://missing.example.com/");
+        guard.validate("http://missing.example.com/");
+
+        assertThat(target.isResolved()).isFalse();
+        assertThat(lookups).hasValue(1);
+
+        dns.put("missing.example.com", "93.184.216.34");
+        advance(Duration.ofSeconds(6));
+        assertThat(guard.validate("http://missing.example.com/").isResolved()).isTrue();
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    void validate_blocksPrivateAnswerEvenWhenCached() {
+        dns.put("rebind.example.com", "10.0.0.7");
+
+        assertThatThrownBy(() -> guard.validate("http://rebind.example.com/"))
+                .isInstanceOf(SsrfGuard.SsrfException.class);
+        assertThatThrownBy(() -> guard.validate("http://rebind.example.com/"))
+                .isInstanceOf(SsrfGuard.SsrfException.class);
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void validate_blockedHostnameNeverResolved() {
+        assertThatThrownBy(() -> guard.validate("http://metadata.google.internal/computeMetadata"))
+                .isInstanceOf(SsrfGuard.SsrfException.class);
+        assertThat(lookups).hasValue(0);
+    }
+
+    private void advance(Duration d) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(d.toMillis()));
+    }
+}
@@ -0,0 +1,112 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.UpstreamResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamCircuitBreakersTest {
+
+    private static final String UPSTREAM = "api.example.com:443";
+
+    private final AtomicLong          now      = new AtomicLong(1_000_000);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private UpstreamResilienceProperties properties;
+    private UpstreamCircuitBreakers      breakers;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UpstreamResilienceProperties();
+        properties.setMaxConcurrent(2);
+        properties.setSlidingWindowSize(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenProbes(2);
+        breakers = new UpstreamCircuitBreakers(properties, registry, now::get);
+    }
+
+    @Test
+    void opensOnceFailureRateCrossesThreshold() throws Exception {
+        call(false);
+        call(true);
+        call(false);
+        assertThat(breakers.state(UPSTREAM)).isEqualTo(UpstreamCircuitBreakers.State.CLOSED);
+
+        call(true);   // 2 of 4 failed
+        assertThat(breakers.state(UPSTREAM)).isEqualTo(UpstreamCircuitBreakers.State.OPEN);
+
+        assertThatThrownBy(() -> breakers.acquire(UPSTREAM))
+                .isInstanceOf(UpstreamCircuitBreakers.RejectedException.class)
+                .satisfies(e -> {
+                    UpstreamCircuitBreakers.RejectedException r = (UpstreamCircuitBreakers.RejectedException) e;
+                    assertThat(r.getReason()).isEqualTo("circuit-open");
+                    assertThat(r.getRetryAfterMs()).isEqualTo(10_000);
+                });
+        assertThat(registry.get("chaoslab.proxy.upstream.rejected").tag("reason", "circuit_open").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("chaoslab.proxy.upstream.circuit.state").tag("upstream", UPSTREAM).gauge().value())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void halfOpenProbesCloseTheCircuitWhenTheyAllSucceed() throws Exception {
+        tripOpen();
+        now.addAndGet(10_000);
+
+        UpstreamCircuitBreakers.Permit first  = breakers.acquire(UPSTREAM);
+        UpstreamCircuitBreakers.Permit second = breakers.acquire(UPSTREAM);
+        assertThat(breakers.state(UPSTREAM)).isEqualTo(UpstreamCircuitBreakers.State.HALF_OPEN);
+        assertThatThrownBy(() -> breakers.acquire(UPSTREAM))
+                .isInstanceOf(UpstreamCircuitBreakers.RejectedException.class);
+
+        first.release(false);
+        second.release(false);
+        assertThat(breakers.state(UPSTREAM)).isEqualTo(UpstreamCircuitBreakers.State.CLOSED);
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() throws Exception {
+        tripOpen();
+        now.addAndGet(10_000);
+
+        breakers.acquire(UPSTREAM).release(true);
+
+        assertThat(breakers.state(UPSTREAM)).isEqualTo(UpstreamCircuitBreakers.State.OPEN);
+        assertThatThrownBy(() -> breakers.acquire(UPSTREAM))
+                .isInstanceOf(UpstreamCircuitBreakers.RejectedException.class);
+    }
+
+    @Test
+    void bulkheadRejectsBeyondMaxConcurrent() throws Exception {
+        UpstreamCircuitBreakers.Permit a = breakers.acquire(UPSTREAM);
+        breakers.acquire(UPSTREAM);
+
+        assertThatThrownBy(() -> breakers.acquire(UPSTREAM))
+                .isInstanceOf(UpstreamCircuitBreakers.RejectedException.class)
+                .hasMessage("bulkhead-full");
+        // Other upstreams are unaffected
+        breakers.acquire("other.example.com:443").release(false);
+
+        a.release(false);
+        breakers.acquire(UPSTREAM).release(false);
+        assertThat(registry.get("chaoslab.proxy.upstream.rejected").tag("reason", "bulkhead_full").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    private void tripOpen() throws Exception {
+        for (int i = 0; i < 4; i++) call(true);
+        assertThat(breakers.state(UPSTREAM)).isEqualTo(UpstreamCircuitBreakers.State.OPEN);
+    }
+
+    private void call(boolean failed) throws Exception {
+        breakers.acquire(UPSTREAM).release(failed);
+    }
+}
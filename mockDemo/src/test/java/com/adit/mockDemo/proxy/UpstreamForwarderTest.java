@@ -0,0 +1,68 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.UpstreamResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class UpstreamForwarderTest {
+
+    private static final String UPSTREAM = "api.example.com:443";
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private UpstreamCircuitBreakers  breakers;
+    private UpstreamForwarder        forwarder;
+    private SsrfGuard.ResolvedTarget target;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        UpstreamResilienceProperties properties = new UpstreamResilienceProperties();
+        properties.setMaxConcurrent(2);
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenProbes(1);
+        breakers  = new UpstreamCircuitBreakers(properties, new SimpleMeterRegistry(), now::get);
+        forwarder = new UpstreamForwarder(breakers, mock(UpstreamHedger.class));
+        target    = new SsrfGuard.ResolvedTarget(URI.create("https://api.example.com/v1/users"),
+                "api.example.com", 443, List.of(InetAddress.getByName("93.184.216.34")));
+    }
+
+    @Test
+    void unsupportedMethod_isRejectedWithoutTakingABulkheadSlot() {
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> forwarder.forward("TRACE", target, new HttpHeaders(), null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("TRACE");
+        }
+
+        assertThat(breakers.availablePermits(UPSTREAM)).isEqualTo(2);
+    }
+
+    @Test
+    void unsupportedMethod_doesNotStrandAHalfOpenProbe() throws Exception {
+        for (int i = 0; i < 4; i++) breakers.acquire(UPSTREAM).release(true);
+        now.addAndGet(10_000);
+
+        assertThatThrownBy(() -> forwarder.forward("PROPFIND", target, new HttpHeaders(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // The single probe slot is still free for a real call
+        breakers.acquire(UPSTREAM).release(false);
+        assertThat(breakers.state(UPSTREAM)).isEqualTo(UpstreamCircuitBreakers.State.CLOSED);
+        assertThat(breakers.availablePermits(UPSTREAM)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,164 @@
+package com.adit.mockDemo.proxy;
+
+import com.adit.mockDemo.config.UpstreamHedgeProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpstreamHedgerTest {
+
+    private static final String UPSTREAM = "api.example.com:443";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService     pool     = Executors.newCachedThreadPool();
+    private final CountDownLatch      slow     = new CountDownLatch(1);
+
+    private UpstreamHedgeProperties properties;
+    private UpstreamHedger          hedger;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UpstreamHedgeProperties();
+        properties.setMinSamples(3);
+        properties.setPercentile(0.5);
+        properties.setMinDelay(Duration.ofMillis(1));
+        hedger = new UpstreamHedger(properties, registry, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slow.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void learnsThresholdBeforeHedging() {
+        learn(20, 30, 40);
+
+        assertThat(hedger.thresholdMs(UPSTREAM)).isEqualTo(30);
+        assertThat(counter("chaoslab.proxy.hedge.sent")).isZero();
+    }
+
+    @Test
+    void slowFirstAttempt_isHedged_andFasterSecondWins() {
+        learn(20, 20, 20);
+        AtomicInteger attempt = new AtomicInteger();
+
+        UpstreamResult result = hedger.execute(UPSTREAM, () -> attempt.incrementAndGet() == 1
+                ? slowAnswer("first")
+                : answer("second", 5));
+
+        assertThat(body(result)).isEqualTo("second");
+        assertThat(attempt.get()).isEqualTo(2);
+        assertThat(counter("chaoslab.proxy.hedge.sent")).isEqualTo(1);
+        assertThat(counter("chaoslab.proxy.hedge.wins")).isEqualTo(1);
+    }
+
+    @Test
+    void fastFirstAttempt_isNotHedged() {
+        learn(200, 200, 200);
+        AtomicInteger attempt = new AtomicInteger();
+
+        UpstreamResult result = hedger.execute(UPSTREAM, () -> {
+            attempt.incrementAndGet();
+            return answer("only", 3);
+        });
+
+        assertThat(body(result)).isEqualTo("only");
+        assertThat(attempt.get()).isEqualTo(1);
+        assertThat(counter("chaoslab.proxy.hedge.sent")).isZero();
+    }
+
+    @Test
+    void exhaustedBudget_skipsHedge() {
+        properties.setBudgetBurst(0);
+        properties.setBudgetRatio(0.0);
+        hedger = new UpstreamHedger(properties, registry, pool);
+        learn(10, 10, 10);
+        AtomicInteger attempt = new AtomicInteger();
+
+        pool.submit(() -> {
+            sleep(50);
+            slow.countDown();
+        });
+        UpstreamResult result = hedger.execute(UPSTREAM, () -> {
+            attempt.incrementAndGet();
+            return slowAnswer("first");
+        });
+
+        assertThat(body(result)).isEqualTo("first");
+        assertThat(attempt.get()).isEqualTo(1);
+        assertThat(registry.get("chaoslab.proxy.hedge.skipped").tag("reason", "budget").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void hedgeThatNeverReachedUpstream_doesNotBeatRealAnswer() {
+        learn(10, 10, 10);
+        AtomicInteger attempt = new AtomicInteger();
+
+        UpstreamResult result = hedger.execute(UPSTREAM, () -> {
+            if (attempt.incrementAndGet() == 1) return slowAnswer("first");
+            slow.countDown();   // rejected instantly, then let the first one finish
+            return UpstreamResult.builder().status(503).body(new byte[0]).headers(new HttpHeaders()).build();
+        });
+
+        assertThat(body(result)).isEqualTo("first");
+        assertThat(counter("chaoslab.proxy.hedge.wins")).isZero();
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    private void learn(long... latenciesMs) {
+        for (long latency : latenciesMs) {
+            hedger.execute(UPSTREAM, () -> answer("learn", latency));
+        }
+    }
+
+    private UpstreamResult slowAnswer(String body) {
+        try {
+            slow.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return answer(body, 500);
+    }
+
+    private static UpstreamResult answer(String body, long latencyMs) {
+        return UpstreamResult.builder()
+                .status(200)
+                .body(body.getBytes(StandardCharsets.UTF_8))
+                .headers(new HttpHeaders())
+                .success(true)
+                .upstreamLatencyMs(latencyMs)
+                .build();
+    }
+
+    private static String body(UpstreamResult result) {
+        return new String(result.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private double counter(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
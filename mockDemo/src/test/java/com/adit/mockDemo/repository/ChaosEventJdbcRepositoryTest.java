@@ -0,0 +1,73 @@
+package com.adit.mockDemo.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChaosEventJdbcRepositoryTest {
+
+    @Test
+    void buildPageSql_onlyOrg_emitsNoOptionalPredicates() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        String sql = ChaosEventJdbcRepository.buildPageSql(
+                ChaosEventJdbcRepository.EventQuery.builder().orgId(1L).limit(51).build(), params);
+
+        assertThat(sql).contains("WHERE e.organization_id = :orgId")
+                .doesNotContain(":target", ":from", ":to", ":injected", ":afterId", "OFFSET", "IS NULL");
+        assertThat(sql).contains("ORDER BY e.occurred_at DESC, e.id DESC LIMIT :limit");
+        assertThat(params.getParameterNames()).containsExactlyInAnyOrder("orgId", "limit");
+    }
+
+    @Test
+    void buildPageSql_allFiltersAndCursor_emitsEachPredicate() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        String sql = ChaosEventJdbcRepository.buildPageSql(ChaosEventJdbcRepository.EventQuery.builder()
+                .orgId(1L)
+                .target("/api/v1/users")
+                .from(now.minusSeconds(3600))
+                .to(now)
+                .injected(true)
+                .afterOccurredAt(Timestamp.from(now))
+                .afterId(42L)
+                .limit(51)
+                .build(), params);
+
+        assertThat(sql).contains("e.target = :target", "e.occurred_at >= :from", "e.occurred_at <= :to",
+                "e.injected = :injected", "(e.occurred_at, e.id) < (:afterOccurredAt, :afterId)");
+        assertThat(params.getValue("afterId")).isEqualTo(42L);
+    }
+
+    @Test
+    void buildPageSql_legacyPage_usesOffset() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        String sql = ChaosEventJdbcRepository.buildPageSql(
+                ChaosEventJdbcRepository.EventQuery.builder().orgId(1L).offset(100).limit(51).build(), params);
+
+        assertThat(sql).endsWith("OFFSET :offset");
+        assertThat(params.getValue("offset")).isEqualTo(100);
+    }
+
+    @Test
+    void buildExportSql_ignoresPagingAndOrdersOldestFirst() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        String sql = ChaosEventJdbcRepository.buildExportSql(ChaosEventJdbcRepository.EventQuery.builder()
+                .orgId(1L)
+                .injected(false)
+                .afterId(42L)
+                .afterOccurredAt(Timestamp.from(Instant.now()))
+                .limit(51)
+                .build(), params);
+
+        assertThat(sql).contains("e.injected = :injected").endsWith("ORDER BY e.occurred_at ASC, e.id ASC")
+                .doesNotContain("LIMIT", ":afterId");
+    }
+}
@@ -0,0 +1,116 @@
+package com.adit.mockDemo.security;
+
+import com.adit.mockDemo.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+
+    private ConcurrencyLimitProperties properties;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(100);
+        properties.setWindow(Duration.ofMillis(100));
+        properties.setMinWindowSamples(5);
+        properties.setLongWindows(10);
+        limiter = new AdaptiveConcurrencyLimiter("test", properties, now::get);
+    }
+
+    @Test
+    void rejectsOnceLimitIsReached() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(10 * MS, true);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(20);
+    }
+
+    @Test
+    void growsWhileLatencyStaysFlatUnderFullLoad() {
+        for (int w = 0; w < 20; w++) {
+            window(limiter.getLimit(), 10 * MS);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(30);
+    }
+
+    @Test
+    void shrinksWhenLatencyClimbsAboveBaseline() {
+        for (int w = 0; w < 5; w++) {
+            window(limiter.getLimit(), 10 * MS);
+        }
+        int before = limiter.getLimit();
+
+        for (int w = 0; w < 10; w++) {
+            window(limiter.getLimit(), 200 * MS);   // queueing
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(before / 2);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(properties.getMinLimit());
+    }
+
+    @Test
+    void appLimitedWindows_doNotMoveTheLimit() {
+        for (int w = 0; w < 20; w++) {
+            window(3, 10 * MS);   // only 3 of 20 permits ever used
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void unsampledReleases_leaveTheLimitAlone() {
+        for (int w = 0; w < 5; w++) {
+            window(limiter.getLimit(), 10 * MS);
+        }
+        int before = limiter.getLimit();
+
+        for (int w = 0; w < 10; w++) {
+            fill(limiter.getLimit());
+            now.addAndGet(200 * MS);
+            release(limiter.getInFlight(), 5_000 * MS, false);   // chaos-delayed
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(before);
+    }
+
+    // ── Helpers ──────────────────────────────────────────────────────────────
+
+    /** One sampling window with {@code concurrency} requests in flight at once. */
+    private void window(int concurrency, long latencyNanos) {
+        int acquired = fill(concurrency);
+        now.addAndGet(properties.getWindow().toNanos());
+        release(acquired, latencyNanos, true);
+    }
+
+    private int fill(int concurrency) {
+        int acquired = 0;
+        while (acquired < Math.max(concurrency, properties.getMinWindowSamples()) && limiter.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    private void release(int count, long latencyNanos, boolean sample) {
+        for (int i = 0; i < count; i++) {
+            limiter.release(latencyNanos, sample);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.adit.mockDemo.security;
+
+import com.adit.mockDemo.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        filter = new ConcurrencyLimitFilter(properties, registry);
+    }
+
+    @Test
+    void overLimit_shedsWithFast503AndRetryAfter() throws Exception {
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+
+        // While the first proxy request is in flight, a second one arrives
+        FilterChain holding = (req, res) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/proxy/forward"), shed, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/proxy/forward"), new MockHttpServletResponse(), holding);
+
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(shed.getContentAsString()).contains("OVERLOADED");
+        assertThat(registry.get("chaoslab.concurrency.rejected").tag("limiter", "proxy").counter().count()).isEqualTo(1);
+        assertThat(registry.get("chaoslab.concurrency.inflight").tag("limiter", "proxy").gauge().value()).isZero();
+    }
+
+    @Test
+    void proxyAndManagementHaveSeparateLimits() throws Exception {
+        MockHttpServletResponse management = new MockHttpServletResponse();
+
+        FilterChain holding = (req, res) ->
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/chaos/control/kill"), management, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/proxy/forward"), new MockHttpServletResponse(), holding);
+
+        assertThat(management.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void asyncProxyCall_holdsPermitUntilResponseCompletes() throws Exception {
+        MockHttpServletRequest proxied = new MockHttpServletRequest("POST", "/api/v1/proxy/forward");
+        proxied.setAsyncSupported(true);
+
+        filter.doFilter(proxied, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(registry.get("chaoslab.concurrency.inflight").tag("limiter", "proxy").gauge().value()).isEqualTo(1);
+        proxied.getAsyncContext().complete();
+        assertThat(registry.get("chaoslab.concurrency.inflight").tag("limiter", "proxy").gauge().value()).isZero();
+    }
+
+    @Test
+    void parkedProxyCall_returnsPermitEarly_andOnlyOnce() throws Exception {
+        MockHttpServletRequest proxied = new MockHttpServletRequest("GET", "/api/v1/proxy/forward");
+        proxied.setAsyncSupported(true);
+
+        filter.doFilter(proxied, new MockHttpServletResponse(), (req, res) -> {
+            req.startAsync();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(proxied));
+            try {
+                ConcurrencyLimitFilter.releasePermit();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+
+        assertThat(registry.get("chaoslab.concurrency.inflight").tag("limiter", "proxy").gauge().value()).isZero();
+        proxied.getAsyncContext().complete();
+        assertThat(registry.get("chaoslab.concurrency.inflight").tag("limiter", "proxy").gauge().value()).isZero();
+    }
+
+    @Test
+    void systemEndpoints_areNeverShed() throws Exception {
+        MockHttpServletResponse health = new MockHttpServletResponse();
+
+        FilterChain holding = (req, res) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/system/health"), health, new MockFilterChain());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/chaos/rules"), new MockHttpServletResponse(), holding);
+
+        assertThat(health.getStatus()).isEqualTo(200);
+    }
+}
@@ -1,30 +1,63 @@
 package com.adit.mockDemo.service;
 
+import com.adit.mockDemo.analytics.EventSketchStore;
+import com.adit.mockDemo.analytics.SpaceSavingSketch;
 import com.adit.mockDemo.chaos.execution.ChaosDecision;
 import com.adit.mockDemo.chaos.execution.ChaosType;
+import com.adit.mockDemo.chaos.runtime.SkippedEventCounter;
+import com.adit.mockDemo.dto.ChaosAnalyticsResponse;
 import com.adit.mockDemo.entity.ChaosEvent;
 import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.dto.ChaosEventResponse;
+import com.adit.mockDemo.dto.PageResponse;
+import com.adit.mockDemo.exception.ValidationException;
+import com.adit.mockDemo.repository.ChaosEventJdbcRepository;
 import com.adit.mockDemo.repository.ChaosEventRepository;
 import com.adit.mockDemo.repository.ChaosRuleRepository;
+import com.adit.mockDemo.repository.ChaosSkipCountJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ChaosEventServiceTest {
 
-    @Mock private ChaosEventRepository eventRepository;
-    @Mock private ChaosRuleRepository  ruleRepository;
+    @Mock private ChaosEventRepository         eventRepository;
+    @Mock private ChaosEventJdbcRepository     eventJdbcRepository;
+    @Mock private ChaosRuleRepository          ruleRepository;
+    @Mock private ChaosSkipCountJdbcRepository skipCountRepository;
+    @Mock private SkippedEventCounter          skippedEventCounter;
+    @Mock private EventSketchStore             eventSketchStore;
+    @Spy  private ObjectMapper                 objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     @InjectMocks
     private ChaosEventService service;
@@ -93,4 +126,171 @@ class ChaosEventServiceTest {
         // Must NOT throw — event persistence failure cannot crash the request thread
         service.recordEvent(testOrg, "/api/v1/users", "req-003", decision, false);
     }
-}
\ No newline at end of file
+
+    // ── Event history (keyset pagination) ────────────────────────────────────
+
+    @Test
+    void getEvents_extraRowReturned_setsHasMoreAndTrimsPage() {
+        when(eventJdbcRepository.findPage(any())).thenReturn(events(10, 8, 6));
+
+        PageResponse<ChaosEventResponse> page = service.getEvents(testOrg, null, null, null, null, 2, null, 0);
+
+        assertThat(page.getData()).extracting(ChaosEventResponse::getId).containsExactly(10L, 8L);
+        assertThat(page.getPagination().getHasMore()).isTrue();
+        assertThat(page.getPagination().getNextCursor()).isEqualTo(8L);
+    }
+
+    @Test
+    void getEvents_lastPage_hasNoCursor() {
+        when(eventJdbcRepository.findPage(any())).thenReturn(events(4, 2));
+
+        PageResponse<ChaosEventResponse> page = service.getEvents(testOrg, null, null, null, null, 2, null, 0);
+
+        assertThat(page.getPagination().getHasMore()).isFalse();
+        assertThat(page.getPagination().getNextCursor()).isNull();
+    }
+
+    @Test
+    void getEvents_withCursor_continuesAfterCursorRow() {
+        Timestamp cursorAt = Timestamp.from(Instant.parse("2026-01-01T00:00:00Z"));
+        when(eventJdbcRepository.findOccurredAt(1L, 8L)).thenReturn(Optional.of(cursorAt));
+        when(eventJdbcRepository.findPage(any())).thenReturn(events(6));
+
+        service.getEvents(testOrg, "/api/v1/users", null, null, true, 2, 8L, 5);
+
+        ArgumentCaptor<ChaosEventJdbcRepository.EventQuery> captor =
+                ArgumentCaptor.forClass(ChaosEventJdbcRepository.EventQuery.class);
+        verify(eventJdbcRepository).findPage(captor.capture());
+        ChaosEventJdbcRepository.EventQuery query = captor.getValue();
+        assertThat(query.getAfterOccurredAt()).isEqualTo(cursorAt);
+        assertThat(query.getAfterId()).isEqualTo(8L);
+        assertThat(query.getOffset()).isZero();   // page is ignored once a cursor is given
+        assertThat(query.getLimit()).isEqualTo(3);
+        assertThat(query.getTarget()).isEqualTo("/api/v1/users");
+    }
+
+    @Test
+    void getEvents_unknownCursor_throwsValidation() {
+        when(eventJdbcRepository.findOccurredAt(1L, 99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getEvents(testOrg, null, null, null, null, 50, 99L, 0))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void getEvents_limitClampedToMax() {
+        when(eventJdbcRepository.findPage(any())).thenReturn(List.of());
+
+        PageResponse<ChaosEventResponse> page = service.getEvents(testOrg, null, null, null, null, 10_000, null, 0);
+
+        assertThat(page.getPagination().getLimit()).isEqualTo(ChaosEventService.MAX_PAGE_SIZE);
+    }
+
+    // ── Analytics ────────────────────────────────────────────────────────────
+
+    @Test
+    void getAnalytics_injectionRateUsesExactSkipCounts() {
+        when(eventRepository.countInjectedBetween(eq(testOrg), any(), any())).thenReturn(250L);
+        when(skipCountRepository.sumSkipped(eq(1L), any(), any())).thenReturn(700L);
+        when(skippedEventCounter.pending(eq(1L), any(), any())).thenReturn(50L);
+        when(skipCountRepository.findHourlySkipped(eq(1L), any())).thenReturn(Map.of(9, 40L, 10, 5L));
+        when(eventRepository.findHourlyTimeSeries(anyLong(), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{10, 12L, 12L, 80.0}));
+
+        ChaosAnalyticsResponse analytics = service.getAnalytics(testOrg, "24h");
+
+        assertThat(analytics.getSkippedCount()).isEqualTo(750L);
+        assertThat(analytics.getTotalEvents()).isEqualTo(1_000L);
+        assertThat(analytics.getInjectionRate()).isEqualTo(0.25);
+        assertThat(analytics.getTimeSeries())
+                .extracting(ChaosAnalyticsResponse.TimeSeriesPoint::getHour,
+                        ChaosAnalyticsResponse.TimeSeriesPoint::getTotal,
+                        ChaosAnalyticsResponse.TimeSeriesPoint::getInjected)
+                .containsExactly(tuple("9", 40L, 0L), tuple("10", 17L, 12L));
+    }
+
+    @Test
+    void getAnalytics_sketchAvailable_skipsGroupByQueries() {
+        when(eventSketchStore.summarize(eq(1L), any(), any(), anyInt())).thenReturn(Optional.of(
+                new EventSketchStore.Summary(
+                        List.of(new SpaceSavingSketch.Estimate("/api/v1/users", 42L, 3L)),
+                        Map.of(ChaosType.LATENCY, 42L), 42L, 3L, Instant.now())));
+
+        ChaosAnalyticsResponse analytics = service.getAnalytics(testOrg, "1h", false);
+
+        assertThat(analytics.getBreakdownApproximate()).isTrue();
+        assertThat(analytics.getTopTargetsMaxError()).isEqualTo(3L);
+        assertThat(analytics.getTopTargets().get(0).getMaxOvercount()).isEqualTo(3L);
+        assertThat(analytics.getTypeBreakdown()).containsEntry(ChaosType.LATENCY, 42L);
+        verify(eventRepository, never()).findTopTargets(any(), any(), any(), any());
+        verify(eventRepository, never()).findTypeBreakdown(any(), any(), any());
+    }
+
+    @Test
+    void getAnalytics_exact_bypassesSketch() {
+        service.getAnalytics(testOrg, "1h", true);
+
+        verifyNoInteractions(eventSketchStore);
+        verify(eventRepository).findTopTargets(eq(testOrg), any(), any(), any());
+    }
+
+    // ── Export ───────────────────────────────────────────────────────────────
+
+    @Test
+    void exportEvents_ndjson_writesOneObjectPerLine() throws Exception {
+        streamRows(event(1L, "/api/v1/users"), event(2L, "/api/v1/orders"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportEvents(testOrg, null, null, null, null, ChaosEventService.ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[1]).get("target").asText()).isEqualTo("/api/v1/orders");
+        assertThat(objectMapper.readTree(lines[0]).get("occurredAt").asText()).isEqualTo("2026-01-01T00:00:00Z");
+    }
+
+    @Test
+    void exportEvents_csv_writesHeaderAndQuotesWhenNeeded() throws Exception {
+        streamRows(event(1L, "/search?q=a,b"), event(2L, "/plain"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportEvents(testOrg, null, null, null, true, ChaosEventService.ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo(ChaosEventService.CSV_HEADER);
+        assertThat(lines[1]).startsWith("1,1,,\"/search?q=a,b\",req-1,ERROR_5XX,true,500,");
+        assertThat(lines[2]).contains(",/plain,");
+    }
+
+    @Test
+    void toCsvLine_escapesEmbeddedQuotes() {
+        ChaosEventResponse e = event(3L, "/say \"hi\"");
+
+        assertThat(ChaosEventService.toCsvLine(e)).contains(",\"/say \"\"hi\"\"\",");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamRows(ChaosEventResponse... rows) {
+        doAnswer(inv -> {
+            Consumer<ChaosEventResponse> sink = inv.getArgument(1);
+            for (ChaosEventResponse row : rows) sink.accept(row);
+            return null;
+        }).when(eventJdbcRepository).streamEvents(any(), any(Consumer.class));
+    }
+
+    private static ChaosEventResponse event(long id, String target) {
+        return ChaosEventResponse.builder()
+                .id(id).organizationId(1L).target(target).requestId("req-" + id)
+                .chaosType(ChaosType.ERROR_5XX).injected(true).httpStatus(500)
+                .delayMs(0).failureRate(0.5).blastRadius(1.0)
+                .occurredAt(Instant.parse("2026-01-01T00:00:00Z"))
+                .build();
+    }
+
+    private static List<ChaosEventResponse> events(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> ChaosEventResponse.builder().id(id).build())
+                .toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.adit.mockDemo.service;
+
+import com.adit.mockDemo.chaos.execution.TargetMatcher;
+import com.adit.mockDemo.chaos.execution.TargetingMode;
+import com.adit.mockDemo.chaos.runtime.TenantCacheKeys;
+import com.adit.mockDemo.dto.ChaosRuleBulkResponse;
+import com.adit.mockDemo.dto.ChaosRuleRequest;
+import com.adit.mockDemo.entity.ChaosRuleEntity;
+import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.repository.ChaosRuleJdbcRepository;
+import com.adit.mockDemo.repository.ChaosRuleRepository;
+import com.adit.mockDemo.security.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bulk import against a real persistence context. The JDBC batch bumps
+ * version behind Hibernate's back, so any managed rule the import dirties
+ * would fail its optimistic-lock check on the next flush — something the
+ * mock-only ChaosRuleServiceTest cannot see.
+ *
+ * Flyway is off because the migrations use PostgreSQL-only DDL; the schema
+ * comes from the entities instead.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(ChaosRuleJdbcRepository.class)
+class ChaosRuleServiceJpaTest {
+
+    @Autowired private TestEntityManager       entityManager;
+    @Autowired private ChaosRuleRepository     chaosRuleRepository;
+    @Autowired private ChaosRuleJdbcRepository chaosRuleJdbcRepository;
+
+    private ChaosRuleService service;
+    private Organization     org;
+    private Long             existingId;
+
+    @BeforeEach
+    void setUp() {
+        service = new ChaosRuleService(chaosRuleRepository, mock(TenantContext.class), mock(TargetMatcher.class),
+                chaosRuleJdbcRepository, new ObjectMapper(), mock(TenantCacheKeys.class));
+
+        org = entityManager.persist(Organization.builder()
+                .name("Bulk Org").slug("bulk-org").apiKey("bulk-key-hash").maxRules(10)
+                .build());
+        existingId = entityManager.persistAndFlush(ChaosRuleEntity.builder()
+                .organization(org).target("/api/v1/users")
+                .targetingMode(TargetingMode.EXACT)
+                .failureRate(0.1).maxDelayMs(0L).enabled(true)
+                .build()).getId();
+    }
+
+    @Test
+    void bulkUpsertRules_updatesExistingRuleAndFlushesCleanly() {
+        ChaosRuleBulkResponse result = service.bulkUpsertRules(org, List.of(
+                ChaosRuleRequest.builder().target("/api/v1/users")
+                        .failureRate(0.5).maxDelayMs(0L).enabled(true).build(),
+                ChaosRuleRequest.builder().target("/api/v1/orders")
+                        .failureRate(0.2).maxDelayMs(0L).enabled(true).build()), false);
+
+        // Stands in for the commit-time flush
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(result.getApplied()).isTrue();
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getCreated()).isEqualTo(1);
+
+        ChaosRuleEntity updated = entityManager.find(ChaosRuleEntity.class, existingId);
+        assertThat(updated.getFailureRate()).isEqualTo(0.5);
+        assertThat(updated.getVersion()).isEqualTo(1L);
+        assertThat(chaosRuleRepository.findByOrganization(org)).hasSize(2);
+    }
+}
@@ -1,13 +1,17 @@
 package com.adit.mockDemo.service;
 
+import com.adit.mockDemo.chaos.execution.LatencyModel;
 import com.adit.mockDemo.chaos.execution.TargetMatcher;
 import com.adit.mockDemo.chaos.execution.TargetingMode;
+import com.adit.mockDemo.chaos.runtime.TenantCacheKeys;
+import com.adit.mockDemo.dto.ChaosRuleBulkResponse;
 import com.adit.mockDemo.dto.ChaosRuleRequest;
 import com.adit.mockDemo.dto.ChaosRuleResponse;
 import com.adit.mockDemo.entity.ChaosRuleEntity;
 import com.adit.mockDemo.entity.Organization;
 import com.adit.mockDemo.exception.ResourceNotFoundException;
 import com.adit.mockDemo.exception.ValidationException;
+import com.adit.mockDemo.repository.ChaosRuleJdbcRepository;
 import com.adit.mockDemo.repository.ChaosRuleRepository;
 import com.adit.mockDemo.security.TenantContext;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +28,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +38,8 @@ class ChaosRuleServiceTest {
     @Mock private ChaosRuleRepository chaosRuleRepository;
     @Mock private TenantContext        tenantContext;
     @Mock private TargetMatcher        targetMatcher;
+    @Mock private ChaosRuleJdbcRepository chaosRuleJdbcRepository;
+    @Mock private TenantCacheKeys      tenantCacheKeys;
 
     @InjectMocks
     private ChaosRuleService service;
@@ -134,6 +142,7 @@ class ChaosRuleServiceTest {
 
         assertThat(result).isNotNull();
         verify(chaosRuleRepository).save(any());
+        verify(tenantCacheKeys).invalidate(1L);
     }
 
     @Test
@@ -183,6 +192,44 @@ class ChaosRuleServiceTest {
                 .hasMessageContaining("Failure rate");
     }
 
+    @Test
+    void createRule_invalidLatencyParams_throwsValidationException() {
+        when(chaosRuleRepository.countByOrganization(testOrg)).thenReturn(0L);
+        when(chaosRuleRepository.findByOrganizationAndTarget(any(), any()))
+                .thenReturn(Optional.empty());
+
+        ChaosRuleRequest request = ChaosRuleRequest.builder()
+                .target("/api/v1/new")
+                .failureRate(0.1)
+                .maxDelayMs(5000L).enabled(true).blastRadius(1.0)
+                .latencyModel(LatencyModel.LOGNORMAL)
+                .latencyParams("median=120")   // sigma missing
+                .build();
+
+        assertThatThrownBy(() -> service.createRule(testOrg, request))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("LOGNORMAL")
+                .hasMessageContaining("sigma");
+    }
+
+    @Test
+    void createRule_latencyInFaultMixWithoutDelay_throwsValidationException() {
+        when(chaosRuleRepository.countByOrganization(testOrg)).thenReturn(0L);
+        when(chaosRuleRepository.findByOrganizationAndTarget(any(), any()))
+                .thenReturn(Optional.empty());
+
+        ChaosRuleRequest request = ChaosRuleRequest.builder()
+                .target("/api/v1/new")
+                .failureRate(0.1)
+                .maxDelayMs(0L).enabled(true).blastRadius(1.0)
+                .faultMix("LATENCY=70,ERROR_5XX:503=30")
+                .build();
+
+        assertThatThrownBy(() -> service.createRule(testOrg, request))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("maxDelayMs");
+    }
+
     @Test
     void deleteRule_default_throwsValidationException() {
         ChaosRuleEntity defaultRule = ChaosRuleEntity.builder()
@@ -209,6 +256,87 @@ class ChaosRuleServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    // ── BULK ──────────────────────────────────────────────────────────────────
+
+    @Test
+    void bulkUpsertRules_mixedBatch_insertsAndUpdatesInOnePass() {
+        when(chaosRuleRepository.findByOrganization(testOrg)).thenReturn(List.of(testEntity));
+        when(chaosRuleRepository.findIdsByOrganizationAndTargetIn(testOrg, List.of("/api/v1/orders")))
+                .thenReturn(List.<Object[]>of(new Object[]{"/api/v1/orders", 7L}));
+
+        List<ChaosRuleRequest> batch = List.of(
+                ChaosRuleRequest.builder().target("/api/v1/users")
+                        .failureRate(0.5).maxDelayMs(0L).enabled(true).build(),
+                ChaosRuleRequest.builder().target("/api/v1/orders")
+                        .failureRate(0.1).maxDelayMs(0L).enabled(true).build());
+
+        ChaosRuleBulkResponse result = service.bulkUpsertRules(testOrg, batch, false);
+
+        assertThat(result.getApplied()).isTrue();
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getResults().get(0).getId()).isEqualTo(1L);
+        assertThat(result.getResults().get(1).getId()).isEqualTo(7L);
+        verify(chaosRuleJdbcRepository).batchUpdate(eq(1L), argThat(l -> l.size() == 1));
+        verify(chaosRuleJdbcRepository).batchInsert(eq(1L), argThat(l -> l.size() == 1));
+        verify(chaosRuleRepository, never()).countByOrganization(any());
+        verify(tenantCacheKeys, times(1)).invalidate(1L);
+    }
+
+    @Test
+    void bulkUpsertRules_anyInvalidItem_writesNothing() {
+        when(chaosRuleRepository.findByOrganization(testOrg)).thenReturn(List.of());
+
+        List<ChaosRuleRequest> batch = List.of(
+                ChaosRuleRequest.builder().target("/a")
+                        .failureRate(0.1).maxDelayMs(0L).enabled(true).build(),
+                ChaosRuleRequest.builder().target("/b")
+                        .failureRate(1.5).maxDelayMs(0L).enabled(true).build(),
+                ChaosRuleRequest.builder().target("/a")
+                        .failureRate(0.2).maxDelayMs(0L).enabled(true).build());
+
+        ChaosRuleBulkResponse result = service.bulkUpsertRules(testOrg, batch, false);
+
+        assertThat(result.getApplied()).isFalse();
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults().get(1).getError()).contains("Failure rate");
+        assertThat(result.getResults().get(2).getError()).contains("Duplicate target");
+        verifyNoInteractions(chaosRuleJdbcRepository);
+    }
+
+    @Test
+    void bulkUpsertRules_overPlanLimit_failsNewRulesOnly() {
+        testOrg.setMaxRules(1);
+        when(chaosRuleRepository.findByOrganization(testOrg)).thenReturn(List.of(testEntity));
+
+        List<ChaosRuleRequest> batch = List.of(
+                ChaosRuleRequest.builder().target("/api/v1/users")
+                        .failureRate(0.5).maxDelayMs(0L).enabled(true).build(),
+                ChaosRuleRequest.builder().target("/api/v1/new")
+                        .failureRate(0.1).maxDelayMs(0L).enabled(true).build());
+
+        ChaosRuleBulkResponse result = service.bulkUpsertRules(testOrg, batch, false);
+
+        assertThat(result.getApplied()).isFalse();
+        assertThat(result.getResults().get(0).getStatus()).isEqualTo(ChaosRuleBulkResponse.ItemStatus.UPDATED);
+        assertThat(result.getResults().get(1).getError()).contains("Rule limit reached");
+        verifyNoInteractions(chaosRuleJdbcRepository);
+    }
+
+    @Test
+    void bulkUpsertRules_dryRun_plansWithoutWriting() {
+        when(chaosRuleRepository.findByOrganization(testOrg)).thenReturn(List.of());
+
+        ChaosRuleBulkResponse result = service.bulkUpsertRules(testOrg, List.of(
+                ChaosRuleRequest.builder().target("/a")
+                        .failureRate(0.1).maxDelayMs(0L).enabled(true).build()), true);
+
+        assertThat(result.getApplied()).isFalse();
+        assertThat(result.getDryRun()).isTrue();
+        assertThat(result.getCreated()).isEqualTo(1);
+        verifyNoInteractions(chaosRuleJdbcRepository, tenantCacheKeys);
+    }
+
     // ── CHAOS ENGINE ──────────────────────────────────────────────────────────
 
     @Test
@@ -223,6 +351,30 @@ class ChaosRuleServiceTest {
         assertThat(rule.getEnabled()).isTrue();
     }
 
+    @Test
+    void getRuleForChaosEngine_compilesLatencyModel() {
+        testEntity.setMaxDelayMs(2000L);
+        testEntity.setLatencyModel(LatencyModel.FIXED);
+        testEntity.setLatencyParams("value=750");
+        when(chaosRuleRepository.findByOrganizationAndTarget(testOrg, "/api/v1/users"))
+                .thenReturn(Optional.of(testEntity));
+
+        var rule = service.getRuleForChaosEngine(testOrg, "/api/v1/users");
+
+        assertThat(rule.getLatencySampler()).isNotNull();
+        assertThat(rule.getLatencySampler().sample(0.99)).isEqualTo(750);
+    }
+
+    @Test
+    void getRuleForChaosEngine_defaultUniform_keepsLegacySampling() {
+        when(chaosRuleRepository.findByOrganizationAndTarget(testOrg, "/api/v1/users"))
+                .thenReturn(Optional.of(testEntity));
+
+        var rule = service.getRuleForChaosEngine(testOrg, "/api/v1/users");
+
+        assertThat(rule.getLatencySampler()).isNull();
+    }
+
     @Test
     void getRuleForChaosEngine_noMatch_returnsSafeNoOp() {
         when(chaosRuleRepository.findByOrganizationAndTarget(testOrg, "/api/v1/unknown"))
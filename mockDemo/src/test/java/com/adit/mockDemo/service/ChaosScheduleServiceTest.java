@@ -0,0 +1,68 @@
+package com.adit.mockDemo.service;
+
+import com.adit.mockDemo.chaos.runtime.TenantCacheKeys;
+import com.adit.mockDemo.dto.ChaosScheduleRequest;
+import com.adit.mockDemo.entity.ChaosRuleEntity;
+import com.adit.mockDemo.entity.ChaosSchedule;
+import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.repository.ChaosRuleRepository;
+import com.adit.mockDemo.repository.ChaosScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChaosScheduleServiceTest {
+
+    @Mock private ChaosScheduleRepository scheduleRepository;
+    @Mock private ChaosRuleRepository     ruleRepository;
+    @Mock private TenantCacheKeys         tenantCacheKeys;
+
+    @InjectMocks
+    private ChaosScheduleService service;
+
+    private Organization    org;
+    private ChaosRuleEntity rule;
+    private ChaosSchedule   schedule;
+
+    @BeforeEach
+    void setUp() {
+        org      = Organization.builder().id(7L).slug("acme").build();
+        rule     = ChaosRuleEntity.builder().id(42L).organization(org).target("/v1/charges").build();
+        schedule = ChaosSchedule.builder().id(5L).chaosRule(rule).organization(org)
+                .name("business hours").enabled(true).daysOfWeek("1,2,3,4,5")
+                .startTime("09:00").endTime("17:00").build();
+        when(ruleRepository.findByOrganizationAndId(org, 42L)).thenReturn(Optional.of(rule));
+    }
+
+    @Test
+    void createAndUpdate_invalidateTheTenantsCachedSchedules() {
+        when(scheduleRepository.save(any())).thenReturn(schedule);
+        when(scheduleRepository.findById(5L)).thenReturn(Optional.of(schedule));
+        ChaosScheduleRequest request = ChaosScheduleRequest.builder()
+                .name("business hours").startTime("09:00").endTime("17:00").build();
+
+        service.createSchedule(org, 42L, request);
+        service.updateSchedule(org, 42L, 5L, request);
+
+        verify(tenantCacheKeys, times(2)).invalidate(7L);
+    }
+
+    @Test
+    void delete_invalidatesTheTenantsCachedSchedules() {
+        when(scheduleRepository.findById(5L)).thenReturn(Optional.of(schedule));
+
+        service.deleteSchedule(org, 42L, 5L);
+
+        verify(scheduleRepository).delete(schedule);
+        verify(tenantCacheKeys).invalidate(7L);
+    }
+}
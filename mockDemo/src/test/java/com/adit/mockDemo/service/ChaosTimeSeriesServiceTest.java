@@ -0,0 +1,111 @@
+package com.adit.mockDemo.service;
+
+import com.adit.mockDemo.dto.ChaosTimeSeriesResponse;
+import com.adit.mockDemo.entity.Organization;
+import com.adit.mockDemo.exception.ValidationException;
+import com.adit.mockDemo.repository.ChaosTimeStatsJdbcRepository;
+import com.adit.mockDemo.repository.ChaosTimeStatsJdbcRepository.TimeStat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChaosTimeSeriesServiceTest {
+
+    @Mock private ChaosTimeStatsJdbcRepository timeStatsRepository;
+
+    @InjectMocks
+    private ChaosTimeSeriesService service;
+
+    private Organization testOrg;
+
+    @BeforeEach
+    void setUp() {
+        testOrg = Organization.builder()
+                .id(1L).name("Test").slug("test")
+                .apiKey("hash").plan("free").maxRules(10).enabled(true)
+                .build();
+    }
+
+    @Test
+    void chooseWidth_followsWindowLength() {
+        Instant now = Instant.parse("2026-03-01T12:00:00Z");
+
+        assertThat(ChaosTimeSeriesService.chooseWidth(now.minus(Duration.ofHours(1)), now, now))
+                .isEqualTo(ChaosTimeSeriesService.Width.MINUTE);
+        assertThat(ChaosTimeSeriesService.chooseWidth(now.minus(Duration.ofHours(24)), now, now))
+                .isEqualTo(ChaosTimeSeriesService.Width.FIVE_MINUTES);
+        assertThat(ChaosTimeSeriesService.chooseWidth(now.minus(Duration.ofDays(7)), now, now))
+                .isEqualTo(ChaosTimeSeriesService.Width.HOUR);
+        assertThat(ChaosTimeSeriesService.chooseWidth(now.minus(Duration.ofDays(30)), now, now))
+                .isEqualTo(ChaosTimeSeriesService.Width.DAY);
+    }
+
+    @Test
+    void chooseWidth_shortWindowPastMinuteRetention_usesHours() {
+        Instant now  = Instant.parse("2026-03-01T12:00:00Z");
+        Instant from = now.minus(Duration.ofDays(5));
+
+        assertThat(ChaosTimeSeriesService.chooseWidth(from, from.plus(Duration.ofHours(1)), now))
+                .isEqualTo(ChaosTimeSeriesService.Width.HOUR);
+    }
+
+    @Test
+    void getTimeSeries_sevenDays_keepsEachDaySeparateAndFillsGaps() {
+        Instant to   = Instant.parse("2026-03-08T00:00:00Z");
+        Instant from = to.minus(Duration.ofDays(7));
+        when(timeStatsRepository.findRange(eq(1L), eq(ChaosTimeStatsJdbcRepository.HOUR), any(), any()))
+                .thenReturn(List.of(
+                        stat("2026-03-01T10:00:00Z", 5, 20),
+                        stat("2026-03-02T10:00:00Z", 7, 0)));
+
+        ChaosTimeSeriesResponse response = service.getTimeSeries(testOrg, null, from, to, 2_000,
+                ChaosTimeSeriesService.Mode.NONE);
+
+        assertThat(response.getBucketWidth()).isEqualTo("1h");
+        assertThat(response.getPoints()).hasSize(7 * 24 + 1);
+        assertThat(response.getPoints().get(10).getTotal()).isEqualTo(25);
+        assertThat(response.getPoints().get(34).getInjected()).isEqualTo(7);   // same hour, next day — not folded together
+        assertThat(response.getPoints().get(11).getTotal()).isZero();
+    }
+
+    @Test
+    void getTimeSeries_avgDownsampling_reportsWiderBuckets() {
+        Instant to   = Instant.parse("2026-03-08T00:00:00Z");
+        Instant from = to.minus(Duration.ofDays(7));
+        when(timeStatsRepository.findRange(eq(1L), eq(ChaosTimeStatsJdbcRepository.HOUR), any(), any()))
+                .thenReturn(List.of());
+
+        ChaosTimeSeriesResponse response = service.getTimeSeries(testOrg, null, from, to, 50,
+                ChaosTimeSeriesService.Mode.AVG);
+
+        assertThat(response.getSourceBuckets()).isEqualTo(169);
+        assertThat(response.getPoints()).hasSizeLessThanOrEqualTo(50);
+        assertThat(response.getBucketWidth()).isEqualTo("4h");
+        assertThat(response.getDownsampling()).isEqualTo("avg");
+    }
+
+    @Test
+    void parseWindow_rejectsGarbage() {
+        assertThat(ChaosTimeSeriesService.parseWindow("90m")).isEqualTo(Duration.ofMinutes(90));
+        assertThatThrownBy(() -> ChaosTimeSeriesService.parseWindow("1w")).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> ChaosTimeSeriesService.parseWindow("0h")).isInstanceOf(ValidationException.class);
+    }
+
+    private static TimeStat stat(String hour, long injected, long skipped) {
+        return new TimeStat(1L, ChaosTimeStatsJdbcRepository.HOUR, Instant.parse(hour), injected, skipped, 0, 0);
+    }
+}